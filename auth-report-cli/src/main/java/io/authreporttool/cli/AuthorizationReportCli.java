@@ -4,9 +4,14 @@ import io.authreporttool.core.AuthorizationReport;
 import io.authreporttool.core.AuthorizationScanner;
 import io.authreporttool.core.ReflectionUtils;
 import io.authreporttool.core.ReportGenerator;
+import io.authreporttool.core.ScanCache;
+import io.authreporttool.core.ScanMode;
+import io.authreporttool.core.ScanSession;
 import io.authreporttool.core.SecurityConfigAnalyzer;
 
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * AuthorizationReportCli is the main entry point for the Authorization Report Command Line Interface tool.
@@ -27,6 +32,18 @@ public class AuthorizationReportCli {
         CommandLineOptions options = new CommandLineOptions(args);
 
         try {
+            // Keep re-reporting on class-file changes if watch mode is requested
+            if (options.isWatch()) {
+                runWatchMode(options);
+                return;
+            }
+
+            // Scan a whole directory of service jars if fleet mode is requested
+            if (options.getFleetDirectory() != null) {
+                new FleetMode(openScanCache(options), options).run();
+                return;
+            }
+
             // Generate the authorization report
             AuthorizationReport report = getAuthorizationReport(options);
 
@@ -45,20 +62,59 @@ public class AuthorizationReportCli {
      *
      * @param options The parsed command line options.
      * @return An AuthorizationReport containing the analysis results.
+     * @throws IOException If the scan cache directory cannot be created.
      */
-    private static AuthorizationReport getAuthorizationReport(CommandLineOptions options) {
+    private static AuthorizationReport getAuthorizationReport(CommandLineOptions options) throws IOException {
+        // Open the persistent scan cache, if requested
+        ScanCache scanCache = openScanCache(options);
+
         // Initialize utility classes
         ReflectionUtils reflectionUtils = new ReflectionUtils();
-        SecurityConfigAnalyzer securityConfigAnalyzer = new SecurityConfigAnalyzer();
+        SecurityConfigAnalyzer securityConfigAnalyzer = new SecurityConfigAnalyzer(scanCache);
 
         // Create and configure the authorization scanner
-        AuthorizationScanner scanner = new AuthorizationScanner(reflectionUtils, securityConfigAnalyzer);
+        ScanMode scanMode = ScanMode.REFLECTION;
+        if (options.isBytecodeOnly()) {
+            scanMode = ScanMode.BYTECODE;
+        } else if (options.isManifest()) {
+            scanMode = ScanMode.MANIFEST;
+        }
+        ForkJoinPool scanPool = new ForkJoinPool(options.getThreads());
+        try {
+            AuthorizationScanner scanner = new AuthorizationScanner(reflectionUtils, securityConfigAnalyzer, scanMode, scanPool, scanCache);
+
+            // Create the report generator
+            ReportGenerator generator = new ReportGenerator(scanner);
+
+            // Generate and return the authorization report
+            return generator.generateReport(options.getBasePackages());
+        } finally {
+            scanPool.shutdown();
+        }
+    }
 
-        // Create the report generator
-        ReportGenerator generator = new ReportGenerator(scanner);
+    /**
+     * Prints the report, then keeps watching the compiled output directories and re-prints
+     * the report whenever class files change.
+     *
+     * @param options The parsed command line options.
+     * @throws IOException If the directories cannot be watched or the report cannot be printed.
+     */
+    private static void runWatchMode(CommandLineOptions options) throws IOException {
+        ScanSession session = new ReflectionUtils().openSession(options.getBasePackages());
+        ScanCache scanCache = openScanCache(options);
+        new WatchMode(session, scanCache, new SecurityConfigAnalyzer(scanCache), options).run();
+    }
 
-        // Generate and return the authorization report
-        return generator.generateReport(options.getBasePackage());
+    /**
+     * Opens the persistent scan cache selected by the command line options.
+     *
+     * @param options The parsed command line options.
+     * @return The scan cache, or null if caching is disabled.
+     * @throws IOException If the cache directory cannot be created.
+     */
+    private static ScanCache openScanCache(CommandLineOptions options) throws IOException {
+        return options.getCacheDir() != null ? new ScanCache(Paths.get(options.getCacheDir())) : null;
     }
 
     /**
@@ -2,16 +2,26 @@ package io.authreporttool.cli;
 
 import org.apache.commons.cli.*;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * CommandLineOptions handles the parsing and storage of command-line options
  * for the Authorization Report CLI tool. It uses Apache Commons CLI for
  * robust command-line argument parsing.
  */
 public class CommandLineOptions {
-    private String basePackage;
+    private List<String> basePackages;
     private String outputFormat;
     private String outputFile;
     private boolean verbose;
+    private boolean bytecodeOnly;
+    private boolean manifest;
+    private int threads;
+    private String cacheDir;
+    private boolean watch;
+    private String fleetDirectory;
 
     /**
      * Constructs a CommandLineOptions object by parsing the provided command-line arguments.
@@ -23,10 +33,18 @@ public class CommandLineOptions {
     public CommandLineOptions(String[] args) {
         // Define the command-line options
         Options options = new Options();
-        options.addOption("p", "package", true, "Base package to scan (required)");
+        options.addOption("p", "package", true, "Base package(s) to scan, comma-separated (required)");
         options.addOption("f", "format", true, "Output format (text/json, default: text)");
         options.addOption("o", "output", true, "Output file path (optional, default: console)");
         options.addOption("v", "verbose", false, "Enable verbose output");
+        options.addOption("b", "bytecode", false, "Read controllers from class-file bytes without loading them");
+        options.addOption("m", "manifest", false, "Read controllers from the compile-time endpoint manifest instead of scanning");
+        options.addOption("t", "threads", true, "Number of threads used to scan controllers (default: available processors)");
+        options.addOption("c", "cache-dir", true, "Directory for the persistent scan cache (optional, default: no cache)");
+        options.addOption("w", "watch", false, "Keep running and re-report whenever compiled classes change");
+        options.addOption(Option.builder().longOpt("fleet").hasArg().argName("dir")
+                .desc("Scan every service jar in the directory; -o names the output directory (default: " + FleetMode.DEFAULT_OUTPUT_DIRECTORY + ")")
+                .build());
         options.addOption("h", "help", false, "Display help information");
 
         CommandLineParser parser = new DefaultParser();
@@ -40,15 +58,29 @@ public class CommandLineOptions {
             }
 
             // Parse and store the option values
-            basePackage = cmd.getOptionValue("p");
+            basePackages = parseBasePackages(cmd.getOptionValue("p"));
             outputFormat = cmd.getOptionValue("f", "text");
             outputFile = cmd.getOptionValue("o");
             verbose = cmd.hasOption("v");
+            bytecodeOnly = cmd.hasOption("b");
+            manifest = cmd.hasOption("m");
+            threads = parseThreads(cmd.getOptionValue("t"));
+            cacheDir = cmd.getOptionValue("c");
+            watch = cmd.hasOption("w");
+            fleetDirectory = cmd.getOptionValue("fleet");
 
-            // Validate required options
-            if (basePackage == null) {
+            // Validate required options; a fleet scan covers every package of each jar by default
+            if (basePackages.isEmpty() && fleetDirectory != null) {
+                basePackages = List.of("");
+            } else if (basePackages.isEmpty()) {
                 throw new ParseException("Base package is required. Use -p or --package option.");
             }
+            if (fleetDirectory != null && watch) {
+                throw new ParseException("Fleet mode cannot be combined with watch mode.");
+            }
+            if (manifest && (bytecodeOnly || watch || fleetDirectory != null)) {
+                throw new ParseException("Manifest mode cannot be combined with bytecode, watch or fleet mode.");
+            }
         } catch (ParseException e) {
             System.err.println("Error parsing command line options: " + e.getMessage());
             printHelp(options);
@@ -56,6 +88,45 @@ public class CommandLineOptions {
         }
     }
 
+    /**
+     * Parses the comma-separated package option.
+     *
+     * @param value The raw option value, or null if the option was not given.
+     * @return The trimmed, non-empty package names in the order given.
+     */
+    private List<String> parseBasePackages(String value) {
+        if (value == null) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(basePackage -> !basePackage.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Parses the thread count option.
+     *
+     * @param value The raw option value, or null if the option was not given.
+     * @return The number of threads, defaulting to the number of available processors.
+     * @throws ParseException If the value is not a positive integer.
+     */
+    private int parseThreads(String value) throws ParseException {
+        if (value == null) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through to the error below
+        }
+        throw new ParseException("Thread count must be a positive integer: " + value);
+    }
+
     /**
      * Prints help information for the CLI tool.
      * This method uses Apache Commons CLI's HelpFormatter to generate
@@ -69,12 +140,12 @@ public class CommandLineOptions {
     }
 
     /**
-     * Gets the base package to scan for authorization configurations.
+     * Gets the base packages to scan for authorization configurations.
      *
-     * @return The base package specified by the user.
+     * @return The base packages specified by the user, scanned together into one report.
      */
-    public String getBasePackage() {
-        return basePackage;
+    public List<String> getBasePackages() {
+        return basePackages;
     }
 
     /**
@@ -103,4 +174,58 @@ public class CommandLineOptions {
     public boolean isVerbose() {
         return verbose;
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks if bytecode-only scanning is enabled.
+     *
+     * @return true if controllers should be read from class-file bytes without loading them, false otherwise.
+     */
+    public boolean isBytecodeOnly() {
+        return bytecodeOnly;
+    }
+
+    /**
+     * Checks if the compile-time endpoint manifest should be read instead of scanning.
+     *
+     * @return true if controllers should be read from the endpoint manifest, false otherwise.
+     */
+    public boolean isManifest() {
+        return manifest;
+    }
+
+    /**
+     * Gets the number of threads used to scan controllers.
+     *
+     * @return The thread count specified by the user, or the number of available processors if not specified.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Gets the directory of the persistent scan cache.
+     *
+     * @return The cache directory specified by the user, or null if caching is disabled.
+     */
+    public String getCacheDir() {
+        return cacheDir;
+    }
+
+    /**
+     * Checks if watch mode is enabled.
+     *
+     * @return true if the tool should keep re-reporting on class-file changes, false otherwise.
+     */
+    public boolean isWatch() {
+        return watch;
+    }
+
+    /**
+     * Gets the directory of service jars to scan in fleet mode.
+     *
+     * @return The fleet directory specified by the user, or null if fleet mode is disabled.
+     */
+    public String getFleetDirectory() {
+        return fleetDirectory;
+    }
+}
@@ -0,0 +1,224 @@
+package io.authreporttool.cli;
+
+import io.authreporttool.core.AuthorizationGroup;
+import io.authreporttool.core.AuthorizationReport;
+import io.authreporttool.core.AuthorizationScanner;
+import io.authreporttool.core.EndpointAuthInfo;
+import io.authreporttool.core.ReflectionUtils;
+import io.authreporttool.core.ReportGenerator;
+import io.authreporttool.core.ScanCache;
+import io.authreporttool.core.ScanMode;
+import io.authreporttool.core.ScanSession;
+import io.authreporttool.core.SecurityConfigAnalyzer;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * FleetMode scans every service jar in a directory within a single JVM and writes one report
+ * per service plus an aggregate summary of the whole fleet.
+ *
+ * Each jar is scanned in bytecode-only mode, so no service class is ever loaded, and security
+ * configuration and filter class files are read through a class loader that sees only that jar.
+ * Services therefore cannot interfere with each other or with the tool itself. At most
+ * {@link CommandLineOptions#getThreads()} jars are scanned at the same time, which bounds the
+ * memory held by in-flight scans. Each service report is written out as soon as it is ready,
+ * and only its endpoint counts are kept for the summary.
+ */
+public class FleetMode {
+
+    // Output directory used when no -o option is given
+    static final String DEFAULT_OUTPUT_DIRECTORY = "auth-report-fleet";
+
+    private static final String SUMMARY_NAME = "fleet-summary";
+
+    // Application classes of a Spring Boot executable jar
+    private static final String BOOT_INF_CLASSES = "BOOT-INF/classes/";
+
+    private final Path fleetDirectory;
+    private final Path outputDirectory;
+    private final ScanCache scanCache;
+    private final CommandLineOptions options;
+
+    /**
+     * Constructs a FleetMode for the jar directory selected by the command line options.
+     *
+     * @param scanCache The persistent scan cache shared by all services, or null to disable caching.
+     * @param options The parsed command line options.
+     */
+    public FleetMode(ScanCache scanCache, CommandLineOptions options) {
+        this.fleetDirectory = Paths.get(options.getFleetDirectory());
+        this.outputDirectory = Paths.get(options.getOutputFile() != null ? options.getOutputFile() : DEFAULT_OUTPUT_DIRECTORY);
+        this.scanCache = scanCache;
+        this.options = options;
+    }
+
+    /**
+     * Scans every jar of the fleet directory and writes the per-service reports and the summary.
+     *
+     * @throws IOException If the fleet directory cannot be listed or the summary cannot be written.
+     */
+    public void run() throws IOException {
+        List<Path> jars;
+        try (Stream<Path> paths = Files.list(fleetDirectory)) {
+            jars = paths
+                    .filter(path -> path.getFileName().toString().endsWith(".jar") && Files.isRegularFile(path))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        if (jars.isEmpty()) {
+            System.err.println("No jars found in fleet directory: " + fleetDirectory);
+            return;
+        }
+        Files.createDirectories(outputDirectory);
+        System.err.println("Scanning " + jars.size() + " services with " + options.getThreads() + " threads");
+
+        // A fixed pool bounds how many services are scanned concurrently
+        ExecutorService fleetPool = Executors.newFixedThreadPool(options.getThreads());
+        List<ServiceResult> results = new ArrayList<>();
+        try {
+            List<CompletableFuture<ServiceResult>> serviceScans = jars.stream()
+                    .map(jar -> CompletableFuture.supplyAsync(() -> scanService(jar), fleetPool))
+                    .collect(Collectors.toList());
+            for (CompletableFuture<ServiceResult> serviceScan : serviceScans) {
+                results.add(serviceScan.join());
+            }
+        } finally {
+            fleetPool.shutdown();
+        }
+
+        Path summaryFile = outputDirectory.resolve(SUMMARY_NAME + extension());
+        ReportPrinter.printFleetSummary(results, options.getOutputFormat(), summaryFile.toString());
+    }
+
+    private ServiceResult scanService(Path jar) {
+        String service = serviceName(jar);
+        try {
+            URL jarUrl = jar.toUri().toURL();
+            List<URL> loaderUrls = new ArrayList<>(List.of(jarUrl));
+
+            // Opening the jar up front also makes a corrupt jar show up as a failed service rather than an empty one
+            try (JarFile jarFile = new JarFile(jar.toFile())) {
+                if (jarFile.getEntry(BOOT_INF_CLASSES) != null) {
+                    loaderUrls.add(new URL("jar:" + jarUrl + "!/" + BOOT_INF_CLASSES));
+                }
+            }
+
+            // The parentless loader only sees the service's own class files
+            try (URLClassLoader serviceLoader = new URLClassLoader(loaderUrls.toArray(new URL[0]), null)) {
+                SecurityConfigAnalyzer securityConfigAnalyzer = new SecurityConfigAnalyzer(scanCache, serviceLoader);
+                // Services are already scanned in parallel, so each one scans its own classes on the calling thread
+                AuthorizationScanner scanner = new AuthorizationScanner(new ReflectionUtils(), securityConfigAnalyzer,
+                        ScanMode.BYTECODE, Runnable::run, scanCache);
+
+                ScanSession session = ScanSession.open(options.getBasePackages(), List.of(jarUrl));
+                AuthorizationReport report = new ReportGenerator(scanner).generateReport(session);
+
+                Path reportFile = outputDirectory.resolve(service + extension());
+                ReportPrinter.printReport(report, options.getOutputFormat(), reportFile.toString());
+                return new ServiceResult(service, jar, reportFile, report, null);
+            }
+        } catch (Exception e) {
+            System.err.println("Error scanning service " + service + ": " + e.getMessage());
+            return new ServiceResult(service, jar, null, null, e.toString());
+        }
+    }
+
+    private String extension() {
+        return "json".equalsIgnoreCase(options.getOutputFormat()) ? ".json" : ".txt";
+    }
+
+    private static String serviceName(Path jar) {
+        String fileName = jar.getFileName().toString();
+        return fileName.substring(0, fileName.length() - ".jar".length());
+    }
+
+    /**
+     * The outcome of scanning a single service jar, as shown in the fleet summary.
+     */
+    public static class ServiceResult {
+        private final String service;
+        private final Path jar;
+        private final Path reportFile;
+        private final int totalEndpoints;
+        private final int unauthorizedEndpoints;
+        private final Map<String, Integer> endpointsByAuthExpression = new LinkedHashMap<>();
+        private final String error;
+
+        ServiceResult(String service, Path jar, Path reportFile, AuthorizationReport report, String error) {
+            this.service = service;
+            this.jar = jar;
+            this.reportFile = reportFile;
+            this.error = error;
+
+            int unauthorized = 0;
+            if (report != null) {
+                for (AuthorizationGroup group : report.getGroupedEndpoints()) {
+                    endpointsByAuthExpression.put(group.getAuthExpression(), group.getEndpointCount());
+                    for (EndpointAuthInfo info : group.getEndpoints()) {
+                        if ("None".equals(info.getAuthExpression()) && !info.isApiKeyRequired() && !info.isBasicAuthRequired()
+                                && (info.getUrlAuthorization() == null || "permitAll".equals(info.getUrlAuthorization()))) {
+                            unauthorized++;
+                        }
+                    }
+                }
+            }
+            this.totalEndpoints = (report != null) ? report.getTotalEndpoints() : 0;
+            this.unauthorizedEndpoints = unauthorized;
+        }
+
+        public String getService() {
+            return service;
+        }
+
+        public Path getJar() {
+            return jar;
+        }
+
+        /**
+         * @return The file the service report was written to, or null if the scan failed.
+         */
+        public Path getReportFile() {
+            return reportFile;
+        }
+
+        public int getTotalEndpoints() {
+            return totalEndpoints;
+        }
+
+        /**
+         * @return The number of endpoints without @PreAuthorize, API key or basic authentication.
+         */
+        public int getUnauthorizedEndpoints() {
+            return unauthorizedEndpoints;
+        }
+
+        /**
+         * @return The number of endpoints per authorization expression, in report order.
+         */
+        public Map<String, Integer> getEndpointsByAuthExpression() {
+            return endpointsByAuthExpression;
+        }
+
+        /**
+         * @return The error that stopped the scan, or null if the service was scanned.
+         */
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -9,8 +9,12 @@ import io.authreporttool.core.EndpointAuthInfo;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 /**
@@ -44,6 +48,58 @@ public class ReportPrinter {
         }
     }
 
+    /**
+     * Prints the aggregate summary of a fleet scan in the specified format to a file.
+     *
+     * @param results The outcome of every scanned service, in scan order
+     * @param format The output format ("json" for JSON, any other value for text)
+     * @param outputFile The file path to write the summary to
+     * @throws IOException If there's an error writing to the file
+     */
+    public static void printFleetSummary(List<FleetMode.ServiceResult> results, String format, String outputFile) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(outputFile))) {
+            JsonFleetSummary summary = new JsonFleetSummary(results);
+            if ("json".equalsIgnoreCase(format)) {
+                ObjectMapper mapper = new ObjectMapper();
+                mapper.enable(SerializationFeature.INDENT_OUTPUT);
+                mapper.writeValue(writer, summary);
+            } else {
+                printTextFleetSummary(summary, writer);
+            }
+        }
+        System.out.println("Fleet summary written to: " + outputFile);
+    }
+
+    /**
+     * Prints the fleet summary in a human-readable text format.
+     *
+     * @param summary The fleet summary to be printed
+     * @param writer The PrintWriter to write the summary to
+     */
+    private static void printTextFleetSummary(JsonFleetSummary summary, PrintWriter writer) {
+        writer.println("Fleet Authorization Summary");
+        writer.println("Generated at: " + summary.generatedAt);
+        writer.println("Services: " + summary.totalServices + " (" + summary.failedServices + " failed)");
+        writer.println("Total endpoints: " + summary.totalEndpoints);
+        writer.println("Endpoints without authorization: " + summary.unauthorizedEndpoints);
+        writer.println();
+
+        writer.println("Endpoints by Auth Expression:");
+        for (Map.Entry<String, Integer> entry : summary.endpointsByAuthExpression.entrySet()) {
+            writer.println("  " + entry.getKey() + ": " + entry.getValue());
+        }
+        writer.println();
+
+        for (JsonService service : summary.services) {
+            if (service.error != null) {
+                writer.println(service.service + ": FAILED (" + service.error + ")");
+            } else {
+                writer.println(service.service + ": " + service.totalEndpoints + " endpoints, "
+                        + service.unauthorizedEndpoints + " without authorization -> " + service.reportFile);
+            }
+        }
+    }
+
     /**
      * Prints the authorization report in a human-readable text format.
      *
@@ -62,6 +118,7 @@ public class ReportPrinter {
                 writer.println("  " + info.getHttpMethod() + " " + info.getPath());
                 writer.println("    API Key Required: " + info.isApiKeyRequired());
                 writer.println("    Basic Auth Required: " + info.isBasicAuthRequired());
+                writer.println("    URL Authorization: " + Objects.toString(info.getUrlAuthorization(), "None"));
                 writer.println("    Session Management: " + info.getSessionManagement());
                 writer.println("    Security Features: " + String.join(", ", info.getSecurityFeatures()));
             }
@@ -102,6 +159,56 @@ public class ReportPrinter {
         }
     }
 
+    /**
+     * Internal class representing the aggregate summary of a fleet scan.
+     * The text summary is printed from the same structure.
+     */
+    private static class JsonFleetSummary {
+        public final String generatedAt;
+        public final int totalServices;
+        public final int failedServices;
+        public final int totalEndpoints;
+        public final int unauthorizedEndpoints;
+        public final Map<String, Integer> endpointsByAuthExpression = new TreeMap<>();
+        public final List<JsonService> services;
+
+        public JsonFleetSummary(List<FleetMode.ServiceResult> results) {
+            this.generatedAt = LocalDateTime.now().toString();
+            this.totalServices = results.size();
+            this.failedServices = (int) results.stream().filter(result -> result.getError() != null).count();
+            this.totalEndpoints = results.stream().mapToInt(FleetMode.ServiceResult::getTotalEndpoints).sum();
+            this.unauthorizedEndpoints = results.stream().mapToInt(FleetMode.ServiceResult::getUnauthorizedEndpoints).sum();
+            for (FleetMode.ServiceResult result : results) {
+                result.getEndpointsByAuthExpression().forEach((expression, count) ->
+                        endpointsByAuthExpression.merge(expression, count, Integer::sum));
+            }
+            this.services = results.stream()
+                    .map(JsonService::new)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Internal class representing a single service in the fleet summary.
+     */
+    private static class JsonService {
+        public final String service;
+        public final String jar;
+        public final String reportFile;
+        public final int totalEndpoints;
+        public final int unauthorizedEndpoints;
+        public final String error;
+
+        public JsonService(FleetMode.ServiceResult result) {
+            this.service = result.getService();
+            this.jar = result.getJar().toString();
+            this.reportFile = (result.getReportFile() != null) ? result.getReportFile().toString() : null;
+            this.totalEndpoints = result.getTotalEndpoints();
+            this.unauthorizedEndpoints = result.getUnauthorizedEndpoints();
+            this.error = result.getError();
+        }
+    }
+
     /**
      * Internal class representing an authorization group in the JSON structure.
      */
@@ -125,6 +232,7 @@ public class ReportPrinter {
         public final String path;
         public final boolean apiKeyRequired;
         public final boolean basicAuthRequired;
+        public final String urlAuthorization;
         public final String sessionManagement;
         public final Set<String> securityFeatures;
 
@@ -133,6 +241,7 @@ public class ReportPrinter {
             this.path = info.getPath();
             this.apiKeyRequired = info.isApiKeyRequired();
             this.basicAuthRequired = info.isBasicAuthRequired();
+            this.urlAuthorization = info.getUrlAuthorization();
             this.sessionManagement = info.getSessionManagement();
             this.securityFeatures = info.getSecurityFeatures();
         }
@@ -0,0 +1,202 @@
+package io.authreporttool.cli;
+
+import io.authreporttool.core.AuthorizationReport;
+import io.authreporttool.core.EndpointAuthInfo;
+import io.authreporttool.core.IncrementalScanner;
+import io.authreporttool.core.ReportGenerator;
+import io.authreporttool.core.ScanCache;
+import io.authreporttool.core.ScanSession;
+import io.authreporttool.core.SecurityConfigAnalyzer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * WatchMode keeps the JVM alive after the first report and watches the compiled output
+ * directories of the scanned package. Whenever class files change, only the affected classes
+ * are re-read and the report is printed again.
+ *
+ * Watch mode always scans in bytecode-only mode, since classes that were already loaded
+ * could not be reloaded after a recompile.
+ */
+public class WatchMode {
+
+    private static final Logger logger = LoggerFactory.getLogger(WatchMode.class);
+
+    // Time to wait for further events after the first one, so one recompile yields one report
+    private static final long DEBOUNCE_MILLIS = 300;
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final ScanSession session;
+    private final IncrementalScanner incrementalScanner;
+    private final ReportGenerator reportGenerator = new ReportGenerator(null);
+    private final CommandLineOptions options;
+
+    // Watched directory and the classpath root it belongs to, per watch key
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+    private final Map<WatchKey, Path> watchedRoots = new HashMap<>();
+
+    /**
+     * Constructs a WatchMode for the package selected by the command line options.
+     *
+     * @param session The scan session of the package to watch.
+     * @param scanCache The persistent scan cache, or null to disable caching.
+     * @param securityConfigAnalyzer The analyzer of the SecurityFilterChain methods, reused for every rescan.
+     * @param options The parsed command line options.
+     */
+    public WatchMode(ScanSession session, ScanCache scanCache, SecurityConfigAnalyzer securityConfigAnalyzer,
+                     CommandLineOptions options) {
+        this.session = session;
+        this.incrementalScanner = new IncrementalScanner(session, scanCache, securityConfigAnalyzer);
+        this.options = options;
+    }
+
+    /**
+     * Prints the initial report, then re-reports on every change until the process is stopped.
+     *
+     * @throws IOException If the output directories cannot be watched or the report cannot be printed.
+     */
+    public void run() throws IOException {
+        printReport(incrementalScanner.scan());
+
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            for (URL url : session.getUrls()) {
+                Path root = toDirectory(url);
+                if (root == null) {
+                    continue;
+                }
+                for (String basePackage : session.getBasePackages()) {
+                    Path packageDir = root.resolve(basePackage.replace('.', '/'));
+                    if (Files.isDirectory(packageDir)) {
+                        registerTree(watchService, root, packageDir);
+                    }
+                }
+            }
+
+            if (watchedDirectories.isEmpty()) {
+                logger.warn("No compiled output directories to watch for package: {}", session.getBasePackage());
+                return;
+            }
+            logger.info("Watching {} directories for changes (Ctrl+C to stop)", watchedDirectories.size());
+
+            while (true) {
+                Set<String> changedClasses = new TreeSet<>();
+                Set<String> deletedPackages = new TreeSet<>();
+                WatchKey key = watchService.take();
+                do {
+                    collectChanges(watchService, key, changedClasses, deletedPackages);
+                    key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                } while (key != null);
+
+                List<EndpointAuthInfo> endpoints = null;
+                for (String deletedPackage : deletedPackages) {
+                    logger.info("Deleted package: {}", deletedPackage);
+                    endpoints = incrementalScanner.removePackage(deletedPackage);
+                }
+                if (!changedClasses.isEmpty()) {
+                    logger.info("Changed classes: {}", changedClasses);
+                    endpoints = incrementalScanner.rescan(changedClasses);
+                }
+                if (endpoints != null) {
+                    printReport(endpoints);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void collectChanges(WatchService watchService, WatchKey key, Set<String> changedClasses,
+                                Set<String> deletedPackages) throws IOException {
+        Path directory = watchedDirectories.get(key);
+        Path root = watchedRoots.get(key);
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || directory == null) {
+                continue;
+            }
+            Path changed = directory.resolve((Path) event.context());
+
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(changed)) {
+                // A new sub-package: watch it and pick up the class files already written to it
+                registerTree(watchService, root, changed);
+                try (Stream<Path> paths = Files.walk(changed)) {
+                    paths.filter(path -> path.toString().endsWith(CLASS_SUFFIX))
+                            .forEach(path -> changedClasses.add(toClassName(root, path)));
+                }
+            } else if (changed.toString().endsWith(CLASS_SUFFIX)) {
+                changedClasses.add(toClassName(root, changed));
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                // A deleted sub-package: its class files may be gone without events of their own
+                deletedPackages.add(toPackageName(root, changed));
+            }
+        }
+
+        if (!key.reset()) {
+            // The watched directory itself was deleted
+            watchedDirectories.remove(key);
+            watchedRoots.remove(key);
+            if (directory != null && !Files.exists(directory)) {
+                deletedPackages.add(toPackageName(root, directory));
+            }
+        }
+    }
+
+    private void registerTree(WatchService watchService, Path root, Path directory) throws IOException {
+        List<Path> directories;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            directories = paths.filter(Files::isDirectory).collect(Collectors.toList());
+        }
+        for (Path dir : directories) {
+            WatchKey key = dir.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+            watchedDirectories.put(key, dir);
+            watchedRoots.put(key, root);
+        }
+    }
+
+    private void printReport(List<EndpointAuthInfo> authInfoList) throws IOException {
+        AuthorizationReport report = reportGenerator.generateReport(authInfoList);
+        ReportPrinter.printReport(report, options.getOutputFormat(), options.getOutputFile());
+    }
+
+    private static Path toDirectory(URL url) {
+        try {
+            File file = new File(url.toURI());
+            return file.isDirectory() ? file.toPath() : null;
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String toPackageName(Path root, Path directory) {
+        return root.relativize(directory).toString().replace(File.separatorChar, '.');
+    }
+
+    private static String toClassName(Path root, Path classFile) {
+        String entryName = root.relativize(classFile).toString().replace(File.separatorChar, '/');
+        return entryName.substring(0, entryName.length() - CLASS_SUFFIX.length()).replace('/', '.');
+    }
+}
@@ -0,0 +1,89 @@
+package io.authreporttool.cli;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FleetModeTest {
+
+    @RestController
+    static class OrdersController {
+        @PreAuthorize("hasRole('ADMIN')")
+        @GetMapping("/orders/all")
+        String all() {
+            return "all";
+        }
+
+        @GetMapping("/orders/open")
+        String open() {
+            return "open";
+        }
+    }
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writesAReportPerServiceAndASummaryWithTheFailedService() throws IOException {
+        Path fleetDirectory = Files.createDirectories(directory.resolve("fleet"));
+        Path outputDirectory = directory.resolve("reports");
+        writeJar(fleetDirectory.resolve("orders.jar"), OrdersController.class);
+        Files.writeString(fleetDirectory.resolve("broken.jar"), "not a jar");
+
+        CommandLineOptions options = new CommandLineOptions(new String[] {
+                "--fleet", fleetDirectory.toString(), "-p", "io.authreporttool.cli", "-f", "json",
+                "-o", outputDirectory.toString(), "-t", "2"});
+        new FleetMode(null, options).run();
+
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode report = mapper.readTree(outputDirectory.resolve("orders.json").toFile());
+        assertEquals(2, report.get("totalEndpoints").asInt());
+        assertFalse(Files.exists(outputDirectory.resolve("broken.json")));
+
+        JsonNode summary = mapper.readTree(outputDirectory.resolve("fleet-summary.json").toFile());
+        assertEquals(2, summary.get("totalServices").asInt());
+        assertEquals(1, summary.get("failedServices").asInt());
+        assertEquals(2, summary.get("totalEndpoints").asInt());
+        // Only /orders/open has neither @PreAuthorize nor a URL rule
+        assertEquals(1, summary.get("unauthorizedEndpoints").asInt());
+
+        // Services are listed in jar name order
+        JsonNode broken = summary.get("services").get(0);
+        assertEquals("broken", broken.get("service").asText());
+        assertTrue(broken.get("reportFile").isNull());
+        assertFalse(broken.get("error").isNull());
+        JsonNode orders = summary.get("services").get(1);
+        assertEquals("orders", orders.get("service").asText());
+        assertTrue(orders.get("error").isNull());
+        assertEquals(outputDirectory.resolve("orders.json").toString(), orders.get("reportFile").asText());
+    }
+
+    private static void writeJar(Path jar, Class<?>... classes) throws IOException {
+        try (OutputStream out = Files.newOutputStream(jar); JarOutputStream jarOut = new JarOutputStream(out)) {
+            for (Class<?> type : classes) {
+                String resource = type.getName().replace('.', '/') + ".class";
+                jarOut.putNextEntry(new JarEntry(resource));
+                try (InputStream in = type.getClassLoader().getResourceAsStream(resource)) {
+                    in.transferTo(jarOut);
+                }
+                jarOut.closeEntry();
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.authreporttool.cli;
+
+import io.authreporttool.core.ScanSession;
+import io.authreporttool.core.SecurityConfigAnalyzer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WatchModeTest {
+
+    // Upper bound for a rescan to show up in the report; it normally takes well under a second
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @RestController
+    static class PingController {
+        @GetMapping("/ping")
+        String ping() {
+            return "pong";
+        }
+    }
+
+    @RestController
+    static class StatusController {
+        @GetMapping("/status")
+        String status() {
+            return "ok";
+        }
+    }
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void addedControllerIsReported() throws Exception {
+        Path outputDirectory = Files.createDirectories(directory.resolve("classes"));
+        Path reportFile = directory.resolve("report.txt");
+        copyClassFile(outputDirectory, PingController.class);
+
+        CommandLineOptions options = new CommandLineOptions(new String[] {
+                "-p", "io.authreporttool.cli", "-w", "-o", reportFile.toString()});
+        ScanSession session = ScanSession.open("io.authreporttool.cli", List.of(outputDirectory.toUri().toURL()));
+        WatchMode watchMode = new WatchMode(session, null, new SecurityConfigAnalyzer(null), options);
+
+        Thread watcher = new Thread(() -> {
+            try {
+                watchMode.run();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }, "watch-mode-test");
+        watcher.setDaemon(true);
+        watcher.start();
+        try {
+            assertTrue(awaitReportContaining(reportFile, "/ping", () -> { }), "initial report");
+
+            // The directories are watched only after the initial report, so keep rewriting until the change is seen
+            assertTrue(awaitReportContaining(reportFile, "/status", () -> copyClassFile(outputDirectory, StatusController.class)),
+                    "report after the new class file was written");
+        } finally {
+            watcher.interrupt();
+            watcher.join(TIMEOUT_MILLIS);
+        }
+    }
+
+    private static boolean awaitReportContaining(Path reportFile, String text, Change change) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            change.apply();
+            for (int i = 0; i < 10; i++) {
+                if (Files.exists(reportFile) && Files.readString(reportFile).contains(text)) {
+                    return true;
+                }
+                Thread.sleep(50);
+            }
+        }
+        return false;
+    }
+
+    private static void copyClassFile(Path outputDirectory, Class<?> type) throws IOException {
+        String resource = type.getName().replace('.', '/') + ".class";
+        Path target = outputDirectory.resolve(resource);
+        Files.createDirectories(target.getParent());
+        try (InputStream in = type.getClassLoader().getResourceAsStream(resource)) {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Change {
+        void apply() throws IOException;
+    }
+}
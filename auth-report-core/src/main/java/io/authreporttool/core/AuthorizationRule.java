@@ -0,0 +1,63 @@
+package io.authreporttool.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The AuthorizationRule class holds a single URL authorization rule of a SecurityFilterChain,
+ * such as {@code requestMatchers(HttpMethod.GET, "/admin/**").hasRole("ADMIN")}: the path
+ * patterns and optional HTTP method the rule matches, and the authority it requires.
+ *
+ * A rule whose request matcher could not be reconstructed from the bytecode, for example a
+ * custom RequestMatcher bean, has no patterns and never matches an endpoint.
+ *
+ * This class is immutable.
+ */
+public class AuthorizationRule {
+
+    private final List<String> patterns;
+    private final String httpMethod;
+    private final String authority;
+
+    /**
+     * Constructs a new AuthorizationRule.
+     *
+     * @param patterns The Ant-style or PathPattern path patterns the rule matches.
+     * @param httpMethod The HTTP method the rule is restricted to, or null for any method.
+     * @param authority The required authority, e.g. "permitAll" or "hasRole('ADMIN')".
+     */
+    AuthorizationRule(List<String> patterns, String httpMethod, String authority) {
+        this.patterns = Collections.unmodifiableList(new ArrayList<>(patterns));
+        this.httpMethod = httpMethod;
+        this.authority = authority;
+    }
+
+    /**
+     * Checks whether the rule applies to requests with the given HTTP method.
+     *
+     * @param method The HTTP method of the endpoint.
+     * @return true if the rule is not restricted to a method or is restricted to this one.
+     */
+    boolean matchesMethod(String method) {
+        return httpMethod == null || httpMethod.equalsIgnoreCase(method);
+    }
+
+    public List<String> getPatterns() {
+        return patterns;
+    }
+
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    public String getAuthority() {
+        return authority;
+    }
+
+    @Override
+    public String toString() {
+        String matcher = patterns.isEmpty() ? "(custom matcher)" : String.join(", ", patterns);
+        return (httpMethod != null ? httpMethod + " " : "") + matcher + " -> " + authority;
+    }
+}
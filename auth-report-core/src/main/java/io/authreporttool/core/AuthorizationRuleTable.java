@@ -0,0 +1,66 @@
+package io.authreporttool.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The AuthorizationRuleTable class holds the ordered URL authorization rules of a
+ * SecurityFilterChain, as declared through authorizeHttpRequests or authorizeRequests.
+ *
+ * Like Spring Security, the table answers with the first declared rule that matches a request.
+ * The patterns of all rules are compiled into one PathPatternIndex, so an endpoint is matched in
+ * a single walk over its path, however many rules the chain declares.
+ *
+ * This class is immutable.
+ */
+public class AuthorizationRuleTable {
+
+    /**
+     * A table without rules, matching no endpoint.
+     */
+    public static final AuthorizationRuleTable EMPTY = new AuthorizationRuleTable(Collections.emptyList());
+
+    private final List<AuthorizationRule> rules;
+    // Every pattern mapped to the position of its rule in declaration order
+    private final PathPatternIndex<Integer> ruleIndex = new PathPatternIndex<>();
+
+    /**
+     * Constructs a new AuthorizationRuleTable.
+     *
+     * @param rules The rules in declaration order.
+     */
+    AuthorizationRuleTable(List<AuthorizationRule> rules) {
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        for (int i = 0; i < this.rules.size(); i++) {
+            for (String pattern : this.rules.get(i).getPatterns()) {
+                ruleIndex.add(pattern, i);
+            }
+        }
+    }
+
+    /**
+     * Finds the rule Spring Security would apply to an endpoint.
+     *
+     * @param path The path of the endpoint.
+     * @param httpMethod The HTTP method of the endpoint.
+     * @return The first declared rule matching the endpoint, or null if no rule matches.
+     */
+    public AuthorizationRule match(String path, String httpMethod) {
+        int first = Integer.MAX_VALUE;
+        for (int position : ruleIndex.match(path)) {
+            if (position < first && rules.get(position).matchesMethod(httpMethod)) {
+                first = position;
+            }
+        }
+        return (first != Integer.MAX_VALUE) ? rules.get(first) : null;
+    }
+
+    public List<AuthorizationRule> getRules() {
+        return rules;
+    }
+
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+}
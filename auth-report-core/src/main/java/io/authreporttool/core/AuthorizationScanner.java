@@ -2,16 +2,27 @@ package io.authreporttool.core;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
 import org.springframework.core.annotation.AnnotationUtils;
-import org.springframework.http.HttpMethod;
-import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.annotation.RestController;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 /**
  * The AuthorizationScanner class is responsible for scanning a specified package
@@ -30,6 +41,16 @@ public class AuthorizationScanner {
     private final ReflectionUtils reflectionUtils;
     // Analyzer for security configurations
     private final SecurityConfigAnalyzer securityConfigAnalyzer;
+    // How controllers and security configurations are discovered
+    private final ScanMode scanMode;
+    // Class-file reader used in bytecode-only mode
+    private final BytecodeControllerScanner bytecodeScanner = new BytecodeControllerScanner();
+    // Memoized merged-annotation resolver used in reflective mode
+    private final RequestMappingResolver mappingResolver = new RequestMappingResolver();
+    // Executor on which independent per-controller extraction fans out
+    private final Executor executor;
+    // Persistent per-class extraction cache, or null when caching is disabled
+    private final ScanCache scanCache;
 
     /**
      * Constructor to initialize the AuthorizationScanner with necessary dependencies.
@@ -38,8 +59,52 @@ public class AuthorizationScanner {
      * @param securityConfigAnalyzer Analyzer for security configurations.
      */
     public AuthorizationScanner(ReflectionUtils reflectionUtils, SecurityConfigAnalyzer securityConfigAnalyzer) {
+        this(reflectionUtils, securityConfigAnalyzer, ScanMode.REFLECTION);
+    }
+
+    /**
+     * Constructor to initialize the AuthorizationScanner with an explicit scan mode.
+     *
+     * @param reflectionUtils Utility class used for reflection-based operations.
+     * @param securityConfigAnalyzer Analyzer for security configurations.
+     * @param scanMode Whether to discover controllers through reflection or straight from class-file bytes.
+     */
+    public AuthorizationScanner(ReflectionUtils reflectionUtils, SecurityConfigAnalyzer securityConfigAnalyzer, ScanMode scanMode) {
+        this(reflectionUtils, securityConfigAnalyzer, scanMode, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor to initialize the AuthorizationScanner with an explicit scan mode and executor.
+     * Controllers are extracted concurrently on the executor and merged back in a deterministic order.
+     *
+     * @param reflectionUtils Utility class used for reflection-based operations.
+     * @param securityConfigAnalyzer Analyzer for security configurations.
+     * @param scanMode Whether to discover controllers through reflection or straight from class-file bytes.
+     * @param executor The executor on which controllers are scanned.
+     */
+    public AuthorizationScanner(ReflectionUtils reflectionUtils, SecurityConfigAnalyzer securityConfigAnalyzer,
+                                ScanMode scanMode, Executor executor) {
+        this(reflectionUtils, securityConfigAnalyzer, scanMode, executor, null);
+    }
+
+    /**
+     * Constructor to initialize the AuthorizationScanner with a persistent scan cache.
+     * Per-class extraction results are looked up in the cache by class-file hash, so only
+     * classes whose bytes changed since the previous run are re-analyzed.
+     *
+     * @param reflectionUtils Utility class used for reflection-based operations.
+     * @param securityConfigAnalyzer Analyzer for security configurations.
+     * @param scanMode Whether to discover controllers through reflection or straight from class-file bytes.
+     * @param executor The executor on which controllers are scanned.
+     * @param scanCache The persistent scan cache, or null to disable caching.
+     */
+    public AuthorizationScanner(ReflectionUtils reflectionUtils, SecurityConfigAnalyzer securityConfigAnalyzer,
+                                ScanMode scanMode, Executor executor, ScanCache scanCache) {
         this.reflectionUtils = reflectionUtils;
         this.securityConfigAnalyzer = securityConfigAnalyzer;
+        this.scanMode = scanMode;
+        this.executor = executor;
+        this.scanCache = scanCache;
     }
 
     /**
@@ -47,33 +112,86 @@ public class AuthorizationScanner {
      * and extracts authentication and authorization details for each endpoint.
      *
      * This method orchestrates the entire scanning process:
-     * 1. Finds all classes annotated with @RestController
-     * 2. Scans each controller for endpoints
-     * 3. Identifies security configuration classes
-     * 4. Analyzes security configurations for each endpoint
+     * 1. Indexes the package once in a ScanSession shared by all lookups
+     * 2. Finds all classes annotated with @RestController
+     * 3. Scans each controller for endpoints
+     * 4. Identifies security configuration classes
+     * 5. Analyzes security configurations for each endpoint
      *
      * @param basePackage The base package to scan for controllers and security config.
      * @return A list of EndpointAuthInfo containing authentication details for each endpoint.
      */
     public List<EndpointAuthInfo> scanApi(String basePackage) {
+        return scanApi(List.of(basePackage));
+    }
+
+    /**
+     * Scans several base packages as one API. The packages share a single ScanSession, so
+     * the classpath is indexed once and each security configuration is analyzed once.
+     *
+     * @param basePackages The base packages to scan for controllers and security config.
+     * @return A list of EndpointAuthInfo containing authentication details for each endpoint.
+     */
+    public List<EndpointAuthInfo> scanApi(Collection<String> basePackages) {
+        if (scanMode == ScanMode.MANIFEST) {
+            List<EndpointAuthInfo> authInfoList = new ArrayList<>();
+            try {
+                if (scanManifest(basePackages, authInfoList)) {
+                    return authInfoList;
+                }
+            } catch (Exception e) {
+                logger.error("Error occurred while scanning API", e);
+                return authInfoList;
+            }
+        }
+
+        // Index the packages once; every lookup is answered from this session
+        return scanApi(reflectionUtils.openSession(basePackages));
+    }
+
+    /**
+     * Scans the package of an already opened session, for example one over explicit classpath
+     * roots such as a build's output directory. The manifest mode does not apply to sessions
+     * and falls back to a reflective scan.
+     *
+     * @param session The scan session of the package to scan.
+     * @return A list of EndpointAuthInfo containing authentication details for each endpoint.
+     */
+    public List<EndpointAuthInfo> scanApi(ScanSession session) {
         List<EndpointAuthInfo> authInfoList = new ArrayList<>();
 
         try {
+            if (scanMode == ScanMode.BYTECODE) {
+                scanBytecode(session, authInfoList);
+                return authInfoList;
+            }
+
             // Scan for REST controllers
-            Set<Class<?>> controllers = reflectionUtils.findAnnotatedClasses(basePackage, RestController.class);
+            Set<Class<?>> controllers = reflectionUtils.findAnnotatedClasses(session, RestController.class);
 
             logger.info("scanned controllers: " + controllers.size());
-            for (Class<?> controller : controllers) {
-                logger.info("Scanning controller: " + controller.getName());
-                authInfoList.addAll(scanController(controller));
+
+            // Fan out per controller, then merge in class-name order so reports stay stable
+            List<CompletableFuture<List<EndpointAuthInfo>>> controllerScans = controllers.stream()
+                    .sorted(Comparator.comparing(Class::getName))
+                    .map(controller -> CompletableFuture.supplyAsync(() -> {
+                        logger.info("Scanning controller: " + controller.getName());
+                        return scanControllerCached(controller, session.getClassBytesPool());
+                    }, executor))
+                    .collect(Collectors.toList());
+            for (CompletableFuture<List<EndpointAuthInfo>> controllerScan : controllerScans) {
+                authInfoList.addAll(controllerScan.join());
             }
 
-            // Scan for security configuration
-            Set<Class<?>> securityConfigs = reflectionUtils.findClassesWithBeanMethods(basePackage, SecurityFilterChain.class);
-            for (Class<?> config : securityConfigs) {
-                logger.info("Scanning security config(Bean methods): " + config.getName());
-                scanSecurityConfig(config, authInfoList);
+            // Analyze each SecurityFilterChain bean once, in the order Spring Security consults the chains
+            Set<Class<?>> securityConfigs = reflectionUtils.findClassesWithBeanMethods(session, SecurityFilterChain.class);
+            List<SecurityChainAnalysis> chainAnalyses = new ArrayList<>();
+            for (ChainMethod chainMethod : securityFilterChainMethods(securityConfigs)) {
+                chainAnalyses.add(securityConfigAnalyzer.analyzeSecurityFilterChain(
+                        chainMethod.getClassName(), chainMethod.getMethodName(), session.getClassBytesPool()));
             }
+
+            applySecurityChains(chainAnalyses, authInfoList);
         } catch (Exception e) {
             logger.error("Error occurred while scanning API", e);
         }
@@ -82,139 +200,276 @@ public class AuthorizationScanner {
     }
 
     /**
-     * Scans the specified controller class for methods and extracts
-     * authentication and authorization details for each method (endpoint).
+     * Scans every class file of the session straight from its bytes, without loading any class.
+     * Controllers and security configurations are discovered in the same pass over the class files;
+     * the class files are parsed concurrently and merged back in class-name order.
      *
-     * @param controller The controller class to scan.
-     * @return A list of EndpointAuthInfo containing authentication details for each method.
+     * @param session The scan session providing the class files.
+     * @param authInfoList The list to which the discovered endpoints are added.
      */
-    private List<EndpointAuthInfo> scanController(Class<?> controller) {
-        List<EndpointAuthInfo> authInfoList = new ArrayList<>();
-        String controllerPath = extractControllerPath(controller);
+    private void scanBytecode(ScanSession session, List<EndpointAuthInfo> authInfoList) {
+        List<CompletableFuture<BytecodeControllerScanner.ClassScan>> classScans = new ArrayList<>();
+        ClassBytesPool classBytesPool = session.getClassBytesPool();
+        session.forEachClassFile((className, bytes) ->
+                classScans.add(CompletableFuture.supplyAsync(() -> scanClassFile(className, bytes, session), executor)), scanCache);
 
-        for (Method method : controller.getDeclaredMethods()) {
-            try {
-                logger.info("Scanning method: " + method.getName());
-                EndpointAuthInfo authInfo = extractAuthInfo(method, controllerPath);
-                if (authInfo != null) {
-                    authInfoList.add(authInfo);
-                }
-            } catch (Exception e) {
-                logger.warn("Error extracting auth info for method: " + method.getName(), e);
+        // Merge in class-name order, like the reflective mode, so reports stay stable
+        List<BytecodeControllerScanner.ClassScan> results = new ArrayList<>();
+        for (CompletableFuture<BytecodeControllerScanner.ClassScan> future : classScans) {
+            BytecodeControllerScanner.ClassScan classScan = future.join();
+            if (classScan != null) {
+                results.add(classScan);
             }
         }
+        results.sort(Comparator.comparing(BytecodeControllerScanner.ClassScan::getClassName));
 
-        return authInfoList;
+        List<ChainMethod> chainMethods = new ArrayList<>();
+        for (BytecodeControllerScanner.ClassScan classScan : results) {
+            authInfoList.addAll(classScan.getEndpoints());
+            chainMethods.addAll(classScan.getSecurityFilterChainMethods());
+        }
+        logger.info("scanned endpoints: " + authInfoList.size());
+
+        // Walk order depends on the class path, so sort the chains like the reflective mode
+        chainMethods.sort(ChainMethod.CHAIN_ORDER);
+        List<SecurityChainAnalysis> chainAnalyses = new ArrayList<>();
+        for (ChainMethod chainMethod : chainMethods) {
+            chainAnalyses.add(securityConfigAnalyzer.analyzeSecurityFilterChain(
+                    chainMethod.getClassName(), chainMethod.getMethodName(), classBytesPool));
+        }
+        applySecurityChains(chainAnalyses, authInfoList);
     }
 
     /**
-     * Extracts the base path for the controller from its RequestMapping annotation.
+     * Reads the endpoints and SecurityFilterChain methods of the package from the compile-time
+     * endpoint manifest instead of scanning the classpath.
      *
-     * @param controller The controller class.
-     * @return The base path for the controller, or an empty string if not found.
+     * @param basePackages The base packages whose endpoints should be reported.
+     * @param authInfoList The list to which the endpoints are added.
+     * @return true if the manifest listed the packages, false if they must be scanned instead.
+     * @throws IOException If the manifest cannot be read.
      */
-    private String extractControllerPath(Class<?> controller) {
-        RequestMapping mapping = controller.getAnnotation(RequestMapping.class);
-        if (mapping != null && mapping.value().length > 0) {
-            return mapping.value()[0];
+    private boolean scanManifest(Collection<String> basePackages, List<EndpointAuthInfo> authInfoList) throws IOException {
+        EndpointManifest manifest = EndpointManifest.load(getClass().getClassLoader(), basePackages);
+        if (manifest.isEmpty()) {
+            logger.warn("No endpoint manifest lists {}, scanning the classpath instead", basePackages);
+            return false;
+        }
+        authInfoList.addAll(manifest.getEndpoints());
+        logger.info("manifest endpoints: " + authInfoList.size());
+
+        // The chains share one pool, so a configuration class declaring several chains and the filters
+        // they add are read only once
+        ClassBytesPool classBytesPool = new ClassBytesPool();
+        List<SecurityChainAnalysis> chainAnalyses = new ArrayList<>();
+        for (ChainMethod chainMethod : manifest.getChainMethods()) {
+            chainAnalyses.add(securityConfigAnalyzer.analyzeSecurityFilterChain(
+                    chainMethod.getClassName(), chainMethod.getMethodName(), classBytesPool));
         }
-        return "";
+
+        applySecurityChains(chainAnalyses, authInfoList);
+        return true;
     }
 
     /**
-     * Extracts authentication and authorization details from a given method.
-     * This method checks for various mapping annotations and PreAuthorize annotations
-     * to determine the endpoint's path, HTTP method, and authorization requirements.
+     * Reads a single class file, logging and skipping it if it cannot be parsed.
      *
-     * @param method The method to extract authentication details from.
-     * @param controllerPath The base path of the controller.
-     * @return An EndpointAuthInfo object containing the authentication details, or null if not applicable.
+     * @param className The binary name of the class.
+     * @param bytes The raw class-file bytes.
+     * @param session The scan session, whose pool receives the class file if it is a candidate.
+     * @return The scan result for the class, or null if the class file could not be read.
      */
-    private EndpointAuthInfo extractAuthInfo(Method method, String controllerPath) {
-        RequestMapping methodMapping = method.getAnnotation(RequestMapping.class);
-        GetMapping getMapping = method.getAnnotation(GetMapping.class);
-        PostMapping postMapping = method.getAnnotation(PostMapping.class);
-        PutMapping putMapping = method.getAnnotation(PutMapping.class);
-        DeleteMapping deleteMapping = method.getAnnotation(DeleteMapping.class);
-        PreAuthorize preAuthorize = method.getAnnotation(PreAuthorize.class);
+    private BytecodeControllerScanner.ClassScan scanClassFile(String className, byte[] bytes, ScanSession session) {
+        try {
+            BytecodeControllerScanner.ClassScan classScan = bytecodeScanner.scanClass(className, bytes, scanCache,
+                    session.getClassBytesPool(), session.getPackagePrefixes());
+            if (!classScan.getEndpoints().isEmpty()) {
+                logger.info("Scanning controller: " + className);
+            }
+            return classScan;
+        } catch (Exception e) {
+            logger.warn("Error reading class file: " + className, e);
+            return null;
+        }
+    }
+
+    /**
+     * Applies the chain analyses to every endpoint in a single pass. Like the FilterChainProxy,
+     * each endpoint is secured by the first chain, in @Order order, whose security matcher matches it.
+     *
+     * @param chainAnalyses The analyses of the SecurityFilterChain methods, in @Order order.
+     * @param authInfoList The list of endpoint authentication info to update.
+     */
+    private void applySecurityChains(List<SecurityChainAnalysis> chainAnalyses, List<EndpointAuthInfo> authInfoList) {
+        for (EndpointAuthInfo authInfo : authInfoList) {
+            for (SecurityChainAnalysis chainAnalysis : chainAnalyses) {
+                if (chainAnalysis.applyTo(authInfo)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Scans the specified controller class, answering from the scan cache when the class files
+     * of the controller and of its supertypes are unchanged since it was last scanned.
+     *
+     * @param controller The controller class to scan.
+     * @param classBytesPool The session's pool, from which the class files are read.
+     * @return A list of EndpointAuthInfo containing authentication details for each method.
+     */
+    private List<EndpointAuthInfo> scanControllerCached(Class<?> controller, ClassBytesPool classBytesPool) {
+        if (scanCache == null || controller.getClassLoader() == null) {
+            return scanController(controller);
+        }
+
+        byte[] classBytes;
+        try {
+            classBytes = hierarchyClassBytes(controller, classBytesPool);
+        } catch (IOException e) {
+            logger.warn("Could not read class file for controller: " + controller.getName(), e);
+            return scanController(controller);
+        }
+
+        List<EndpointAuthInfo> cached = scanCache.getControllerEndpoints(classBytes);
+        if (cached != null) {
+            logger.debug("Using cached scan for controller: {}", controller.getName());
+            return cached;
+        }
+
+        List<EndpointAuthInfo> authInfoList = scanController(controller);
+        scanCache.putControllerEndpoints(classBytes, controller.getName(), authInfoList);
+        return authInfoList;
+    }
 
-        if (methodMapping != null || getMapping != null || postMapping != null || putMapping != null || deleteMapping != null) {
-            String path = determinePath(method, controllerPath);
-            String httpMethod = determineHttpMethod(method);
-            String authExpression = (preAuthorize != null) ? preAuthorize.value() : "None";
-            String methodName = method.getName();
-            String className = method.getDeclaringClass().getName();
+    /**
+     * Concatenates the class files of a controller, of its application supertypes and of the
+     * application annotations they use, so that the cache entry of a controller is invalidated when
+     * an inherited security annotation or a custom composed mapping annotation changes. Types loaded
+     * by the bootstrap class loader, such as JDK interfaces, never change and are skipped.
+     *
+     * @param controller The controller class.
+     * @param classBytesPool The session's pool, so a base class shared by many controllers is read once.
+     * @return The class-file bytes of the controller followed by those of its supertypes and annotations.
+     * @throws IOException If a class file cannot be read.
+     */
+    static byte[] hierarchyClassBytes(Class<?> controller, ClassBytesPool classBytesPool) throws IOException {
+        Set<Class<?>> hierarchy = new LinkedHashSet<>();
+        HandlerMethods.collectHierarchy(controller, HandlerMethods.CLASSES, hierarchy);
+        Set<Class<?>> annotationTypes = new LinkedHashSet<>();
+        for (Class<?> type : new ArrayList<>(hierarchy)) {
+            collectAnnotationTypes(type.getDeclaredAnnotations(), annotationTypes);
+            for (Method method : type.getDeclaredMethods()) {
+                collectAnnotationTypes(method.getDeclaredAnnotations(), annotationTypes);
+            }
+        }
+        hierarchy.addAll(annotationTypes);
 
-            return new EndpointAuthInfo(path, httpMethod, authExpression, methodName, className);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (Class<?> type : hierarchy) {
+            if (type.getClassLoader() != null) {
+                byte[] classBytes = classBytesPool.get(type.getName());
+                if (classBytes == null) {
+                    classBytes = ClassFileWalker.readClassFile(type.getClassLoader(), type.getName());
+                    classBytesPool.put(type.getName(), classBytes);
+                }
+                bytes.write(classBytes);
+            }
         }
+        return bytes.toByteArray();
+    }
 
-        return null;
+    /**
+     * Collects application annotation types and, transitively, the annotations they are
+     * meta-annotated with. Spring's own annotations only change with the Spring jar and are skipped.
+     */
+    private static void collectAnnotationTypes(Annotation[] annotations, Set<Class<?>> annotationTypes) {
+        for (Annotation annotation : annotations) {
+            Class<? extends Annotation> type = annotation.annotationType();
+            if (type.getClassLoader() == null || type.getName().startsWith("org.springframework.")
+                    || !annotationTypes.add(type)) {
+                continue;
+            }
+            collectAnnotationTypes(type.getDeclaredAnnotations(), annotationTypes);
+        }
     }
 
     /**
-     * Determines the full path for an endpoint by combining the controller path
-     * and the method-specific path.
+     * Scans the specified controller class for methods and extracts
+     * authentication and authorization details for each method (endpoint).
      *
-     * @param method The method representing the endpoint.
-     * @param controllerPath The base path of the controller.
-     * @return The full path of the endpoint.
+     * @param controller The controller class to scan.
+     * @return A list of EndpointAuthInfo containing authentication details for each method.
      */
-    private String determinePath(Method method, String controllerPath) {
-        String methodPath = "";
+    private List<EndpointAuthInfo> scanController(Class<?> controller) {
+        List<EndpointAuthInfo> authInfoList = new ArrayList<>();
 
-        if (method.isAnnotationPresent(RequestMapping.class)) {
-            RequestMapping mapping = method.getAnnotation(RequestMapping.class);
-            methodPath = mapping.value().length > 0 ? mapping.value()[0] : "";
-        } else if (method.isAnnotationPresent(GetMapping.class)) {
-            GetMapping mapping = method.getAnnotation(GetMapping.class);
-            methodPath = mapping.value().length > 0 ? mapping.value()[0] : "";
-        } else if (method.isAnnotationPresent(PostMapping.class)) {
-            PostMapping mapping = method.getAnnotation(PostMapping.class);
-            methodPath = mapping.value().length > 0 ? mapping.value()[0] : "";
-        } else if (method.isAnnotationPresent(PutMapping.class)) {
-            PutMapping mapping = method.getAnnotation(PutMapping.class);
-            methodPath = mapping.value().length > 0 ? mapping.value()[0] : "";
-        } else if (method.isAnnotationPresent(DeleteMapping.class)) {
-            DeleteMapping mapping = method.getAnnotation(DeleteMapping.class);
-            methodPath = mapping.value().length > 0 ? mapping.value()[0] : "";
+        for (Method method : handlerMethodCandidates(controller)) {
+            try {
+                logger.info("Scanning method: " + method.getName());
+                authInfoList.addAll(extractAuthInfo(method, controller));
+            } catch (Exception e) {
+                logger.warn("Error extracting auth info for method: " + method.getName(), e);
+            }
         }
 
-        return (controllerPath + methodPath).replaceAll("//", "/");
+        return authInfoList;
+    }
+
+    /**
+     * Collects the methods a controller may serve requests with, like Spring MVC does: the
+     * controller's own methods, the non-private methods it inherits from its superclasses and
+     * the default methods of its interfaces. Of several methods with the same signature only the
+     * most specific one is kept; its mapping may still be declared on the method it overrides.
+     *
+     * @param controller The controller class.
+     * @return The candidate methods, sorted by name so reports stay stable.
+     */
+    static List<Method> handlerMethodCandidates(Class<?> controller) {
+        return HandlerMethods.candidates(controller, HandlerMethods.CLASSES);
     }
 
     /**
-     * Determines the HTTP method for an endpoint based on the mapping annotation used.
+     * Extracts authentication and authorization details from a given method.
+     * The method's merged mapping annotations are resolved once into a MappingDescriptor,
+     * which yields one endpoint per mapped path and HTTP method.
      *
-     * @param method The method representing the endpoint.
-     * @return The HTTP method as a string.
+     * @param method The method to extract authentication details from.
+     * @param controller The controller class serving the method.
+     * @return The endpoints mapped to the method, or an empty list if it is not a request mapping.
      */
-    private String determineHttpMethod(Method method) {
-        if (AnnotationUtils.findAnnotation(method, GetMapping.class) != null) return HttpMethod.GET.name();
-        if (AnnotationUtils.findAnnotation(method, PostMapping.class) != null) return HttpMethod.POST.name();
-        if (AnnotationUtils.findAnnotation(method, PutMapping.class) != null) return HttpMethod.PUT.name();
-        if (AnnotationUtils.findAnnotation(method, DeleteMapping.class) != null) return HttpMethod.DELETE.name();
-        RequestMapping requestMapping = AnnotationUtils.findAnnotation(method, RequestMapping.class);
-        if (requestMapping != null) {
-            return requestMapping.method().length > 0 ? requestMapping.method()[0].name() : HttpMethod.GET.name();
+    private List<EndpointAuthInfo> extractAuthInfo(Method method, Class<?> controller) {
+        MappingDescriptor descriptor = mappingResolver.resolve(method, controller);
+        if (descriptor == null) {
+            return Collections.emptyList();
         }
-        return HttpMethod.GET.name();
+        return descriptor.toEndpoints(method.getName(), controller.getName());
     }
 
     /**
-     * Scans the security configuration class and analyzes its SecurityFilterChain methods.
-     * This method applies the security configuration analysis to each endpoint.
+     * Collects the SecurityFilterChain bean methods of the security configuration classes, sorted
+     * by ChainMethod.CHAIN_ORDER like in the bytecode and manifest modes. The first chain matching
+     * an endpoint decides its URL authorization, so a fixed order keeps the report independent of
+     * class discovery order.
      *
-     * @param configClass The security configuration class to analyze.
-     * @param authInfoList The list of endpoint authentication info to update.
+     * @param configClasses The security configuration classes.
+     * @return The SecurityFilterChain methods in chain order.
      */
-    private void scanSecurityConfig(Class<?> configClass, List<EndpointAuthInfo> authInfoList) {
-        for (Method method : configClass.getDeclaredMethods()) {
-            if (SecurityFilterChain.class.isAssignableFrom(method.getReturnType())) {
-                logger.info("Analyzing SecurityFilterChain method: {}", method.getName());
-                for (EndpointAuthInfo authInfo : authInfoList) {
-                    securityConfigAnalyzer.analyzeSecurityFilterChain(method, authInfo);
+    static List<ChainMethod> securityFilterChainMethods(Collection<Class<?>> configClasses) {
+        List<ChainMethod> chainMethods = new ArrayList<>();
+        for (Class<?> configClass : configClasses) {
+            for (Method method : configClass.getDeclaredMethods()) {
+                if (SecurityFilterChain.class.isAssignableFrom(method.getReturnType())) {
+                    chainMethods.add(new ChainMethod(configClass.getName(), method.getName(), chainOrder(method)));
                 }
             }
         }
+        chainMethods.sort(ChainMethod.CHAIN_ORDER);
+        return chainMethods;
+    }
+
+    private static int chainOrder(Method chainMethod) {
+        Order order = AnnotationUtils.findAnnotation(chainMethod, Order.class);
+        return (order != null) ? order.value() : Ordered.LOWEST_PRECEDENCE;
     }
-}
\ No newline at end of file
+}
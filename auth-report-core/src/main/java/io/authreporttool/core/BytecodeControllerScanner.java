@@ -0,0 +1,892 @@
+package io.authreporttool.core;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * The BytecodeControllerScanner class extracts endpoint authorization details straight from
+ * class-file bytes with ASM. It reads @RestController, the mapping annotations and @PreAuthorize
+ * without loading the class, so no static initializer runs and no class is defined.
+ *
+ * The extraction mirrors the reflective rules of AuthorizationScanner, so both modes produce
+ * the same EndpointAuthInfo list for the same controllers. The class files of a controller's
+ * supertypes and of the application annotations it uses are read from the session's
+ * ClassBytesPool, so that
+ * <ul>
+ *   <li>controllers annotated with a composed annotation meta-annotated with @RestController, or
+ *   extending an annotated class, are found,</li>
+ *   <li>composed mapping annotations are merged into their @RequestMapping, honoring @AliasFor overrides,</li>
+ *   <li>mappings declared on overridden methods or on a supertype's class apply, like in Spring MVC,</li>
+ *   <li>@PreAuthorize is resolved across the controller's superclasses and interfaces, and</li>
+ *   <li>handler methods inherited from superclasses and interface default methods are reported.</li>
+ * </ul>
+ * Handler methods are collected by HandlerMethods, like in the reflective scan, and endpoints are
+ * emitted sorted by method name and signature. Spring's own and the JDK's class files are never read; Spring's
+ * mapping annotations are recognized by name.
+ */
+public class BytecodeControllerScanner {
+
+    private static final String REST_CONTROLLER = "Lorg/springframework/web/bind/annotation/RestController;";
+    private static final String REQUEST_MAPPING = "Lorg/springframework/web/bind/annotation/RequestMapping;";
+    private static final String GET_MAPPING = "Lorg/springframework/web/bind/annotation/GetMapping;";
+    private static final String POST_MAPPING = "Lorg/springframework/web/bind/annotation/PostMapping;";
+    private static final String PUT_MAPPING = "Lorg/springframework/web/bind/annotation/PutMapping;";
+    private static final String DELETE_MAPPING = "Lorg/springframework/web/bind/annotation/DeleteMapping;";
+    private static final String PATCH_MAPPING = "Lorg/springframework/web/bind/annotation/PatchMapping;";
+    private static final String PRE_AUTHORIZE = "Lorg/springframework/security/access/prepost/PreAuthorize;";
+    private static final String BEAN = "Lorg/springframework/context/annotation/Bean;";
+    private static final String SECURITY_FILTER_CHAIN = "Lorg/springframework/security/web/SecurityFilterChain;";
+    private static final String ORDER = "Lorg/springframework/core/annotation/Order;";
+    private static final String ALIAS_FOR = "Lorg/springframework/core/annotation/AliasFor;";
+
+    // Mapping annotations in the order the reflective scanner resolves the method path
+    private static final List<String> PATH_ORDER =
+            List.of(REQUEST_MAPPING, GET_MAPPING, POST_MAPPING, PUT_MAPPING, DELETE_MAPPING, PATCH_MAPPING);
+
+    // Shortcut mapping annotations in the order the reflective scanner resolves the HTTP method
+    private static final Map<String, String> HTTP_METHODS = new LinkedHashMap<>();
+
+    // Packages whose class files are never read: their annotations are either recognized by name or irrelevant
+    private static final List<String> PLATFORM_PACKAGES = List.of("java.", "javax.", "jakarta.", "org.springframework.");
+
+    static {
+        HTTP_METHODS.put(GET_MAPPING, "GET");
+        HTTP_METHODS.put(POST_MAPPING, "POST");
+        HTTP_METHODS.put(PUT_MAPPING, "PUT");
+        HTTP_METHODS.put(DELETE_MAPPING, "DELETE");
+        HTTP_METHODS.put(PATCH_MAPPING, "PATCH");
+    }
+
+    /**
+     * Scans a single class file on its own. Supertypes and composed annotations cannot be read,
+     * so only what the class itself declares is resolved.
+     *
+     * @param classBytes The raw class-file bytes.
+     * @return The endpoints and SecurityFilterChain methods declared by the class.
+     */
+    public ClassScan scanClass(byte[] classBytes) {
+        return scanClass(classBytes, null, null);
+    }
+
+    /**
+     * Scans a single class file on its own, answering from the scan cache when the same bytes were
+     * scanned before.
+     *
+     * @param classBytes The raw class-file bytes.
+     * @param scanCache The persistent scan cache, or null to always parse the class file.
+     * @return The endpoints and SecurityFilterChain methods declared by the class.
+     */
+    public ClassScan scanClass(byte[] classBytes, ScanCache scanCache) {
+        return scanClass(classBytes, scanCache, null);
+    }
+
+    /**
+     * Scans a single class file, reading the class files of its supertypes and annotation types
+     * from a class-bytes pool. The scan cache is keyed by the class file together with those it
+     * depends on, so a change to an inherited mapping or security annotation invalidates it. The
+     * key is found through constant-pool reads only, so a cache hit parses no class file.
+     *
+     * @param classBytes The raw class-file bytes.
+     * @param scanCache The persistent scan cache, or null to always parse the class file.
+     * @param classBytesPool The pool the class files of supertypes and annotation types are read from, or null.
+     * @return The endpoints and SecurityFilterChain methods of the class.
+     */
+    public ClassScan scanClass(byte[] classBytes, ScanCache scanCache, ClassBytesPool classBytesPool) {
+        ClassBytesPool pool = (classBytesPool != null) ? classBytesPool : new ClassBytesPool();
+        CacheKey cacheKey = (scanCache != null) ? CacheKey.of(classBytes, pool) : null;
+        ClassScan cached = (cacheKey != null) ? scanCache.getClassScan(cacheKey.bytes) : null;
+        if (cached != null) {
+            // The dependencies are not cached, they are known from finding the cache key
+            return new ClassScan(cached.className, cached.endpoints, cached.securityFilterChainMethods,
+                    cacheKey.dependencies);
+        }
+
+        ClassInfo classInfo = ClassInfo.read(classBytes);
+        HierarchyResolver resolver = new HierarchyResolver(pool, classInfo);
+        List<EndpointAuthInfo> endpoints = resolver.isController(classInfo)
+                ? resolver.endpoints(classInfo) : Collections.emptyList();
+        ClassScan classScan = new ClassScan(classInfo.name, endpoints, chainMethods(classInfo), resolver.dependencies);
+        if (cacheKey != null) {
+            scanCache.putClassScan(cacheKey.bytes, classScan);
+        }
+        return classScan;
+    }
+
+    /**
+     * Lists the SecurityFilterChain methods of a class that declares at least one @Bean method
+     * returning SecurityFilterChain, like the reflective scanner.
+     */
+    private static List<ChainMethod> chainMethods(ClassInfo classInfo) {
+        List<ChainMethod> chainMethods = new ArrayList<>();
+        boolean hasChainBean = classInfo.methods.stream()
+                .anyMatch(method -> method.returnsSecurityFilterChain() && method.annotations.containsKey(BEAN));
+        if (hasChainBean) {
+            for (MethodInfo method : classInfo.methods) {
+                if (method.returnsSecurityFilterChain()) {
+                    chainMethods.add(new ChainMethod(classInfo.name, method.name, method.order()));
+                }
+            }
+        }
+        return chainMethods;
+    }
+
+    /**
+     * Scans a single class file found on the classpath. Class files whose constant pool references
+     * none of the relevant Spring types are rejected up front, without being parsed or hashed.
+     *
+     * @param className The binary name of the class.
+     * @param classBytes The raw class-file bytes.
+     * @param scanCache The persistent scan cache, or null to always parse the class file.
+     * @return The endpoints and SecurityFilterChain methods declared by the class.
+     */
+    public ClassScan scanClass(String className, byte[] classBytes, ScanCache scanCache) {
+        return scanClass(className, classBytes, scanCache, null);
+    }
+
+    /**
+     * Scans a single class file found on the classpath, adding it to a class-bytes pool if it passes
+     * the prefilter, so that a later security analysis of the class does not read it again.
+     *
+     * @param className The binary name of the class.
+     * @param classBytes The raw class-file bytes.
+     * @param scanCache The persistent scan cache, or null to always parse the class file.
+     * @param classBytesPool The pool receiving candidate class files and providing those of supertypes, or null.
+     * @return The endpoints and SecurityFilterChain methods of the class.
+     */
+    public ClassScan scanClass(String className, byte[] classBytes, ScanCache scanCache, ClassBytesPool classBytesPool) {
+        return scanClass(className, classBytes, scanCache, classBytesPool, List.of());
+    }
+
+    /**
+     * Scans a single class file of a scan session. Besides the candidates of the plain prefilter,
+     * classes extending a class of the session's packages, such as a filter extending an
+     * application base filter, are added to the pool.
+     *
+     * @param className The binary name of the class.
+     * @param classBytes The raw class-file bytes.
+     * @param scanCache The persistent scan cache, or null to always parse the class file.
+     * @param classBytesPool The pool receiving candidate class files and providing those of supertypes, or null.
+     * @param packagePrefixes The session's packages, as returned by ScanSession.getPackagePrefixes().
+     * @return The endpoints and SecurityFilterChain methods declared by the class.
+     */
+    ClassScan scanClass(String className, byte[] classBytes, ScanCache scanCache, ClassBytesPool classBytesPool,
+                        List<byte[]> packagePrefixes) {
+        if (!ConstantPoolFilter.mayBeRelevant(classBytes, packagePrefixes)) {
+            return new ClassScan(className, Collections.emptyList(), Collections.emptyList());
+        }
+        if (classBytesPool != null) {
+            classBytesPool.put(className, classBytes);
+        }
+        return scanClass(classBytes, scanCache, classBytesPool);
+    }
+
+    /**
+     * The result of scanning a single class file.
+     */
+    public static class ClassScan {
+        private final String className;
+        private final List<EndpointAuthInfo> endpoints;
+        private final List<ChainMethod> securityFilterChainMethods;
+        private final Set<String> dependencies;
+
+        ClassScan(String className, List<EndpointAuthInfo> endpoints, List<ChainMethod> securityFilterChainMethods) {
+            this(className, endpoints, securityFilterChainMethods, Collections.emptySet());
+        }
+
+        ClassScan(String className, List<EndpointAuthInfo> endpoints, List<ChainMethod> securityFilterChainMethods,
+                  Set<String> dependencies) {
+            this.className = className;
+            this.endpoints = Collections.unmodifiableList(endpoints);
+            this.securityFilterChainMethods = Collections.unmodifiableList(securityFilterChainMethods);
+            this.dependencies = Collections.unmodifiableSet(dependencies);
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        /**
+         * @return The endpoints the class serves, inherited handler methods included, empty unless
+         *         it is annotated with @RestController or a composed annotation meta-annotated with it.
+         */
+        public List<EndpointAuthInfo> getEndpoints() {
+            return endpoints;
+        }
+
+        /**
+         * @return The SecurityFilterChain methods to analyze, with their @Order values, empty
+         *         unless the class declares at least one @Bean method returning SecurityFilterChain.
+         */
+        public List<ChainMethod> getSecurityFilterChainMethods() {
+            return securityFilterChainMethods;
+        }
+
+        /**
+         * @return The binary names of the supertypes and application annotation types the class was
+         *         resolved from, including those not found, so a change to any of them is noticed.
+         */
+        Set<String> getDependencies() {
+            return dependencies;
+        }
+    }
+
+    /**
+     * Returns the paths of a mapping annotation, from either of the aliased value and path attributes.
+     */
+    private static List<String> paths(AnnotationValues values) {
+        if (values == null) {
+            return List.of("");
+        }
+        List<String> paths = new ArrayList<>(values.get("value"));
+        paths.addAll(values.get("path"));
+        return paths.isEmpty() ? List.of("") : paths;
+    }
+
+    private static boolean isPlatformClass(String className) {
+        return PLATFORM_PACKAGES.stream().anyMatch(className::startsWith);
+    }
+
+    private static String firstValue(AnnotationValues values, String attribute) {
+        if (values == null) {
+            return "";
+        }
+        List<String> attributeValues = values.get(attribute);
+        return attributeValues.isEmpty() ? "" : attributeValues.get(0);
+    }
+
+    /**
+     * Resolves the endpoints of a single controller across its type hierarchy. Supertypes and
+     * annotation types are parsed through the pool's TypeCache, so a class file shared by many
+     * controllers is parsed and its @PreAuthorize expressions resolved once per session. The
+     * resolver is also the view of the hierarchy that HandlerMethods collects the handler methods through.
+     */
+    private static class HierarchyResolver implements HandlerMethods.TypeHierarchy<ClassInfo, HandlerCandidate> {
+        private final ClassBytesPool classBytesPool;
+        private final TypeCache typeCache;
+        // The scanned class, parsed from the given bytes, which need not be the pooled ones
+        private final ClassInfo scannedClass;
+        // Every class looked up for the scan, found or not
+        private final Set<String> dependencies = new LinkedHashSet<>();
+
+        HierarchyResolver(ClassBytesPool classBytesPool, ClassInfo scannedClass) {
+            this.classBytesPool = classBytesPool;
+            this.typeCache = classBytesPool.getTypeCache();
+            this.scannedClass = scannedClass;
+        }
+
+        /**
+         * Checks whether a class is a controller: annotated with @RestController, directly or through
+         * a composed annotation, itself or on one of its superclasses or interfaces. The reflective
+         * scan finds the subtypes of annotated types as well, and Spring MVC searches the type hierarchy.
+         */
+        boolean isController(ClassInfo classInfo) {
+            Set<ClassInfo> types = new LinkedHashSet<>();
+            HandlerMethods.collectHierarchy(classInfo, this, types);
+            for (ClassInfo type : types) {
+                if (findMerged(type.annotations, List.of(REST_CONTROLLER)) != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        List<EndpointAuthInfo> endpoints(ClassInfo controller) {
+            MergedAnnotation controllerMapping = findTypeMapping(controller, new HashSet<>());
+            List<String> controllerPaths = paths((controllerMapping != null) ? controllerMapping.values : null);
+            TypeSecurity controllerSecurity = typeSecurity(controller);
+
+            List<EndpointAuthInfo> endpoints = new ArrayList<>();
+            for (HandlerCandidate candidate : HandlerMethods.candidates(controller, this)) {
+                MethodInfo method = candidate.method;
+                MergedAnnotation mapping = findMethodMapping(candidate.declaringType, method.signature, true, new HashSet<>());
+                if (mapping == null) {
+                    continue;
+                }
+
+                List<String> httpMethods = new ArrayList<>();
+                String shortcutMethod = HTTP_METHODS.get(mapping.descriptor);
+                if (shortcutMethod != null) {
+                    httpMethods.add(shortcutMethod);
+                } else {
+                    httpMethods.addAll(mapping.values.get("method"));
+                }
+                if (httpMethods.isEmpty()) {
+                    httpMethods.add("GET");
+                }
+
+                // A method-level @PreAuthorize, also on an overridden method, wins over one on the class hierarchy
+                String authExpression = controllerSecurity.methodExpressions.get(method.signature);
+                if (authExpression == null) {
+                    authExpression = (controllerSecurity.classExpression != null) ? controllerSecurity.classExpression : "None";
+                }
+
+                for (String controllerPath : controllerPaths) {
+                    for (String methodPath : paths(mapping.values)) {
+                        String path = (controllerPath + methodPath).replaceAll("//", "/");
+                        for (String httpMethod : httpMethods) {
+                            endpoints.add(new EndpointAuthInfo(path, httpMethod, authExpression, method.name, controller.name));
+                        }
+                    }
+                }
+            }
+            return endpoints;
+        }
+
+        @Override
+        public ClassInfo superclass(ClassInfo type) {
+            return load(type.superName);
+        }
+
+        @Override
+        public List<ClassInfo> interfaces(ClassInfo type) {
+            List<ClassInfo> interfaces = new ArrayList<>();
+            for (String anInterface : type.interfaces) {
+                ClassInfo interfaceInfo = load(anInterface);
+                if (interfaceInfo != null) {
+                    interfaces.add(interfaceInfo);
+                }
+            }
+            return interfaces;
+        }
+
+        @Override
+        public boolean isInterface(ClassInfo type) {
+            return type.isInterface();
+        }
+
+        @Override
+        public List<HandlerCandidate> declaredMethods(ClassInfo type) {
+            List<HandlerCandidate> methods = new ArrayList<>();
+            for (MethodInfo method : type.methods) {
+                methods.add(new HandlerCandidate(type, method));
+            }
+            return methods;
+        }
+
+        @Override
+        public boolean isPrivate(HandlerCandidate candidate) {
+            return candidate.method.isPrivate();
+        }
+
+        @Override
+        public boolean isDefault(HandlerCandidate candidate) {
+            return candidate.method.isDefault();
+        }
+
+        @Override
+        public String name(HandlerCandidate candidate) {
+            return candidate.method.name;
+        }
+
+        @Override
+        public String signature(HandlerCandidate candidate) {
+            return candidate.method.signature;
+        }
+
+        /**
+         * Finds the @RequestMapping of a type, searching the type, then its interfaces, then its
+         * superclass, like Spring's type hierarchy search.
+         */
+        private MergedAnnotation findTypeMapping(ClassInfo type, Set<String> visited) {
+            if (type == null || !visited.add(type.name)) {
+                return null;
+            }
+            MergedAnnotation mapping = findMerged(type.annotations, List.of(REQUEST_MAPPING));
+            for (int i = 0; mapping == null && i < type.interfaces.size(); i++) {
+                mapping = findTypeMapping(load(type.interfaces.get(i)), visited);
+            }
+            return (mapping != null) ? mapping : findTypeMapping(load(type.superName), visited);
+        }
+
+        /**
+         * Finds the mapping annotation of a method or of a method it overrides or implements,
+         * searching the declaring type, then its interfaces, then its superclass, like Spring's
+         * type hierarchy search.
+         */
+        private MergedAnnotation findMethodMapping(ClassInfo type, String signature, boolean declaringType, Set<String> visited) {
+            if (type == null || !visited.add(type.name)) {
+                return null;
+            }
+            MergedAnnotation mapping = null;
+            MethodInfo method = type.method(signature);
+            if (method != null && (declaringType || !method.isPrivate())) {
+                mapping = findMerged(method.annotations, PATH_ORDER);
+            }
+            for (int i = 0; mapping == null && i < type.interfaces.size(); i++) {
+                mapping = findMethodMapping(load(type.interfaces.get(i)), signature, false, visited);
+            }
+            return (mapping != null) ? mapping : findMethodMapping(load(type.superName), signature, false, visited);
+        }
+
+        /**
+         * Resolves the @PreAuthorize expressions a type declares or inherits, following the
+         * precedence of SecurityAnnotationResolver.
+         */
+        private TypeSecurity typeSecurity(ClassInfo type) {
+            // Only types parsed from the pool are shared; the scanned class may come from other bytes
+            boolean shared = type != scannedClass;
+            TypeSecurity typeSecurity = shared ? typeCache.typeSecurities.get(type.name) : null;
+            if (typeSecurity != null) {
+                return typeSecurity;
+            }
+
+            // The supertypes and annotation types the expressions are resolved from
+            Set<String> dependencies = new HashSet<>();
+            String classExpression = preAuthorize(type.annotations, dependencies);
+            Map<String, String> methodExpressions = new HashMap<>();
+            for (MethodInfo method : type.methods) {
+                String expression = method.isStatic() ? null : preAuthorize(method.annotations, dependencies);
+                if (expression != null) {
+                    methodExpressions.put(method.signature, expression);
+                }
+            }
+
+            // The superclass takes precedence over interfaces, and earlier interfaces over later ones
+            List<String> supertypes = new ArrayList<>();
+            supertypes.add(type.superName);
+            supertypes.addAll(type.interfaces);
+            for (String supertypeName : supertypes) {
+                // Recorded even if the pool lacks it, since the supertype may still be added later
+                if (supertypeName != null && !isPlatformClass(supertypeName)) {
+                    dependencies.add(supertypeName);
+                }
+                ClassInfo supertype = load(supertypeName);
+                if (supertype == null) {
+                    continue;
+                }
+                TypeSecurity inherited = typeSecurity(supertype);
+                inherited.methodExpressions.forEach(methodExpressions::putIfAbsent);
+                if (classExpression == null) {
+                    classExpression = inherited.classExpression;
+                }
+            }
+
+            typeSecurity = new TypeSecurity(classExpression, methodExpressions);
+            if (shared) {
+                typeCache.putTypeSecurity(type.name, typeSecurity, dependencies);
+            }
+            return typeSecurity;
+        }
+
+        private String preAuthorize(Map<String, AnnotationValues> annotations, Set<String> dependencies) {
+            Set<String> annotationTypes = new HashSet<>();
+            MergedAnnotation preAuthorize = findMerged(annotations, List.of(PRE_AUTHORIZE), annotationTypes);
+            for (String descriptor : annotationTypes) {
+                String annotationType = Type.getType(descriptor).getClassName();
+                if (!isPlatformClass(annotationType)) {
+                    dependencies.add(annotationType);
+                }
+            }
+            return (preAuthorize != null) ? firstValue(preAuthorize.values, "value") : null;
+        }
+
+        /**
+         * Finds the first of the target annotations among the annotations of an element, declared
+         * either directly or as a meta-annotation of an application annotation. Attributes a composed
+         * annotation declares @AliasFor an attribute of its meta-annotation override that attribute.
+         */
+        private MergedAnnotation findMerged(Map<String, AnnotationValues> annotations, List<String> targets) {
+            return findMerged(annotations, targets, new HashSet<>());
+        }
+
+        private MergedAnnotation findMerged(Map<String, AnnotationValues> annotations, List<String> targets, Set<String> visited) {
+            for (String target : targets) {
+                AnnotationValues values = annotations.get(target);
+                if (values != null) {
+                    return new MergedAnnotation(target, values);
+                }
+            }
+            for (Map.Entry<String, AnnotationValues> annotation : annotations.entrySet()) {
+                ClassInfo annotationType = visited.add(annotation.getKey())
+                        ? load(Type.getType(annotation.getKey()).getClassName()) : null;
+                if (annotationType != null) {
+                    MergedAnnotation merged = findMerged(annotationType.metaAnnotations(annotation.getValue()), targets, visited);
+                    if (merged != null) {
+                        return merged;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private ClassInfo load(String className) {
+            if (className == null || isPlatformClass(className)) {
+                return null;
+            }
+            if (className.equals(scannedClass.name)) {
+                return scannedClass;
+            }
+            dependencies.add(className);
+            return typeCache.classInfo(className, classBytesPool.get(className));
+        }
+    }
+
+    /**
+     * The class files of a session parsed for the scan, and the @PreAuthorize expressions resolved
+     * for them, keyed by binary class name. Each ClassBytesPool owns one, so a base controller or
+     * interface shared by many controllers is parsed and walked once per session instead of once
+     * per controller. The pool drops a class's entries when its class file changes, together with
+     * the expressions of every type resolved through it. The cache is thread-safe.
+     */
+    static final class TypeCache {
+        // Parsed class files, empty for classes the pool lacks
+        private final Map<String, Optional<ClassInfo>> classInfos = new ConcurrentHashMap<>();
+        private final Map<String, TypeSecurity> typeSecurities = new ConcurrentHashMap<>();
+        // The types whose expressions were resolved through each supertype or annotation type
+        private final Map<String, Set<String>> dependents = new ConcurrentHashMap<>();
+
+        private ClassInfo classInfo(String className, byte[] bytes) {
+            Optional<ClassInfo> classInfo = classInfos.get(className);
+            if (classInfo == null) {
+                classInfo = Optional.ofNullable((bytes != null) ? ClassInfo.read(bytes) : null);
+                Optional<ClassInfo> existing = classInfos.putIfAbsent(className, classInfo);
+                classInfo = (existing != null) ? existing : classInfo;
+            }
+            return classInfo.orElse(null);
+        }
+
+        private void putTypeSecurity(String className, TypeSecurity typeSecurity, Set<String> dependencies) {
+            for (String dependency : dependencies) {
+                dependents.computeIfAbsent(dependency, key -> ConcurrentHashMap.newKeySet()).add(className);
+            }
+            typeSecurities.put(className, typeSecurity);
+        }
+
+        /**
+         * Drops the parsed class file of a class and the expressions of the class and of every type
+         * resolved through it, directly or transitively.
+         *
+         * @param className The binary name of the changed class.
+         */
+        void invalidate(String className) {
+            classInfos.remove(className);
+            Deque<String> stale = new ArrayDeque<>();
+            stale.push(className);
+            while (!stale.isEmpty()) {
+                String name = stale.pop();
+                typeSecurities.remove(name);
+                Set<String> names = dependents.remove(name);
+                if (names != null) {
+                    stale.addAll(names);
+                }
+            }
+        }
+    }
+
+    /**
+     * The scan cache key of a class file: the class file followed by the class files of its
+     * supertypes and of the application annotation types they use, transitively, in declaration
+     * order. The declarations are read from the constant pools, without a full ASM parse.
+     */
+    private static class CacheKey {
+        private final byte[] bytes;
+        // The supertypes and annotation types the key covers, including those the pool lacks
+        private final Set<String> dependencies;
+
+        private CacheKey(byte[] bytes, Set<String> dependencies) {
+            this.bytes = bytes;
+            this.dependencies = dependencies;
+        }
+
+        /**
+         * @return The key of the class file, or null if a class file cannot be read without a full parse.
+         */
+        static CacheKey of(byte[] classBytes, ClassBytesPool classBytesPool) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            bytes.writeBytes(classBytes);
+            Set<String> dependencies = new LinkedHashSet<>();
+            return collect(classBytes, classBytesPool, dependencies, bytes)
+                    ? new CacheKey(bytes.toByteArray(), dependencies) : null;
+        }
+
+        private static boolean collect(byte[] classBytes, ClassBytesPool classBytesPool, Set<String> dependencies,
+                                       ByteArrayOutputStream bytes) {
+            List<String> declaredTypes = ConstantPoolFilter.declaredTypes(classBytes);
+            if (declaredTypes == null) {
+                return false;
+            }
+            for (String type : declaredTypes) {
+                if (isPlatformClass(type) || !dependencies.add(type)) {
+                    continue;
+                }
+                byte[] dependency = classBytesPool.get(type);
+                if (dependency != null) {
+                    bytes.writeBytes(dependency);
+                    if (!collect(dependency, classBytesPool, dependencies, bytes)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * An annotation found on an element, with the attribute values it has there.
+     */
+    private static class MergedAnnotation {
+        private final String descriptor;
+        private final AnnotationValues values;
+
+        MergedAnnotation(String descriptor, AnnotationValues values) {
+            this.descriptor = descriptor;
+            this.values = values;
+        }
+    }
+
+    /**
+     * A handler method candidate together with the type declaring it.
+     */
+    private static class HandlerCandidate {
+        private final ClassInfo declaringType;
+        private final MethodInfo method;
+
+        HandlerCandidate(ClassInfo declaringType, MethodInfo method) {
+            this.declaringType = declaringType;
+            this.method = method;
+        }
+    }
+
+    /**
+     * The @PreAuthorize expressions a type declares or inherits.
+     */
+    private static class TypeSecurity {
+        // Nearest class-level expression in the hierarchy, or null
+        private final String classExpression;
+        // Nearest method-level expression per method signature
+        private final Map<String, String> methodExpressions;
+
+        TypeSecurity(String classExpression, Map<String, String> methodExpressions) {
+            this.classExpression = classExpression;
+            this.methodExpressions = methodExpressions;
+        }
+    }
+
+    /**
+     * The declarations of a class file relevant to the scan: its supertypes, its annotations and
+     * its methods with their annotations, in declaration order.
+     */
+    private static class ClassInfo {
+        private String name;
+        private String superName;
+        private int access;
+        private final List<String> interfaces = new ArrayList<>();
+        private final Map<String, AnnotationValues> annotations = new LinkedHashMap<>();
+        private final List<MethodInfo> methods = new ArrayList<>();
+
+        static ClassInfo read(byte[] classBytes) {
+            ClassInfo classInfo = new ClassInfo();
+            new ClassReader(classBytes).accept(classInfo.visitor(),
+                    ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+            return classInfo;
+        }
+
+        boolean isInterface() {
+            return (access & Opcodes.ACC_INTERFACE) != 0;
+        }
+
+        MethodInfo method(String signature) {
+            for (MethodInfo method : methods) {
+                if (method.signature.equals(signature)) {
+                    return method;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns the annotations of this annotation type as seen through one use of it: an
+         * attribute set by the use and declared @AliasFor an attribute of a meta-annotation
+         * overrides that attribute.
+         */
+        Map<String, AnnotationValues> metaAnnotations(AnnotationValues use) {
+            Map<String, AnnotationValues> metaAnnotations = new LinkedHashMap<>();
+            annotations.forEach((descriptor, values) -> metaAnnotations.put(descriptor, values.copy()));
+            for (MethodInfo attribute : methods) {
+                AnnotationValues aliasFor = attribute.annotations.get(ALIAS_FOR);
+                // Aliases without a target annotation pair attributes of this annotation itself
+                AnnotationValues target = (aliasFor != null) ? metaAnnotations.get(firstValue(aliasFor, "annotation")) : null;
+                if (target == null || !use.isSet(attribute.name)) {
+                    continue;
+                }
+                String targetAttribute = firstValue(aliasFor, "attribute");
+                if (targetAttribute.isEmpty()) {
+                    targetAttribute = firstValue(aliasFor, "value");
+                }
+                target.set(targetAttribute.isEmpty() ? attribute.name : targetAttribute, use.get(attribute.name));
+            }
+            return metaAnnotations;
+        }
+
+        private ClassVisitor visitor() {
+            return new ClassVisitor(Opcodes.ASM9) {
+                @Override
+                public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+                    ClassInfo.this.name = name.replace('/', '.');
+                    ClassInfo.this.superName = (superName != null) ? superName.replace('/', '.') : null;
+                    ClassInfo.this.access = access;
+                    if (interfaces != null) {
+                        for (String anInterface : interfaces) {
+                            ClassInfo.this.interfaces.add(anInterface.replace('/', '.'));
+                        }
+                    }
+                }
+
+                @Override
+                public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+                    AnnotationValues values = new AnnotationValues();
+                    annotations.put(descriptor, values);
+                    return values.visitor();
+                }
+
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                    // Constructors, bridges and synthetic methods are never handler or chain methods
+                    if ((access & (Opcodes.ACC_SYNTHETIC | Opcodes.ACC_BRIDGE)) != 0 || name.startsWith("<")) {
+                        return null;
+                    }
+                    MethodInfo method = new MethodInfo(name, descriptor, access);
+                    methods.add(method);
+                    return new MethodVisitor(Opcodes.ASM9) {
+                        @Override
+                        public AnnotationVisitor visitAnnotation(String annotationDescriptor, boolean visible) {
+                            AnnotationValues values = new AnnotationValues();
+                            method.annotations.put(annotationDescriptor, values);
+                            return values.visitor();
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    private static class MethodInfo {
+        private final String name;
+        private final String descriptor;
+        private final int access;
+        // Name and parameter types, formatted like HandlerMethods.signature
+        private final String signature;
+        private final Map<String, AnnotationValues> annotations = new LinkedHashMap<>();
+
+        MethodInfo(String name, String descriptor, int access) {
+            this.name = name;
+            this.descriptor = descriptor;
+            this.access = access;
+            this.signature = name + Arrays.stream(Type.getArgumentTypes(descriptor))
+                    .map(type -> (type.getSort() == Type.ARRAY) ? type.getDescriptor().replace('/', '.') : type.getClassName())
+                    .collect(Collectors.joining(",", "(", ")"));
+        }
+
+        boolean isPrivate() {
+            return (access & Opcodes.ACC_PRIVATE) != 0;
+        }
+
+        boolean isStatic() {
+            return (access & Opcodes.ACC_STATIC) != 0;
+        }
+
+        /**
+         * Checks whether this interface method is a default method: public, neither abstract nor static.
+         */
+        boolean isDefault() {
+            return (access & (Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT | Opcodes.ACC_STATIC)) == Opcodes.ACC_PUBLIC;
+        }
+
+        boolean returnsSecurityFilterChain() {
+            return Type.getReturnType(descriptor).getDescriptor().equals(SECURITY_FILTER_CHAIN);
+        }
+
+        /**
+         * Returns the @Order value of the method, defaulting to the lowest precedence like AnnotationUtils.
+         */
+        int order() {
+            AnnotationValues order = annotations.get(ORDER);
+            List<String> value = (order != null) ? order.get("value") : Collections.emptyList();
+            return value.isEmpty() ? ChainMethod.DEFAULT_ORDER : Integer.parseInt(value.get(0));
+        }
+    }
+
+    /**
+     * Collects the String, primitive, class and enum attribute values of a single annotation as
+     * strings, flattening arrays. Class values are kept as type descriptors.
+     */
+    private static class AnnotationValues {
+        private final Map<String, List<String>> values = new HashMap<>();
+
+        List<String> get(String attribute) {
+            return values.getOrDefault(attribute, Collections.emptyList());
+        }
+
+        /**
+         * Checks whether the annotation declares the attribute explicitly, even as an empty array.
+         */
+        boolean isSet(String attribute) {
+            return values.containsKey(attribute);
+        }
+
+        void set(String attribute, List<String> attributeValues) {
+            values.put(attribute, new ArrayList<>(attributeValues));
+        }
+
+        AnnotationValues copy() {
+            AnnotationValues copy = new AnnotationValues();
+            values.forEach(copy::set);
+            return copy;
+        }
+
+        AnnotationVisitor visitor() {
+            return new AnnotationVisitor(Opcodes.ASM9) {
+                @Override
+                public void visit(String name, Object value) {
+                    add(name, String.valueOf(value));
+                }
+
+                @Override
+                public void visitEnum(String name, String descriptor, String value) {
+                    add(name, value);
+                }
+
+                @Override
+                public AnnotationVisitor visitArray(String arrayName) {
+                    values.computeIfAbsent(arrayName, key -> new ArrayList<>());
+                    return new AnnotationVisitor(Opcodes.ASM9) {
+                        @Override
+                        public void visit(String name, Object value) {
+                            add(arrayName, String.valueOf(value));
+                        }
+
+                        @Override
+                        public void visitEnum(String name, String descriptor, String value) {
+                            add(arrayName, value);
+                        }
+                    };
+                }
+            };
+        }
+
+        private void add(String attribute, String value) {
+            values.computeIfAbsent(attribute, key -> new ArrayList<>()).add(value);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package io.authreporttool.core;
+
+import java.util.Comparator;
+
+/**
+ * The ChainMethod class identifies a SecurityFilterChain bean method together with its @Order
+ * value, however it was discovered: by reflection, from the bytecode or from the endpoint manifest.
+ *
+ * Spring Security consults the chains in @Order order, and the first chain matching a request
+ * secures it. All scan modes sort their chain methods with {@link #CHAIN_ORDER}, so they apply
+ * the chains in the same order and report the same authorization for the same endpoints.
+ */
+public class ChainMethod {
+
+    /**
+     * The order of a chain method without @Order, that of Ordered.LOWEST_PRECEDENCE.
+     */
+    public static final int DEFAULT_ORDER = Integer.MAX_VALUE;
+
+    /**
+     * Sorts chain methods the way Spring Security orders the chains: by @Order, then by class and
+     * method name, so chains of equal order keep an order independent of class discovery.
+     */
+    public static final Comparator<ChainMethod> CHAIN_ORDER = Comparator.comparingInt(ChainMethod::getOrder)
+            .thenComparing(ChainMethod::getClassName)
+            .thenComparing(ChainMethod::getMethodName);
+
+    private final String className;
+    private final String methodName;
+    private final int order;
+
+    /**
+     * Constructs a new ChainMethod.
+     *
+     * @param className The binary name of the class declaring the method.
+     * @param methodName The name of the method.
+     * @param order The @Order value of the method, or DEFAULT_ORDER if it has none.
+     */
+    public ChainMethod(String className, String methodName, int order) {
+        this.className = className;
+        this.methodName = methodName;
+        this.order = order;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public int getOrder() {
+        return order;
+    }
+
+    @Override
+    public String toString() {
+        return className + "." + methodName;
+    }
+}
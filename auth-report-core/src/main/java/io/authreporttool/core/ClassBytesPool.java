@@ -0,0 +1,117 @@
+package io.authreporttool.core;
+
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The ClassBytesPool class holds the raw class files read during a scan, keyed by binary class
+ * name, so that the scanner and the SecurityConfigAnalyzer never read the same class file from
+ * disk or from a jar twice.
+ *
+ * Each ScanSession owns a pool over its classpath roots. While the session's class files are
+ * walked, the scanner adds every candidate class (one that passes the constant-pool prefilter), so
+ * security configurations and custom filters are already in the pool when they are analyzed.
+ * Classes missing from the pool are looked up in the session's roots, which need not be on the
+ * tool's own class loader, and kept for later lookups. Classes found in no root are remembered
+ * as well, and the directories of jar roots are indexed on their first lookup, so neither a
+ * repeated miss nor a lookup in a Spring Boot jar rereads the session's jars.
+ *
+ * Only candidate classes are added during the walk, so the pool stays small even for sessions over
+ * large classpaths. The pool also owns the session's parsed class declarations, which it drops
+ * whenever a class file is replaced or removed. The pool is thread-safe.
+ */
+public class ClassBytesPool {
+
+    private final Map<String, byte[]> classFiles = new ConcurrentHashMap<>();
+    // Classes found in none of the roots, so a repeated miss never searches the roots again
+    private final Set<String> missingClasses = ConcurrentHashMap.newKeySet();
+    // The class entries of the jar roots, indexed once per session
+    private final Map<File, ClassFileWalker.JarDirectory> jarDirectories = new ConcurrentHashMap<>();
+    // Class files parsed by the bytecode scanner, kept for as long as the class files they come from
+    private final BytecodeControllerScanner.TypeCache typeCache = new BytecodeControllerScanner.TypeCache();
+    private final ClassFileWalker classFileWalker;
+    private final List<URL> roots;
+
+    /**
+     * Constructs an empty pool without classpath roots; classes are only found once they are added.
+     */
+    public ClassBytesPool() {
+        this(new ClassFileWalker(), Collections.emptyList());
+    }
+
+    /**
+     * Constructs a pool that looks up missing classes in the given classpath roots.
+     *
+     * @param classFileWalker The walker used to find class files in the roots.
+     * @param roots The classpath roots (directories or jar files) to search.
+     */
+    ClassBytesPool(ClassFileWalker classFileWalker, Collection<URL> roots) {
+        this.classFileWalker = classFileWalker;
+        this.roots = new ArrayList<>(roots);
+    }
+
+    /**
+     * Returns the bytes of a class file, reading it from the pool's roots on the first request.
+     *
+     * @param className The binary name of the class.
+     * @return The raw class-file bytes, or null if the class is neither pooled nor in the roots.
+     */
+    public byte[] get(String className) {
+        byte[] bytes = classFiles.get(className);
+        if (bytes != null || roots.isEmpty() || missingClasses.contains(className)) {
+            return bytes;
+        }
+
+        bytes = classFileWalker.findClassFile(roots, className, jarDirectories);
+        if (bytes != null) {
+            byte[] existing = classFiles.putIfAbsent(className, bytes);
+            return (existing != null) ? existing : bytes;
+        }
+        missingClasses.add(className);
+        return null;
+    }
+
+    /**
+     * Adds or replaces the bytes of a class file, for example after it was recompiled.
+     *
+     * @param className The binary name of the class.
+     * @param bytes The raw class-file bytes.
+     */
+    public void put(String className, byte[] bytes) {
+        byte[] previous = classFiles.put(className, bytes);
+        missingClasses.remove(className);
+        // The walk adds class files a controller's supertype lookup may have read already
+        if (previous == null || !Arrays.equals(previous, bytes)) {
+            typeCache.invalidate(className);
+        }
+    }
+
+    /**
+     * Drops a class file from the pool, for example after it was changed, created or deleted, so
+     * the next lookup searches the roots again.
+     *
+     * @param className The binary name of the class.
+     */
+    public void remove(String className) {
+        classFiles.remove(className);
+        missingClasses.remove(className);
+        typeCache.invalidate(className);
+    }
+
+    /**
+     * Returns the parsed declarations of the pooled class files, shared by every scan of the session.
+     *
+     * @return The session's type cache.
+     */
+    BytecodeControllerScanner.TypeCache getTypeCache() {
+        return typeCache;
+    }
+}
@@ -0,0 +1,523 @@
+package io.authreporttool.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+import java.util.zip.ZipException;
+
+/**
+ * The ClassFileWalker class enumerates the raw class files of a package across a set of
+ * classpath roots (directories and jars) without loading or defining any of the classes.
+ *
+ * It is the entry point of the bytecode-only scanning mode: every class file found under
+ * the package is handed to a visitor as its binary name and bytes.
+ *
+ * Spring Boot executable jars and wars are read in place: application classes under
+ * BOOT-INF/classes (or WEB-INF/classes) are visited like top-level entries, and the jars under
+ * BOOT-INF/lib (or WEB-INF/lib) are read in place from the outer archive without extracting or
+ * buffering them, reading only their central directory and the entries whose name lies in the package.
+ */
+public class ClassFileWalker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClassFileWalker.class);
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    // Directories holding the application classes and the nested library jars of executable archives
+    private static final List<String> NESTED_CLASS_DIRECTORIES = List.of("BOOT-INF/classes/", "WEB-INF/classes/");
+    private static final List<String> NESTED_LIB_DIRECTORIES = List.of("BOOT-INF/lib/", "WEB-INF/lib/");
+
+    /**
+     * Callback receiving each class file found by the walker.
+     */
+    @FunctionalInterface
+    public interface ClassFileVisitor {
+        /**
+         * Visits a single class file.
+         *
+         * @param className The binary name of the class (e.g., "com.example.Outer$Inner").
+         * @param bytes The raw class-file bytes.
+         */
+        void visitClassFile(String className, byte[] bytes);
+    }
+
+    /**
+     * Walks every class file under the base package in the given classpath roots.
+     *
+     * @param urls The classpath roots to walk (directories or jar files).
+     * @param basePackage The package whose class files should be visited.
+     * @param visitor The visitor receiving each class file.
+     */
+    public void walk(Collection<URL> urls, String basePackage, ClassFileVisitor visitor) {
+        walk(urls, basePackage, visitor, null);
+    }
+
+    /**
+     * Walks every class file under the base package in the given classpath roots, skipping jars
+     * that the scan cache records as containing no candidate classes for the package. Jars found
+     * to contain none during this walk are recorded, so later runs never open them again.
+     *
+     * @param urls The classpath roots to walk (directories or jar files).
+     * @param basePackage The package whose class files should be visited.
+     * @param visitor The visitor receiving each class file.
+     * @param scanCache The persistent scan cache holding the jar index, or null to walk every jar.
+     */
+    public void walk(Collection<URL> urls, String basePackage, ClassFileVisitor visitor, ScanCache scanCache) {
+        walk(urls, List.of(basePackage), visitor, scanCache);
+    }
+
+    /**
+     * Walks every class file under any of the base packages in the given classpath roots. Each
+     * root is walked once, however many packages there are, and a class file in several of the
+     * packages (e.g. "com.example" and "com.example.api") is visited once.
+     *
+     * @param urls The classpath roots to walk (directories or jar files).
+     * @param basePackages The packages whose class files should be visited.
+     * @param visitor The visitor receiving each class file.
+     * @param scanCache The persistent scan cache holding the jar index, or null to walk every jar.
+     */
+    public void walk(Collection<URL> urls, Collection<String> basePackages, ClassFileVisitor visitor, ScanCache scanCache) {
+        PackagePaths packagePaths = new PackagePaths(basePackages);
+        JarIndex jarIndex = (scanCache != null) ? new JarIndex(scanCache) : null;
+
+        for (URL url : urls) {
+            File root;
+            try {
+                root = new File(url.toURI());
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                logger.warn("Skipping classpath URL that is not a local file: {}", url);
+                continue;
+            }
+
+            try {
+                if (root.isDirectory()) {
+                    walkDirectory(root.toPath(), packagePaths, visitor);
+                } else if (root.isFile()) {
+                    walkJar(root, packagePaths, visitor, jarIndex);
+                }
+            } catch (IOException e) {
+                logger.error("Error reading class files from: " + url, e);
+            }
+        }
+    }
+
+    /**
+     * Reads a single class file from the first classpath root that contains it.
+     *
+     * @param urls The classpath roots to search (directories or jar files).
+     * @param className The binary name of the class.
+     * @return The raw class-file bytes, or null if no root contains the class.
+     */
+    public byte[] findClassFile(Collection<URL> urls, String className) {
+        return findClassFile(urls, className, new HashMap<>());
+    }
+
+    /**
+     * Reads a single class file from the first classpath root that contains it, looking jar roots
+     * up in an index of their entries. A jar is indexed on its first lookup and its nested library
+     * jars on the first lookup its own entries cannot answer, so later lookups skip jars without
+     * the class and read at most the one nested jar holding it. The jars must not change while
+     * the index is in use.
+     *
+     * @param urls The classpath roots to search (directories or jar files).
+     * @param className The binary name of the class.
+     * @param jarDirectories The jar directories indexed so far, extended by this lookup.
+     * @return The raw class-file bytes, or null if no root contains the class.
+     */
+    byte[] findClassFile(Collection<URL> urls, String className, Map<File, JarDirectory> jarDirectories) {
+        String entryName = className.replace('.', '/') + CLASS_SUFFIX;
+
+        for (URL url : urls) {
+            try {
+                File root = new File(url.toURI());
+                if (root.isDirectory()) {
+                    Path classFile = root.toPath().resolve(entryName);
+                    if (Files.isRegularFile(classFile)) {
+                        return Files.readAllBytes(classFile);
+                    }
+                } else if (root.isFile()) {
+                    byte[] bytes = findClassFileInJar(root, entryName, jarDirectories);
+                    if (bytes != null) {
+                        return bytes;
+                    }
+                }
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                logger.warn("Skipping classpath URL that is not a local file: {}", url);
+            } catch (IOException e) {
+                logger.error("Error reading class file " + entryName + " from: " + url, e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the class-file bytes of a class through a class loader's resources, without loading the class.
+     *
+     * @param classLoader The class loader whose resources are searched.
+     * @param className The binary name of the class.
+     * @return The raw class-file bytes.
+     * @throws IOException If the class file cannot be found or read.
+     */
+    public static byte[] readClassFile(ClassLoader classLoader, String className) throws IOException {
+        String resourceName = className.replace('.', '/') + CLASS_SUFFIX;
+        try (InputStream in = classLoader.getResourceAsStream(resourceName)) {
+            if (in == null) {
+                throw new IOException("Class file not found: " + resourceName);
+            }
+            return in.readAllBytes();
+        }
+    }
+
+    private void walkDirectory(Path root, PackagePaths packagePaths, ClassFileVisitor visitor) throws IOException {
+        // The package directories are disjoint, so each class file is found once
+        List<Path> classFiles = new ArrayList<>();
+        for (String packagePath : packagePaths.paths) {
+            Path packageDir = root.resolve(packagePath);
+            if (!Files.isDirectory(packageDir)) {
+                continue;
+            }
+            try (Stream<Path> paths = Files.walk(packageDir)) {
+                paths.filter(path -> path.getFileName().toString().endsWith(CLASS_SUFFIX))
+                        .forEach(classFiles::add);
+            }
+        }
+        Collections.sort(classFiles);
+
+        for (Path classFile : classFiles) {
+            String entryName = root.relativize(classFile).toString().replace(File.separatorChar, '/');
+            if (isClassEntry(entryName)) {
+                visitor.visitClassFile(toClassName(entryName), Files.readAllBytes(classFile));
+            }
+        }
+    }
+
+    private byte[] findClassFileInJar(File jar, String entryName, Map<File, JarDirectory> jarDirectories) throws IOException {
+        JarDirectory directory = jarDirectories.get(jar);
+        if (directory == null) {
+            directory = new JarDirectory(indexClassEntries(jar));
+            JarDirectory existing = jarDirectories.putIfAbsent(jar, directory);
+            directory = (existing != null) ? existing : directory;
+        }
+
+        String outerEntryName = directory.classEntries.get(entryName);
+        String nestedJarName = (outerEntryName == null) ? nestedClassEntries(jar, directory).get(entryName) : null;
+        if (outerEntryName == null && nestedJarName == null) {
+            return null;
+        }
+
+        try (JarFile jarFile = new JarFile(jar); NestedJars nestedJars = new NestedJars(jar, jarFile)) {
+            if (outerEntryName != null) {
+                try (InputStream in = jarFile.getInputStream(jarFile.getJarEntry(outerEntryName))) {
+                    return in.readAllBytes();
+                }
+            }
+            // Only the nested jar holding the class is read, inflating only the requested entry
+            byte[][] found = new byte[1][];
+            nestedJars.forEachEntry(jarFile.getJarEntry(nestedJarName), entryName::equals, (name, bytes) -> found[0] = bytes);
+            return found[0];
+        }
+    }
+
+    /**
+     * Maps the class entries of a jar, with the BOOT-INF/classes or WEB-INF/classes prefix of
+     * executable archives stripped, to the entries holding them. A top-level entry wins over a
+     * nested class directory entry of the same name.
+     */
+    private Map<String, String> indexClassEntries(File jar) throws IOException {
+        Map<String, String> classEntries = new HashMap<>();
+        try (JarFile jarFile = new JarFile(jar)) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                String entryName = entries.nextElement().getName();
+                if (!entryName.endsWith(CLASS_SUFFIX)) {
+                    continue;
+                }
+                String classEntryName = stripNestedClassDirectory(entryName);
+                if (classEntryName.equals(entryName)) {
+                    classEntries.put(entryName, entryName);
+                } else {
+                    classEntries.putIfAbsent(classEntryName, entryName);
+                }
+            }
+        }
+        return classEntries;
+    }
+
+    /**
+     * Maps the class entries of the nested library jars of a jar to the first nested jar holding
+     * them, indexing the nested jars on the first call for the jar.
+     */
+    private Map<String, String> nestedClassEntries(File jar, JarDirectory directory) throws IOException {
+        synchronized (directory) {
+            if (directory.nestedClassEntries != null) {
+                return directory.nestedClassEntries;
+            }
+            Map<String, String> nestedClassEntries = new HashMap<>();
+            try (JarFile jarFile = new JarFile(jar); NestedJars nestedJars = new NestedJars(jar, jarFile)) {
+                Enumeration<JarEntry> entries = jarFile.entries();
+                while (entries.hasMoreElements()) {
+                    JarEntry nested = entries.nextElement();
+                    if (!isNestedJar(nested.getName())) {
+                        continue;
+                    }
+                    // Only the names are collected, so the filter rejects every entry and no data is read
+                    nestedJars.forEachEntry(nested, entryName -> {
+                        if (entryName.endsWith(CLASS_SUFFIX)) {
+                            nestedClassEntries.putIfAbsent(entryName, nested.getName());
+                        }
+                        return false;
+                    }, (entryName, bytes) -> { });
+                }
+            }
+            directory.nestedClassEntries = nestedClassEntries;
+            return nestedClassEntries;
+        }
+    }
+
+    private void walkJar(File jar, PackagePaths packagePaths, ClassFileVisitor visitor, JarIndex jarIndex) throws IOException {
+        String fingerprint = (jarIndex != null) ? jarIndex.fingerprint(jar) : null;
+        if (fingerprint != null && jarIndex.isIrrelevant(fingerprint, packagePaths.indexKey)) {
+            logger.debug("Skipping jar without candidate classes: {}", jar);
+            return;
+        }
+
+        CandidateTracker jarTracker = new CandidateTracker(visitor, packagePaths.prefilterPrefixes);
+        try (JarFile jarFile = new JarFile(jar); NestedJars nestedJars = new NestedJars(jar, jarFile)) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                String entryName = entry.getName();
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                if (isNestedJar(entryName)) {
+                    walkIndexedNestedJar(jar, nestedJars, entry, packagePaths, jarTracker, jarIndex);
+                    continue;
+                }
+
+                String classEntryName = stripNestedClassDirectory(entryName);
+                if (!packagePaths.contains(classEntryName) || !isClassEntry(classEntryName)) {
+                    continue;
+                }
+                try (InputStream in = jarFile.getInputStream(entry)) {
+                    jarTracker.visitClassFile(toClassName(classEntryName), in.readAllBytes());
+                }
+            }
+        }
+
+        if (fingerprint != null && !jarTracker.foundCandidate) {
+            jarIndex.markIrrelevant(fingerprint, packagePaths.indexKey, jar.getName());
+        }
+    }
+
+    private void walkIndexedNestedJar(File jar, NestedJars nestedJars, JarEntry entry, PackagePaths packagePaths,
+                                      CandidateTracker outerTracker, JarIndex jarIndex) throws IOException {
+        String fingerprint = (jarIndex != null) ? JarIndex.fingerprint(entry) : null;
+        if (fingerprint != null && jarIndex.isIrrelevant(fingerprint, packagePaths.indexKey)) {
+            logger.debug("Skipping nested jar without candidate classes: {}!/{}", jar, entry.getName());
+            return;
+        }
+
+        CandidateTracker nestedTracker = new CandidateTracker(outerTracker, packagePaths.prefilterPrefixes);
+        nestedJars.forEachEntry(entry,
+                name -> packagePaths.contains(name) && isClassEntry(name),
+                (name, bytes) -> nestedTracker.visitClassFile(toClassName(name), bytes));
+
+        if (fingerprint != null && !nestedTracker.foundCandidate) {
+            jarIndex.markIrrelevant(fingerprint, packagePaths.indexKey, entry.getName());
+        }
+    }
+
+    /**
+     * The class entries of a jar root, indexed once per scan session so repeated lookups neither
+     * reopen a jar that lacks the class nor reread its nested library jars.
+     */
+    static final class JarDirectory {
+        // Class entry names, e.g. "com/example/Api.class", mapped to the jar entry holding them
+        private final Map<String, String> classEntries;
+        // Class entry names mapped to the nested jar holding them, or null until first needed
+        private Map<String, String> nestedClassEntries;
+
+        JarDirectory(Map<String, String> classEntries) {
+            this.classEntries = classEntries;
+        }
+    }
+
+    /**
+     * The entry-name prefixes of a set of packages, without prefixes covered by a parent package.
+     */
+    private static class PackagePaths {
+        // Sorted, disjoint package paths, e.g. "com/example/"
+        private final List<String> paths = new ArrayList<>();
+        // Key of the packages in the jar index; a single package keeps its own path as key
+        private final String indexKey;
+        // The packages in the form the constant-pool prefilter expects
+        private final List<byte[]> prefilterPrefixes;
+
+        PackagePaths(Collection<String> basePackages) {
+            TreeSet<String> sorted = new TreeSet<>();
+            for (String basePackage : basePackages) {
+                sorted.add(basePackage.isEmpty() ? "" : basePackage.replace('.', '/') + "/");
+            }
+            // A parent package sorts before its sub-packages, so one look back drops the covered ones
+            for (String path : sorted) {
+                if (paths.isEmpty() || !path.startsWith(paths.get(paths.size() - 1))) {
+                    paths.add(path);
+                }
+            }
+            indexKey = String.join(",", paths);
+            prefilterPrefixes = ConstantPoolFilter.packagePrefixes(basePackages);
+        }
+
+        boolean contains(String entryName) {
+            for (String path : paths) {
+                if (entryName.startsWith(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The nested library jars of an open jar. Nested jars stored uncompressed, as Spring Boot
+     * stores them, are read in place through a channel on the outer file, whose central directory
+     * is read on the first nested jar; compressed ones are streamed from the outer entry.
+     */
+    private static final class NestedJars implements Closeable {
+        private final File jar;
+        private final JarFile jarFile;
+        private FileChannel channel;
+        private NestedJar outerArchive;
+        // Set when the outer archive's central directory cannot be read, e.g. for ZIP64 archives
+        private boolean streamOnly;
+
+        NestedJars(File jar, JarFile jarFile) {
+            this.jar = jar;
+            this.jarFile = jarFile;
+        }
+
+        /**
+         * Visits the entries of a nested jar whose name is accepted by the filter. A stored nested
+         * jar that cannot be read in place, e.g. a ZIP64 one, is streamed instead; a nested jar that
+         * cannot be streamed either is skipped with a warning.
+         */
+        void forEachEntry(JarEntry entry, Predicate<String> nameFilter, NestedJar.EntryVisitor visitor) throws IOException {
+            boolean[] visited = {false};
+            try {
+                NestedJar nestedJar = inPlace(entry);
+                if (nestedJar != null) {
+                    nestedJar.forEachEntry(nameFilter, (name, bytes) -> {
+                        visited[0] = true;
+                        visitor.visitEntry(name, bytes);
+                    });
+                    return;
+                }
+            } catch (ZipException e) {
+                // Streaming again would visit the entries already seen a second time
+                if (visited[0]) {
+                    logger.warn("Skipping rest of unreadable nested jar {}!/{}: {}", jar, entry.getName(), e.getMessage());
+                    return;
+                }
+                logger.debug("Nested jar {}!/{} not readable in place, streaming it: {}", jar, entry.getName(), e.getMessage());
+            }
+
+            try (InputStream in = jarFile.getInputStream(entry)) {
+                NestedJar.forEachEntry(in, nameFilter, visitor);
+            } catch (ZipException e) {
+                logger.warn("Skipping unreadable nested jar {}!/{}: {}", jar, entry.getName(), e.getMessage());
+            }
+        }
+
+        private NestedJar inPlace(JarEntry entry) throws IOException {
+            if (streamOnly) {
+                return null;
+            }
+            try {
+                if (outerArchive == null) {
+                    channel = FileChannel.open(jar.toPath(), StandardOpenOption.READ);
+                    outerArchive = NestedJar.open(channel);
+                }
+                return outerArchive.nestedJar(entry.getName());
+            } catch (ZipException e) {
+                logger.debug("Central directory of {} not readable, streaming its nested jars: {}", jar, e.getMessage());
+                streamOnly = true;
+                return null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Forwards class files to a visitor while noting whether any of them passes the constant-pool prefilter.
+     */
+    private static class CandidateTracker implements ClassFileVisitor {
+        private final ClassFileVisitor delegate;
+        private final List<byte[]> packagePrefixes;
+        private boolean foundCandidate = false;
+
+        CandidateTracker(ClassFileVisitor delegate, List<byte[]> packagePrefixes) {
+            this.delegate = delegate;
+            this.packagePrefixes = packagePrefixes;
+        }
+
+        @Override
+        public void visitClassFile(String className, byte[] bytes) {
+            if (!foundCandidate && ConstantPoolFilter.mayBeRelevant(bytes, packagePrefixes)) {
+                foundCandidate = true;
+            }
+            delegate.visitClassFile(className, bytes);
+        }
+    }
+
+    private boolean isNestedJar(String entryName) {
+        return entryName.endsWith(".jar") && NESTED_LIB_DIRECTORIES.stream().anyMatch(entryName::startsWith);
+    }
+
+    private String stripNestedClassDirectory(String entryName) {
+        for (String directory : NESTED_CLASS_DIRECTORIES) {
+            if (entryName.startsWith(directory)) {
+                return entryName.substring(directory.length());
+            }
+        }
+        return entryName;
+    }
+
+    private boolean isClassEntry(String entryName) {
+        return entryName.endsWith(CLASS_SUFFIX)
+                && !entryName.endsWith("module-info.class")
+                && !entryName.endsWith("package-info.class");
+    }
+
+    private String toClassName(String entryName) {
+        return entryName.substring(0, entryName.length() - CLASS_SUFFIX.length()).replace('/', '.');
+    }
+}
@@ -0,0 +1,454 @@
+package io.authreporttool.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The ConstantPoolFilter class cheaply rejects class files that cannot matter to the report.
+ *
+ * Every annotation, supertype and method signature a class refers to appears as a UTF-8 entry of
+ * its constant pool. A class whose pool mentions none of RestController, RequestMapping,
+ * SecurityFilterChain or OncePerRequestFilter can therefore be neither a controller nor a security
+ * configuration nor a custom filter, and is skipped without a full ASM parse. Only the constant
+ * pool is walked and no string is decoded.
+ *
+ * A custom filter may extend an application base filter instead of OncePerRequestFilter itself,
+ * in which case only the base filter's pool mentions it. Classes whose superclass lies in one of
+ * the scanned packages are therefore accepted as well. Likewise, a controller may be annotated
+ * with a composed annotation meta-annotated with @RestController instead of @RestController
+ * itself, so classes annotated with an annotation type of the scanned packages are accepted too;
+ * only the class-level annotations are read for this, skipping fields and methods by length.
+ *
+ * The filter errs on the side of accepting: class files it cannot parse are accepted, so the
+ * full parser gets to report them.
+ */
+final class ConstantPoolFilter {
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_CLASS = 7;
+
+    // Every relevant reference lies under this prefix, so it is searched first
+    private static final byte[] SPRING_PREFIX = ascii("org/springframework/");
+    private static final byte[] JAVA_PREFIX = ascii("java/");
+    private static final byte[] RUNTIME_VISIBLE_ANNOTATIONS = ascii("RuntimeVisibleAnnotations");
+    private static final byte[] RUNTIME_INVISIBLE_ANNOTATIONS = ascii("RuntimeInvisibleAnnotations");
+
+    private static final List<byte[]> RELEVANT_SUFFIXES = List.of(
+            ascii("web/bind/annotation/RestController"),
+            ascii("web/bind/annotation/RequestMapping"),
+            ascii("security/web/SecurityFilterChain"),
+            ascii("web/filter/OncePerRequestFilter"));
+
+    private ConstantPoolFilter() {
+    }
+
+    /**
+     * Checks whether a class file may declare endpoints, security filter chains or custom filters.
+     *
+     * @param classBytes The raw class-file bytes.
+     * @return false if the constant pool references none of the relevant Spring types, true otherwise.
+     */
+    static boolean mayBeRelevant(byte[] classBytes) {
+        return mayBeRelevant(classBytes, List.of());
+    }
+
+    /**
+     * Converts package names into the entry-name prefixes accepted by {@link #mayBeRelevant(byte[], List)}.
+     *
+     * @param basePackages The scanned packages, e.g. "com.example"; the empty package covers every class.
+     * @return The prefixes of the packages' internal names, e.g. "com/example/".
+     */
+    static List<byte[]> packagePrefixes(Collection<String> basePackages) {
+        List<byte[]> prefixes = new ArrayList<>();
+        for (String basePackage : basePackages) {
+            String path = basePackage.isEmpty() ? "" : basePackage.replace('.', '/') + "/";
+            prefixes.add(path.getBytes(StandardCharsets.UTF_8));
+        }
+        return prefixes;
+    }
+
+    /**
+     * Checks whether a class file may declare endpoints, security filter chains or custom filters,
+     * also accepting classes that extend a class of the scanned packages or are annotated with an
+     * annotation type of the scanned packages.
+     *
+     * @param classBytes The raw class-file bytes.
+     * @param packagePrefixes The scanned packages, as returned by {@link #packagePrefixes}.
+     * @return false if the constant pool references none of the relevant Spring types, the
+     *         superclass lies outside the packages and so do the class's annotations, true otherwise.
+     */
+    static boolean mayBeRelevant(byte[] classBytes, List<byte[]> packagePrefixes) {
+        if (classBytes.length < 10 || readInt(classBytes, 0) != MAGIC) {
+            return true;
+        }
+
+        int count = readUnsignedShort(classBytes, 8);
+        // Offset of each constant, so the superclass name can be looked up after the pool
+        int[] offsets = new int[count];
+        int offset = 10;
+        for (int index = 1; index < count; index++) {
+            if (offset >= classBytes.length) {
+                return true;
+            }
+            offsets[index] = offset;
+            int tag = classBytes[offset];
+            if (tag == CONSTANT_UTF8) {
+                if (offset + 3 > classBytes.length) {
+                    return true;
+                }
+                int length = readUnsignedShort(classBytes, offset + 1);
+                if (containsRelevantReference(classBytes, offset + 3, Math.min(offset + 3 + length, classBytes.length))) {
+                    return true;
+                }
+            }
+            int size = constantSize(classBytes, offset);
+            if (size < 0) {
+                // Unknown constant pool tag, leave the decision to the full parser
+                return true;
+            }
+            offset += size;
+            if (isWide(tag)) {
+                index++;
+            }
+        }
+        return !packagePrefixes.isEmpty() && (extendsPackageClass(classBytes, offset, offsets, packagePrefixes)
+                || annotatedWithPackageType(classBytes, offset, offsets, packagePrefixes));
+    }
+
+    /**
+     * Lists the types a class file is declared in terms of: its superclass, its interfaces and the
+     * annotation types of its methods and of the class itself, as binary names in declaration order.
+     * Only the constant pool and the attribute headers are read, so a class's dependencies can be
+     * found without a full ASM parse.
+     *
+     * @param classBytes The raw class-file bytes.
+     * @return The binary names of the declared types, or null if the class file cannot be parsed.
+     */
+    static List<String> declaredTypes(byte[] classBytes) {
+        if (classBytes.length < 10 || readInt(classBytes, 0) != MAGIC) {
+            return null;
+        }
+        try {
+            int count = readUnsignedShort(classBytes, 8);
+            int[] offsets = new int[count];
+            int offset = 10;
+            for (int index = 1; index < count; index++) {
+                offsets[index] = offset;
+                int size = constantSize(classBytes, offset);
+                if (size < 0) {
+                    return null;
+                }
+                if (isWide(classBytes[offset])) {
+                    index++;
+                }
+                offset += size;
+            }
+
+            List<String> types = new ArrayList<>();
+            int superIndex = readUnsignedShort(classBytes, offset + 4);
+            if (superIndex != 0) {
+                types.add(className(classBytes, offsets, superIndex));
+            }
+            int interfaceCount = readUnsignedShort(classBytes, offset + 6);
+            int position = offset + 8;
+            for (int i = 0; i < interfaceCount; i++) {
+                types.add(className(classBytes, offsets, readUnsignedShort(classBytes, position)));
+                position += 2;
+            }
+
+            int fieldCount = readUnsignedShort(classBytes, position);
+            position += 2;
+            for (int i = 0; i < fieldCount; i++) {
+                position = skipAttributes(classBytes, position + 6);
+            }
+            int methodCount = readUnsignedShort(classBytes, position);
+            position += 2;
+            for (int i = 0; i < methodCount; i++) {
+                position = readAnnotationTypes(classBytes, position + 6, offsets, types);
+            }
+            readAnnotationTypes(classBytes, position, offsets, types);
+            return types;
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            // Truncated or malformed class file, leave it to the full parser
+            return null;
+        }
+    }
+
+    /**
+     * Adds the annotation types of a member's or the class's attributes to the types.
+     *
+     * @param position The offset of the attribute count.
+     * @return The offset directly after the attributes.
+     */
+    private static int readAnnotationTypes(byte[] classBytes, int position, int[] offsets, List<String> types) {
+        int attributeCount = readUnsignedShort(classBytes, position);
+        position += 2;
+        for (int i = 0; i < attributeCount; i++) {
+            int nameIndex = readUnsignedShort(classBytes, position);
+            int start = position + 6;
+            if (isUtf8(classBytes, offsets, nameIndex, RUNTIME_VISIBLE_ANNOTATIONS)
+                    || isUtf8(classBytes, offsets, nameIndex, RUNTIME_INVISIBLE_ANNOTATIONS)) {
+                int annotationCount = readUnsignedShort(classBytes, start);
+                int annotation = start + 2;
+                for (int j = 0; j < annotationCount; j++) {
+                    String descriptor = utf8(classBytes, offsets, readUnsignedShort(classBytes, annotation));
+                    if (descriptor.length() < 3 || descriptor.charAt(0) != 'L' || !descriptor.endsWith(";")) {
+                        throw new IllegalArgumentException("Invalid annotation descriptor " + descriptor);
+                    }
+                    types.add(descriptor.substring(1, descriptor.length() - 1).replace('/', '.'));
+                    annotation = skipAnnotation(classBytes, annotation);
+                }
+            }
+            int length = readInt(classBytes, position + 2);
+            if (length < 0) {
+                throw new IllegalArgumentException("Invalid attribute length");
+            }
+            position = start + length;
+        }
+        return position;
+    }
+
+    private static String className(byte[] classBytes, int[] offsets, int classIndex) {
+        if (classIndex == 0 || classIndex >= offsets.length || classBytes[offsets[classIndex]] != CONSTANT_CLASS) {
+            throw new IllegalArgumentException("Invalid class constant " + classIndex);
+        }
+        return utf8(classBytes, offsets, readUnsignedShort(classBytes, offsets[classIndex] + 1)).replace('/', '.');
+    }
+
+    private static String utf8(byte[] classBytes, int[] offsets, int index) {
+        if (index == 0 || index >= offsets.length || classBytes[offsets[index]] != CONSTANT_UTF8) {
+            throw new IllegalArgumentException("Invalid UTF-8 constant " + index);
+        }
+        int start = offsets[index] + 3;
+        int length = readUnsignedShort(classBytes, offsets[index] + 1);
+        if (start + length > classBytes.length) {
+            throw new IllegalArgumentException("Truncated UTF-8 constant " + index);
+        }
+        return new String(classBytes, start, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the size in bytes of the constant at an offset, or -1 if its tag is unknown.
+     */
+    private static int constantSize(byte[] classBytes, int offset) {
+        switch (classBytes[offset]) {
+            case 1: // Utf8
+                return 3 + readUnsignedShort(classBytes, offset + 1);
+            case 7: case 8: case 16: case 19: case 20: // Class, String, MethodType, Module, Package
+                return 3;
+            case 15: // MethodHandle
+                return 4;
+            case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+                // Integer, Float, Fieldref, Methodref, InterfaceMethodref, NameAndType, Dynamic, InvokeDynamic
+                return 5;
+            case 5: case 6: // Long and Double
+                return 9;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Checks whether a constant takes two constant pool slots, as Long and Double do.
+     */
+    private static boolean isWide(int tag) {
+        return tag == 5 || tag == 6;
+    }
+
+    /**
+     * Checks whether the superclass lies in one of the packages. Classes extending a JDK class
+     * never qualify, even when every package is scanned.
+     *
+     * @param offset The offset of the access flags, directly after the constant pool.
+     */
+    private static boolean extendsPackageClass(byte[] classBytes, int offset, int[] offsets, List<byte[]> packagePrefixes) {
+        if (offset + 6 > classBytes.length) {
+            return true;
+        }
+        int superIndex = readUnsignedShort(classBytes, offset + 4);
+        if (superIndex == 0) {
+            // java.lang.Object and module-info have no superclass
+            return false;
+        }
+        if (superIndex >= offsets.length || classBytes[offsets[superIndex]] != CONSTANT_CLASS) {
+            return true;
+        }
+        int nameIndex = readUnsignedShort(classBytes, offsets[superIndex] + 1);
+        if (nameIndex == 0 || nameIndex >= offsets.length || classBytes[offsets[nameIndex]] != CONSTANT_UTF8) {
+            return true;
+        }
+        int nameOffset = offsets[nameIndex];
+        int nameStart = nameOffset + 3;
+        int nameEnd = Math.min(nameStart + readUnsignedShort(classBytes, nameOffset + 1), classBytes.length);
+        if (regionMatches(classBytes, nameStart, nameEnd, JAVA_PREFIX)) {
+            return false;
+        }
+        for (byte[] packagePrefix : packagePrefixes) {
+            if (regionMatches(classBytes, nameStart, nameEnd, packagePrefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the class is annotated with an annotation type of the packages, such as a
+     * composed controller annotation. JDK and Spring annotations never qualify, even when every
+     * package is scanned, since the relevant Spring ones are already matched by name.
+     *
+     * @param offset The offset of the access flags, directly after the constant pool.
+     */
+    private static boolean annotatedWithPackageType(byte[] classBytes, int offset, int[] offsets, List<byte[]> packagePrefixes) {
+        try {
+            // Access flags, this and super class, then the interfaces
+            int position = offset + 8 + 2 * readUnsignedShort(classBytes, offset + 6);
+            // Fields, then methods, are skipped attribute by attribute
+            for (int members = 0; members < 2; members++) {
+                int count = readUnsignedShort(classBytes, position);
+                position += 2;
+                for (int i = 0; i < count; i++) {
+                    position = skipAttributes(classBytes, position + 6);
+                }
+            }
+
+            int attributeCount = readUnsignedShort(classBytes, position);
+            position += 2;
+            for (int i = 0; i < attributeCount; i++) {
+                int nameIndex = readUnsignedShort(classBytes, position);
+                int start = position + 6;
+                if (isUtf8(classBytes, offsets, nameIndex, RUNTIME_VISIBLE_ANNOTATIONS)) {
+                    int annotationCount = readUnsignedShort(classBytes, start);
+                    int annotation = start + 2;
+                    for (int j = 0; j < annotationCount; j++) {
+                        if (isPackageDescriptor(classBytes, offsets, readUnsignedShort(classBytes, annotation), packagePrefixes)) {
+                            return true;
+                        }
+                        annotation = skipAnnotation(classBytes, annotation);
+                    }
+                    return false;
+                }
+                position = start + readInt(classBytes, position + 2);
+            }
+            return false;
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            // Truncated or malformed class file, leave the decision to the full parser
+            return true;
+        }
+    }
+
+    private static int skipAttributes(byte[] classBytes, int position) {
+        int count = readUnsignedShort(classBytes, position);
+        position += 2;
+        for (int i = 0; i < count; i++) {
+            int length = readInt(classBytes, position + 2);
+            if (length < 0) {
+                throw new IllegalArgumentException("Invalid attribute length");
+            }
+            position += 6 + length;
+        }
+        return position;
+    }
+
+    private static int skipAnnotation(byte[] classBytes, int position) {
+        int pairs = readUnsignedShort(classBytes, position + 2);
+        position += 4;
+        for (int i = 0; i < pairs; i++) {
+            position = skipElementValue(classBytes, position + 2);
+        }
+        return position;
+    }
+
+    private static int skipElementValue(byte[] classBytes, int position) {
+        switch (classBytes[position]) {
+            case 'B': case 'C': case 'D': case 'F': case 'I': case 'J': case 'S': case 'Z': case 's': case 'c':
+                return position + 3;
+            case 'e':
+                return position + 5;
+            case '@':
+                return skipAnnotation(classBytes, position + 1);
+            case '[':
+                int count = readUnsignedShort(classBytes, position + 1);
+                position += 3;
+                for (int i = 0; i < count; i++) {
+                    position = skipElementValue(classBytes, position);
+                }
+                return position;
+            default:
+                throw new IllegalArgumentException("Unknown element value tag " + classBytes[position]);
+        }
+    }
+
+    private static boolean isUtf8(byte[] classBytes, int[] offsets, int index, byte[] expected) {
+        if (index == 0 || index >= offsets.length || classBytes[offsets[index]] != CONSTANT_UTF8) {
+            return false;
+        }
+        int start = offsets[index] + 3;
+        return readUnsignedShort(classBytes, offsets[index] + 1) == expected.length
+                && regionMatches(classBytes, start, start + expected.length, expected);
+    }
+
+    /**
+     * Checks whether a constant is the descriptor of a type in the packages, e.g. "Lcom/example/Api;".
+     */
+    private static boolean isPackageDescriptor(byte[] classBytes, int[] offsets, int index, List<byte[]> packagePrefixes) {
+        if (index == 0 || index >= offsets.length || classBytes[offsets[index]] != CONSTANT_UTF8) {
+            return false;
+        }
+        int start = offsets[index] + 3;
+        int end = Math.min(start + readUnsignedShort(classBytes, offsets[index] + 1), classBytes.length);
+        if (end - start < 3 || classBytes[start] != 'L'
+                || regionMatches(classBytes, start + 1, end, JAVA_PREFIX)
+                || regionMatches(classBytes, start + 1, end, SPRING_PREFIX)) {
+            return false;
+        }
+        for (byte[] packagePrefix : packagePrefixes) {
+            if (regionMatches(classBytes, start + 1, end, packagePrefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsRelevantReference(byte[] bytes, int start, int end) {
+        int last = end - SPRING_PREFIX.length;
+        for (int i = start; i <= last; i++) {
+            if (bytes[i] == 'o' && regionMatches(bytes, i, end, SPRING_PREFIX)) {
+                int suffixStart = i + SPRING_PREFIX.length;
+                for (byte[] suffix : RELEVANT_SUFFIXES) {
+                    if (regionMatches(bytes, suffixStart, end, suffix)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean regionMatches(byte[] bytes, int offset, int end, byte[] expected) {
+        if (offset + expected.length > end) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (bytes[offset + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int readUnsignedShort(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) << 8 | (bytes[offset + 1] & 0xFF);
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16
+                | (bytes[offset + 2] & 0xFF) << 8 | (bytes[offset + 3] & 0xFF);
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
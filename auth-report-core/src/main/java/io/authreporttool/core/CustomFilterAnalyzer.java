@@ -0,0 +1,957 @@
+package io.authreporttool.core;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The CustomFilterAnalyzer class finds the request paths a custom security filter checks.
+ *
+ * The analysis starts at doFilterInternal, whose path checks select the endpoints the filter applies
+ * to, and at shouldNotFilter, whose path checks exclude endpoints. From there it follows calls into
+ * helper methods of the filter and of its superclasses, such as a private isProtected(path) or a
+ * check inherited from a common base filter, up to a bounded call depth. Virtual calls are resolved
+ * against the analyzed filter first, so a base class template method picks up the subclass's override.
+ *
+ * Only comparisons of the request path are recorded. The path is tracked as it flows from
+ * getRequestURI and similar accessors through locals, method arguments, return values and string
+ * operations, so a check on a header or on the HTTP method is never mistaken for a path check,
+ * and a helper such as getPath(request) passes the path on to its caller.
+ *
+ * Each comparison is read together with the branch that tests its result, so a negated check such
+ * as !path.startsWith("/public") makes the filter apply to every path except /public/**, and the
+ * operands of a short-circuit || are each recorded as they are written. A comparison of one element
+ * of path.split("/") is recorded as a pattern on that segment, and any other partial check of the
+ * path as a check that may apply to every path.
+ *
+ * Every class is summarized once into the path-related instructions of its methods. Summaries are
+ * memoized by class-file hash, so a base filter shared by many filters is parsed once per run,
+ * however many chains add its subclasses. The memo keeps the most recently used summaries only,
+ * so a long-lived analyzer does not hold on to every version of a recompiled class. Within one
+ * analysis, each method is interpreted once per set of path-carrying arguments. The analyzer is
+ * thread-safe.
+ */
+final class CustomFilterAnalyzer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomFilterAnalyzer.class);
+
+    // Deepest helper call followed from an entry point
+    private static final int MAX_CALL_DEPTH = 6;
+    // Framework supertypes hold no application path checks and are never read
+    private static final List<String> FRAMEWORK_PACKAGES = List.of("java/", "javax/", "jakarta/", "org/springframework/");
+    private static final Set<String> URI_SOURCES = Set.of("getRequestURI", "getServletPath", "getPathInfo", "getRequestURL");
+    private static final Set<String> COMPARISONS = Set.of("equals", "equalsIgnoreCase", "startsWith", "contains", "match");
+    // The OncePerRequestFilter entry points, for the Jakarta and the javax Servlet API
+    private static final List<String> DO_FILTER_INTERNAL = List.of(
+            "doFilterInternal(Ljakarta/servlet/http/HttpServletRequest;Ljakarta/servlet/http/HttpServletResponse;Ljakarta/servlet/FilterChain;)V",
+            "doFilterInternal(Ljavax/servlet/http/HttpServletRequest;Ljavax/servlet/http/HttpServletResponse;Ljavax/servlet/FilterChain;)V");
+    private static final List<String> SHOULD_NOT_FILTER = List.of(
+            "shouldNotFilter(Ljakarta/servlet/http/HttpServletRequest;)Z",
+            "shouldNotFilter(Ljavax/servlet/http/HttpServletRequest;)Z");
+
+    // Most class summaries a single analyzer keeps, far more than the filter classes of an application
+    private static final int MAX_SUMMARIES = 1024;
+
+    // Class summaries memoized by class-file hash
+    private final LruCache<String, ClassSummary> summaries = new LruCache<>(MAX_SUMMARIES);
+
+    /**
+     * Summarizes a class file, or returns the memoized summary of identical bytes.
+     *
+     * @param classBytes The raw class-file bytes.
+     * @return The summary of the class.
+     */
+    ClassSummary summarize(byte[] classBytes) {
+        return summaries.computeIfAbsent(ScanCache.hash(classBytes), hash -> {
+            SummaryVisitor visitor = new SummaryVisitor();
+            new ClassReader(classBytes).accept(visitor, ClassReader.SKIP_DEBUG);
+            return visitor.toSummary();
+        });
+    }
+
+    /**
+     * Checks whether the superclass of a summarized class may hold application path checks.
+     *
+     * @param summary The summary of a class of the filter hierarchy.
+     * @return The binary name of the superclass to read next, or null at a framework class.
+     */
+    static String applicationSuperclass(ClassSummary summary) {
+        String superName = summary.superName;
+        if (superName == null) {
+            return null;
+        }
+        for (String frameworkPackage : FRAMEWORK_PACKAGES) {
+            if (superName.startsWith(frameworkPackage)) {
+                return null;
+            }
+        }
+        return superName.replace('/', '.');
+    }
+
+    /**
+     * Analyzes a filter from the summaries of its class hierarchy.
+     *
+     * @param filterClassName The fully qualified name of the filter class.
+     * @param hierarchy The summaries of the filter class and of its application superclasses, filter class first.
+     * @return The endpoints the filter applies to and the endpoints it excludes.
+     */
+    SecurityConfigAnalyzer.FilterAnalysis analyze(String filterClassName, List<ClassSummary> hierarchy) {
+        CallGraphWalk walk = new CallGraphWalk(hierarchy);
+        walk.enter(DO_FILTER_INTERNAL, false);
+        walk.enter(SHOULD_NOT_FILTER, true);
+
+        Set<String> applicable = walk.included;
+        if (applicable.isEmpty() && !walk.excluded.isEmpty()) {
+            // A filter that only opts out of some paths applies to every other path
+            applicable = Set.of("**");
+        }
+        logger.debug("Filter {} applies to {} except {}", filterClassName, applicable, walk.excluded);
+        return new SecurityConfigAnalyzer.FilterAnalysis(filterClassName, applicable, walk.excluded);
+    }
+
+    /**
+     * Walks the call graph of one filter from an entry point, collecting the paths it compares the request path with.
+     */
+    private static class CallGraphWalk {
+        private final List<ClassSummary> hierarchy;
+        private final Set<String> included = new LinkedHashSet<>();
+        private final Set<String> excluded = new LinkedHashSet<>();
+        private final Set<String> visiting = new HashSet<>();
+        // Whether each interpreted method returns the path, per method, path-carrying arguments and entry point
+        private final Map<String, Interpretation> interpretations = new HashMap<>();
+
+        CallGraphWalk(List<ClassSummary> hierarchy) {
+            this.hierarchy = hierarchy;
+        }
+
+        void enter(List<String> methodKeys, boolean exclusion) {
+            for (ClassSummary summary : hierarchy) {
+                for (String methodKey : methodKeys) {
+                    List<Instruction> instructions = summary.methods.get(methodKey);
+                    if (instructions != null) {
+                        interpret(summary, methodKey, instructions, 0, Set.of(), false, exclusion);
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Interprets a method, recording its path comparisons.
+         *
+         * @param negated Whether the caller acts when the method returns false, e.g. !isPublic(path).
+         * @return Whether the method may return the request path or a value derived from it.
+         */
+        private boolean interpret(ClassSummary owner, String methodKey, List<Instruction> instructions,
+                                  int depth, Set<Integer> pathArguments, boolean negated, boolean exclusion) {
+            String visitKey = owner.className + "." + methodKey + pathArguments + negated + exclusion;
+            Interpretation previous = interpretations.get(visitKey);
+            // A run cut short by the call depth is repeated when reached closer to the entry point
+            if (previous != null && previous.depth <= depth) {
+                return previous.returnsPath;
+            }
+            if (!visiting.add(visitKey)) {
+                return false;
+            }
+
+            boolean[] callReturnsPath = new boolean[instructions.size()];
+            boolean returnsPath = false;
+            for (int i = 0; i < instructions.size(); i++) {
+                Instruction instruction = instructions.get(i);
+                switch (instruction.kind) {
+                    case COMPARISON:
+                        Value subject = pathOperand(instruction.operands, pathArguments, callReturnsPath);
+                        if (subject != null) {
+                            for (String constant : constants(instruction.operands)) {
+                                record(instruction, subject, constant, negated != instruction.negated, exclusion);
+                            }
+                        }
+                        break;
+                    case CALL:
+                        Set<Integer> pathOperands = new HashSet<>();
+                        for (int operand = 0; operand < instruction.operands.size(); operand++) {
+                            if (instruction.operands.get(operand).carriesPath(pathArguments, callReturnsPath)) {
+                                pathOperands.add(operand);
+                            }
+                        }
+                        Boolean followed = (depth < MAX_CALL_DEPTH)
+                                ? follow(instruction, depth, pathOperands, negated != instruction.negated, exclusion)
+                                : null;
+                        // A call outside the filter, e.g. path.toLowerCase(), passes the path on
+                        callReturnsPath[i] = (followed != null) ? followed : !pathOperands.isEmpty();
+                        break;
+                    case RETURN:
+                        returnsPath |= carriesPath(instruction.operands, pathArguments, callReturnsPath);
+                        break;
+                }
+            }
+            visiting.remove(visitKey);
+            interpretations.put(visitKey, new Interpretation(depth, returnsPath));
+            return returnsPath;
+        }
+
+        /**
+         * Follows a call into the filter hierarchy.
+         *
+         * @return Whether the called method returns the path, or null if it lies outside the hierarchy.
+         */
+        private Boolean follow(Instruction call, int depth, Set<Integer> pathArguments, boolean negated, boolean exclusion) {
+            int ownerIndex = indexOf(call.owner);
+            if (ownerIndex < 0) {
+                return null;
+            }
+            // Virtual calls dispatch on the analyzed filter, static and special calls on the named class
+            int start = (call.opcode == Opcodes.INVOKEVIRTUAL) ? 0 : ownerIndex;
+            String methodKey = call.name + call.descriptor;
+            for (int i = start; i < hierarchy.size(); i++) {
+                ClassSummary summary = hierarchy.get(i);
+                List<Instruction> target = summary.methods.get(methodKey);
+                if (target != null) {
+                    return interpret(summary, methodKey, target, depth + 1, pathArguments, negated, exclusion);
+                }
+            }
+            return null;
+        }
+
+        private boolean carriesPath(List<Value> operands, Set<Integer> pathArguments, boolean[] callReturnsPath) {
+            return pathOperand(operands, pathArguments, callReturnsPath) != null;
+        }
+
+        private Value pathOperand(List<Value> operands, Set<Integer> pathArguments, boolean[] callReturnsPath) {
+            for (Value operand : operands) {
+                if (operand.carriesPath(pathArguments, callReturnsPath)) {
+                    return operand;
+                }
+            }
+            return null;
+        }
+
+        private Set<String> constants(List<Value> operands) {
+            Set<String> constants = new LinkedHashSet<>();
+            for (Value operand : operands) {
+                constants.addAll(operand.constants);
+                for (String field : operand.fields) {
+                    int separator = field.lastIndexOf('.');
+                    constants.addAll(fieldConstants(field.substring(0, separator), field.substring(separator + 1)));
+                }
+            }
+            return constants;
+        }
+
+        /**
+         * Records a comparison of the path with a constant.
+         *
+         * @param subject The compared value that carries the path.
+         * @param negated Whether the filter acts when the comparison fails.
+         * @param exclusion Whether the comparison was reached from shouldNotFilter.
+         */
+        private void record(Instruction comparison, Value subject, String constant, boolean negated, boolean exclusion) {
+            String pattern = pattern(comparison, subject, constant);
+            if (pattern == null) {
+                // A check on an unknown part of the path may let the filter act on any path
+                if (negated || !exclusion) {
+                    included.add("**");
+                }
+            } else if (negated == exclusion) {
+                included.add(pattern);
+            } else if (exclusion) {
+                excluded.add(pattern);
+            } else {
+                // A filter acting when the path does not match acts everywhere else
+                included.add("**");
+                excluded.add(pattern);
+            }
+        }
+
+        /**
+         * Turns a comparison into the endpoint pattern it matches.
+         *
+         * @return The pattern, or null if the comparison checks an unknown part of the path.
+         */
+        private static String pattern(Instruction comparison, Value subject, String constant) {
+            if (subject.element) {
+                // Element 0 of path.split("/") is the empty string before the leading slash
+                if (subject.segment < 1 || !comparison.name.startsWith("equals")) {
+                    return null;
+                }
+                return "/*".repeat(subject.segment - 1) + "/" + constant + "/**";
+            }
+            if (comparison.name.equals("startsWith")) {
+                return constant.endsWith("/") ? constant + "**" : constant + "/**";
+            } else if (comparison.name.equals("contains") && comparison.owner.equals("java/lang/String")) {
+                return "/**/" + constant + "/**";
+            }
+            return constant;
+        }
+
+        private List<String> fieldConstants(String owner, String fieldName) {
+            int index = indexOf(owner);
+            for (int i = Math.max(index, 0); index >= 0 && i < hierarchy.size(); i++) {
+                List<String> constants = hierarchy.get(i).fieldConstants.get(fieldName);
+                if (constants != null) {
+                    return constants;
+                }
+            }
+            return Collections.emptyList();
+        }
+
+        private int indexOf(String internalName) {
+            for (int i = 0; i < hierarchy.size(); i++) {
+                if (hierarchy.get(i).className.equals(internalName)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * The outcome of interpreting a method, and the call depth it was interpreted at.
+     */
+    private static final class Interpretation {
+        final int depth;
+        final boolean returnsPath;
+
+        Interpretation(int depth, boolean returnsPath) {
+            this.depth = depth;
+            this.returnsPath = returnsPath;
+        }
+    }
+
+    /**
+     * The path-related instructions of every method of a class, and the string constants its
+     * static initializer stores into static fields.
+     */
+    static final class ClassSummary {
+        private final String className;
+        private final String superName;
+        private final Map<String, List<Instruction>> methods;
+        private final Map<String, List<String>> fieldConstants;
+
+        ClassSummary(String className, String superName, Map<String, List<Instruction>> methods,
+                     Map<String, List<String>> fieldConstants) {
+            this.className = className;
+            this.superName = superName;
+            this.methods = Collections.unmodifiableMap(methods);
+            this.fieldConstants = Collections.unmodifiableMap(fieldConstants);
+        }
+    }
+
+    private static final class Instruction {
+        enum Kind { COMPARISON, CALL, RETURN }
+
+        final Kind kind;
+        final int opcode;
+        final String owner;
+        final String name;
+        final String descriptor;
+        // The values consumed: the receiver and arguments of a call or comparison, or the returned value
+        final List<Value> operands;
+        // Whether the code guarded by this comparison or boolean call runs when it returns false
+        private boolean negated;
+
+        Instruction(Kind kind, int opcode, String owner, String name, String descriptor, List<Value> operands) {
+            this.kind = kind;
+            this.opcode = opcode;
+            this.owner = owner;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.operands = operands;
+        }
+    }
+
+    /**
+     * An operand stack or local variable slot, described by where its value may come from: the
+     * request path, an argument of the method, or the result of a call whose effect is only known
+     * once the call is resolved against the filter hierarchy. The string constants and static
+     * fields the value may hold are tracked alongside, so a comparison knows the paths it checks.
+     * A boolean value remembers the comparisons and calls it is the result of, so the branch that
+     * tests it can tell them whether they are negated.
+     *
+     * Values are only mutated while their method is summarized.
+     */
+    private static final class Value {
+        private boolean path;
+        private final Set<Integer> arguments = new HashSet<>();
+        private final Set<Integer> calls = new HashSet<>();
+        private final Set<String> constants = new LinkedHashSet<>();
+        // Static fields, as "owner.name", whose initializer constants the value may hold
+        private final Set<String> fields = new LinkedHashSet<>();
+        // The comparison and call instructions the value is the boolean result of
+        private final Set<Integer> conditions = new HashSet<>();
+        // Whether the value is an element of an array derived from the path, rather than the whole path
+        private boolean element;
+        // The path segment an element of path.split("/") holds, or -1 if unknown
+        private int segment = -1;
+        // Whether the value is the result of split("/"), so its elements are path segments
+        private boolean segments;
+        // The int constant the value holds, or null
+        private Integer intConstant;
+
+        static Value constant(String constant) {
+            Value value = new Value();
+            value.constants.add(constant);
+            return value;
+        }
+
+        static Value field(String owner, String name) {
+            Value value = new Value();
+            value.fields.add(owner + "." + name);
+            return value;
+        }
+
+        static Value integer(int constant) {
+            Value value = new Value();
+            value.intConstant = constant;
+            return value;
+        }
+
+        static Value argument(int index) {
+            Value value = new Value();
+            value.arguments.add(index);
+            return value;
+        }
+
+        /**
+         * Adds the sources of another value to this one, so this value carries the path whenever the other does.
+         */
+        void mergeSources(Value other) {
+            path |= other.path;
+            arguments.addAll(other.arguments);
+            calls.addAll(other.calls);
+        }
+
+        /**
+         * Adds the constants and static fields another value may hold to this one.
+         */
+        void mergeConstants(Value other) {
+            constants.addAll(other.constants);
+            fields.addAll(other.fields);
+        }
+
+        boolean carriesPath(Set<Integer> pathArguments, boolean[] callReturnsPath) {
+            if (path) {
+                return true;
+            }
+            for (int argument : arguments) {
+                if (pathArguments.contains(argument)) {
+                    return true;
+                }
+            }
+            for (int call : calls) {
+                if (callReturnsPath[call]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class SummaryVisitor extends ClassVisitor {
+        private String className;
+        private String superName;
+        private final Map<String, List<Instruction>> methods = new HashMap<>();
+        private final Map<String, List<String>> fieldConstants = new HashMap<>();
+
+        SummaryVisitor() {
+            super(Opcodes.ASM9);
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            this.className = name;
+            this.superName = superName;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            List<Instruction> instructions = new ArrayList<>();
+            methods.put(name + descriptor, instructions);
+            return new MethodSummarizer(this, access, name, descriptor, instructions);
+        }
+
+        ClassSummary toSummary() {
+            return new ClassSummary(className, superName, methods, fieldConstants);
+        }
+    }
+
+    /**
+     * Summarizes one method by simulating its operand stack and local variables over values.
+     *
+     * Instructions are simulated in code order. Where control flow joins, the operand stack saved
+     * by the first jump to a label is used after an unconditional jump, and a local variable keeps
+     * the value last stored into it, which is exact for the straight-line path checks filters make.
+     *
+     * A conditional jump on a boolean result normally skips the code it guards, so the guarded code
+     * runs when IFEQ falls through, i.e. when the result is true, and when IFNE falls through, i.e.
+     * when it is false. The operands of a short-circuit || are the exception: they jump forward into
+     * the guarded code, whose label directly follows the last condition's jump.
+     */
+    private static class MethodSummarizer extends MethodVisitor {
+        private final SummaryVisitor owner;
+        private final boolean staticInitializer;
+        private final List<Instruction> instructions;
+        private final List<Value> stack = new ArrayList<>();
+        private final Map<Integer, Value> locals = new HashMap<>();
+        // The operand stacks at jump and exception handler targets
+        private final Map<Label, List<Value>> labelStacks = new HashMap<>();
+        // The conditional jumps on boolean results that wait for their forward label, per label
+        private final Map<Label, List<Instruction>> pendingConditions = new HashMap<>();
+        private final Set<Label> visitedLabels = new HashSet<>();
+        // Whether the last instruction was a conditional forward jump, so the next label starts guarded code
+        private boolean afterConditionalJump;
+        private boolean reachable = true;
+
+        MethodSummarizer(SummaryVisitor owner, int access, String name, String descriptor, List<Instruction> instructions) {
+            super(Opcodes.ASM9);
+            this.owner = owner;
+            this.staticInitializer = name.equals("<clinit>");
+            this.instructions = instructions;
+
+            // Arguments are numbered like call operands: the receiver first, then the parameters
+            int argument = 0;
+            int slot = 0;
+            if ((access & Opcodes.ACC_STATIC) == 0) {
+                locals.put(slot++, Value.argument(argument++));
+            }
+            for (Type parameter : Type.getArgumentTypes(descriptor)) {
+                locals.put(slot, Value.argument(argument++));
+                slot += parameter.getSize();
+            }
+        }
+
+        @Override
+        public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+            labelStacks.putIfAbsent(handler, List.of(new Value()));
+        }
+
+        @Override
+        public void visitLabel(Label label) {
+            visitedLabels.add(label);
+            List<Instruction> conditions = pendingConditions.remove(label);
+            if (conditions != null && afterConditionalJump) {
+                // A short-circuit || jumps into the guarded code when its operand is true
+                for (Instruction condition : conditions) {
+                    condition.negated = !condition.negated;
+                }
+            }
+            List<Value> saved = labelStacks.get(label);
+            if (!reachable) {
+                stack.clear();
+                if (saved != null) {
+                    stack.addAll(saved);
+                }
+                reachable = true;
+            }
+        }
+
+        @Override
+        public void visitInsn(int opcode) {
+            afterConditionalJump = false;
+            if (opcode == Opcodes.NOP) {
+                return;
+            }
+            if (opcode >= Opcodes.ICONST_M1 && opcode <= Opcodes.ICONST_5) {
+                stack.add(Value.integer(opcode - Opcodes.ICONST_0));
+                return;
+            }
+            if (opcode <= Opcodes.DCONST_1) {
+                push(new Value(), (opcode == Opcodes.LCONST_0 || opcode == Opcodes.LCONST_1
+                        || opcode == Opcodes.DCONST_0 || opcode == Opcodes.DCONST_1) ? 2 : 1);
+                return;
+            }
+            switch (opcode) {
+                case Opcodes.AALOAD: {
+                    Value index = pop();
+                    // An element of an array derived from the path, e.g. path.split("/")[1], is derived from it too
+                    Value array = pop();
+                    Value element = new Value();
+                    element.mergeSources(array);
+                    element.mergeConstants(array);
+                    element.element = true;
+                    if (array.segments && index.intConstant != null) {
+                        element.segment = index.intConstant;
+                    }
+                    stack.add(element);
+                    return;
+                }
+                case Opcodes.IALOAD: case Opcodes.FALOAD: case Opcodes.BALOAD: case Opcodes.CALOAD: case Opcodes.SALOAD:
+                    replace(2, 1);
+                    return;
+                case Opcodes.LALOAD: case Opcodes.DALOAD:
+                    replace(2, 2);
+                    return;
+                case Opcodes.AASTORE: {
+                    Value element = pop();
+                    pop(1);
+                    Value array = pop();
+                    array.mergeSources(element);
+                    array.mergeConstants(element);
+                    return;
+                }
+                case Opcodes.IASTORE: case Opcodes.FASTORE: case Opcodes.BASTORE: case Opcodes.CASTORE: case Opcodes.SASTORE:
+                    pop(3);
+                    return;
+                case Opcodes.LASTORE: case Opcodes.DASTORE:
+                    pop(4);
+                    return;
+                case Opcodes.POP:
+                    pop(1);
+                    return;
+                case Opcodes.POP2:
+                    pop(2);
+                    return;
+                case Opcodes.DUP:
+                    duplicate(1, 0);
+                    return;
+                case Opcodes.DUP_X1:
+                    duplicate(1, 1);
+                    return;
+                case Opcodes.DUP_X2:
+                    duplicate(1, 2);
+                    return;
+                case Opcodes.DUP2:
+                    duplicate(2, 0);
+                    return;
+                case Opcodes.DUP2_X1:
+                    duplicate(2, 1);
+                    return;
+                case Opcodes.DUP2_X2:
+                    duplicate(2, 2);
+                    return;
+                case Opcodes.SWAP: {
+                    Value first = pop();
+                    Value second = pop();
+                    stack.add(first);
+                    stack.add(second);
+                    return;
+                }
+                case Opcodes.ARETURN:
+                    instructions.add(new Instruction(Instruction.Kind.RETURN, opcode, null, null, null, List.of(pop())));
+                    reachable = false;
+                    return;
+                case Opcodes.IRETURN: case Opcodes.LRETURN: case Opcodes.FRETURN: case Opcodes.DRETURN:
+                case Opcodes.RETURN: case Opcodes.ATHROW:
+                    reachable = false;
+                    return;
+                case Opcodes.ARRAYLENGTH:
+                    replace(1, 1);
+                    return;
+                case Opcodes.MONITORENTER: case Opcodes.MONITOREXIT:
+                    pop(1);
+                    return;
+                default:
+                    arithmetic(opcode);
+            }
+        }
+
+        /**
+         * Simulates the arithmetic, conversion and comparison instructions, whose results never carry the path.
+         */
+        private void arithmetic(int opcode) {
+            if (opcode >= Opcodes.IADD && opcode <= Opcodes.DREM) {
+                int size = isWide(opcode - Opcodes.IADD) ? 2 : 1;
+                replace(2 * size, size);
+            } else if (opcode >= Opcodes.INEG && opcode <= Opcodes.DNEG) {
+                int size = isWide(opcode - Opcodes.INEG) ? 2 : 1;
+                replace(size, size);
+            } else if (opcode >= Opcodes.ISHL && opcode <= Opcodes.LUSHR) {
+                boolean wide = (opcode - Opcodes.ISHL) % 2 == 1;
+                replace(wide ? 3 : 2, wide ? 2 : 1);
+            } else if (opcode >= Opcodes.IAND && opcode <= Opcodes.LXOR) {
+                boolean wide = (opcode - Opcodes.IAND) % 2 == 1;
+                replace(wide ? 4 : 2, wide ? 2 : 1);
+            } else if (opcode >= Opcodes.I2L && opcode <= Opcodes.I2S) {
+                switch (opcode) {
+                    case Opcodes.I2L: case Opcodes.I2D: case Opcodes.F2L: case Opcodes.F2D:
+                        replace(1, 2);
+                        break;
+                    case Opcodes.L2I: case Opcodes.L2F: case Opcodes.D2I: case Opcodes.D2F:
+                        replace(2, 1);
+                        break;
+                    case Opcodes.L2D: case Opcodes.D2L:
+                        replace(2, 2);
+                        break;
+                    default:
+                        replace(1, 1);
+                }
+            } else if (opcode == Opcodes.LCMP || opcode == Opcodes.DCMPL || opcode == Opcodes.DCMPG) {
+                replace(4, 1);
+            } else if (opcode == Opcodes.FCMPL || opcode == Opcodes.FCMPG) {
+                replace(2, 1);
+            }
+        }
+
+        // Arithmetic opcodes cycle through int, long, float and double
+        private static boolean isWide(int offset) {
+            return offset % 4 == 1 || offset % 4 == 3;
+        }
+
+        @Override
+        public void visitIntInsn(int opcode, int operand) {
+            afterConditionalJump = false;
+            if (opcode == Opcodes.NEWARRAY) {
+                replace(1, 1);
+            } else {
+                stack.add(Value.integer(operand));
+            }
+        }
+
+        @Override
+        public void visitVarInsn(int opcode, int var) {
+            afterConditionalJump = false;
+            switch (opcode) {
+                case Opcodes.ILOAD: case Opcodes.FLOAD: case Opcodes.ALOAD:
+                    stack.add(locals.getOrDefault(var, new Value()));
+                    break;
+                case Opcodes.LLOAD: case Opcodes.DLOAD:
+                    push(new Value(), 2);
+                    break;
+                case Opcodes.ISTORE: case Opcodes.FSTORE: case Opcodes.ASTORE:
+                    locals.put(var, pop());
+                    break;
+                case Opcodes.LSTORE: case Opcodes.DSTORE:
+                    pop(2);
+                    locals.remove(var);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void visitIincInsn(int var, int increment) {
+            afterConditionalJump = false;
+            locals.remove(var);
+        }
+
+        @Override
+        public void visitTypeInsn(int opcode, String type) {
+            afterConditionalJump = false;
+            switch (opcode) {
+                case Opcodes.NEW:
+                    stack.add(new Value());
+                    break;
+                case Opcodes.ANEWARRAY:
+                    replace(1, 1);
+                    break;
+                case Opcodes.INSTANCEOF:
+                    replace(1, 1);
+                    break;
+                default:
+                    // CHECKCAST keeps the value
+                    break;
+            }
+        }
+
+        @Override
+        public void visitFieldInsn(int opcode, String fieldOwner, String name, String descriptor) {
+            afterConditionalJump = false;
+            int size = Type.getType(descriptor).getSize();
+            switch (opcode) {
+                case Opcodes.GETSTATIC:
+                    if (size == 1) {
+                        stack.add(Value.field(fieldOwner, name));
+                    } else {
+                        push(new Value(), size);
+                    }
+                    break;
+                case Opcodes.PUTSTATIC: {
+                    pop(size - 1);
+                    Value value = pop();
+                    if (staticInitializer && fieldOwner.equals(owner.className) && !value.constants.isEmpty()) {
+                        owner.fieldConstants.put(name, new ArrayList<>(value.constants));
+                    }
+                    break;
+                }
+                case Opcodes.GETFIELD:
+                    replace(1, size);
+                    break;
+                default:
+                    pop(1 + size);
+            }
+        }
+
+        @Override
+        public void visitMethodInsn(int opcode, String methodOwner, String name, String descriptor, boolean isInterface) {
+            afterConditionalJump = false;
+            List<Value> operands = operands(descriptor, opcode != Opcodes.INVOKESTATIC);
+            Type returnType = Type.getReturnType(descriptor);
+
+            Value result = new Value();
+            if (URI_SOURCES.contains(name)) {
+                result.path = true;
+            } else if (COMPARISONS.contains(name)) {
+                result.conditions.add(instructions.size());
+                instructions.add(new Instruction(Instruction.Kind.COMPARISON, opcode, methodOwner, name, descriptor, operands));
+            } else {
+                // Whether the result carries the path is decided once the call is resolved
+                result.calls.add(instructions.size());
+                result.conditions.add(instructions.size());
+                instructions.add(new Instruction(Instruction.Kind.CALL, opcode, methodOwner, name, descriptor, operands));
+                result.segments = methodOwner.equals("java/lang/String") && name.equals("split")
+                        && operands.get(1).constants.equals(Set.of("/"));
+                // A collection built from constants, e.g. Set.of("/a", "/b"), holds them, while the
+                // result of an instance call such as path.split("/") holds none of its arguments
+                if (opcode == Opcodes.INVOKESTATIC || name.equals("<init>")) {
+                    for (Value operand : operands) {
+                        result.mergeConstants(operand);
+                    }
+                }
+                if (name.equals("<init>") && !operands.isEmpty()) {
+                    // The constructed object lives on in the copies of the receiver left by NEW and DUP
+                    operands.get(0).mergeSources(result);
+                    operands.get(0).mergeConstants(result);
+                }
+            }
+            push(result, returnType.getSize());
+        }
+
+        @Override
+        public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle,
+                                           Object... bootstrapMethodArguments) {
+            afterConditionalJump = false;
+            List<Value> operands = operands(descriptor, false);
+            // String concatenation with the path yields a value derived from it, but no path constant
+            Value result = new Value();
+            for (Value operand : operands) {
+                result.mergeSources(operand);
+            }
+            push(result, Type.getReturnType(descriptor).getSize());
+        }
+
+        @Override
+        public void visitJumpInsn(int opcode, Label label) {
+            switch (opcode) {
+                case Opcodes.IFEQ: case Opcodes.IFNE:
+                    for (int condition : pop().conditions) {
+                        Instruction instruction = instructions.get(condition);
+                        instruction.negated = (opcode == Opcodes.IFNE);
+                        if (!visitedLabels.contains(label)) {
+                            pendingConditions.computeIfAbsent(label, pending -> new ArrayList<>()).add(instruction);
+                        }
+                    }
+                    break;
+                case Opcodes.IFLT: case Opcodes.IFGE: case Opcodes.IFGT: case Opcodes.IFLE:
+                case Opcodes.IFNULL: case Opcodes.IFNONNULL:
+                    pop(1);
+                    break;
+                case Opcodes.IF_ICMPEQ: case Opcodes.IF_ICMPNE: case Opcodes.IF_ICMPLT: case Opcodes.IF_ICMPGE:
+                case Opcodes.IF_ICMPGT: case Opcodes.IF_ICMPLE: case Opcodes.IF_ACMPEQ: case Opcodes.IF_ACMPNE:
+                    pop(2);
+                    break;
+                default:
+                    break;
+            }
+            labelStacks.putIfAbsent(label, new ArrayList<>(stack));
+            if (opcode == Opcodes.GOTO) {
+                reachable = false;
+            }
+            // A loop's backward jump never enters guarded code
+            afterConditionalJump = opcode != Opcodes.GOTO && opcode != Opcodes.JSR && !visitedLabels.contains(label);
+        }
+
+        @Override
+        public void visitLdcInsn(Object value) {
+            afterConditionalJump = false;
+            if (value instanceof String) {
+                stack.add(Value.constant((String) value));
+            } else {
+                push(new Value(), (value instanceof Long || value instanceof Double) ? 2 : 1);
+            }
+        }
+
+        @Override
+        public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+            switchTo(dflt, labels);
+        }
+
+        @Override
+        public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+            switchTo(dflt, labels);
+        }
+
+        private void switchTo(Label dflt, Label[] labels) {
+            afterConditionalJump = false;
+            pop(1);
+            labelStacks.putIfAbsent(dflt, new ArrayList<>(stack));
+            for (Label label : labels) {
+                labelStacks.putIfAbsent(label, new ArrayList<>(stack));
+            }
+            reachable = false;
+        }
+
+        @Override
+        public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+            afterConditionalJump = false;
+            replace(numDimensions, 1);
+        }
+
+        /**
+         * Pops the arguments of a call, and its receiver first if it has one, in operand order.
+         */
+        private List<Value> operands(String descriptor, boolean hasReceiver) {
+            Type[] argumentTypes = Type.getArgumentTypes(descriptor);
+            Value[] operands = new Value[argumentTypes.length + (hasReceiver ? 1 : 0)];
+            for (int i = argumentTypes.length - 1; i >= 0; i--) {
+                pop(argumentTypes[i].getSize() - 1);
+                operands[i + (hasReceiver ? 1 : 0)] = pop();
+            }
+            if (hasReceiver) {
+                operands[0] = pop();
+            }
+            return List.of(operands);
+        }
+
+        /**
+         * Copies the top values of the stack below the given number of values beneath them.
+         */
+        private void duplicate(int count, int depth) {
+            int top = stack.size();
+            if (top < count + depth) {
+                push(new Value(), count);
+                return;
+            }
+            List<Value> copied = new ArrayList<>(stack.subList(top - count, top));
+            stack.addAll(top - count - depth, copied);
+        }
+
+        private void replace(int pops, int pushes) {
+            pop(pops);
+            push(new Value(), pushes);
+        }
+
+        private void push(Value value, int size) {
+            // The second slot of a long or double never carries the path
+            for (int i = 0; i < size; i++) {
+                stack.add((i == 0) ? value : new Value());
+            }
+        }
+
+        private void pop(int count) {
+            for (int i = 0; i < count; i++) {
+                pop();
+            }
+        }
+
+        private Value pop() {
+            // Unexpected bytecode degrades to values that carry nothing instead of failing the analysis
+            return stack.isEmpty() ? new Value() : stack.remove(stack.size() - 1);
+        }
+    }
+}
@@ -25,6 +25,8 @@ public class EndpointAuthInfo {
     // Authentication requirements
     private boolean apiKeyRequired;
     private boolean basicAuthRequired;
+    // Authority required by the first matching authorizeHttpRequests rule, or null if no rule matches
+    private String urlAuthorization;
     private List<String> roles;
     private String apiKeyHeaderName;
 
@@ -79,6 +81,7 @@ public class EndpointAuthInfo {
         this.className = authInfo.className;
         this.apiKeyRequired = authInfo.apiKeyRequired;
         this.apiKeyHeaderName = authInfo.apiKeyHeaderName;
+        this.urlAuthorization = authInfo.urlAuthorization;
         this.securityFeatures = new HashSet<>(authInfo.securityFeatures);
     }
 
@@ -96,16 +99,32 @@ public class EndpointAuthInfo {
         return authExpression;
     }
 
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
     public boolean isApiKeyRequired() {
         return apiKeyRequired;
     }
 
+    public String getUrlAuthorization() {
+        return urlAuthorization;
+    }
+
     // Setter methods
 
     public void setApiKeyRequired(boolean apiKeyRequired) {
         this.apiKeyRequired = apiKeyRequired;
     }
 
+    public void setUrlAuthorization(String urlAuthorization) {
+        this.urlAuthorization = urlAuthorization;
+    }
+
     public void setBasicAuthRequired(boolean basicAuthRequired) {
         log.debug("Setting basic auth required: {}", basicAuthRequired);
         this.basicAuthRequired = basicAuthRequired;
@@ -170,6 +189,7 @@ public class EndpointAuthInfo {
                 ", className='" + className + '\'' +
                 ", apiKeyRequired=" + apiKeyRequired +
                 ", basicAuthRequired=" + basicAuthRequired +
+                ", urlAuthorization='" + urlAuthorization + '\'' +
                 ", roles=" + roles +
                 ", apiKeyHeaderName='" + apiKeyHeaderName + '\'' +
                 ", securityFeatures=" + securityFeatures +
@@ -0,0 +1,161 @@
+package io.authreporttool.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The EndpointManifest class reads the endpoint manifests written at compile time by the
+ * auth-report-processor annotation processor. Reading a manifest replaces the classpath scan:
+ * the endpoints and SecurityFilterChain methods are already listed, so no class file needs
+ * to be located or parsed to discover them.
+ *
+ * Each manifest line is a tab-separated record, either
+ * {@code endpoint path httpMethod authExpression methodName className} or
+ * {@code chain className methodName order}, where order is the @Order value of the chain method.
+ */
+public class EndpointManifest {
+
+    private static final Logger logger = LoggerFactory.getLogger(EndpointManifest.class);
+
+    /**
+     * The location of the manifest on the classpath, where the annotation processor writes it.
+     */
+    public static final String LOCATION = "META-INF/auth-report/endpoints.manifest";
+
+    private final List<EndpointAuthInfo> endpoints;
+    private final List<ChainMethod> chainMethods;
+
+    private EndpointManifest(List<EndpointAuthInfo> endpoints, List<ChainMethod> chainMethods) {
+        this.endpoints = Collections.unmodifiableList(endpoints);
+        this.chainMethods = Collections.unmodifiableList(chainMethods);
+    }
+
+    /**
+     * Loads every endpoint manifest visible to the class loader, keeping only the records
+     * of classes in the base package.
+     *
+     * @param classLoader The class loader whose resources are searched.
+     * @param basePackage The package whose endpoints and security configurations should be kept.
+     * @return The merged manifest.
+     * @throws IOException If a manifest cannot be read.
+     */
+    public static EndpointManifest load(ClassLoader classLoader, String basePackage) throws IOException {
+        return load(classLoader, List.of(basePackage));
+    }
+
+    /**
+     * Loads every endpoint manifest visible to the class loader, keeping only the records
+     * of classes in any of the base packages.
+     *
+     * @param classLoader The class loader whose resources are searched.
+     * @param basePackages The packages whose endpoints and security configurations should be kept.
+     * @return The merged manifest.
+     * @throws IOException If a manifest cannot be read.
+     */
+    public static EndpointManifest load(ClassLoader classLoader, Collection<String> basePackages) throws IOException {
+        List<EndpointAuthInfo> endpoints = new ArrayList<>();
+        List<ChainMethod> chainMethods = new ArrayList<>();
+        List<String> packagePrefixes = basePackages.stream()
+                .map(basePackage -> basePackage.isEmpty() ? "" : basePackage + ".")
+                .collect(Collectors.toList());
+
+        Enumeration<URL> manifests = classLoader.getResources(LOCATION);
+        while (manifests.hasMoreElements()) {
+            URL manifest = manifests.nextElement();
+            logger.info("Reading endpoint manifest: {}", manifest);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(manifest.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] fields = line.split("\t", -1);
+                    for (int i = 0; i < fields.length; i++) {
+                        fields[i] = unescape(fields[i]);
+                    }
+
+                    if (fields[0].equals("endpoint") && fields.length == 6) {
+                        if (inPackages(fields[5], packagePrefixes)) {
+                            endpoints.add(new EndpointAuthInfo(fields[1], fields[2], fields[3], fields[4], fields[5]));
+                        }
+                    } else if (fields[0].equals("chain") && fields.length == 4 && isOrder(fields[3])) {
+                        if (inPackages(fields[1], packagePrefixes)) {
+                            chainMethods.add(new ChainMethod(fields[1], fields[2], Integer.parseInt(fields[3])));
+                        }
+                    } else if (!line.isEmpty()) {
+                        logger.warn("Skipping malformed manifest line in {}: {}", manifest, line);
+                    }
+                }
+            }
+        }
+
+        // Manifests are merged in class path order, so sort the chains like the other scan modes
+        chainMethods.sort(ChainMethod.CHAIN_ORDER);
+        return new EndpointManifest(endpoints, chainMethods);
+    }
+
+    public List<EndpointAuthInfo> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * @return The SecurityFilterChain methods of the manifest, sorted by ChainMethod.CHAIN_ORDER.
+     */
+    public List<ChainMethod> getChainMethods() {
+        return chainMethods;
+    }
+
+    /**
+     * Checks whether the manifest lists neither endpoints nor SecurityFilterChain methods, for
+     * example because the application was compiled without the annotation processor.
+     *
+     * @return true if the manifest holds no records, false otherwise.
+     */
+    public boolean isEmpty() {
+        return endpoints.isEmpty() && chainMethods.isEmpty();
+    }
+
+    private static boolean isOrder(String value) {
+        try {
+            Integer.parseInt(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean inPackages(String className, List<String> packagePrefixes) {
+        return packagePrefixes.stream().anyMatch(className::startsWith);
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                switch (next) {
+                    case 't': sb.append('\t'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    default: sb.append(next);
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
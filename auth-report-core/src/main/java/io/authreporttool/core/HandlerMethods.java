@@ -0,0 +1,168 @@
+package io.authreporttool.core;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The HandlerMethods class collects the methods a controller may serve requests with, like Spring
+ * MVC does. The same rules are applied to loaded classes by the reflective scan and to class-file
+ * declarations by the bytecode scan, each through its own view of the type hierarchy, so both
+ * scans report the same handler methods in the same order.
+ */
+final class HandlerMethods {
+
+    /**
+     * A view of a type hierarchy whose types T declare methods M.
+     */
+    interface TypeHierarchy<T, M> {
+        /**
+         * Returns the superclass of a type, or null if it is Object or cannot be read.
+         */
+        T superclass(T type);
+
+        List<T> interfaces(T type);
+
+        boolean isInterface(T type);
+
+        /**
+         * Returns the methods a type declares, without constructors, bridge and synthetic methods.
+         */
+        List<M> declaredMethods(T type);
+
+        boolean isPrivate(M method);
+
+        boolean isDefault(M method);
+
+        String name(M method);
+
+        /**
+         * Returns the name and parameter types of a method, formatted like {@link HandlerMethods#signature(Method)}.
+         */
+        String signature(M method);
+    }
+
+    // The hierarchy of loaded classes
+    static final TypeHierarchy<Class<?>, Method> CLASSES = new TypeHierarchy<>() {
+        @Override
+        public Class<?> superclass(Class<?> type) {
+            Class<?> superclass = type.getSuperclass();
+            return (superclass != Object.class) ? superclass : null;
+        }
+
+        @Override
+        public List<Class<?>> interfaces(Class<?> type) {
+            return Arrays.asList(type.getInterfaces());
+        }
+
+        @Override
+        public boolean isInterface(Class<?> type) {
+            return type.isInterface();
+        }
+
+        @Override
+        public List<Method> declaredMethods(Class<?> type) {
+            return Arrays.stream(type.getDeclaredMethods())
+                    .filter(method -> !method.isBridge() && !method.isSynthetic())
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public boolean isPrivate(Method method) {
+            return Modifier.isPrivate(method.getModifiers());
+        }
+
+        @Override
+        public boolean isDefault(Method method) {
+            return method.isDefault();
+        }
+
+        @Override
+        public String name(Method method) {
+            return method.getName();
+        }
+
+        @Override
+        public String signature(Method method) {
+            return HandlerMethods.signature(method);
+        }
+    };
+
+    private HandlerMethods() {
+    }
+
+    /**
+     * Collects the controller's own methods, the non-private methods it inherits from its
+     * superclasses and the default methods of its interfaces. Of several methods with the same
+     * signature only the most specific one is kept; its mapping may still be declared on the
+     * method it overrides.
+     *
+     * @param controller The controller type.
+     * @param hierarchy The view of the controller's type hierarchy.
+     * @return The candidate methods, sorted by name and signature so reports stay stable.
+     */
+    static <T, M> List<M> candidates(T controller, TypeHierarchy<T, M> hierarchy) {
+        Map<String, M> candidates = new LinkedHashMap<>();
+        for (T type = controller; type != null; type = hierarchy.superclass(type)) {
+            boolean inherited = type != controller;
+            for (M method : hierarchy.declaredMethods(type)) {
+                if (!(inherited && hierarchy.isPrivate(method))) {
+                    candidates.putIfAbsent(hierarchy.signature(method), method);
+                }
+            }
+        }
+        Set<T> types = new LinkedHashSet<>();
+        collectHierarchy(controller, hierarchy, types);
+        for (T type : types) {
+            if (hierarchy.isInterface(type)) {
+                for (M method : hierarchy.declaredMethods(type)) {
+                    if (hierarchy.isDefault(method)) {
+                        candidates.putIfAbsent(hierarchy.signature(method), method);
+                    }
+                }
+            }
+        }
+
+        // Declared methods come back in no particular order; sort them so reports stay stable
+        List<M> methods = new ArrayList<>(candidates.values());
+        methods.sort(Comparator.<M, String>comparing(hierarchy::name).thenComparing(hierarchy::signature));
+        return methods;
+    }
+
+    /**
+     * Adds a type and all its supertypes but Object to the set, superclasses before interfaces.
+     *
+     * @param type The type whose hierarchy is collected, or null.
+     * @param hierarchy The view of the type hierarchy.
+     * @param types The set the types are added to.
+     */
+    static <T> void collectHierarchy(T type, TypeHierarchy<T, ?> hierarchy, Set<T> types) {
+        if (type == null || !types.add(type)) {
+            return;
+        }
+        collectHierarchy(hierarchy.superclass(type), hierarchy, types);
+        for (T anInterface : hierarchy.interfaces(type)) {
+            collectHierarchy(anInterface, hierarchy, types);
+        }
+    }
+
+    /**
+     * Formats the name and parameter types of a method, which identify it across overrides.
+     *
+     * @param method The method.
+     * @return The signature, e.g. {@code list(java.lang.String,int)}.
+     */
+    static String signature(Method method) {
+        return method.getName() + Arrays.stream(method.getParameterTypes())
+                .map(Class::getName)
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+}
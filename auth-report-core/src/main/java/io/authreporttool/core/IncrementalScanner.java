@@ -0,0 +1,203 @@
+package io.authreporttool.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The IncrementalScanner class keeps the per-class results of a bytecode-only scan in memory
+ * so that later scans only re-read the class files that changed.
+ *
+ * Controllers that change are re-read on their own, and the controllers resolved from a changed
+ * supertype or composed annotation are re-resolved from the session's pool, since their inherited
+ * handler methods and annotations, and whether they are controllers at all, may come from it; the
+ * others are kept. The SecurityFilterChain analyses are only
+ * recomputed when a change may affect them, i.e. when the changed class is not a controller
+ * (a security configuration, a custom filter or a class that was added or removed).
+ * Classes are never loaded, so recompiled classes are always read from their current bytes.
+ */
+public class IncrementalScanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalScanner.class);
+
+    private final ScanSession session;
+    private final ScanCache scanCache;
+    // Shared analyzer, so the most recently used filter analyses and class summaries survive between rescans
+    private final SecurityConfigAnalyzer securityConfigAnalyzer;
+    private final BytecodeControllerScanner bytecodeScanner = new BytecodeControllerScanner();
+
+    // Per-class scan results, kept in class-name order so reports stay stable
+    private final Map<String, BytecodeControllerScanner.ClassScan> classScans = new TreeMap<>();
+    // The classes resolved from each supertype or annotation type, so a change re-resolves only those
+    private final Map<String, Set<String>> dependents = new HashMap<>();
+    private List<SecurityChainAnalysis> chainAnalyses = new ArrayList<>();
+
+    /**
+     * Constructs an IncrementalScanner over the given scan session.
+     *
+     * @param session The scan session providing the class files.
+     * @param scanCache The persistent scan cache, or null to disable caching.
+     * @param securityConfigAnalyzer The analyzer of the SecurityFilterChain methods, reused for every rescan.
+     */
+    public IncrementalScanner(ScanSession session, ScanCache scanCache, SecurityConfigAnalyzer securityConfigAnalyzer) {
+        this.session = session;
+        this.scanCache = scanCache;
+        this.securityConfigAnalyzer = securityConfigAnalyzer;
+    }
+
+    /**
+     * Scans every class file of the session, replacing any previously held results.
+     *
+     * @return The endpoints of the package with the security chains applied.
+     */
+    public synchronized List<EndpointAuthInfo> scan() {
+        classScans.clear();
+        dependents.clear();
+        session.forEachClassFile((className, bytes) -> readClass(className, bytes), scanCache);
+        analyzeSecurityChains();
+        return currentEndpoints();
+    }
+
+    /**
+     * Re-reads only the given classes and returns the updated endpoints.
+     * Classes whose class file no longer exists are dropped.
+     *
+     * @param changedClassNames The binary names of the classes whose class files changed.
+     * @return The endpoints of the package with the security chains applied.
+     */
+    public synchronized List<EndpointAuthInfo> rescan(Collection<String> changedClassNames) {
+        boolean securityChainsAffected = false;
+
+        for (String className : changedClassNames) {
+            BytecodeControllerScanner.ClassScan previous = classScans.remove(className);
+            forgetDependencies(previous);
+            session.getClassBytesPool().remove(className);
+            byte[] bytes = session.readClassFile(className);
+            BytecodeControllerScanner.ClassScan current = (bytes != null) ? readClass(className, bytes) : null;
+            logger.info("Rescanned class: {}", className);
+
+            if (mayAffectSecurityChains(previous) || mayAffectSecurityChains(current)) {
+                securityChainsAffected = true;
+            }
+        }
+
+        // A changed class may be a supertype or a composed annotation of other classes, whose
+        // endpoints are resolved from it; only those are re-resolved, from the pool and the scan cache
+        Set<String> affected = new TreeSet<>();
+        for (String className : changedClassNames) {
+            affected.addAll(dependents.getOrDefault(className, Collections.emptySet()));
+        }
+        affected.removeAll(changedClassNames);
+        for (String className : affected) {
+            byte[] bytes = classScans.containsKey(className) ? session.getClassBytesPool().get(className) : null;
+            if (bytes != null) {
+                readClass(className, bytes);
+            }
+        }
+
+        if (securityChainsAffected) {
+            analyzeSecurityChains();
+        }
+        return currentEndpoints();
+    }
+
+    /**
+     * Drops every held class of a package and its sub-packages, for example after the package's
+     * output directory was deleted, and returns the updated endpoints.
+     *
+     * @param packageName The name of the removed package.
+     * @return The endpoints of the package with the security chains applied.
+     */
+    public synchronized List<EndpointAuthInfo> removePackage(String packageName) {
+        String prefix = packageName + ".";
+        List<String> removedClassNames = new ArrayList<>();
+        for (String className : classScans.keySet()) {
+            if (className.startsWith(prefix)) {
+                removedClassNames.add(className);
+            }
+        }
+        logger.info("Removing {} classes of deleted package: {}", removedClassNames.size(), packageName);
+        // The class files are gone, so rescanning drops them and re-analyzes the chains if needed
+        return rescan(removedClassNames);
+    }
+
+    private BytecodeControllerScanner.ClassScan readClass(String className, byte[] bytes) {
+        try {
+            BytecodeControllerScanner.ClassScan classScan =
+                    bytecodeScanner.scanClass(className, bytes, scanCache,
+                            session.getClassBytesPool(), session.getPackagePrefixes());
+            forgetDependencies(classScans.put(className, classScan));
+            // Classes without endpoints are tracked too, since a changed supertype can make them controllers
+            for (String dependency : classScan.getDependencies()) {
+                dependents.computeIfAbsent(dependency, key -> new HashSet<>()).add(className);
+            }
+            return classScan;
+        } catch (Exception e) {
+            logger.warn("Error reading class file: " + className, e);
+            return null;
+        }
+    }
+
+    private void forgetDependencies(BytecodeControllerScanner.ClassScan classScan) {
+        if (classScan == null) {
+            return;
+        }
+        for (String dependency : classScan.getDependencies()) {
+            Set<String> dependentClasses = dependents.get(dependency);
+            if (dependentClasses != null) {
+                dependentClasses.remove(classScan.getClassName());
+                if (dependentClasses.isEmpty()) {
+                    dependents.remove(dependency);
+                }
+            }
+        }
+    }
+
+    private boolean mayAffectSecurityChains(BytecodeControllerScanner.ClassScan classScan) {
+        return classScan == null || classScan.getEndpoints().isEmpty();
+    }
+
+    private void analyzeSecurityChains() {
+        // Class files are read from the session's pool, which rescans keep up to date. The analyzer
+        // memoizes by class-file hash in bounded LRU caches, so a changed configuration or filter is
+        // always re-analyzed and the analyses of its earlier versions are eventually evicted.
+        List<ChainMethod> chainMethods = new ArrayList<>();
+        for (BytecodeControllerScanner.ClassScan classScan : classScans.values()) {
+            chainMethods.addAll(classScan.getSecurityFilterChainMethods());
+        }
+        chainMethods.sort(ChainMethod.CHAIN_ORDER);
+        List<SecurityChainAnalysis> analyses = new ArrayList<>();
+        for (ChainMethod chainMethod : chainMethods) {
+            analyses.add(securityConfigAnalyzer.analyzeSecurityFilterChain(
+                    chainMethod.getClassName(), chainMethod.getMethodName(), session.getClassBytesPool()));
+        }
+        chainAnalyses = analyses;
+    }
+
+    private List<EndpointAuthInfo> currentEndpoints() {
+        List<EndpointAuthInfo> authInfoList = new ArrayList<>();
+        for (BytecodeControllerScanner.ClassScan classScan : classScans.values()) {
+            for (EndpointAuthInfo endpoint : classScan.getEndpoints()) {
+                // Apply the first matching chain to a copy, so the held scan results stay untouched
+                EndpointAuthInfo authInfo = new EndpointAuthInfo(endpoint);
+                for (SecurityChainAnalysis chainAnalysis : chainAnalyses) {
+                    if (chainAnalysis.applyTo(authInfo)) {
+                        break;
+                    }
+                }
+                authInfoList.add(authInfo);
+            }
+        }
+        return authInfoList;
+    }
+}
@@ -0,0 +1,114 @@
+package io.authreporttool.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.jar.JarEntry;
+
+/**
+ * The JarIndex class remembers, across runs, which jars contain no candidate classes for a
+ * package, so that third-party jars such as Spring or Jackson are never opened again.
+ *
+ * A jar is identified by a fingerprint instead of its path or timestamp, so a re-downloaded but
+ * identical jar is still recognized. For jars on disk the fingerprint is the SHA-256 hash of the
+ * zip central directory, which lists the CRC-32 and size of every entry; only the end of the file
+ * is read to compute it. Jars nested in an executable jar are identified by the CRC-32 and size
+ * the outer archive records for them, so they need not be read at all.
+ *
+ * The fingerprint of a jar on disk is also recorded under its path, size and modification time,
+ * so a jar unchanged since the last run is recognized from a file stat without being opened. The
+ * central directory is hashed only when the stat differs, e.g. for a rebuilt or re-downloaded jar.
+ * A jar rewritten in place with the same size within the file system's timestamp resolution keeps
+ * its recorded fingerprint; build tools and dependency caches do not rewrite jars that way.
+ *
+ * The index is stored in the ScanCache directory and is only as accurate as the constant-pool
+ * prefilter that decides whether a class is a candidate.
+ */
+final class JarIndex {
+
+    private final ScanCache scanCache;
+
+    JarIndex(ScanCache scanCache) {
+        this.scanCache = scanCache;
+    }
+
+    /**
+     * Checks whether a jar is known to contain no candidate classes under a package.
+     *
+     * @param fingerprint The fingerprint of the jar.
+     * @param packagePath The package path the jar was walked for, e.g. "com/example/".
+     * @return true if an earlier walk of the same jar found no candidate classes.
+     */
+    boolean isIrrelevant(String fingerprint, String packagePath) {
+        return scanCache.isIrrelevantJar(key(fingerprint, packagePath));
+    }
+
+    /**
+     * Records that a jar contains no candidate classes under a package.
+     *
+     * @param fingerprint The fingerprint of the jar.
+     * @param packagePath The package path the jar was walked for.
+     * @param jarName The name of the jar, kept in the entry for diagnostics.
+     */
+    void markIrrelevant(String fingerprint, String packagePath, String jarName) {
+        scanCache.putIrrelevantJar(key(fingerprint, packagePath), jarName);
+    }
+
+    /**
+     * Returns the fingerprint of a jar on disk, from the fingerprint recorded for its current
+     * path, size and modification time, or else from its central directory.
+     *
+     * @param jar The jar file.
+     * @return The fingerprint, or null if the jar has no readable central directory (e.g. ZIP64).
+     */
+    String fingerprint(File jar) {
+        byte[] statKey = statKey(jar);
+        String fingerprint = scanCache.getJarFingerprint(statKey);
+        if (fingerprint == null) {
+            fingerprint = centralDirectoryFingerprint(jar);
+            if (fingerprint != null) {
+                scanCache.putJarFingerprint(statKey, fingerprint);
+            }
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Computes the fingerprint of a jar on disk from its central directory.
+     *
+     * @param jar The jar file.
+     * @return The fingerprint, or null if the jar has no readable central directory (e.g. ZIP64).
+     */
+    static String centralDirectoryFingerprint(File jar) {
+        try (FileChannel channel = FileChannel.open(jar.toPath(), StandardOpenOption.READ)) {
+            return ScanCache.hash(NestedJar.readCentralDirectory(channel));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Computes the fingerprint of a jar nested in another archive from its outer entry.
+     *
+     * @param entry The outer archive entry holding the nested jar.
+     * @return The fingerprint, or null if the outer archive records no CRC-32 for the entry.
+     */
+    static String fingerprint(JarEntry entry) {
+        if (entry.getCrc() == -1 || entry.getSize() == -1) {
+            return null;
+        }
+        String identity = entry.getName() + "\n" + Long.toHexString(entry.getCrc()) + "\n" + entry.getSize();
+        return ScanCache.hash(identity.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] statKey(File jar) {
+        String stat = jar.getAbsolutePath() + "\n" + jar.length() + "\n" + jar.lastModified();
+        return stat.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] key(String fingerprint, String packagePath) {
+        return (fingerprint + "\n" + packagePath).getBytes(StandardCharsets.UTF_8);
+    }
+}
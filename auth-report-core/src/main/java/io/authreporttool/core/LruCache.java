@@ -0,0 +1,121 @@
+package io.authreporttool.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * The LruCache class is a thread-safe memo holding at most a fixed number of entries, evicting
+ * the least recently used entry when full.
+ *
+ * The analyzers memoize their results by class-file hash. A long-lived analyzer, such as the one
+ * behind the report endpoint or an incremental scanner, sees a new hash for every recompiled
+ * class, so an unbounded memo would keep every version it ever analyzed.
+ *
+ * Entries live in a ConcurrentHashMap and carry the tick of their last use, so lookups and
+ * stores from parallel scans take no shared lock. Only a store that overflows the cache locks,
+ * to scan for the entry with the oldest tick; with the few hundred entries the analyzers keep,
+ * that scan is cheaper than keeping every read in order. Under concurrent use the evicted entry
+ * is the least recently used one only approximately.
+ *
+ * Values are computed outside any lock, so a slow computation never blocks lookups of other
+ * keys; two threads missing the same key may both compute it, and the last one wins.
+ */
+final class LruCache<K, V> {
+
+    private final int maxEntries;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    // Logical clock ticking on every use, ordering the entries by recency
+    private final AtomicLong clock = new AtomicLong();
+
+    /**
+     * Constructs an empty LruCache.
+     *
+     * @param maxEntries The number of entries kept before the least recently used one is evicted.
+     */
+    LruCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the value of a key, marking it as recently used.
+     *
+     * @param key The key.
+     * @return The value, or null if the key is not cached.
+     */
+    V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        entry.lastUse = clock.incrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * Caches the value of a key, evicting the least recently used entries if the cache overflows.
+     *
+     * @param key The key.
+     * @param value The value.
+     */
+    void put(K key, V value) {
+        entries.put(key, new Entry<>(value, clock.incrementAndGet()));
+        if (entries.size() > maxEntries) {
+            evict();
+        }
+    }
+
+    /**
+     * Returns the value of a key, computing and caching it if the key is not cached.
+     *
+     * @param key The key.
+     * @param compute The function computing the value of the key.
+     * @return The cached or newly computed value.
+     */
+    V computeIfAbsent(K key, Function<K, V> compute) {
+        V value = get(key);
+        if (value == null) {
+            value = compute.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the number of cached entries.
+     *
+     * @return The number of cached entries.
+     */
+    int size() {
+        return entries.size();
+    }
+
+    // Serializes evictions, so concurrent overflowing stores do not evict more entries than needed
+    private synchronized void evict() {
+        while (entries.size() > maxEntries) {
+            K eldestKey = null;
+            long eldestUse = Long.MAX_VALUE;
+            for (Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+                if (entry.getValue().lastUse < eldestUse) {
+                    eldestKey = entry.getKey();
+                    eldestUse = entry.getValue().lastUse;
+                }
+            }
+            if (eldestKey == null) {
+                return;
+            }
+            entries.remove(eldestKey);
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private volatile long lastUse;
+
+        Entry(V value, long lastUse) {
+            this.value = value;
+            this.lastUse = lastUse;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package io.authreporttool.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The MappingDescriptor class holds everything the report needs to know about a single handler
+ * method: its full paths, HTTP methods, consumed and produced media types and its effective
+ * {@code @PreAuthorize} expression. It is computed once per method by the RequestMappingResolver
+ * from the merged mapping annotations, so composed annotations such as {@code @GetMapping} or
+ * custom meta-annotated mappings are read the same way Spring MVC reads them.
+ *
+ * This class is immutable, so one descriptor can be cached and shared between scans.
+ */
+public class MappingDescriptor {
+
+    private final List<String> paths;
+    private final List<String> httpMethods;
+    private final List<String> consumes;
+    private final List<String> produces;
+    private final String authExpression;
+
+    /**
+     * Constructs a new MappingDescriptor.
+     *
+     * @param paths The full paths of the endpoint, controller path included.
+     * @param httpMethods The HTTP methods the endpoint is mapped to.
+     * @param consumes The media types the endpoint consumes.
+     * @param produces The media types the endpoint produces.
+     * @param authExpression The effective {@code @PreAuthorize} expression, or "None".
+     */
+    MappingDescriptor(List<String> paths, List<String> httpMethods, List<String> consumes,
+                      List<String> produces, String authExpression) {
+        this.paths = Collections.unmodifiableList(new ArrayList<>(paths));
+        this.httpMethods = Collections.unmodifiableList(new ArrayList<>(httpMethods));
+        this.consumes = Collections.unmodifiableList(new ArrayList<>(consumes));
+        this.produces = Collections.unmodifiableList(new ArrayList<>(produces));
+        this.authExpression = authExpression;
+    }
+
+    /**
+     * Expands this descriptor into one EndpointAuthInfo per combination of path and HTTP method.
+     *
+     * @param methodName The name of the handler method.
+     * @param className The fully qualified name of the controller class.
+     * @return The endpoints, ordered by path and then by HTTP method.
+     */
+    public List<EndpointAuthInfo> toEndpoints(String methodName, String className) {
+        List<EndpointAuthInfo> endpoints = new ArrayList<>();
+        for (String path : paths) {
+            for (String httpMethod : httpMethods) {
+                endpoints.add(new EndpointAuthInfo(path, httpMethod, authExpression, methodName, className));
+            }
+        }
+        return endpoints;
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    public List<String> getHttpMethods() {
+        return httpMethods;
+    }
+
+    public List<String> getConsumes() {
+        return consumes;
+    }
+
+    public List<String> getProduces() {
+        return produces;
+    }
+
+    public String getAuthExpression() {
+        return authExpression;
+    }
+}
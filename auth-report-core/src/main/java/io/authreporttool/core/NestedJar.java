@@ -0,0 +1,339 @@
+package io.authreporttool.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+
+/**
+ * The NestedJar class reads entries of a jar that is itself an entry of another archive, such as
+ * BOOT-INF/lib/*.jar inside a Spring Boot executable jar, without extracting it to disk.
+ *
+ * Spring Boot stores nested jars uncompressed, so a nested jar is a plain byte range of the outer
+ * file and is read in place: only its central directory and the entries accepted by the name
+ * filter are read, and every other entry is skipped without touching its data. A nested jar
+ * that was compressed cannot be read in place and is streamed entry by entry instead.
+ */
+class NestedJar {
+
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+    private static final int CENTRAL_DIRECTORY_HEADER = 0x02014b50;
+    private static final int LOCAL_FILE_HEADER = 0x04034b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+    private static final int CENTRAL_DIRECTORY_HEADER_SIZE = 46;
+    private static final int LOCAL_FILE_HEADER_SIZE = 30;
+
+    /**
+     * Callback receiving each accepted entry of a nested jar.
+     */
+    @FunctionalInterface
+    interface EntryVisitor {
+        void visitEntry(String entryName, byte[] bytes) throws IOException;
+    }
+
+    /**
+     * Random access to the bytes of a jar.
+     */
+    private interface Source {
+        long length();
+
+        byte[] read(long position, int length) throws IOException;
+    }
+
+    private final Source source;
+    // The central directory records by entry name, in directory order, read on first use
+    private Map<String, Entry> entries;
+
+    private NestedJar(Source source) {
+        this.source = source;
+    }
+
+    /**
+     * Opens a jar file held by a channel, e.g. the outer archive of nested jars. Nothing is read
+     * until its entries are first needed.
+     *
+     * @param channel The channel of the jar file.
+     * @return The jar, reading its bytes through the channel.
+     * @throws IOException If the size of the file cannot be read.
+     */
+    static NestedJar open(FileChannel channel) throws IOException {
+        return new NestedJar(range(channel, 0, channel.size()));
+    }
+
+    /**
+     * Visits every entry of a jar read from a stream whose name is accepted by the filter, in the
+     * order the entries are stored. Only the accepted entries are kept in memory, one at a time.
+     *
+     * @param in The stream of the jar's bytes, left open.
+     * @param nameFilter The filter deciding which entries are read, applied to the entry name only.
+     * @param visitor The visitor receiving each accepted entry.
+     * @throws IOException If the jar cannot be read.
+     */
+    static void forEachEntry(InputStream in, Predicate<String> nameFilter, EntryVisitor visitor) throws IOException {
+        ZipInputStream zip = new ZipInputStream(in);
+        for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+            if (!entry.isDirectory() && nameFilter.test(entry.getName())) {
+                visitor.visitEntry(entry.getName(), zip.readAllBytes());
+            }
+        }
+    }
+
+    /**
+     * Returns a jar stored uncompressed as an entry of this jar, reading it in place.
+     *
+     * @param entryName The name of the entry holding the nested jar.
+     * @return The nested jar, or null if there is no such entry or it is compressed.
+     * @throws IOException If this jar is malformed or uses an unsupported format such as ZIP64.
+     */
+    NestedJar nestedJar(String entryName) throws IOException {
+        Entry entry = entries().get(entryName);
+        if (entry == null || entry.method != ZipEntry.STORED || entry.compressedSize != entry.size) {
+            return null;
+        }
+        long dataOffset = dataOffset(entry);
+        return new NestedJar(range(source, dataOffset, entry.size));
+    }
+
+    /**
+     * Visits every entry of this jar whose name is accepted by the filter, in central directory order.
+     *
+     * @param nameFilter The filter deciding which entries are read, applied to the entry name only.
+     * @param visitor The visitor receiving each accepted entry.
+     * @throws IOException If the jar is malformed or uses an unsupported format such as ZIP64.
+     */
+    void forEachEntry(Predicate<String> nameFilter, EntryVisitor visitor) throws IOException {
+        for (Entry entry : entries().values()) {
+            if (!entry.name.endsWith("/") && nameFilter.test(entry.name)) {
+                visitor.visitEntry(entry.name, readEntry(entry));
+            }
+        }
+    }
+
+    private Map<String, Entry> entries() throws IOException {
+        if (entries == null) {
+            entries = readEntries();
+        }
+        return entries;
+    }
+
+    private Map<String, Entry> readEntries() throws IOException {
+        CentralDirectory centralDirectory = readCentralDirectory(source);
+        byte[] directory = centralDirectory.bytes;
+        long directoryOffset = centralDirectory.offset;
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        int offset = 0;
+        for (int i = 0; i < centralDirectory.entryCount; i++) {
+            if (offset + CENTRAL_DIRECTORY_HEADER_SIZE > directory.length || s32(directory, offset) != CENTRAL_DIRECTORY_HEADER) {
+                throw new ZipException("Invalid central directory header at offset " + (directoryOffset + offset));
+            }
+            int nameLength = u16(directory, offset + 28);
+            int extraLength = u16(directory, offset + 30);
+            int commentLength = u16(directory, offset + 32);
+            if (offset + CENTRAL_DIRECTORY_HEADER_SIZE + nameLength > directory.length) {
+                throw new ZipException("Invalid central directory header at offset " + (directoryOffset + offset));
+            }
+            Entry entry = new Entry(
+                    new String(directory, offset + CENTRAL_DIRECTORY_HEADER_SIZE, nameLength, StandardCharsets.UTF_8),
+                    u16(directory, offset + 10), u32(directory, offset + 20), u32(directory, offset + 24),
+                    u32(directory, offset + 42));
+            entries.putIfAbsent(entry.name, entry);
+            offset += CENTRAL_DIRECTORY_HEADER_SIZE + nameLength + extraLength + commentLength;
+        }
+        return entries;
+    }
+
+    /**
+     * Reads the central directory of a jar on disk, which lists the name, CRC-32 and size of every
+     * entry. Only the end of the file is read.
+     *
+     * @param channel The channel of the jar file.
+     * @return The central directory records, as stored in the jar.
+     * @throws ZipException If the jar has no readable central directory (e.g. ZIP64).
+     * @throws IOException If the jar cannot be read.
+     */
+    static byte[] readCentralDirectory(FileChannel channel) throws IOException {
+        return readCentralDirectory(range(channel, 0, channel.size())).bytes;
+    }
+
+    private static CentralDirectory readCentralDirectory(Source source) throws IOException {
+        long length = source.length();
+        int tailLength = (int) Math.min(length, END_OF_CENTRAL_DIRECTORY_SIZE + MAX_COMMENT_LENGTH);
+        byte[] tail = source.read(length - tailLength, tailLength);
+        int end = findEndOfCentralDirectory(tail);
+
+        int entryCount = u16(tail, end + 10);
+        long directorySize = u32(tail, end + 12);
+        long directoryOffset = u32(tail, end + 16);
+        if (entryCount == 0xFFFF || directoryOffset == 0xFFFFFFFFL) {
+            throw new ZipException("ZIP64 jars are not supported");
+        }
+        if (directoryOffset + directorySize > length) {
+            throw new ZipException("Invalid central directory offset " + directoryOffset);
+        }
+        return new CentralDirectory(source.read(directoryOffset, (int) directorySize), entryCount, directoryOffset);
+    }
+
+    private long dataOffset(Entry entry) throws IOException {
+        if (entry.localHeaderOffset + LOCAL_FILE_HEADER_SIZE > source.length()) {
+            throw new ZipException("Invalid local file header for entry " + entry.name);
+        }
+        byte[] header = source.read(entry.localHeaderOffset, LOCAL_FILE_HEADER_SIZE);
+        if (s32(header, 0) != LOCAL_FILE_HEADER) {
+            throw new ZipException("Invalid local file header for entry " + entry.name);
+        }
+        long dataOffset = entry.localHeaderOffset + LOCAL_FILE_HEADER_SIZE + u16(header, 26) + u16(header, 28);
+        if (dataOffset + entry.compressedSize > source.length()) {
+            throw new ZipException("Truncated entry " + entry.name);
+        }
+        return dataOffset;
+    }
+
+    private byte[] readEntry(Entry entry) throws IOException {
+        if (entry.size > Integer.MAX_VALUE || entry.compressedSize > Integer.MAX_VALUE) {
+            throw new ZipException("Entry too large: " + entry.name);
+        }
+        byte[] data = source.read(dataOffset(entry), (int) entry.compressedSize);
+        if (entry.method == ZipEntry.STORED) {
+            if (entry.compressedSize != entry.size) {
+                throw new ZipException("Invalid size of stored entry " + entry.name);
+            }
+            return data;
+        }
+        if (entry.method != ZipEntry.DEFLATED) {
+            throw new ZipException("Unsupported compression method " + entry.method + " for entry " + entry.name);
+        }
+
+        byte[] bytes = new byte[(int) entry.size];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(data);
+            int inflated = 0;
+            while (inflated < bytes.length && !inflater.finished()) {
+                int count = inflater.inflate(bytes, inflated, bytes.length - inflated);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += count;
+            }
+            if (inflated != bytes.length) {
+                throw new ZipException("Truncated entry " + entry.name);
+            }
+            return bytes;
+        } catch (DataFormatException e) {
+            throw new ZipException("Invalid compressed data for entry " + entry.name + ": " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static int findEndOfCentralDirectory(byte[] jarBytes) throws ZipException {
+        int last = jarBytes.length - END_OF_CENTRAL_DIRECTORY_SIZE;
+        int first = Math.max(0, last - MAX_COMMENT_LENGTH);
+        for (int offset = last; offset >= first; offset--) {
+            if (s32(jarBytes, offset) == END_OF_CENTRAL_DIRECTORY) {
+                return offset;
+            }
+        }
+        throw new ZipException("End of central directory not found");
+    }
+
+    private static Source range(FileChannel channel, long start, long length) {
+        return new Source() {
+            @Override
+            public long length() {
+                return length;
+            }
+
+            @Override
+            public byte[] read(long position, int count) throws IOException {
+                if (position < 0 || position + count > length) {
+                    throw new ZipException("Read past the end of the jar at offset " + position);
+                }
+                // Positional reads leave the channel position alone, so sources can share the channel
+                ByteBuffer buffer = ByteBuffer.allocate(count);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, start + position + buffer.position()) < 0) {
+                        throw new ZipException("Unexpected end of file at offset " + (start + position + buffer.position()));
+                    }
+                }
+                return buffer.array();
+            }
+        };
+    }
+
+    private static Source range(Source source, long start, long length) {
+        return new Source() {
+            @Override
+            public long length() {
+                return length;
+            }
+
+            @Override
+            public byte[] read(long position, int count) throws IOException {
+                if (position < 0 || position + count > length) {
+                    throw new ZipException("Read past the end of the jar at offset " + position);
+                }
+                return source.read(start + position, count);
+            }
+        };
+    }
+
+    private static int u16(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8;
+    }
+
+    private static long u32(byte[] bytes, int offset) {
+        return s32(bytes, offset) & 0xFFFFFFFFL;
+    }
+
+    private static int s32(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8
+                | (bytes[offset + 2] & 0xFF) << 16 | (bytes[offset + 3] & 0xFF) << 24;
+    }
+
+    /**
+     * The central directory of a jar: its records, how many there are and where they start.
+     */
+    private static final class CentralDirectory {
+        final byte[] bytes;
+        final int entryCount;
+        final long offset;
+
+        CentralDirectory(byte[] bytes, int entryCount, long offset) {
+            this.bytes = bytes;
+            this.entryCount = entryCount;
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * A central directory record: where an entry is stored and how.
+     */
+    private static final class Entry {
+        final String name;
+        final int method;
+        final long compressedSize;
+        final long size;
+        final long localHeaderOffset;
+
+        Entry(String name, int method, long compressedSize, long size, long localHeaderOffset) {
+            this.name = name;
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+    }
+}
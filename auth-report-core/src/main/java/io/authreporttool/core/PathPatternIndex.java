@@ -0,0 +1,214 @@
+package io.authreporttool.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * The PathPatternIndex class compiles a set of URL path patterns into a trie over path segments,
+ * so that all patterns matching a path are found in a single walk over the path's segments,
+ * however many patterns are indexed.
+ *
+ * Both Ant-style and Spring PathPattern syntax are understood:
+ * <ul>
+ *   <li>{@code **} and {@code {*name}} match zero or more segments;</li>
+ *   <li>{@code *} and {@code {name}} match exactly one segment;</li>
+ *   <li>segments such as {@code *.json}, {@code v?} or {@code {id:\d+}} match one segment
+ *       against a compiled regular expression;</li>
+ *   <li>every other segment is matched literally.</li>
+ * </ul>
+ * A URI template variable in the matched path, such as {@code {id}} in "/users/{id}", is only
+ * matched by a wildcard or by the identical literal segment.
+ *
+ * The index is built by calling {@link #add(String, Object)} and is safe to share between threads
+ * once fully built.
+ *
+ * @param <T> The type of the values associated with the patterns.
+ */
+final class PathPatternIndex<T> {
+
+    private final Node<T> root = new Node<>(false);
+
+    /**
+     * Adds a pattern to the index.
+     *
+     * @param pattern The path pattern, e.g. "/api/**" or "/users/{id}".
+     * @param value The value returned when a path matches the pattern.
+     */
+    void add(String pattern, T value) {
+        Node<T> node = root;
+        for (String segment : segments(pattern)) {
+            node = node.child(segment);
+        }
+        node.values.add(value);
+    }
+
+    /**
+     * Returns the values of every pattern matching a path.
+     *
+     * @param path The path to match, e.g. "/api/users/42".
+     * @return The values of the matching patterns, or an empty set if none matches.
+     */
+    Set<T> match(String path) {
+        Set<Node<T>> states = new LinkedHashSet<>();
+        enter(root, states);
+
+        for (String segment : segments(path)) {
+            Set<Node<T>> next = new LinkedHashSet<>();
+            for (Node<T> node : states) {
+                node.advance(segment, next);
+            }
+            if (next.isEmpty()) {
+                return Collections.emptySet();
+            }
+            states = next;
+        }
+
+        Set<T> values = new LinkedHashSet<>();
+        for (Node<T> node : states) {
+            values.addAll(node.values);
+        }
+        return values;
+    }
+
+    /**
+     * Activates a node, together with the multi-segment wildcards that may match zero segments after it.
+     */
+    private static <T> void enter(Node<T> node, Set<Node<T>> states) {
+        if (states.add(node) && node.multiSegmentChild != null) {
+            enter(node.multiSegmentChild, states);
+        }
+    }
+
+    private static List<String> segments(String path) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments;
+    }
+
+    private static boolean isMultiSegmentWildcard(String segment) {
+        return segment.equals("**") || (segment.startsWith("{*") && segment.endsWith("}"));
+    }
+
+    private static boolean isSingleSegmentWildcard(String segment) {
+        return segment.equals("*")
+                || (segment.startsWith("{") && segment.endsWith("}") && segment.indexOf('{', 1) < 0
+                && segment.indexOf(':') < 0);
+    }
+
+    private static boolean isLiteral(String segment) {
+        return segment.indexOf('*') < 0 && segment.indexOf('?') < 0 && segment.indexOf('{') < 0;
+    }
+
+    /**
+     * Translates a segment mixing literal text with *, ? and {name} or {name:regex} into a regular expression.
+     */
+    private static Pattern compileSegment(String segment) {
+        StringBuilder regex = new StringBuilder();
+        int literalStart = 0;
+        int i = 0;
+        while (i < segment.length()) {
+            char c = segment.charAt(i);
+            if (c == '*' || c == '?' || c == '{') {
+                if (literalStart < i) {
+                    regex.append(Pattern.quote(segment.substring(literalStart, i)));
+                }
+                if (c == '*') {
+                    regex.append("[^/]*");
+                    i++;
+                } else if (c == '?') {
+                    regex.append("[^/]");
+                    i++;
+                } else {
+                    int end = segment.indexOf('}', i);
+                    if (end < 0) {
+                        // Unbalanced brace, match the rest literally
+                        regex.append(Pattern.quote(segment.substring(i)));
+                        i = segment.length();
+                    } else {
+                        String variable = segment.substring(i + 1, end);
+                        int colon = variable.indexOf(':');
+                        regex.append(colon < 0 ? "[^/]+" : "(?:" + variable.substring(colon + 1) + ")");
+                        i = end + 1;
+                    }
+                }
+                literalStart = i;
+            } else {
+                i++;
+            }
+        }
+        if (literalStart < segment.length()) {
+            regex.append(Pattern.quote(segment.substring(literalStart)));
+        }
+        try {
+            return Pattern.compile(regex.toString());
+        } catch (PatternSyntaxException e) {
+            // A malformed {name:regex} variable can only match itself
+            return Pattern.compile(Pattern.quote(segment));
+        }
+    }
+
+    private static final class Node<T> {
+        // Whether this node was reached through ** and keeps matching any further segment
+        private final boolean multiSegment;
+        private final Map<String, Node<T>> literalChildren = new HashMap<>();
+        private final Map<String, Node<T>> patternChildren = new LinkedHashMap<>();
+        private final Map<String, Pattern> compiledPatterns = new HashMap<>();
+        private Node<T> singleSegmentChild;
+        private Node<T> multiSegmentChild;
+        private final Set<T> values = new LinkedHashSet<>();
+
+        Node(boolean multiSegment) {
+            this.multiSegment = multiSegment;
+        }
+
+        Node<T> child(String segment) {
+            if (isMultiSegmentWildcard(segment)) {
+                if (multiSegmentChild == null) {
+                    multiSegmentChild = new Node<>(true);
+                }
+                return multiSegmentChild;
+            }
+            if (isSingleSegmentWildcard(segment)) {
+                if (singleSegmentChild == null) {
+                    singleSegmentChild = new Node<>(false);
+                }
+                return singleSegmentChild;
+            }
+            if (isLiteral(segment)) {
+                return literalChildren.computeIfAbsent(segment, key -> new Node<>(false));
+            }
+            compiledPatterns.computeIfAbsent(segment, PathPatternIndex::compileSegment);
+            return patternChildren.computeIfAbsent(segment, key -> new Node<>(false));
+        }
+
+        void advance(String segment, Set<Node<T>> next) {
+            if (multiSegment) {
+                enter(this, next);
+            }
+            Node<T> literal = literalChildren.get(segment);
+            if (literal != null) {
+                enter(literal, next);
+            }
+            if (singleSegmentChild != null) {
+                enter(singleSegmentChild, next);
+            }
+            for (Map.Entry<String, Node<T>> entry : patternChildren.entrySet()) {
+                if (compiledPatterns.get(entry.getKey()).matcher(segment).matches()) {
+                    enter(entry.getValue(), next);
+                }
+            }
+        }
+    }
+}
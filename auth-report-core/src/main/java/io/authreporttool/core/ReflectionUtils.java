@@ -1,11 +1,5 @@
 package io.authreporttool.core;
 
-import org.reflections.Reflections;
-import org.reflections.scanners.MethodAnnotationsScanner;
-import org.reflections.scanners.SubTypesScanner;
-import org.reflections.scanners.TypeAnnotationsScanner;
-import org.reflections.util.ClasspathHelper;
-import org.reflections.util.ConfigurationBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
@@ -15,8 +9,8 @@ import java.io.File;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.net.URL;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -57,36 +51,56 @@ public class ReflectionUtils {
             logger.warn("Package directory does not exist or is not a directory: {}", packageDir.getAbsolutePath());
         }
 
-        // Get URLs for the package
-        Set<URL> urls = new HashSet<>(ClasspathHelper.forPackage(basePackage));
-        logger.info("URLs found for package {}: {}", basePackage, urls);
-
-        if (urls.isEmpty()) {
-            logger.warn("No URLs found for package: {}. The package might not exist or is inaccessible.", basePackage);
+        // Index the package once and answer the lookup from the session
+        try {
+            return findAnnotatedClasses(openSession(basePackage), annotation);
+        } catch (Exception e) {
+            logger.error("Error occurred while scanning package: " + basePackage, e);
             return Collections.emptySet();
         }
+    }
 
-        // Perform the scan
-        try {
-            Reflections reflections = new Reflections(new ConfigurationBuilder()
-                    .setUrls(urls)
-                    .setScanners(new SubTypesScanner(false), new TypeAnnotationsScanner()));
+    /**
+     * Opens a scan session that indexes the specified base package in a single pass.
+     * Callers that need several lookups over the same package should open one session
+     * and pass it to the session-based methods of this class.
+     *
+     * @param basePackage The package to index.
+     * @return A ScanSession over the package.
+     */
+    public ScanSession openSession(String basePackage) {
+        return ScanSession.open(basePackage);
+    }
 
-            Set<Class<?>> annotatedClasses = new HashSet<>(reflections.getTypesAnnotatedWith(annotation));
+    /**
+     * Opens a scan session that indexes several base packages together in a single pass.
+     *
+     * @param basePackages The packages to index.
+     * @return A ScanSession over the packages.
+     */
+    public ScanSession openSession(Collection<String> basePackages) {
+        return ScanSession.open(basePackages);
+    }
 
-            logger.info("Found {} classes annotated with {} in package {}",
-                    annotatedClasses.size(), annotation.getSimpleName(), basePackage);
+    /**
+     * Finds all classes in the scan session that are annotated with the given annotation.
+     *
+     * @param session The scan session to query.
+     * @param annotation The annotation class to look for.
+     * @return A set of classes annotated with the specified annotation.
+     */
+    public Set<Class<?>> findAnnotatedClasses(ScanSession session, Class<? extends Annotation> annotation) {
+        Set<Class<?>> annotatedClasses = session.getTypesAnnotatedWith(annotation);
 
-            // Log found classes
-            for (Class<?> clazz : annotatedClasses) {
-                logger.info("Found annotated class: {}", clazz.getName());
-            }
+        logger.info("Found {} classes annotated with {} in package {}",
+                annotatedClasses.size(), annotation.getSimpleName(), session.getBasePackage());
 
-            return annotatedClasses;
-        } catch (Exception e) {
-            logger.error("Error occurred while scanning package: " + basePackage, e);
-            return Collections.emptySet();
+        // Log found classes
+        for (Class<?> clazz : annotatedClasses) {
+            logger.info("Found annotated class: {}", clazz.getName());
         }
+
+        return annotatedClasses;
     }
 
     /**
@@ -116,12 +130,17 @@ public class ReflectionUtils {
      * @return A set of classes that have methods returning SecurityFilterChain.
      */
     public Set<Class<?>> findClassesWithSecurityFilterChainMethods(String basePackage) {
-        Reflections reflections = new Reflections(new ConfigurationBuilder()
-                .setUrls(ClasspathHelper.forPackage(basePackage))
-                .setScanners(new SubTypesScanner(false), new MethodAnnotationsScanner()));
+        return findClassesWithSecurityFilterChainMethods(openSession(basePackage));
+    }
 
-        Set<Method> methods = reflections.getMethodsReturn(SecurityFilterChain.class);
-        return methods.stream()
+    /**
+     * Finds all classes in the scan session that have methods returning SecurityFilterChain.
+     *
+     * @param session The scan session to query.
+     * @return A set of classes that have methods returning SecurityFilterChain.
+     */
+    public Set<Class<?>> findClassesWithSecurityFilterChainMethods(ScanSession session) {
+        return session.getMethodsReturn(SecurityFilterChain.class).stream()
                 .map(Method::getDeclaringClass)
                 .collect(Collectors.toSet());
     }
@@ -136,14 +155,21 @@ public class ReflectionUtils {
      * @return A set of classes that have methods annotated with @Bean and returning the specified type.
      */
     public Set<Class<?>> findClassesWithBeanMethods(String basePackage, Class<?> returnType) {
-        Reflections reflections = new Reflections(new ConfigurationBuilder()
-                .setUrls(ClasspathHelper.forPackage(basePackage))
-                .setScanners(new SubTypesScanner(false), new MethodAnnotationsScanner()));
+        return findClassesWithBeanMethods(openSession(basePackage), returnType);
+    }
 
-        Set<Method> beanMethods = reflections.getMethodsAnnotatedWith(Bean.class);
-        return beanMethods.stream()
+    /**
+     * Finds all classes in the scan session that have methods annotated with @Bean
+     * and return the specified type.
+     *
+     * @param session The scan session to query.
+     * @param returnType The return type of the bean methods to look for.
+     * @return A set of classes that have methods annotated with @Bean and returning the specified type.
+     */
+    public Set<Class<?>> findClassesWithBeanMethods(ScanSession session, Class<?> returnType) {
+        return session.getMethodsAnnotatedWith(Bean.class).stream()
                 .filter(method -> method.getReturnType().equals(returnType))
                 .map(Method::getDeclaringClass)
                 .collect(Collectors.toSet());
     }
-}
\ No newline at end of file
+}
@@ -3,6 +3,8 @@ package io.authreporttool.core;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.function.Function;
@@ -43,6 +45,43 @@ public class ReportGenerator {
         return processAuthInfo(authInfoList);
     }
 
+    /**
+     * Generates a single authorization report covering several base packages. The packages
+     * are scanned together, sharing one classpath index and one security configuration analysis.
+     *
+     * @param basePackages The base packages to scan for endpoint authorization information.
+     * @return An AuthorizationReport containing detailed endpoint authorization information.
+     */
+    public AuthorizationReport generateReport(Collection<String> basePackages) {
+        logger.info("Generating authorization report for packages: " + basePackages);
+        List<EndpointAuthInfo> authInfoList = scanner.scanApi(basePackages);
+        return processAuthInfo(authInfoList);
+    }
+
+    /**
+     * Generates an authorization report for the package of an already opened scan session,
+     * for example one over a build's output directory.
+     *
+     * @param session The scan session of the package to report on.
+     * @return An AuthorizationReport containing detailed endpoint authorization information.
+     */
+    public AuthorizationReport generateReport(ScanSession session) {
+        logger.info("Generating authorization report for package: " + session.getBasePackage());
+        List<EndpointAuthInfo> authInfoList = scanner.scanApi(session);
+        return processAuthInfo(authInfoList);
+    }
+
+    /**
+     * Generates an authorization report from endpoint information that has already been collected,
+     * for example by an incremental scan.
+     *
+     * @param authInfoList The endpoint authorization information to report on.
+     * @return An AuthorizationReport containing detailed endpoint authorization information.
+     */
+    public AuthorizationReport generateReport(List<EndpointAuthInfo> authInfoList) {
+        return processAuthInfo(authInfoList);
+    }
+
     /**
      * Processes a list of EndpointAuthInfo objects into a structured AuthorizationReport.
      * This method groups endpoints by their authorization expressions and creates authorization groups.
@@ -51,8 +90,9 @@ public class ReportGenerator {
      * @return An AuthorizationReport containing the grouped authorization information.
      */
     private AuthorizationReport processAuthInfo(List<EndpointAuthInfo> authInfoList) {
+        // Keep groups in first-seen order so the report follows the scanner's deterministic order
         Map<String, List<EndpointAuthInfo>> groupedByAuth = authInfoList.stream()
-                .collect(Collectors.groupingBy(EndpointAuthInfo::getAuthExpression));
+                .collect(Collectors.groupingBy(EndpointAuthInfo::getAuthExpression, LinkedHashMap::new, Collectors.toList()));
 
         List<AuthorizationGroup> groups = new ArrayList<>();
         for (Map.Entry<String, List<EndpointAuthInfo>> entry : groupedByAuth.entrySet()) {
@@ -71,23 +111,40 @@ public class ReportGenerator {
      */
     public String generateDetailedReportString(AuthorizationReport report) {
         StringBuilder sb = new StringBuilder();
-        sb.append("Authorization Report\n");
-        sb.append("Generated at: ").append(report.getGeneratedAt()).append("\n");
-        sb.append("Total endpoints: ").append(report.getTotalEndpoints()).append("\n\n");
+        try {
+            writeDetailedReport(report, sb);
+        } catch (IOException e) {
+            // A StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes the detailed, human-readable representation of the authorization report endpoint by
+     * endpoint, so large reports can be streamed without building the whole text in memory.
+     *
+     * @param report The AuthorizationReport to write.
+     * @param out The destination, e.g. a buffered Writer over a response stream.
+     * @throws IOException If writing to the destination fails.
+     */
+    public void writeDetailedReport(AuthorizationReport report, Appendable out) throws IOException {
+        out.append("Authorization Report\n");
+        out.append("Generated at: ").append(String.valueOf(report.getGeneratedAt())).append("\n");
+        out.append("Total endpoints: ").append(String.valueOf(report.getTotalEndpoints())).append("\n\n");
 
         for (AuthorizationGroup group : report.getGroupedEndpoints()) {
-            sb.append("Auth Expression: ").append(group.getAuthExpression()).append("\n");
+            out.append("Auth Expression: ").append(group.getAuthExpression()).append("\n");
             for (EndpointAuthInfo info : group.getEndpoints()) {
-                sb.append("  ").append(info.getHttpMethod()).append(" ").append(info.getPath()).append("\n");
-                sb.append("    API Key Required: ").append(info.isApiKeyRequired()).append("\n");
-                sb.append("    Basic Auth Required: ").append(info.isBasicAuthRequired()).append("\n");
-                sb.append("    Session Management: ").append(info.getSessionManagement()).append("\n");
-                sb.append("    Security Features: ").append(String.join(", ", info.getSecurityFeatures())).append("\n");
+                out.append("  ").append(info.getHttpMethod()).append(" ").append(info.getPath()).append("\n");
+                out.append("    API Key Required: ").append(String.valueOf(info.isApiKeyRequired())).append("\n");
+                out.append("    Basic Auth Required: ").append(String.valueOf(info.isBasicAuthRequired())).append("\n");
+                out.append("    URL Authorization: ").append(Objects.toString(info.getUrlAuthorization(), "None")).append("\n");
+                out.append("    Session Management: ").append(info.getSessionManagement()).append("\n");
+                out.append("    Security Features: ").append(String.join(", ", info.getSecurityFeatures())).append("\n");
             }
-            sb.append("\n");
+            out.append("\n");
         }
-
-        return sb.toString();
     }
 
     /**
@@ -188,6 +245,7 @@ public class ReportGenerator {
                 !newEndpoint.getHttpMethod().equals(oldEndpoint.getHttpMethod()) ||
                 newEndpoint.isApiKeyRequired() != oldEndpoint.isApiKeyRequired() ||
                 newEndpoint.isBasicAuthRequired() != oldEndpoint.isBasicAuthRequired() ||
+                !Objects.equals(newEndpoint.getUrlAuthorization(), oldEndpoint.getUrlAuthorization()) ||
                 newEndpoint.isCsrfEnabled() != oldEndpoint.isCsrfEnabled() ||
                 !newEndpoint.getSessionManagement().equals(oldEndpoint.getSessionManagement()) ||
                 !newEndpoint.getSecurityFeatures().equals(oldEndpoint.getSecurityFeatures());
@@ -232,6 +290,7 @@ public class ReportGenerator {
         sb.append("    Auth Expression: ").append(endpoint.getAuthExpression()).append("\n");
         sb.append("    API Key Required: ").append(endpoint.isApiKeyRequired()).append("\n");
         sb.append("    Basic Auth Required: ").append(endpoint.isBasicAuthRequired()).append("\n");
+        sb.append("    URL Authorization: ").append(Objects.toString(endpoint.getUrlAuthorization(), "None")).append("\n");
         sb.append("    CSRF Enabled: ").append(endpoint.isCsrfEnabled()).append("\n");
         sb.append("    Session Management: ").append(endpoint.getSessionManagement()).append("\n");
         sb.append("    Security Features: ").append(String.join(", ", endpoint.getSecurityFeatures())).append("\n");
@@ -0,0 +1,103 @@
+package io.authreporttool.core;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The RequestMappingResolver class computes the MappingDescriptor of handler methods.
+ *
+ * Each method is resolved in a single pass over its merged @RequestMapping and @PreAuthorize.
+ * Merging folds @GetMapping, @PostMapping, @PutMapping, @DeleteMapping, @PatchMapping and any
+ * custom composed annotation into one @RequestMapping view, with @AliasFor attributes such as
+ * value and path already reconciled. Like Spring MVC, the mapping is also found on the methods
+ * a handler method overrides or implements, so mappings declared on an interface or an abstract
+ * base controller apply, and the controller path is that of the concrete controller class. The
+ * @PreAuthorize expression is resolved across the controller's type hierarchy by a
+ * SecurityAnnotationResolver. Descriptors are cached per controller and method, and controller
+ * paths per class, so repeated lookups never search the annotations again.
+ *
+ * The resolver is thread-safe and can be shared by parallel controller scans.
+ */
+public class RequestMappingResolver {
+
+    // HTTP method reported when a @RequestMapping does not restrict the method
+    private static final List<String> DEFAULT_HTTP_METHODS = List.of("GET");
+
+    private final Map<Class<?>, Map<Method, Optional<MappingDescriptor>>> descriptors = new ConcurrentHashMap<>();
+    private final Map<Class<?>, List<String>> controllerPaths = new ConcurrentHashMap<>();
+    private final SecurityAnnotationResolver securityResolver = new SecurityAnnotationResolver();
+
+    /**
+     * Resolves the mapping descriptor of a handler method of the class declaring it.
+     *
+     * @param method The handler method.
+     * @return The descriptor of the method, or null if the method is not a request mapping.
+     */
+    public MappingDescriptor resolve(Method method) {
+        return resolve(method, method.getDeclaringClass());
+    }
+
+    /**
+     * Resolves the mapping descriptor of a handler method as served by a controller, which may
+     * inherit the method from a superclass.
+     *
+     * @param method The handler method, declared by the controller or one of its superclasses.
+     * @param controller The controller class serving the method.
+     * @return The descriptor of the method, or null if the method is not a request mapping.
+     */
+    public MappingDescriptor resolve(Method method, Class<?> controller) {
+        return descriptors.computeIfAbsent(controller, type -> new ConcurrentHashMap<>())
+                .computeIfAbsent(method, key -> computeDescriptor(key, controller))
+                .orElse(null);
+    }
+
+    private Optional<MappingDescriptor> computeDescriptor(Method method, Class<?> controller) {
+        RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
+        if (mapping == null) {
+            return Optional.empty();
+        }
+
+        List<String> paths = new ArrayList<>();
+        for (String controllerPath : controllerPaths(controller)) {
+            for (String methodPath : pathsOrEmpty(mapping.path())) {
+                paths.add((controllerPath + methodPath).replaceAll("//", "/"));
+            }
+        }
+
+        List<String> httpMethods = new ArrayList<>();
+        for (RequestMethod requestMethod : mapping.method()) {
+            httpMethods.add(requestMethod.name());
+        }
+        if (httpMethods.isEmpty()) {
+            httpMethods = DEFAULT_HTTP_METHODS;
+        }
+
+        String authExpression = securityResolver.resolve(method, controller);
+        if (authExpression == null) {
+            authExpression = "None";
+        }
+
+        return Optional.of(new MappingDescriptor(paths, httpMethods,
+                Arrays.asList(mapping.consumes()), Arrays.asList(mapping.produces()), authExpression));
+    }
+
+    private List<String> controllerPaths(Class<?> controller) {
+        return controllerPaths.computeIfAbsent(controller, type -> {
+            RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(type, RequestMapping.class);
+            return (mapping != null) ? pathsOrEmpty(mapping.path()) : List.of("");
+        });
+    }
+
+    private static List<String> pathsOrEmpty(String[] paths) {
+        return (paths.length > 0) ? List.of(paths) : List.of("");
+    }
+}
@@ -0,0 +1,371 @@
+package io.authreporttool.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The ScanCache class persists per-class extraction results in a directory so that repeated
+ * scans only re-analyze classes whose bytes have changed.
+ *
+ * Each entry is keyed by a SHA-256 hash of the class-file bytes together with the kind of
+ * result and the cache format version. Entries are written atomically, so concurrent scans
+ * and interrupted runs never leave a partially written entry behind. Unreadable entries are
+ * treated as cache misses.
+ *
+ * Every hit refreshes the modification time of its entry, so the directory does not grow with
+ * every recompiled version of a class: opening a cache prunes the entries no run has used for
+ * {@link #DEFAULT_MAX_AGE}, the entries of older format versions and temporary files abandoned
+ * by interrupted runs. Only files named like entries are ever deleted.
+ */
+public class ScanCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScanCache.class);
+
+    // Bump whenever the extraction rules change, so stale entries are never reused
+    private static final int FORMAT_VERSION = 6;
+
+    private static final String CONTROLLER = "controller";
+    private static final String CLASS_SCAN = "classscan";
+    private static final String FILTER = "filter";
+    private static final String IRRELEVANT_JAR = "jar";
+    private static final String JAR_FINGERPRINT = "jarstat";
+
+    /**
+     * How long an entry is kept without being used before it is pruned.
+     */
+    public static final Duration DEFAULT_MAX_AGE = Duration.ofDays(30);
+
+    // Age after which a temporary file can no longer belong to a running write
+    private static final Duration ABANDONED_TEMP_FILE_AGE = Duration.ofHours(1);
+
+    // Names of entries and of the temporary files they are written to, of any format version
+    private static final Pattern ENTRY_NAME = Pattern.compile("(controller|classscan|filter|jar|jarstat)-v(\\d+)-\\p{XDigit}{64}");
+    private static final Pattern TEMP_FILE_NAME = Pattern.compile("(controller|classscan|filter|jar|jarstat)-?\\d+\\.tmp");
+
+    private final Path directory;
+
+    /**
+     * Constructs a ScanCache storing its entries in the given directory.
+     * The directory is created if it does not exist, and entries unused for
+     * {@link #DEFAULT_MAX_AGE} are pruned from it.
+     *
+     * @param directory The cache directory.
+     * @throws IOException If the directory cannot be created.
+     */
+    public ScanCache(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        prune(DEFAULT_MAX_AGE);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the cached reflective extraction result for a controller class.
+     *
+     * @param classBytes The bytes of the controller class file.
+     * @return The cached endpoints, or null on a cache miss.
+     */
+    public List<EndpointAuthInfo> getControllerEndpoints(byte[] classBytes) {
+        return read(CONTROLLER, classBytes, in -> {
+            String className = in.readUTF();
+            return readEndpoints(in, className);
+        });
+    }
+
+    /**
+     * Stores the reflective extraction result for a controller class.
+     *
+     * @param classBytes The bytes of the controller class file.
+     * @param className The fully qualified name of the controller class.
+     * @param endpoints The endpoints extracted from the class, before any security chain is applied.
+     */
+    public void putControllerEndpoints(byte[] classBytes, String className, List<EndpointAuthInfo> endpoints) {
+        write(CONTROLLER, classBytes, out -> {
+            out.writeUTF(className);
+            writeEndpoints(out, endpoints);
+        });
+    }
+
+    /**
+     * Returns the cached bytecode-only extraction result for a class file.
+     *
+     * @param classBytes The class-file bytes, for a controller followed by those of the supertypes
+     *                   and annotation types its endpoints were resolved from.
+     * @return The cached class scan, or null on a cache miss.
+     */
+    public BytecodeControllerScanner.ClassScan getClassScan(byte[] classBytes) {
+        return read(CLASS_SCAN, classBytes, in -> {
+            String className = in.readUTF();
+            List<EndpointAuthInfo> endpoints = readEndpoints(in, className);
+            return new BytecodeControllerScanner.ClassScan(className, endpoints, readChainMethods(in, className));
+        });
+    }
+
+    /**
+     * Stores the bytecode-only extraction result for a class file.
+     *
+     * @param classBytes The class-file bytes, for a controller followed by those of the supertypes
+     *                   and annotation types its endpoints were resolved from.
+     * @param classScan The scan result, before any security chain is applied.
+     */
+    public void putClassScan(byte[] classBytes, BytecodeControllerScanner.ClassScan classScan) {
+        write(CLASS_SCAN, classBytes, out -> {
+            out.writeUTF(classScan.getClassName());
+            writeEndpoints(out, classScan.getEndpoints());
+            writeChainMethods(out, classScan.getSecurityFilterChainMethods());
+        });
+    }
+
+    /**
+     * Returns the cached analysis of a custom security filter.
+     *
+     * @param classBytes The bytes of the filter class file followed by those of its application superclasses.
+     * @return The cached filter analysis, or null on a cache miss.
+     */
+    SecurityConfigAnalyzer.FilterAnalysis getFilterAnalysis(byte[] classBytes) {
+        return read(FILTER, classBytes, in ->
+                new SecurityConfigAnalyzer.FilterAnalysis(in.readUTF(), readStrings(in), readStrings(in)));
+    }
+
+    /**
+     * Stores the analysis of a custom security filter.
+     *
+     * @param classBytes The bytes of the filter class file followed by those of its application superclasses.
+     * @param filterClassName The fully qualified name of the filter class.
+     * @param analysis The filter analysis.
+     */
+    void putFilterAnalysis(byte[] classBytes, String filterClassName, SecurityConfigAnalyzer.FilterAnalysis analysis) {
+        write(FILTER, classBytes, out -> {
+            out.writeUTF(filterClassName);
+            writeStrings(out, new ArrayList<>(analysis.getApplicableEndpoints()));
+            writeStrings(out, new ArrayList<>(analysis.getExcludedEndpoints()));
+        });
+    }
+
+    /**
+     * Checks whether a jar was recorded as containing no candidate classes.
+     *
+     * @param jarKey The key of the jar, combining its fingerprint and the walked package.
+     * @return true if the jar was recorded as irrelevant.
+     */
+    boolean isIrrelevantJar(byte[] jarKey) {
+        return read(IRRELEVANT_JAR, jarKey, in -> Boolean.TRUE) != null;
+    }
+
+    /**
+     * Records that a jar contains no candidate classes.
+     *
+     * @param jarKey The key of the jar, combining its fingerprint and the walked package.
+     * @param jarName The name of the jar, kept in the entry for diagnostics.
+     */
+    void putIrrelevantJar(byte[] jarKey, String jarName) {
+        write(IRRELEVANT_JAR, jarKey, out -> out.writeUTF(jarName));
+    }
+
+    /**
+     * Deletes the entries no scan has used for longer than the given age, the entries of other
+     * format versions, and temporary files left behind by interrupted writes. Entries that cannot
+     * be deleted are kept; a concurrent scan missing a deleted entry just recomputes it.
+     *
+     * @param maxAge How long an entry may go unused before it is deleted.
+     * @return The number of files deleted.
+     */
+    public int prune(Duration maxAge) {
+        Instant now = Instant.now();
+        FileTime entryCutoff = FileTime.from(now.minus(maxAge));
+        FileTime tempFileCutoff = FileTime.from(now.minus(ABANDONED_TEMP_FILE_AGE));
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                Matcher entryName = ENTRY_NAME.matcher(name);
+                boolean stale;
+                if (entryName.matches()) {
+                    stale = !entryName.group(2).equals(Integer.toString(FORMAT_VERSION))
+                            || Files.getLastModifiedTime(file).compareTo(entryCutoff) < 0;
+                } else {
+                    stale = TEMP_FILE_NAME.matcher(name).matches()
+                            && Files.getLastModifiedTime(file).compareTo(tempFileCutoff) < 0;
+                }
+                if (stale && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not prune the scan cache: {}", directory, e);
+        }
+        if (deleted > 0) {
+            logger.info("Pruned {} scan cache files from {}", deleted, directory);
+        }
+        return deleted;
+    }
+
+    /**
+     * Returns the fingerprint recorded for a jar file in its current state.
+     *
+     * @param statKey The key of the jar file, combining its path, size and modification time.
+     * @return The fingerprint, or null if none was recorded for this state of the file.
+     */
+    String getJarFingerprint(byte[] statKey) {
+        return read(JAR_FINGERPRINT, statKey, in -> in.readUTF());
+    }
+
+    /**
+     * Records the fingerprint of a jar file in its current state.
+     *
+     * @param statKey The key of the jar file, combining its path, size and modification time.
+     * @param fingerprint The fingerprint computed from the jar's contents.
+     */
+    void putJarFingerprint(byte[] statKey, String fingerprint) {
+        write(JAR_FINGERPRINT, statKey, out -> out.writeUTF(fingerprint));
+    }
+
+    /**
+     * Computes the hex-encoded SHA-256 hash of the given bytes.
+     *
+     * @param bytes The bytes to hash.
+     * @return The hash as a lowercase hex string.
+     */
+    public static String hash(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private Path entryPath(String kind, byte[] classBytes) {
+        return directory.resolve(kind + "-v" + FORMAT_VERSION + "-" + hash(classBytes));
+    }
+
+    private <T> T read(String kind, byte[] classBytes, EntryReader<T> reader) {
+        Path entry = entryPath(kind, classBytes);
+        T value;
+        try (InputStream in = Files.newInputStream(entry)) {
+            value = reader.read(new DataInputStream(in));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable cache entry: {}", entry, e);
+            return null;
+        }
+        try {
+            // Marks the entry as used, so pruning keeps it
+            Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            logger.debug("Could not touch cache entry: {}", entry, e);
+        }
+        return value;
+    }
+
+    private void write(String kind, byte[] classBytes, EntryWriter writer) {
+        Path entry = entryPath(kind, classBytes);
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(buffer);
+            writer.write(out);
+            out.flush();
+
+            Path tmp = Files.createTempFile(directory, kind, ".tmp");
+            try {
+                Files.write(tmp, buffer.toByteArray());
+                Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                // Only left over if the write or the move failed
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not write cache entry: {}", entry, e);
+        }
+    }
+
+    private static void writeEndpoints(DataOutputStream out, List<EndpointAuthInfo> endpoints) throws IOException {
+        out.writeInt(endpoints.size());
+        for (EndpointAuthInfo endpoint : endpoints) {
+            out.writeUTF(endpoint.getPath());
+            out.writeUTF(endpoint.getHttpMethod());
+            out.writeUTF(endpoint.getAuthExpression());
+            out.writeUTF(endpoint.getMethodName());
+        }
+    }
+
+    private static List<EndpointAuthInfo> readEndpoints(DataInputStream in, String className) throws IOException {
+        int count = in.readInt();
+        List<EndpointAuthInfo> endpoints = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String path = in.readUTF();
+            String httpMethod = in.readUTF();
+            String authExpression = in.readUTF();
+            String methodName = in.readUTF();
+            endpoints.add(new EndpointAuthInfo(path, httpMethod, authExpression, methodName, className));
+        }
+        return endpoints;
+    }
+
+    private static void writeChainMethods(DataOutputStream out, List<ChainMethod> chainMethods) throws IOException {
+        out.writeInt(chainMethods.size());
+        for (ChainMethod chainMethod : chainMethods) {
+            out.writeUTF(chainMethod.getMethodName());
+            out.writeInt(chainMethod.getOrder());
+        }
+    }
+
+    private static List<ChainMethod> readChainMethods(DataInputStream in, String className) throws IOException {
+        int count = in.readInt();
+        List<ChainMethod> chainMethods = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String methodName = in.readUTF();
+            chainMethods.add(new ChainMethod(className, methodName, in.readInt()));
+        }
+        return chainMethods;
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(in.readUTF());
+        }
+        return values;
+    }
+
+    @FunctionalInterface
+    private interface EntryReader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface EntryWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,27 @@
+package io.authreporttool.core;
+
+/**
+ * The ScanMode enum selects how the AuthorizationScanner discovers controllers and
+ * security configurations.
+ */
+public enum ScanMode {
+
+    /**
+     * Loads controller and configuration classes and reads their annotations through reflection.
+     */
+    REFLECTION,
+
+    /**
+     * Reads annotations straight from class-file bytes with ASM, without loading or defining
+     * any of the scanned classes.
+     */
+    BYTECODE,
+
+    /**
+     * Reads the endpoint manifest written at compile time by the auth-report-processor
+     * annotation processor, without scanning the classpath at all. Only controllers compiled
+     * with the processor are listed, so this mode must be selected explicitly; packages that
+     * no manifest lists are scanned reflectively instead.
+     */
+    MANIFEST
+}
@@ -0,0 +1,289 @@
+package io.authreporttool.core;
+
+import org.reflections.Reflections;
+import org.reflections.scanners.Scanners;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * The ScanSession class holds a single classpath index for one scan of one or more base packages.
+ *
+ * The index is built in one pass over the class files of the classpath roots holding the
+ * packages and records type annotations, method annotations and method return types at the
+ * same time. Every later lookup made through ReflectionUtils during the same report is
+ * answered from this in-memory index instead of walking and parsing the classpath again.
+ *
+ * Type lookups, which find the controllers, only return classes of the base packages. Method
+ * lookups, which find the SecurityFilterChain bean methods, cover every class of the roots,
+ * since security configuration usually lives in a sibling package such as com.example.config
+ * while the controllers scanned are in com.example.api.
+ *
+ * The index is built lazily on the first reflective lookup, so sessions used only for
+ * bytecode-only scanning never pay for it.
+ */
+public class ScanSession {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScanSession.class);
+
+    private final List<String> basePackages;
+    // The packages as constant-pool prefilter prefixes, accepting subclasses of package classes
+    private final List<byte[]> packagePrefixes;
+    private final Set<URL> urls;
+    private final ClassFileWalker classFileWalker = new ClassFileWalker();
+    // Class files read during this session, shared by the scanner and the security analysis
+    private final ClassBytesPool classBytesPool;
+    private Reflections reflections;
+
+    private ScanSession(List<String> basePackages, Set<URL> urls) {
+        this.basePackages = basePackages;
+        this.packagePrefixes = ConstantPoolFilter.packagePrefixes(basePackages);
+        this.urls = urls;
+        this.classBytesPool = new ClassBytesPool(classFileWalker, urls);
+    }
+
+    /**
+     * Opens a new scan session for the specified base package. The class files found
+     * under it are indexed in a single pass on the first reflective lookup.
+     *
+     * @param basePackage The package to index.
+     * @return A ScanSession over the package, or an empty session if no classpath URLs contain it.
+     */
+    public static ScanSession open(String basePackage) {
+        return open(List.of(basePackage));
+    }
+
+    /**
+     * Opens a new scan session for several base packages. The class files of all packages
+     * are indexed together in a single pass, so one report covers every package.
+     *
+     * @param basePackages The packages to index.
+     * @return A ScanSession over the packages, or an empty session if no classpath URLs contain them.
+     */
+    public static ScanSession open(Collection<String> basePackages) {
+        List<String> packages = normalize(basePackages);
+
+        // Keep the roots in a stable order so class files are always visited in the same order
+        Set<URL> urls = new TreeSet<>(Comparator.comparing(URL::toString));
+        for (String basePackage : packages) {
+            Collection<URL> packageUrls = ClasspathHelper.forPackage(basePackage);
+            logger.info("URLs found for package {}: {}", basePackage, packageUrls);
+            if (packageUrls.isEmpty()) {
+                logger.warn("No URLs found for package: {}. The package might not exist or is inaccessible.", basePackage);
+            }
+            urls.addAll(packageUrls);
+        }
+
+        return new ScanSession(packages, new LinkedHashSet<>(urls));
+    }
+
+    /**
+     * Opens a new scan session for the specified base package over explicit classpath roots,
+     * for example a build's output directory that is not on the tool's own classpath.
+     *
+     * @param basePackage The package to index.
+     * @param urls The classpath roots (directories or jar files) to index.
+     * @return A ScanSession over the package in the given roots.
+     */
+    public static ScanSession open(String basePackage, Collection<URL> urls) {
+        return open(List.of(basePackage), urls);
+    }
+
+    /**
+     * Opens a new scan session for several base packages over explicit classpath roots.
+     *
+     * @param basePackages The packages to index.
+     * @param urls The classpath roots (directories or jar files) to index.
+     * @return A ScanSession over the packages in the given roots.
+     */
+    public static ScanSession open(Collection<String> basePackages, Collection<URL> urls) {
+        List<String> packages = normalize(basePackages);
+        Set<URL> sortedUrls = urls.stream()
+                .sorted(Comparator.comparing(URL::toString))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        logger.info("URLs given for packages {}: {}", packages, sortedUrls);
+        return new ScanSession(packages, sortedUrls);
+    }
+
+    /**
+     * Sorts and de-duplicates the base packages and drops packages nested in another one,
+     * so no class file is visited twice.
+     */
+    private static List<String> normalize(Collection<String> basePackages) {
+        List<String> packages = new ArrayList<>();
+        for (String basePackage : new TreeSet<>(basePackages)) {
+            boolean nested = packages.stream().anyMatch(outer ->
+                    outer.isEmpty() || basePackage.startsWith(outer + "."));
+            if (!nested) {
+                packages.add(basePackage);
+            }
+        }
+        if (packages.isEmpty()) {
+            throw new IllegalArgumentException("At least one base package is required");
+        }
+        return Collections.unmodifiableList(packages);
+    }
+
+    /**
+     * Returns the reflective index of the package, building it on first use.
+     *
+     * @return The Reflections index, or null if the session has no URLs.
+     */
+    private synchronized Reflections reflections() {
+        if (reflections == null && !urls.isEmpty()) {
+            // Not narrowed to the packages, so chain methods declared outside them are indexed too
+            reflections = new Reflections(new ConfigurationBuilder()
+                    .setUrls(urls)
+                    .setScanners(Scanners.SubTypes.filterResultsBy(name -> true),
+                            Scanners.TypesAnnotated,
+                            Scanners.MethodsAnnotated,
+                            Scanners.MethodsReturn));
+        }
+        return reflections;
+    }
+
+    /**
+     * Returns the base package indexed by this session, or the comma-separated list of
+     * base packages if the session covers several.
+     *
+     * @return The base package name.
+     */
+    public String getBasePackage() {
+        return String.join(",", basePackages);
+    }
+
+    /**
+     * Returns the base packages indexed by this session.
+     *
+     * @return An unmodifiable, sorted list of package names.
+     */
+    public List<String> getBasePackages() {
+        return basePackages;
+    }
+
+    /**
+     * Returns the classpath URLs that were indexed by this session.
+     *
+     * @return An unmodifiable set of classpath URLs.
+     */
+    public Set<URL> getUrls() {
+        return Collections.unmodifiableSet(urls);
+    }
+
+    /**
+     * Looks up all classes of the base packages annotated with the given annotation.
+     *
+     * @param annotation The annotation class to look for.
+     * @return A set of annotated classes, or an empty set if the session is empty.
+     */
+    public Set<Class<?>> getTypesAnnotatedWith(Class<? extends Annotation> annotation) {
+        Reflections reflections = reflections();
+        if (reflections == null) {
+            return Collections.emptySet();
+        }
+        return reflections.getTypesAnnotatedWith(annotation).stream()
+                .filter(type -> isInBasePackages(type.getName()))
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    /**
+     * Looks up all methods annotated with the given annotation, in any class of the session's roots.
+     *
+     * @param annotation The annotation class to look for.
+     * @return A set of annotated methods, or an empty set if the session is empty.
+     */
+    public Set<Method> getMethodsAnnotatedWith(Class<? extends Annotation> annotation) {
+        Reflections reflections = reflections();
+        if (reflections == null) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(reflections.getMethodsAnnotatedWith(annotation));
+    }
+
+    /**
+     * Looks up all methods returning the given type, in any class of the session's roots.
+     *
+     * @param returnType The return type to look for.
+     * @return A set of methods returning the type, or an empty set if the session is empty.
+     */
+    public Set<Method> getMethodsReturn(Class<?> returnType) {
+        Reflections reflections = reflections();
+        if (reflections == null) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(reflections.getMethodsReturn(returnType));
+    }
+
+    /**
+     * Checks whether a class belongs to one of the base packages or their subpackages.
+     */
+    private boolean isInBasePackages(String className) {
+        return basePackages.stream().anyMatch(basePackage ->
+                basePackage.isEmpty() || className.startsWith(basePackage + "."));
+    }
+
+    /**
+     * Visits the raw bytes of every class file in the packages without loading any class.
+     *
+     * @param visitor The visitor receiving each class file.
+     */
+    public void forEachClassFile(ClassFileWalker.ClassFileVisitor visitor) {
+        forEachClassFile(visitor, null);
+    }
+
+    /**
+     * Visits the raw bytes of every class file in the packages, skipping jars that the scan cache
+     * records as containing no candidate classes.
+     *
+     * @param visitor The visitor receiving each class file.
+     * @param scanCache The persistent scan cache holding the jar index, or null to walk every jar.
+     */
+    public void forEachClassFile(ClassFileWalker.ClassFileVisitor visitor, ScanCache scanCache) {
+        // Walk each root once for all packages instead of once per package
+        classFileWalker.walk(urls, basePackages, visitor, scanCache);
+    }
+
+    /**
+     * Returns the session's packages in the form the constant-pool prefilter expects.
+     *
+     * @return The entry-name prefixes of the packages.
+     */
+    List<byte[]> getPackagePrefixes() {
+        return packagePrefixes;
+    }
+
+    /**
+     * Returns the pool of class files read during this session. Class files added by the scanner
+     * are reused by the security analysis instead of being read again.
+     *
+     * @return The session's class-bytes pool.
+     */
+    public ClassBytesPool getClassBytesPool() {
+        return classBytesPool;
+    }
+
+    /**
+     * Reads the current bytes of a single class file from the session's classpath roots.
+     *
+     * @param className The binary name of the class.
+     * @return The raw class-file bytes, or null if the class file no longer exists.
+     */
+    public byte[] readClassFile(String className) {
+        return classFileWalker.findClassFile(urls, className);
+    }
+}
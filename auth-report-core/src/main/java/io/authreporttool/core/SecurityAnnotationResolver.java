@@ -0,0 +1,115 @@
+package io.authreporttool.core;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.prepost.PreAuthorize;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The SecurityAnnotationResolver class finds the effective @PreAuthorize expression of a handler
+ * method across the controller's type hierarchy, following the precedence Spring Security uses:
+ * an annotation on the method, or on any method it overrides or implements, wins over an
+ * annotation on the class, its superclasses or its interfaces.
+ *
+ * The resolved annotations of each type are computed once, from the type's own declarations and
+ * the already resolved annotations of its direct supertypes, and cached per class. Controllers
+ * sharing a base class or interface therefore walk that supertype only once, however many
+ * subclasses there are.
+ *
+ * The resolver is thread-safe and can be shared by parallel controller scans.
+ */
+public class SecurityAnnotationResolver {
+
+    private final Map<Class<?>, TypeSecurity> types = new ConcurrentHashMap<>();
+
+    /**
+     * Resolves the effective @PreAuthorize expression of a method.
+     *
+     * @param method The handler method, as declared by the controller.
+     * @return The expression, or null if neither the method nor its type hierarchy declares one.
+     */
+    public String resolve(Method method) {
+        return resolve(method, method.getDeclaringClass());
+    }
+
+    /**
+     * Resolves the effective @PreAuthorize expression of a method invoked on a target class,
+     * which may inherit the method from a superclass.
+     *
+     * @param method The handler method, declared by the target class or one of its supertypes.
+     * @param targetClass The controller class the method is invoked on.
+     * @return The expression, or null if neither the method nor the target's type hierarchy declares one.
+     */
+    public String resolve(Method method, Class<?> targetClass) {
+        TypeSecurity typeSecurity = resolveType(targetClass);
+        String expression = typeSecurity.methodExpressions.get(HandlerMethods.signature(method));
+        return (expression != null) ? expression : typeSecurity.classExpression;
+    }
+
+    private TypeSecurity resolveType(Class<?> type) {
+        // computeIfAbsent cannot be used here, the computation recurses into the same map
+        TypeSecurity typeSecurity = types.get(type);
+        if (typeSecurity == null) {
+            typeSecurity = computeType(type);
+            TypeSecurity existing = types.putIfAbsent(type, typeSecurity);
+            if (existing != null) {
+                typeSecurity = existing;
+            }
+        }
+        return typeSecurity;
+    }
+
+    private TypeSecurity computeType(Class<?> type) {
+        Map<String, String> methodExpressions = new HashMap<>();
+        PreAuthorize classAnnotation = AnnotatedElementUtils.getMergedAnnotation(type, PreAuthorize.class);
+        String classExpression = (classAnnotation != null) ? classAnnotation.value() : null;
+
+        for (Method method : type.getDeclaredMethods()) {
+            if (method.isBridge() || method.isSynthetic() || Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            PreAuthorize annotation = AnnotatedElementUtils.getMergedAnnotation(method, PreAuthorize.class);
+            if (annotation != null) {
+                methodExpressions.put(HandlerMethods.signature(method), annotation.value());
+            }
+        }
+
+        // The superclass takes precedence over interfaces, and earlier interfaces over later ones
+        Class<?> superclass = type.getSuperclass();
+        if (superclass != null && superclass != Object.class) {
+            classExpression = inherit(resolveType(superclass), methodExpressions, classExpression);
+        }
+        for (Class<?> anInterface : type.getInterfaces()) {
+            classExpression = inherit(resolveType(anInterface), methodExpressions, classExpression);
+        }
+
+        return new TypeSecurity(classExpression, methodExpressions);
+    }
+
+    private static String inherit(TypeSecurity supertype, Map<String, String> methodExpressions, String classExpression) {
+        for (Map.Entry<String, String> entry : supertype.methodExpressions.entrySet()) {
+            methodExpressions.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+        return (classExpression != null) ? classExpression : supertype.classExpression;
+    }
+
+    /**
+     * The @PreAuthorize expressions a type declares or inherits.
+     */
+    private static class TypeSecurity {
+        // Nearest class-level expression in the hierarchy, or null
+        private final String classExpression;
+        // Nearest method-level expression per method signature
+        private final Map<String, String> methodExpressions;
+
+        TypeSecurity(String classExpression, Map<String, String> methodExpressions) {
+            this.classExpression = classExpression;
+            this.methodExpressions = Collections.unmodifiableMap(methodExpressions);
+        }
+    }
+}
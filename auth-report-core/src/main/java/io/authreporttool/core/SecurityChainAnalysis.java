@@ -0,0 +1,163 @@
+package io.authreporttool.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The SecurityChainAnalysis class holds the result of analyzing a single SecurityFilterChain
+ * bean method. It is produced once per chain by the SecurityConfigAnalyzer and can then be
+ * applied to any number of endpoints without touching the bytecode again.
+ *
+ * The chain's URL authorization rules are kept in an AuthorizationRuleTable, and the endpoint
+ * patterns of its API key filters are compiled into a single
+ * PathPatternIndex, so each endpoint is matched in one walk over its path, however many
+ * filters and patterns the chain has.
+ *
+ * A chain restricted with securityMatcher only handles the requests its security matcher
+ * matches. Like the FilterChainProxy, callers apply the chains in @Order order and stop at the
+ * first one that handles the endpoint.
+ *
+ * This class is immutable, so one analysis can safely be shared across every endpoint
+ * of a report.
+ */
+public class SecurityChainAnalysis {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecurityChainAnalysis.class);
+
+    private final String chainName;
+    private final boolean basicAuthEnabled;
+    private final boolean customSessionManagement;
+    private final List<SecurityConfigAnalyzer.FilterAnalysis> filterAnalyses;
+    private final AuthorizationRuleTable ruleTable;
+    private final List<String> securityMatchers;
+    // Patterns of the security matcher, empty when the chain handles every request
+    private final PathPatternIndex<String> securityMatcherIndex = new PathPatternIndex<>();
+    // Endpoint patterns of every API key filter, mapped to the filters declaring them
+    private final PathPatternIndex<SecurityConfigAnalyzer.FilterAnalysis> apiKeyFilterIndex = new PathPatternIndex<>();
+
+    /**
+     * Constructs a new SecurityChainAnalysis.
+     *
+     * @param chainName The qualified name of the chain method (e.g., "com.example.SecurityConfig.filterChain").
+     * @param basicAuthEnabled Whether the chain enables HTTP Basic authentication.
+     * @param customSessionManagement Whether the chain customizes session management.
+     * @param filterAnalyses The analyses of the custom filters added to the chain.
+     * @param ruleTable The URL authorization rules of the chain, in declaration order.
+     * @param securityMatchers The path patterns of the chain's security matcher, empty if it handles every request.
+     */
+    SecurityChainAnalysis(String chainName, boolean basicAuthEnabled, boolean customSessionManagement,
+                          List<SecurityConfigAnalyzer.FilterAnalysis> filterAnalyses, AuthorizationRuleTable ruleTable,
+                          List<String> securityMatchers) {
+        this.chainName = chainName;
+        this.basicAuthEnabled = basicAuthEnabled;
+        this.customSessionManagement = customSessionManagement;
+        this.filterAnalyses = Collections.unmodifiableList(new ArrayList<>(filterAnalyses));
+        this.ruleTable = ruleTable;
+        this.securityMatchers = Collections.unmodifiableList(new ArrayList<>(securityMatchers));
+        for (String pattern : this.securityMatchers) {
+            securityMatcherIndex.add(pattern, pattern);
+        }
+        for (SecurityConfigAnalyzer.FilterAnalysis filterAnalysis : this.filterAnalyses) {
+            if (filterAnalysis.getFilterName().contains("ApiKeyAuthFilter")) {
+                for (String endpoint : filterAnalysis.getApplicableEndpoints()) {
+                    apiKeyFilterIndex.add(endpoint, filterAnalysis);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether the chain handles requests to an endpoint path, i.e. whether its security
+     * matcher, if any, matches the path.
+     *
+     * @param path The endpoint path.
+     * @return true if the chain handles the path.
+     */
+    public boolean matches(String path) {
+        return securityMatchers.isEmpty() || !securityMatcherIndex.match(path).isEmpty();
+    }
+
+    /**
+     * Applies this chain analysis to a single endpoint if the chain handles it, recording the
+     * authentication requirements and security features the chain imposes on it.
+     *
+     * @param authInfo The endpoint authentication info to update.
+     * @return true if the chain handles the endpoint and was applied, false if it was skipped.
+     */
+    public boolean applyTo(EndpointAuthInfo authInfo) {
+        if (!matches(authInfo.getPath())) {
+            logger.debug("Endpoint {} is outside the security matcher of {}", authInfo.getPath(), chainName);
+            return false;
+        }
+        secure(authInfo);
+        return true;
+    }
+
+    /**
+     * Applies this chain analysis to an endpoint known to be handled by the chain, e.g. one the
+     * live chain matched, without consulting the analyzed security matcher.
+     *
+     * @param authInfo The endpoint authentication info to update.
+     */
+    public void secure(EndpointAuthInfo authInfo) {
+        if (customSessionManagement) {
+            authInfo.setSessionManagement("Custom");
+            authInfo.addSecurityFeature("Custom Session Management");
+        }
+
+        if (basicAuthEnabled) {
+            authInfo.setBasicAuthRequired(true);
+            authInfo.addSecurityFeature("Basic Authentication");
+        }
+
+        // The first chain declaring a rule for the endpoint decides its URL authorization
+        if (authInfo.getUrlAuthorization() == null) {
+            AuthorizationRule rule = ruleTable.match(authInfo.getPath(), authInfo.getHttpMethod());
+            if (rule != null) {
+                authInfo.setUrlAuthorization(rule.getAuthority());
+                logger.debug("URL rule for endpoint {}: {}", authInfo.getPath(), rule);
+            }
+        }
+
+        Set<SecurityConfigAnalyzer.FilterAnalysis> apiKeyFilters = new LinkedHashSet<>(apiKeyFilterIndex.match(authInfo.getPath()));
+        // A filter that skips the endpoint does not guard it
+        apiKeyFilters.removeIf(filter -> filter.excludes(authInfo.getPath()));
+        if (!apiKeyFilters.isEmpty()) {
+            authInfo.setApiKeyRequired(true);
+            authInfo.addSecurityFeature("API Key Authentication required");
+            logger.debug("API Key required for endpoint: {} by filters: {}", authInfo.getPath(), apiKeyFilters);
+        } else {
+            logger.debug("API Key not required for endpoint: {}", authInfo.getPath());
+        }
+    }
+
+    public String getChainName() {
+        return chainName;
+    }
+
+    public boolean isBasicAuthEnabled() {
+        return basicAuthEnabled;
+    }
+
+    public boolean isCustomSessionManagement() {
+        return customSessionManagement;
+    }
+
+    List<SecurityConfigAnalyzer.FilterAnalysis> getFilterAnalyses() {
+        return filterAnalyses;
+    }
+
+    public AuthorizationRuleTable getRuleTable() {
+        return ruleTable;
+    }
+
+    public List<String> getSecurityMatchers() {
+        return securityMatchers;
+    }
+}
@@ -1,248 +1,770 @@
 package io.authreporttool.core;
 
+import jakarta.servlet.Filter;
 import org.objectweb.asm.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.session.ConcurrentSessionFilter;
+import org.springframework.security.web.session.SessionManagementFilter;
+import org.springframework.util.ClassUtils;
 
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.*;
 
+/**
+ * The SecurityConfigAnalyzer class reads SecurityFilterChain bean methods and the custom filters
+ * they add straight from class-file bytes, and describes each chain as an immutable
+ * SecurityChainAnalysis.
+ *
+ * Custom filters are analyzed together with their application superclasses, following path
+ * checks from doFilterInternal and shouldNotFilter into helper methods and inherited code.
+ *
+ * Every analysis depends only on the class files it reads. The analyzer memoizes filter analyses
+ * by the hash of the filter's class hierarchy and class summaries by the hash of each class file,
+ * so a filter shared by several chains, or a base class shared by many filters, is parsed once,
+ * while a changed class file is always analyzed afresh. Both memos are LRU caches of bounded
+ * size, so a long-lived analyzer, e.g. behind the report endpoint or an incremental scanner, does
+ * not keep the analyses of every recompiled version of a class. One instance can be shared by
+ * concurrent report requests and parallel scans.
+ */
 public class SecurityConfigAnalyzer {
     private static final Logger logger = LoggerFactory.getLogger(SecurityConfigAnalyzer.class);
 
-    private Map<String, FilterAnalysis> filterAnalyses = new HashMap<>();
-    private boolean basicAuthEnabled = false;
+    // Deepest filter class hierarchy read, guarding against malformed superclass cycles
+    private static final int MAX_FILTER_HIERARCHY_DEPTH = 16;
+
+    // Most filter analyses a single analyzer keeps, far more than the custom filters of an application
+    private static final int MAX_FILTER_ANALYSES = 256;
+
+    // Packages of framework classes, which are never analyzed as custom filters
+    private static final List<String> FRAMEWORK_PACKAGES = List.of("java.", "jakarta.", "javax.", "org.springframework.");
+
+    // Filter analyses memoized by the hash of the filter's class hierarchy, so filters shared by several chains are analyzed once
+    private final LruCache<String, FilterAnalysis> filterAnalyses = new LruCache<>(MAX_FILTER_ANALYSES);
+    // Summarizes filter classes once per class file, including base classes shared by many filters
+    private final CustomFilterAnalyzer customFilterAnalyzer = new CustomFilterAnalyzer();
+    // Persistent filter analysis cache keyed by class-file hash, or null when caching is disabled
+    private final ScanCache scanCache;
+    // Class loader whose resources hold the configuration and filter class files
+    private final ClassLoader classLoader;
+
+    /**
+     * Constructs a SecurityConfigAnalyzer without a persistent cache.
+     */
+    public SecurityConfigAnalyzer() {
+        this(null);
+    }
 
-    public void analyzeSecurityFilterChain(Method method, EndpointAuthInfo authInfo) {
-        try {
-            logger.info("Analyzing SecurityFilterChain method: {}", method.getName());
-            String className = method.getDeclaringClass().getName();
-            ClassReader reader = new ClassReader(className);
-            SecurityConfigVisitor visitor = new SecurityConfigVisitor(method.getName());
-            reader.accept(visitor, ClassReader.SKIP_DEBUG);
+    /**
+     * Constructs a SecurityConfigAnalyzer that reuses custom filter analyses across runs.
+     *
+     * @param scanCache The persistent scan cache, or null to disable caching.
+     */
+    public SecurityConfigAnalyzer(ScanCache scanCache) {
+        this(scanCache, ClassLoader.getSystemClassLoader());
+    }
 
-            interpretSecurityConfig(visitor.getConfigSteps(), authInfo);
+    /**
+     * Constructs a SecurityConfigAnalyzer that reads configuration and filter class files
+     * through the given class loader instead of the system class loader. The classes are
+     * only read as resources, never loaded.
+     *
+     * @param scanCache The persistent scan cache, or null to disable caching.
+     * @param classLoader The class loader whose resources contain the analyzed class files.
+     */
+    public SecurityConfigAnalyzer(ScanCache scanCache, ClassLoader classLoader) {
+        this.scanCache = scanCache;
+        this.classLoader = classLoader;
+    }
 
-            for (String filterClassName : visitor.getCustomFilters()) {
-                analyzeCustomFilter(filterClassName);
-            }
+    /**
+     * Analyzes a SecurityFilterChain bean method and applies the result to a single endpoint.
+     * Callers handling many endpoints should analyze each chain once with
+     * {@link #analyzeSecurityFilterChain(Method)} and apply the result to every endpoint.
+     *
+     * @param method The SecurityFilterChain bean method.
+     * @param authInfo The endpoint authentication info to update.
+     */
+    public void analyzeSecurityFilterChain(Method method, EndpointAuthInfo authInfo) {
+        analyzeSecurityFilterChain(method).applyTo(authInfo);
+        logger.info("Security features detected: {}", authInfo.getSecurityFeatures());
+    }
 
-            updateAuthInfo(authInfo);
+    /**
+     * Analyzes a SecurityFilterChain bean method once, producing an immutable result
+     * that can be applied to any number of endpoints.
+     *
+     * @param method The SecurityFilterChain bean method.
+     * @return The analysis of the chain.
+     */
+    public SecurityChainAnalysis analyzeSecurityFilterChain(Method method) {
+        return analyzeSecurityFilterChain(method.getDeclaringClass().getName(), method.getName());
+    }
 
-            logger.info("Security features detected: {}", authInfo.getSecurityFeatures());
-        } catch (IOException e) {
-            logger.error("Error analyzing SecurityFilterChain method", e);
-        } catch (Exception e) {
-            logger.error("Unexpected error during security configuration analysis", e);
-        }
+    /**
+     * Analyzes a SecurityFilterChain bean method identified by its declaring class and name.
+     * The configuration class is parsed once and every custom filter it adds is analyzed once.
+     * Lambdas and method references passed to the DSL, such as the customizer of
+     * authorizeHttpRequests, are interpreted in place, so the chain's URL authorization rules
+     * are reconstructed in declaration order.
+     *
+     * @param className The fully qualified name of the configuration class.
+     * @param methodName The name of the SecurityFilterChain bean method.
+     * @return The analysis of the chain, empty if the class could not be read.
+     */
+    public SecurityChainAnalysis analyzeSecurityFilterChain(String className, String methodName) {
+        return analyzeSecurityFilterChain(className, methodName, new ClassBytesPool());
     }
 
-    private void interpretSecurityConfig(List<SecurityConfigVisitor.SecurityConfigStep> steps, EndpointAuthInfo authInfo) {
-        for (SecurityConfigVisitor.SecurityConfigStep step : steps) {
+    /**
+     * Analyzes a SecurityFilterChain bean method, reading the configuration and filter class files
+     * from a scan session's pool. Class files the scanner already read are reused, and class files
+     * missing from the pool are read through this analyzer's class loader and added to it.
+     *
+     * @param className The fully qualified name of the configuration class.
+     * @param methodName The name of the SecurityFilterChain bean method.
+     * @param classBytesPool The pool of class files of the scan session.
+     * @return The analysis of the chain, empty if the class could not be read.
+     */
+    public SecurityChainAnalysis analyzeSecurityFilterChain(String className, String methodName, ClassBytesPool classBytesPool) {
+        String chainName = className + "." + methodName;
+        logger.info("Analyzing SecurityFilterChain method: {}", chainName);
+        ChainInterpreter interpreter = interpretChain(chainName, className, methodName, classBytesPool);
+        if (interpreter == null) {
+            return new SecurityChainAnalysis(chainName, false, false, Collections.emptyList(),
+                    AuthorizationRuleTable.EMPTY, Collections.emptyList());
+        }
+
+        boolean basicAuthEnabled = false;
+        boolean customSessionManagement = false;
+        for (Instruction step : interpreter.getConfigSteps()) {
             logger.debug("Interpreting security config step: {}", step);
             if (step.name.equals("httpBasic")) {
                 basicAuthEnabled = true;
                 logger.info("Basic Authentication enabled");
             } else if (step.name.equals("sessionManagement")) {
-                authInfo.setSessionManagement("Custom");
-                authInfo.addSecurityFeature("Custom Session Management");
-            } else if (step.name.equals("addFilterBefore") || step.name.equals("addFilterAfter")) {
-                logger.info("Custom filter added: {}", step.descriptor);
+                customSessionManagement = true;
             }
         }
 
-        if (basicAuthEnabled) {
-            authInfo.setBasicAuthRequired(true);
-            authInfo.addSecurityFeature("Basic Authentication");
+        List<FilterAnalysis> chainFilters = new ArrayList<>();
+        for (String filterClassName : interpreter.getCustomFilters()) {
+            logger.info("Custom filter added: {}", filterClassName);
+            FilterAnalysis analysis = analyzeCustomFilter(filterClassName, classBytesPool);
+            if (analysis != null) {
+                chainFilters.add(analysis);
+            }
         }
+
+        return new SecurityChainAnalysis(chainName, basicAuthEnabled, customSessionManagement, chainFilters,
+                new AuthorizationRuleTable(interpreter.getRules()), interpreter.getSecurityMatchers());
     }
 
-    private void updateAuthInfo(EndpointAuthInfo authInfo) {
-        for (FilterAnalysis filterAnalysis : filterAnalyses.values()) {
-            logger.debug("Checking filter: {} for endpoint: {}", filterAnalysis.getFilterName(), authInfo.getPath());
-            if (filterAnalysis.getFilterName().contains("ApiKeyAuthFilter")) {
-                if (filterAnalysis.appliesTo(authInfo.getPath())) {
-                    authInfo.setApiKeyRequired(true);
-                    authInfo.addSecurityFeature("API Key Authentication required");
-                    logger.info("API Key required for endpoint: {}", authInfo.getPath());
-                } else {
-                    logger.debug("API Key not required for endpoint: {}", authInfo.getPath());
+    /**
+     * Analyzes a SecurityFilterChain built by a running application. Basic authentication,
+     * session management and the custom filters are read from the filters the chain actually
+     * holds, so filters added outside the bean method, e.g. by a shared configurer, are found
+     * too. Only the URL authorization rules and the security matcher, which the built chain
+     * does not expose in a readable form, are reconstructed from the bean method's bytecode.
+     *
+     * @param className The fully qualified name of the configuration class.
+     * @param methodName The name of the SecurityFilterChain bean method.
+     * @param filters The filters of the built chain, in chain order.
+     * @param classBytesPool The pool of class files of the scan session.
+     * @return The analysis of the chain; without rules if the configuration class could not be read.
+     */
+    public SecurityChainAnalysis analyzeSecurityFilterChain(String className, String methodName, List<Filter> filters,
+            ClassBytesPool classBytesPool) {
+        String chainName = className + "." + methodName;
+        logger.info("Analyzing SecurityFilterChain method: {}", chainName);
+
+        boolean basicAuthEnabled = false;
+        boolean customSessionManagement = false;
+        List<FilterAnalysis> chainFilters = new ArrayList<>();
+        for (Filter filter : filters) {
+            if (filter instanceof BasicAuthenticationFilter) {
+                basicAuthEnabled = true;
+                logger.info("Basic Authentication enabled");
+            } else if (filter instanceof SessionManagementFilter || filter instanceof ConcurrentSessionFilter) {
+                // Neither is part of the default chain; they are added by configuring session management
+                customSessionManagement = true;
+            } else {
+                String filterClassName = ClassUtils.getUserClass(filter).getName();
+                if (isFrameworkClass(filterClassName)) {
+                    continue;
+                }
+                logger.info("Custom filter added: {}", filterClassName);
+                FilterAnalysis analysis = analyzeCustomFilter(filterClassName, classBytesPool);
+                if (analysis != null) {
+                    chainFilters.add(analysis);
                 }
             }
         }
+
+        ChainInterpreter interpreter = interpretChain(chainName, className, methodName, classBytesPool);
+        AuthorizationRuleTable ruleTable = (interpreter != null)
+                ? new AuthorizationRuleTable(interpreter.getRules()) : AuthorizationRuleTable.EMPTY;
+        List<String> securityMatchers = (interpreter != null)
+                ? interpreter.getSecurityMatchers() : Collections.emptyList();
+        return new SecurityChainAnalysis(chainName, basicAuthEnabled, customSessionManagement, chainFilters, ruleTable,
+                securityMatchers);
     }
 
-    private void analyzeCustomFilter(String filterClassName) {
+    /**
+     * Parses the configuration class and interprets the chain method.
+     *
+     * @return The interpreter holding the chain's configuration, or null if the class could not be read.
+     */
+    private ChainInterpreter interpretChain(String chainName, String className, String methodName,
+            ClassBytesPool classBytesPool) {
         try {
-            logger.info("Analyzing custom filter: {}", filterClassName);
-            ClassReader reader = new ClassReader(filterClassName);
-            ApiKeyFilterVisitor visitor = new ApiKeyFilterVisitor(filterClassName);
+            ClassReader reader = new ClassReader(readClassFile(classBytesPool, className));
+            SecurityConfigVisitor visitor = new SecurityConfigVisitor();
             reader.accept(visitor, ClassReader.SKIP_DEBUG);
 
-            FilterAnalysis analysis = visitor.getFilterAnalysis();
-            filterAnalyses.put(filterClassName, analysis);
+            ChainInterpreter interpreter = new ChainInterpreter(visitor.getMethods());
+            interpreter.interpret(methodName);
+            logger.info("Authorization rules of {}: {}", chainName, interpreter.getRules());
+            if (!interpreter.getSecurityMatchers().isEmpty()) {
+                logger.info("Requests handled by {}: {}", chainName, interpreter.getSecurityMatchers());
+            }
+            return interpreter;
+        } catch (IOException e) {
+            logger.error("Error analyzing SecurityFilterChain method", e);
+        } catch (Exception e) {
+            logger.error("Unexpected error during security configuration analysis", e);
+        }
+        return null;
+    }
+
+    /**
+     * Tells whether a class belongs to the JDK, the servlet API or Spring, whose filters carry
+     * no application path checks to analyze.
+     */
+    private static boolean isFrameworkClass(String className) {
+        return FRAMEWORK_PACKAGES.stream().anyMatch(className::startsWith);
+    }
+
+    private FilterAnalysis analyzeCustomFilter(String filterClassName, ClassBytesPool classBytesPool) {
+        try {
+            List<byte[]> hierarchyBytes = new ArrayList<>();
+            List<CustomFilterAnalyzer.ClassSummary> hierarchy = filterHierarchy(filterClassName, classBytesPool, hierarchyBytes);
+
+            // The analysis depends on every class of the hierarchy, so all of them make up the key
+            byte[] hierarchyKey = concat(hierarchyBytes);
+            String hierarchyHash = ScanCache.hash(hierarchyKey);
+            FilterAnalysis analysis = filterAnalyses.get(hierarchyHash);
+            if (analysis != null) {
+                return analysis;
+            }
+
+            analysis = (scanCache != null) ? scanCache.getFilterAnalysis(hierarchyKey) : null;
+            if (analysis != null) {
+                logger.debug("Using cached analysis for custom filter: {}", filterClassName);
+                filterAnalyses.put(hierarchyHash, analysis);
+                return analysis;
+            }
+
+            logger.info("Analyzing custom filter: {}", filterClassName);
+            analysis = customFilterAnalyzer.analyze(filterClassName, hierarchy);
+            filterAnalyses.put(hierarchyHash, analysis);
+            if (scanCache != null) {
+                scanCache.putFilterAnalysis(hierarchyKey, filterClassName, analysis);
+            }
 
             logger.info("Analyzed custom filter: {}", filterClassName);
             logger.info("Filter applies to: {}", analysis.getApplicableEndpoints());
+            if (!analysis.getExcludedEndpoints().isEmpty()) {
+                logger.info("Filter excludes: {}", analysis.getExcludedEndpoints());
+            }
+            return analysis;
         } catch (IOException e) {
             logger.error("Error analyzing custom filter: " + filterClassName, e);
+            return null;
+        }
+    }
+
+    /**
+     * Summarizes a filter class and its application superclasses, stopping at the first framework
+     * superclass or at a superclass whose class file cannot be read.
+     */
+    private List<CustomFilterAnalyzer.ClassSummary> filterHierarchy(String filterClassName, ClassBytesPool classBytesPool,
+                                                                    List<byte[]> hierarchyBytes) throws IOException {
+        List<CustomFilterAnalyzer.ClassSummary> hierarchy = new ArrayList<>();
+        byte[] classBytes = readClassFile(classBytesPool, filterClassName);
+        while (classBytes != null && hierarchy.size() < MAX_FILTER_HIERARCHY_DEPTH) {
+            CustomFilterAnalyzer.ClassSummary summary = customFilterAnalyzer.summarize(classBytes);
+            hierarchy.add(summary);
+            hierarchyBytes.add(classBytes);
+
+            String superclassName = CustomFilterAnalyzer.applicationSuperclass(summary);
+            classBytes = null;
+            if (superclassName != null) {
+                try {
+                    classBytes = readClassFile(classBytesPool, superclassName);
+                } catch (IOException e) {
+                    logger.debug("Superclass {} of filter {} not readable, analyzing without it", superclassName, filterClassName);
+                }
+            }
+        }
+        return hierarchy;
+    }
+
+    private static byte[] concat(List<byte[]> chunks) {
+        int length = 0;
+        for (byte[] chunk : chunks) {
+            length += chunk.length;
+        }
+        byte[] result = new byte[length];
+        int offset = 0;
+        for (byte[] chunk : chunks) {
+            System.arraycopy(chunk, 0, result, offset, chunk.length);
+            offset += chunk.length;
         }
+        return result;
     }
+
+    private byte[] readClassFile(ClassBytesPool classBytesPool, String className) throws IOException {
+        byte[] classBytes = classBytesPool.get(className);
+        if (classBytes == null) {
+            classBytes = ClassFileWalker.readClassFile(classLoader, className);
+            classBytesPool.put(className, classBytes);
+        }
+        return classBytes;
+    }
+
+    /**
+     * Records, for every method of a configuration class, the instructions the security DSL is
+     * built from, so the chain method and the lambdas it passes to the DSL can be interpreted together.
+     */
     private static class SecurityConfigVisitor extends ClassVisitor {
-        private final String targetMethodName;
-        private boolean inTargetMethod = false;
-        private List<SecurityConfigStep> configSteps = new ArrayList<>();
-        private final List<String> customFilters = new ArrayList<>();
+        private static final String HTTP_METHOD = "org/springframework/http/HttpMethod";
 
-        public SecurityConfigVisitor(String targetMethodName) {
+        private String className;
+        private final Map<String, List<Instruction>> methods = new HashMap<>();
+
+        public SecurityConfigVisitor() {
             super(Opcodes.ASM9);
-            this.targetMethodName = targetMethodName;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            this.className = name;
+            super.visit(version, access, name, signature, superName, interfaces);
         }
 
         @Override
         public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
-            if (name.equalsIgnoreCase(targetMethodName)) {
-                inTargetMethod = true;
-                return new MethodVisitor(Opcodes.ASM9) {
-                    @Override
-                    public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
-                        if (inTargetMethod) {
-                            configSteps.add(new SecurityConfigStep(owner, name, descriptor));
-                            if (name.equals("addFilterBefore") || name.equals("addFilterAfter")) {
-                                customFilters.add(extractFilterClassName(descriptor));
-                            }
-                        }
-                        super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+            List<Instruction> instructions = new ArrayList<>();
+            // Overloads share a name, so each method is keyed by its name and descriptor
+            methods.put(name + descriptor, instructions);
+            Map<Integer, String> parameterTypes = parameterTypes(access, descriptor);
+            return new MethodVisitor(Opcodes.ASM9) {
+                @Override
+                public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+                    instructions.add(new Instruction(Instruction.Kind.INVOKE, owner, name, descriptor));
+                }
+
+                @Override
+                public void visitVarInsn(int opcode, int var) {
+                    // Locals are tracked so a filter stored in a variable or passed in as a bean is still recognized
+                    if (opcode == Opcodes.ALOAD) {
+                        instructions.add(new Instruction(Instruction.Kind.LOAD, null, String.valueOf(var), parameterTypes.get(var)));
+                    } else if (opcode == Opcodes.ASTORE) {
+                        instructions.add(new Instruction(Instruction.Kind.STORE, null, String.valueOf(var), null));
+                    }
+                }
+
+                @Override
+                public void visitTypeInsn(int opcode, String type) {
+                    if (opcode == Opcodes.CHECKCAST) {
+                        instructions.add(new Instruction(Instruction.Kind.VALUE, type, "checkcast", null));
                     }
+                }
 
-                    @Override
-                    public void visitLdcInsn(Object value) {
-                        if (inTargetMethod && value instanceof String) {
-                            configSteps.add(new SecurityConfigStep("LDC", value.toString(), null));
+                @Override
+                public void visitLdcInsn(Object value) {
+                    if (value instanceof String) {
+                        instructions.add(new Instruction(Instruction.Kind.CONSTANT, null, (String) value, null));
+                    }
+                }
+
+                @Override
+                public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+                    if (opcode == Opcodes.GETSTATIC && owner.equals(HTTP_METHOD)) {
+                        instructions.add(new Instruction(Instruction.Kind.HTTP_METHOD, owner, name, descriptor));
+                    } else if ((opcode == Opcodes.GETSTATIC || opcode == Opcodes.GETFIELD)
+                            && Type.getType(descriptor).getSort() == Type.OBJECT) {
+                        instructions.add(new Instruction(Instruction.Kind.VALUE, Type.getType(descriptor).getInternalName(), name, null));
+                    }
+                }
+
+                @Override
+                public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle,
+                                                   Object... bootstrapMethodArguments) {
+                    // A lambda or method reference implemented in this class is followed into its body
+                    for (Object argument : bootstrapMethodArguments) {
+                        if (argument instanceof Handle && ((Handle) argument).getOwner().equals(className)) {
+                            Handle implementation = (Handle) argument;
+                            instructions.add(new Instruction(Instruction.Kind.LAMBDA, implementation.getOwner(),
+                                    implementation.getName(), implementation.getDesc()));
+                            return;
                         }
-                        super.visitLdcInsn(value);
                     }
-                };
+                    instructions.add(new Instruction(Instruction.Kind.DYNAMIC, null, name, descriptor));
+                }
+            };
+        }
+
+        public Map<String, List<Instruction>> getMethods() {
+            return methods;
+        }
+
+        /**
+         * Maps the local variable slots of a method's reference parameters to their internal type names.
+         */
+        private static Map<Integer, String> parameterTypes(int access, String descriptor) {
+            Map<Integer, String> parameterTypes = new HashMap<>();
+            int slot = ((access & Opcodes.ACC_STATIC) != 0) ? 0 : 1;
+            for (Type argumentType : Type.getArgumentTypes(descriptor)) {
+                if (argumentType.getSort() == Type.OBJECT) {
+                    parameterTypes.put(slot, argumentType.getInternalName());
+                }
+                slot += argumentType.getSize();
             }
-            return null;
+            return parameterTypes;
+        }
+    }
+
+    /**
+     * A single instruction of a configuration method that matters to the security DSL. LOAD and
+     * STORE carry the local variable slot as their name, and LOAD the declared type of the
+     * parameter in that slot, if any; VALUE pushes a value of the owner type, e.g. a cast or field read.
+     */
+    private static class Instruction {
+        enum Kind { INVOKE, CONSTANT, HTTP_METHOD, LAMBDA, DYNAMIC, LOAD, STORE, VALUE }
+
+        final Kind kind;
+        final String owner;
+        final String name;
+        final String descriptor;
+
+        Instruction(Kind kind, String owner, String name, String descriptor) {
+            this.kind = kind;
+            this.owner = owner;
+            this.name = name;
+            this.descriptor = descriptor;
         }
 
         @Override
-        public void visitEnd() {
-            inTargetMethod = false;
-            super.visitEnd();
+        public String toString() {
+            return (owner != null ? owner + "." : "") + name + (descriptor != null ? descriptor : "");
         }
+    }
 
-        private String extractFilterClassName(String descriptor) {
-            int start = descriptor.indexOf("L") + 1;
-            int end = descriptor.indexOf(";");
-            return descriptor.substring(start, end).replace("/", ".");
+    /**
+     * Replays the recorded instructions of a SecurityFilterChain method, following lambdas into
+     * their bodies, and reconstructs the DSL calls it makes: the configuration steps, the custom
+     * filters, the ordered request-matcher to authority rules of authorizeHttpRequests or
+     * authorizeRequests, and the security matcher restricting the requests the chain handles, set
+     * with securityMatcher or securityMatchers (requestMatcher, antMatcher or requestMatchers()
+     * before Spring Security 5.8).
+     *
+     * String constants and HttpMethod constants are collected until a matcher or authority call
+     * consumes them, which is how the arguments of calls such as
+     * {@code requestMatchers(HttpMethod.GET, "/admin/**").hasAnyRole("ADMIN", "OPS")} are recovered.
+     * The static type of the last value pushed is tracked as well, through constructors, method
+     * return types, casts, fields and local variables, so the filter passed to addFilterBefore,
+     * addFilterAfter, addFilterAt or addFilter is known by its concrete class rather than by the
+     * Filter parameter type of the DSL method.
+     * Any other call discards them, except calls building a RequestMatcher such as
+     * {@code new AntPathRequestMatcher("/x")}. A security matcher whose patterns cannot be read,
+     * such as a regular expression, is taken to match every request.
+     */
+    private static class ChainInterpreter {
+        // Deepest nesting of lambdas followed, enough for any realistic DSL
+        private static final int MAX_LAMBDA_DEPTH = 8;
+        private static final String CHAIN_RETURN_TYPE = ")Lorg/springframework/security/web/SecurityFilterChain;";
+        private static final String HTTP_SECURITY = "org/springframework/security/config/annotation/web/builders/HttpSecurity";
+        // The registry of securityMatchers, whose matcher calls restrict the chain instead of opening a rule
+        private static final String REQUEST_MATCHER_CONFIGURER = HTTP_SECURITY + "$RequestMatcherConfigurer";
+        private static final Set<String> SECURITY_MATCHER_METHODS = Set.of(
+                "securityMatcher", "requestMatcher", "antMatcher", "mvcMatcher", "regexMatcher");
+        private static final Set<String> MATCHER_METHODS = Set.of(
+                "requestMatchers", "antMatchers", "mvcMatchers", "regexMatchers", "anyRequest", "dispatcherTypeMatchers");
+        private static final Set<String> AUTHORITY_METHODS = Set.of(
+                "permitAll", "denyAll", "authenticated", "anonymous", "fullyAuthenticated", "rememberMe",
+                "hasRole", "hasAnyRole", "hasAuthority", "hasAnyAuthority", "hasIpAddress", "access");
+        private static final Set<String> FILTER_METHODS = Set.of("addFilterBefore", "addFilterAfter", "addFilterAt", "addFilter");
+        // Packages of framework filters, which carry no application path checks to analyze
+        private final Map<String, List<Instruction>> methods;
+        private final Set<String> interpreting = new HashSet<>();
+
+        private final List<Instruction> configSteps = new ArrayList<>();
+        private final List<String> customFilters = new ArrayList<>();
+        private final List<AuthorizationRule> rules = new ArrayList<>();
+        private final List<String> securityMatchers = new ArrayList<>();
+
+        // Arguments collected for the next matcher or authority call
+        private final List<String> pendingStrings = new ArrayList<>();
+        private String pendingHttpMethod;
+        // The matcher awaiting its authority, or null
+        private List<String> matcherPatterns;
+        private String matcherHttpMethod;
+        private boolean negated;
+        // Internal name of the static type of the last value pushed, or null if unknown
+        private String valueType;
+
+        ChainInterpreter(Map<String, List<Instruction>> methods) {
+            this.methods = methods;
         }
 
-        public List<SecurityConfigStep> getConfigSteps() {
-            return configSteps;
+        /**
+         * Interprets a SecurityFilterChain bean method. Among overloads of the name, the one
+         * returning a SecurityFilterChain is chosen, then the first by descriptor.
+         *
+         * @param methodName The name of the bean method.
+         */
+        void interpret(String methodName) {
+            String chainMethod = null;
+            for (String methodKey : new TreeSet<>(methods.keySet())) {
+                if (methodKey.startsWith(methodName + "(")) {
+                    if (methodKey.endsWith(CHAIN_RETURN_TYPE)) {
+                        chainMethod = methodKey;
+                        break;
+                    }
+                    if (chainMethod == null) {
+                        chainMethod = methodKey;
+                    }
+                }
+            }
+            if (chainMethod != null) {
+                interpret(chainMethod, 0);
+            }
         }
 
-        public List<String> getCustomFilters() {
-            return customFilters;
+        private void interpret(String methodKey, int depth) {
+            List<Instruction> instructions = methods.get(methodKey);
+            if (instructions == null || depth > MAX_LAMBDA_DEPTH || !interpreting.add(methodKey)) {
+                return;
+            }
+
+            // Static types of the values stored in local variables, by slot
+            Map<String, String> locals = new HashMap<>();
+            for (Instruction instruction : instructions) {
+                switch (instruction.kind) {
+                    case CONSTANT:
+                        pendingStrings.add(instruction.name);
+                        break;
+                    case HTTP_METHOD:
+                        pendingHttpMethod = instruction.name;
+                        break;
+                    case LAMBDA:
+                        interpret(instruction.name + instruction.descriptor, depth + 1);
+                        valueType = null;
+                        break;
+                    case DYNAMIC:
+                        clearPending();
+                        valueType = null;
+                        break;
+                    case INVOKE:
+                        invoke(instruction);
+                        valueType = resultType(instruction);
+                        break;
+                    case LOAD:
+                        valueType = locals.containsKey(instruction.name) ? locals.get(instruction.name) : instruction.descriptor;
+                        break;
+                    case STORE:
+                        locals.put(instruction.name, valueType);
+                        break;
+                    case VALUE:
+                        valueType = instruction.owner;
+                        break;
+                }
+            }
+            interpreting.remove(methodKey);
         }
 
-        static class SecurityConfigStep {
-            String owner;
-            String name;
-            String descriptor;
+        private void invoke(Instruction instruction) {
+            String name = instruction.name;
+            if (instruction.owner.equals(HTTP_SECURITY) ? SECURITY_MATCHER_METHODS.contains(name)
+                    : instruction.owner.equals(REQUEST_MATCHER_CONFIGURER) && MATCHER_METHODS.contains(name)) {
+                addSecurityMatcher(instruction);
+            } else if (MATCHER_METHODS.contains(name) && !instruction.owner.equals(HTTP_SECURITY)) {
+                openMatcher(instruction);
+            } else if (AUTHORITY_METHODS.contains(name) && matcherPatterns != null) {
+                closeRule(name);
+            } else if (name.equals("not") && matcherPatterns != null) {
+                negated = true;
+            } else {
+                configSteps.add(instruction);
+                if (FILTER_METHODS.contains(name) && instruction.owner.equals(HTTP_SECURITY)) {
+                    addCustomFilter(instruction);
+                }
+                if (!instruction.owner.contains("RequestMatcher")) {
+                    clearPending();
+                }
+            }
+        }
 
-            SecurityConfigStep(String owner, String name, String descriptor) {
-                this.owner = owner;
-                this.name = name;
-                this.descriptor = descriptor;
+        private void openMatcher(Instruction instruction) {
+            List<String> patterns;
+            String httpMethod = pendingHttpMethod;
+            if (instruction.name.equals("anyRequest")) {
+                patterns = List.of("/**");
+                httpMethod = null;
+            } else if (instruction.name.equals("regexMatchers") || instruction.name.equals("dispatcherTypeMatchers")) {
+                // Regular expressions and dispatcher types cannot be matched against path templates
+                patterns = List.of();
+            } else if (!pendingStrings.isEmpty()) {
+                patterns = new ArrayList<>(pendingStrings);
+            } else if (!instruction.descriptor.contains("RequestMatcher;")) {
+                // requestMatchers(HttpMethod) matches every path
+                patterns = List.of("/**");
+            } else {
+                patterns = List.of();
             }
+            matcherPatterns = patterns;
+            matcherHttpMethod = httpMethod;
+            negated = false;
+            clearPending();
+        }
 
-            @Override
-            public String toString() {
-                return owner + "." + name + (descriptor != null ? descriptor : "");
+        private void addSecurityMatcher(Instruction instruction) {
+            if (!pendingStrings.isEmpty() && !instruction.name.startsWith("regex")) {
+                securityMatchers.addAll(pendingStrings);
+            } else {
+                if (!instruction.name.equals("anyRequest")) {
+                    logger.warn("Security matcher {} not readable, assuming it matches every request", instruction);
+                }
+                securityMatchers.add("/**");
             }
+            clearPending();
         }
-    }
 
-    private static class ApiKeyFilterVisitor extends ClassVisitor {
-        private final FilterAnalysis filterAnalysis;
-        private boolean inDoFilterInternal = false;
-        private boolean foundRequestURICheck = false;
-        private String lastStringConstant = null;
-        private boolean negateCondition = false;
+        private void closeRule(String authorityMethod) {
+            String authority;
+            switch (authorityMethod) {
+                case "hasRole":
+                case "hasAuthority":
+                case "hasIpAddress":
+                case "hasAnyRole":
+                case "hasAnyAuthority":
+                    authority = authorityMethod + "(" + (pendingStrings.isEmpty() ? "?" : quote(pendingStrings)) + ")";
+                    break;
+                case "access":
+                    authority = pendingStrings.isEmpty() ? "access(custom)" : pendingStrings.get(0);
+                    break;
+                default:
+                    authority = authorityMethod;
+            }
+            if (negated) {
+                authority = "!" + authority;
+            }
 
-        public ApiKeyFilterVisitor(String filterClassName) {
-            super(Opcodes.ASM9);
-            this.filterAnalysis = new FilterAnalysis(filterClassName);
+            rules.add(new AuthorizationRule(matcherPatterns, matcherHttpMethod, authority));
+            matcherPatterns = null;
+            matcherHttpMethod = null;
+            negated = false;
+            clearPending();
         }
 
-        @Override
-        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
-            if (name.equals("doFilterInternal")) {
-                inDoFilterInternal = true;
-                return new MethodVisitor(Opcodes.ASM9) {
-                    @Override
-                    public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
-                        if (name.equals("getRequestURI")) {
-                            foundRequestURICheck = true;
-                        } else if (name.equals("equals") && foundRequestURICheck && lastStringConstant != null) {
-                            String endpoint = negateCondition ? "**" : lastStringConstant;
-                            filterAnalysis.addApplicableEndpoint(endpoint);
-                            logger.info("Found applicable endpoint for filter {}: {}", filterAnalysis.getFilterName(), endpoint);
-                            foundRequestURICheck = false;
-                            lastStringConstant = null;
-                            negateCondition = false;
-                        }
-                        super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
-                    }
+        private void clearPending() {
+            pendingStrings.clear();
+            pendingHttpMethod = null;
+        }
 
-                    @Override
-                    public void visitLdcInsn(Object value) {
-                        if (value instanceof String) {
-                            lastStringConstant = (String) value;
-                        }
-                        super.visitLdcInsn(value);
-                    }
+        private static String quote(List<String> values) {
+            StringJoiner joiner = new StringJoiner(", ");
+            for (String value : values) {
+                joiner.add("'" + value + "'");
+            }
+            return joiner.toString();
+        }
 
-                    @Override
-                    public void visitJumpInsn(int opcode, Label label) {
-                        if (opcode == Opcodes.IFNE) {
-                            negateCondition = true;
-                        }
-                        super.visitJumpInsn(opcode, label);
-                    }
-                };
+        /**
+         * Records the filter an addFilter call adds, by the static type of the value it is passed:
+         * the class a constructor call creates, the return type of a factory or bean method, or the
+         * declared type of a parameter, field or cast. Framework filters and filters only known
+         * through an interface are skipped.
+         */
+        private void addCustomFilter(Instruction instruction) {
+            // The filter is the first argument; a Class constant pushed after it does not change the tracked type
+            if (valueType == null || valueType.equals(HTTP_SECURITY)
+                    || isFrameworkClass(valueType.replace('/', '.'))) {
+                logger.debug("Filter added by {} is not an application class, skipping it", instruction);
+                return;
             }
-            return null;
+            customFilters.add(valueType.replace('/', '.'));
         }
 
-        @Override
-        public void visitEnd() {
-            inDoFilterInternal = false;
-            super.visitEnd();
+        /**
+         * Returns the internal name of the static type an invocation pushes, or null if it pushes no object.
+         */
+        private static String resultType(Instruction instruction) {
+            if (instruction.name.equals("<init>")) {
+                return instruction.owner;
+            }
+            Type returnType = Type.getReturnType(instruction.descriptor);
+            return (returnType.getSort() == Type.OBJECT) ? returnType.getInternalName() : null;
+        }
+
+        public List<Instruction> getConfigSteps() {
+            return configSteps;
+        }
+
+        public List<String> getCustomFilters() {
+            return customFilters;
         }
 
-        public FilterAnalysis getFilterAnalysis() {
-            return filterAnalysis;
+        public List<AuthorizationRule> getRules() {
+            return rules;
+        }
+
+        public List<String> getSecurityMatchers() {
+            return securityMatchers;
         }
     }
 
-    private static class FilterAnalysis {
+    /**
+     * The immutable result of analyzing a custom filter: the endpoint patterns its doFilterInternal
+     * checks for, and the endpoint patterns it skips, through shouldNotFilter or a negated path check.
+     */
+    static final class FilterAnalysis {
         private final String filterName;
-        private final Set<String> applicableEndpoints = new HashSet<>();
+        private final Set<String> applicableEndpoints;
+        private final Set<String> excludedEndpoints;
+        // The endpoint patterns compiled once, so appliesTo never scans them
+        private final PathPatternIndex<String> endpointIndex = new PathPatternIndex<>();
+        private final PathPatternIndex<String> exclusionIndex = new PathPatternIndex<>();
 
-        public FilterAnalysis(String filterClassName) {
+        FilterAnalysis(String filterClassName, Collection<String> applicableEndpoints, Collection<String> excludedEndpoints) {
             this.filterName = filterClassName.substring(filterClassName.lastIndexOf('.') + 1);
+            this.applicableEndpoints = Collections.unmodifiableSet(new LinkedHashSet<>(applicableEndpoints));
+            this.excludedEndpoints = Collections.unmodifiableSet(new LinkedHashSet<>(excludedEndpoints));
+            for (String endpoint : this.applicableEndpoints) {
+                endpointIndex.add(endpoint, endpoint);
+            }
+            for (String endpoint : this.excludedEndpoints) {
+                exclusionIndex.add(endpoint, endpoint);
+            }
         }
 
-        public void addApplicableEndpoint(String endpoint) {
-            applicableEndpoints.add(endpoint);
+        /**
+         * Checks whether the filter applies to an endpoint path. Applicable and excluded endpoints are
+         * Ant-style or PathPattern patterns; "**" matches every path.
+         */
+        public boolean appliesTo(String path) {
+            return !endpointIndex.match(path).isEmpty() && !excludes(path);
         }
 
-        public boolean appliesTo(String path) {
-            return applicableEndpoints.contains("**") || applicableEndpoints.contains(path);
+        /**
+         * Checks whether the filter skips an endpoint path.
+         */
+        public boolean excludes(String path) {
+            return !exclusionIndex.match(path).isEmpty();
         }
 
         public String getFilterName() {
@@ -252,5 +774,9 @@ public class SecurityConfigAnalyzer {
         public Set<String> getApplicableEndpoints() {
             return applicableEndpoints;
         }
+
+        public Set<String> getExcludedEndpoints() {
+            return excludedEndpoints;
+        }
     }
 }
\ No newline at end of file
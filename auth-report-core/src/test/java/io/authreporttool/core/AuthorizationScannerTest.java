@@ -0,0 +1,188 @@
+package io.authreporttool.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AuthorizationScannerTest {
+
+    static class WebSecurityConfig {
+        @Bean
+        SecurityFilterChain webChain() {
+            return null;
+        }
+
+        @Bean
+        @Order(1)
+        SecurityFilterChain apiChain() {
+            return null;
+        }
+
+        String notAChain() {
+            return null;
+        }
+    }
+
+    static class AdminSecurityConfig {
+        @Bean
+        @Order(1)
+        SecurityFilterChain adminChain() {
+            return null;
+        }
+
+        @Bean
+        SecurityFilterChain actuatorChain() {
+            return null;
+        }
+    }
+
+    interface PingApi {
+        default String ping() {
+            return "pong";
+        }
+    }
+
+    abstract static class BaseController implements PingApi {
+        public String health() {
+            return "up";
+        }
+
+        public abstract String list();
+
+        private String secret() {
+            return "";
+        }
+    }
+
+    static class ItemController extends BaseController {
+        @Override
+        public String list() {
+            return "";
+        }
+
+        private String helper() {
+            return "";
+        }
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @PreAuthorize("hasRole('ADMIN')")
+    @interface AdminOnly {
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @AdminOnly
+    @interface AuditedAdminEndpoint {
+    }
+
+    static class AdminController {
+        @AuditedAdminEndpoint
+        @RequestMapping(path = "/admin")
+        public String admin() {
+            return "";
+        }
+    }
+
+    @Test
+    void handlerMethodCandidatesIncludeInheritedMethods() {
+        List<String> candidates = AuthorizationScanner.handlerMethodCandidates(ItemController.class).stream()
+                .map(method -> method.getDeclaringClass().getSimpleName() + "." + method.getName())
+                .collect(Collectors.toList());
+
+        // The most specific list() wins, and inherited private methods are never handlers
+        assertEquals(List.of("BaseController.health", "ItemController.helper", "ItemController.list", "PingApi.ping"),
+                candidates);
+    }
+
+    @Test
+    void controllerCacheKeyCoversComposedAnnotations() throws IOException {
+        ClassBytesPool classBytesPool = new ClassBytesPool();
+        byte[] expected = concat(AdminController.class, AuditedAdminEndpoint.class, AdminOnly.class);
+
+        assertArrayEquals(expected, AuthorizationScanner.hierarchyClassBytes(AdminController.class, classBytesPool));
+    }
+
+    private static byte[] concat(Class<?>... types) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (Class<?> type : types) {
+            bytes.write(ClassFileWalker.readClassFile(type.getClassLoader(), type.getName()));
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    void chainMethodsAreSortedByOrderThenByName() {
+        List<String> expected = List.of("AdminSecurityConfig.adminChain", "WebSecurityConfig.apiChain",
+                "AdminSecurityConfig.actuatorChain", "WebSecurityConfig.webChain");
+
+        assertEquals(expected, chainNames(new LinkedHashSet<>(List.of(WebSecurityConfig.class, AdminSecurityConfig.class))));
+        assertEquals(expected, chainNames(new LinkedHashSet<>(List.of(AdminSecurityConfig.class, WebSecurityConfig.class))));
+    }
+
+    @Test
+    void bytecodeChainMethodsSortLikeReflectiveOnes() throws IOException {
+        BytecodeControllerScanner scanner = new BytecodeControllerScanner();
+        List<ChainMethod> chainMethods = new ArrayList<>();
+        for (Class<?> configClass : List.of(WebSecurityConfig.class, AdminSecurityConfig.class)) {
+            chainMethods.addAll(scanner.scanClass(ClassFileWalker.readClassFile(
+                    configClass.getClassLoader(), configClass.getName())).getSecurityFilterChainMethods());
+        }
+        chainMethods.sort(ChainMethod.CHAIN_ORDER);
+
+        assertEquals(chainNames(Set.of(WebSecurityConfig.class, AdminSecurityConfig.class)), chainNames(chainMethods));
+    }
+
+    @Test
+    void manifestChainsAreSortedByTheirRecordedOrder(@TempDir Path classes) throws IOException {
+        Path manifest = classes.resolve(EndpointManifest.LOCATION);
+        Files.createDirectories(manifest.getParent());
+        // A chain record without an order field is malformed and skipped
+        Files.writeString(manifest, "chain\tapp.WebConfig\twebChain\t2147483647\n"
+                + "chain\tapp.WebConfig\tlegacyChain\n"
+                + "chain\tapp.WebConfig\tapiChain\t1\n"
+                + "chain\tapp.AdminConfig\tadminChain\t1\n"
+                + "chain\tapp.AdminConfig\tactuatorChain\t2147483647\n");
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {classes.toUri().toURL()}, null)) {
+            List<String> chainNames = EndpointManifest.load(classLoader, "app").getChainMethods().stream()
+                    .map(ChainMethod::toString)
+                    .collect(Collectors.toList());
+
+            assertEquals(List.of("app.AdminConfig.adminChain", "app.WebConfig.apiChain",
+                    "app.AdminConfig.actuatorChain", "app.WebConfig.webChain"), chainNames);
+        }
+    }
+
+    private static List<String> chainNames(Set<Class<?>> configClasses) {
+        return chainNames(AuthorizationScanner.securityFilterChainMethods(configClasses));
+    }
+
+    private static List<String> chainNames(List<ChainMethod> chainMethods) {
+        return chainMethods.stream()
+                .map(method -> method.getClassName().substring(method.getClassName().lastIndexOf('$') + 1)
+                        + "." + method.getMethodName())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,212 @@
+package io.authreporttool.core;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BytecodeControllerScannerTest {
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.TYPE)
+    @RestController
+    @RequestMapping
+    @interface ApiController {
+        @AliasFor(annotation = RequestMapping.class, attribute = "path")
+        String[] value() default {};
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    @RequestMapping(method = RequestMethod.POST)
+    @interface AdminPost {
+        @AliasFor(annotation = RequestMapping.class, attribute = "path")
+        String[] value() default {};
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.TYPE, ElementType.METHOD})
+    @PreAuthorize("hasRole('ADMIN')")
+    @interface AdminOnly {
+    }
+
+    interface PingApi {
+        @GetMapping("/ping")
+        default String ping() {
+            return "pong";
+        }
+    }
+
+    @PreAuthorize("hasRole('USER')")
+    abstract static class BaseController implements PingApi {
+        @GetMapping("/health")
+        public String health() {
+            return "up";
+        }
+
+        @PreAuthorize("hasRole('OPS')")
+        @GetMapping("/stats")
+        public abstract String stats();
+
+        @GetMapping("/secret")
+        private String secret() {
+            return "";
+        }
+    }
+
+    @RestController
+    @RequestMapping("/items")
+    static class ItemController extends BaseController {
+        @GetMapping("/list")
+        public String list() {
+            return "";
+        }
+
+        @Override
+        public String stats() {
+            return "";
+        }
+
+        @AdminOnly
+        @AdminPost("/purge")
+        public String purge() {
+            return "";
+        }
+    }
+
+    @RestController
+    @RequestMapping("/orders")
+    abstract static class BaseApiController {
+        @GetMapping("/count")
+        public String count() {
+            return "0";
+        }
+    }
+
+    // Not annotated itself; it is a controller through its base class
+    static class OrdersController extends BaseApiController {
+        @PreAuthorize("hasRole('USER')")
+        @GetMapping("/open")
+        public String open() {
+            return "";
+        }
+    }
+
+    @ApiController("/composed")
+    static class ComposedController {
+        @GetMapping("/status")
+        public String status() {
+            return "";
+        }
+    }
+
+    private static final List<Class<?>> FIXTURES = List.of(ApiController.class, AdminPost.class, AdminOnly.class,
+            PingApi.class, BaseController.class, ItemController.class, ComposedController.class,
+            BaseApiController.class, OrdersController.class);
+
+    private final BytecodeControllerScanner scanner = new BytecodeControllerScanner();
+
+    @Test
+    void inheritedHandlersAndComposedAnnotationsAreResolved() throws IOException {
+        ClassBytesPool classBytesPool = pool();
+
+        // Sorted by method name, like the reflective scanner; the private base class method is no handler
+        assertEquals(List.of(
+                "/items/health GET hasRole('USER') health",
+                "/items/list GET hasRole('USER') list",
+                "/items/ping GET hasRole('USER') ping",
+                "/items/purge POST hasRole('ADMIN') purge",
+                "/items/stats GET hasRole('OPS') stats"), describe(scan(ItemController.class, classBytesPool)));
+        assertEquals(List.of("/composed/status GET None status"), describe(scan(ComposedController.class, classBytesPool)));
+    }
+
+    @Test
+    void subclassOfAnAnnotatedControllerIsAController() throws IOException {
+        assertEquals(List.of(
+                "/orders/count GET None count",
+                "/orders/open GET hasRole('USER') open"), describe(scan(OrdersController.class, pool())));
+    }
+
+    @Test
+    void classScannedOnItsOwnResolvesOnlyItsOwnDeclarations() throws IOException {
+        BytecodeControllerScanner.ClassScan classScan = scanner.scanClass(classFile(ItemController.class));
+
+        assertEquals(List.of("/items/list GET None list"), describe(classScan.getEndpoints()));
+        assertTrue(scanner.scanClass(classFile(ComposedController.class)).getEndpoints().isEmpty());
+    }
+
+    @Test
+    void bytecodeScanMatchesReflectiveScan() throws IOException {
+        ClassBytesPool classBytesPool = pool();
+        RequestMappingResolver resolver = new RequestMappingResolver();
+
+        for (Class<?> controller : List.of(ItemController.class, ComposedController.class, OrdersController.class)) {
+            List<EndpointAuthInfo> reflective = new ArrayList<>();
+            for (Method method : AuthorizationScanner.handlerMethodCandidates(controller)) {
+                MappingDescriptor descriptor = resolver.resolve(method, controller);
+                if (descriptor != null) {
+                    reflective.addAll(descriptor.toEndpoints(method.getName(), controller.getName()));
+                }
+            }
+
+            assertEquals(describe(reflective), describe(scan(controller, classBytesPool)));
+        }
+    }
+
+    @Test
+    void removingASharedBaseClassFromThePoolInvalidatesItsResolution() throws IOException {
+        ClassBytesPool classBytesPool = pool();
+        assertEquals(5, scan(ItemController.class, classBytesPool).size());
+
+        // The base class was parsed and resolved for the session; without it only the own handlers remain
+        classBytesPool.remove(BaseController.class.getName());
+        assertEquals(List.of(
+                "/items/list GET None list",
+                "/items/purge POST hasRole('ADMIN') purge"), describe(scan(ItemController.class, classBytesPool)));
+
+        classBytesPool.put(BaseController.class.getName(), classFile(BaseController.class));
+        assertEquals(5, scan(ItemController.class, classBytesPool).size());
+    }
+
+    private List<EndpointAuthInfo> scan(Class<?> controller, ClassBytesPool classBytesPool) {
+        BytecodeControllerScanner.ClassScan classScan =
+                scanner.scanClass(classBytesPool.get(controller.getName()), null, classBytesPool);
+        assertEquals(controller.getName(), classScan.getClassName());
+        return classScan.getEndpoints();
+    }
+
+    private static ClassBytesPool pool() throws IOException {
+        ClassBytesPool classBytesPool = new ClassBytesPool();
+        for (Class<?> fixture : FIXTURES) {
+            classBytesPool.put(fixture.getName(), classFile(fixture));
+        }
+        return classBytesPool;
+    }
+
+    private static byte[] classFile(Class<?> type) throws IOException {
+        return ClassFileWalker.readClassFile(type.getClassLoader(), type.getName());
+    }
+
+    private static List<String> describe(List<EndpointAuthInfo> endpoints) {
+        return endpoints.stream()
+                .map(endpoint -> endpoint.getPath() + " " + endpoint.getHttpMethod() + " "
+                        + endpoint.getAuthExpression() + " " + endpoint.getMethodName())
+                .collect(Collectors.toList());
+    }
+}
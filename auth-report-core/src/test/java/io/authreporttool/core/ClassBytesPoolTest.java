@@ -0,0 +1,99 @@
+package io.authreporttool.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ClassBytesPoolTest {
+
+    @TempDir
+    Path workDirectory;
+
+    @Test
+    void missingClassIsNotSearchedAgainUntilRemoved() throws IOException {
+        Path root = workDirectory.resolve("classes");
+        Files.createDirectories(root);
+        ClassBytesPool pool = new ClassBytesPool(new ClassFileWalker(), List.of(root.toUri().toURL()));
+
+        assertNull(pool.get("com.example.Api"));
+        Path classFile = root.resolve("com/example/Api.class");
+        Files.createDirectories(classFile.getParent());
+        Files.write(classFile, bytes("api"));
+        assertNull(pool.get("com.example.Api"));
+
+        // A changed class is dropped from the pool, which forgets the miss as well
+        pool.remove("com.example.Api");
+        assertArrayEquals(bytes("api"), pool.get("com.example.Api"));
+    }
+
+    @Test
+    void addedClassReplacesMiss() throws IOException {
+        ClassBytesPool pool = new ClassBytesPool(new ClassFileWalker(), List.of(workDirectory.toUri().toURL()));
+
+        assertNull(pool.get("com.example.Api"));
+        pool.put("com.example.Api", bytes("api"));
+        assertArrayEquals(bytes("api"), pool.get("com.example.Api"));
+    }
+
+    @Test
+    void bootJarClassesAreFoundThroughTheIndex() throws IOException {
+        Map<String, byte[]> nestedEntries = new LinkedHashMap<>();
+        nestedEntries.put("com/example/lib/Filter.class", bytes("filter"));
+        nestedEntries.put("META-INF/MANIFEST.MF", bytes("manifest"));
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("BOOT-INF/classes/com/example/Api.class", bytes("api"));
+        entries.put("BOOT-INF/lib/empty.jar", jar(Map.of()));
+        entries.put("BOOT-INF/lib/library.jar", jar(nestedEntries));
+        Path bootJar = workDirectory.resolve("app.jar");
+        Files.write(bootJar, jar(entries));
+        ClassBytesPool pool = new ClassBytesPool(new ClassFileWalker(), List.of(bootJar.toUri().toURL()));
+
+        assertArrayEquals(bytes("api"), pool.get("com.example.Api"));
+        assertArrayEquals(bytes("filter"), pool.get("com.example.lib.Filter"));
+        assertNull(pool.get("com.example.Missing"));
+
+        // The jar was indexed once for the session, so a class added afterwards is never looked for
+        entries.put("BOOT-INF/classes/com/example/Late.class", bytes("late"));
+        Files.write(bootJar, jar(entries));
+        assertNull(pool.get("com.example.Late"));
+    }
+
+    private static byte[] bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a jar whose entries are stored uncompressed, as Spring Boot stores its nested jars.
+     */
+    private static byte[] jar(Map<String, byte[]> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (JarOutputStream out = new JarOutputStream(bytes)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                JarEntry jarEntry = new JarEntry(entry.getKey());
+                jarEntry.setMethod(JarEntry.STORED);
+                jarEntry.setSize(entry.getValue().length);
+                CRC32 crc = new CRC32();
+                crc.update(entry.getValue());
+                jarEntry.setCrc(crc.getValue());
+                out.putNextEntry(jarEntry);
+                out.write(entry.getValue());
+                out.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,129 @@
+package io.authreporttool.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClassFileWalkerTest {
+
+    private static final List<String> ENTRIES = List.of(
+            "com/example/Api.class", "com/example/api/Items.class", "com/other/Orders.class",
+            "org/unrelated/Util.class", "com/example/package-info.class");
+
+    @TempDir
+    Path workDirectory;
+
+    @Test
+    void directoryIsWalkedOnceForAllPackages() throws IOException {
+        Path root = workDirectory.resolve("classes");
+        for (String entry : ENTRIES) {
+            Path classFile = root.resolve(entry);
+            Files.createDirectories(classFile.getParent());
+            Files.write(classFile, new byte[0]);
+        }
+
+        assertEquals(List.of("com.example.Api", "com.example.api.Items", "com.other.Orders"),
+                walk(root.toUri().toURL(), List.of("com.other", "com.example.api", "com.example")));
+    }
+
+    @Test
+    void jarIsWalkedOnceForAllPackages() throws IOException {
+        Path jar = writeJar();
+
+        assertEquals(List.of("com.example.Api", "com.example.api.Items", "com.other.Orders"),
+                walk(jar.toUri().toURL(), List.of("com.example", "com.example.api", "com.other")));
+    }
+
+    @Test
+    void emptyPackageCoversEveryClass() throws IOException {
+        Path jar = writeJar();
+
+        assertEquals(4, walk(jar.toUri().toURL(), List.of("com.example", "")).size());
+    }
+
+    @Test
+    void nestedJarsAreReadWhetherStoredOrCompressed() throws IOException {
+        Path bootJar = workDirectory.resolve("boot.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(bootJar))) {
+            // Spring Boot stores nested jars; a repackaged archive may have compressed them
+            writeNestedJar(out, "BOOT-INF/lib/stored.jar", JarEntry.STORED, "com/example/lib/Stored.class");
+            writeNestedJar(out, "BOOT-INF/lib/compressed.jar", JarEntry.DEFLATED, "com/example/lib/Compressed.class");
+        }
+
+        assertEquals(List.of("com.example.lib.Stored", "com.example.lib.Compressed"),
+                walk(bootJar.toUri().toURL(), List.of("com.example")));
+    }
+
+    @Test
+    void storedZip64NestedJarIsStreamed() throws IOException {
+        Path bootJar = workDirectory.resolve("boot.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(bootJar))) {
+            // 0xFFFF entries or more make the nested jar ZIP64, which is not read in place
+            writeNestedJar(out, "BOOT-INF/lib/shaded.jar", JarEntry.STORED, "com/example/lib/Shaded.class", 0xFFFF);
+            writeNestedJar(out, "BOOT-INF/lib/stored.jar", JarEntry.STORED, "com/example/lib/Stored.class");
+        }
+
+        assertEquals(List.of("com.example.lib.Shaded", "com.example.lib.Stored"),
+                walk(bootJar.toUri().toURL(), List.of("com.example")));
+    }
+
+    private static void writeNestedJar(JarOutputStream out, String name, int method, String classEntry) throws IOException {
+        writeNestedJar(out, name, method, classEntry, 0);
+    }
+
+    private static void writeNestedJar(JarOutputStream out, String name, int method, String classEntry,
+                                       int fillerEntries) throws IOException {
+        ByteArrayOutputStream nested = new ByteArrayOutputStream();
+        try (JarOutputStream nestedOut = new JarOutputStream(nested)) {
+            nestedOut.putNextEntry(new JarEntry(classEntry));
+            nestedOut.write(new byte[] {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+            nestedOut.closeEntry();
+            for (int i = 0; i < fillerEntries; i++) {
+                nestedOut.putNextEntry(new JarEntry("org/filler/" + i));
+                nestedOut.closeEntry();
+            }
+        }
+        byte[] nestedBytes = nested.toByteArray();
+
+        JarEntry entry = new JarEntry(name);
+        entry.setMethod(method);
+        if (method == JarEntry.STORED) {
+            CRC32 crc = new CRC32();
+            crc.update(nestedBytes);
+            entry.setSize(nestedBytes.length);
+            entry.setCrc(crc.getValue());
+        }
+        out.putNextEntry(entry);
+        out.write(nestedBytes);
+        out.closeEntry();
+    }
+
+    private Path writeJar() throws IOException {
+        Path jar = workDirectory.resolve("app.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            for (String entry : ENTRIES) {
+                out.putNextEntry(new JarEntry(entry));
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private static List<String> walk(URL root, List<String> basePackages) {
+        List<String> visited = new ArrayList<>();
+        new ClassFileWalker().walk(List.of(root), basePackages, (className, bytes) -> visited.add(className), null);
+        return visited;
+    }
+}
@@ -0,0 +1,202 @@
+package io.authreporttool.core;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.ConstantDynamic;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConstantPoolFilterTest {
+
+    private static final String REST_CONTROLLER = "org/springframework/web/bind/annotation/RestController";
+    private static final Handle BOOTSTRAP = new Handle(Opcodes.H_INVOKESTATIC, "com/example/Bootstrap", "bootstrap",
+            "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;", false);
+
+    // One constant of every constant pool tag, each written in front of the relevant reference
+    private static final Map<String, Consumer<ClassWriter>> CONSTANTS = new LinkedHashMap<>();
+
+    static {
+        CONSTANTS.put("Utf8", writer -> writer.newUTF8("com/example/Unrelated"));
+        CONSTANTS.put("Integer", writer -> writer.newConst(123_456_789));
+        CONSTANTS.put("Float", writer -> writer.newConst(1.5f));
+        CONSTANTS.put("Long", writer -> writer.newConst(1L << 40));
+        CONSTANTS.put("Double", writer -> writer.newConst(2.5d));
+        CONSTANTS.put("Class", writer -> writer.newClass("com/example/Other"));
+        CONSTANTS.put("String", writer -> writer.newConst("/api/items"));
+        CONSTANTS.put("Fieldref", writer -> writer.newField("com/example/Other", "count", "I"));
+        CONSTANTS.put("Methodref", writer -> writer.newMethod("com/example/Other", "run", "()V", false));
+        CONSTANTS.put("InterfaceMethodref", writer -> writer.newMethod("com/example/Api", "call", "()V", true));
+        CONSTANTS.put("NameAndType", writer -> writer.newNameType("value", "J"));
+        CONSTANTS.put("MethodHandle", writer -> writer.newHandle(Opcodes.H_GETSTATIC, "com/example/Other", "count", "I", false));
+        CONSTANTS.put("MethodType", writer -> writer.newMethodType("(I)V"));
+        CONSTANTS.put("Dynamic", writer -> writer.newConstantDynamic("value", "Ljava/lang/Object;", BOOTSTRAP));
+        CONSTANTS.put("InvokeDynamic", writer -> writer.newInvokeDynamic("call", "()Ljava/lang/Runnable;", BOOTSTRAP));
+        CONSTANTS.put("Module", writer -> writer.newModule("com.example.module"));
+        CONSTANTS.put("Package", writer -> writer.newPackage("com/example/pkg"));
+    }
+
+    @Test
+    void everyConstantTagIsSkippedToReachTheReference() {
+        for (Map.Entry<String, Consumer<ClassWriter>> constant : CONSTANTS.entrySet()) {
+            assertTrue(ConstantPoolFilter.mayBeRelevant(classFile("java/lang/Object", constant.getValue(), REST_CONTROLLER)),
+                    constant.getKey() + " followed by a relevant reference");
+            assertFalse(ConstantPoolFilter.mayBeRelevant(classFile("java/lang/Object", constant.getValue(), null)),
+                    constant.getKey() + " without a relevant reference");
+        }
+    }
+
+    @Test
+    void allConstantTagsTogetherAreSkipped() {
+        Consumer<ClassWriter> allConstants = writer -> CONSTANTS.values().forEach(constant -> constant.accept(writer));
+        assertTrue(ConstantPoolFilter.mayBeRelevant(classFile("java/lang/Object", allConstants, REST_CONTROLLER)));
+        assertFalse(ConstantPoolFilter.mayBeRelevant(classFile("java/lang/Object", allConstants, null)));
+    }
+
+    @Test
+    void everyRelevantTypeIsRecognized() {
+        for (String reference : List.of(REST_CONTROLLER, "org/springframework/web/bind/annotation/RequestMapping",
+                "org/springframework/security/web/SecurityFilterChain", "org/springframework/web/filter/OncePerRequestFilter")) {
+            assertTrue(ConstantPoolFilter.mayBeRelevant(classFile("java/lang/Object", writer -> { }, "L" + reference + ";")), reference);
+        }
+        assertFalse(ConstantPoolFilter.mayBeRelevant(
+                classFile("java/lang/Object", writer -> { }, "org/springframework/web/bind/annotation/ResponseBody")));
+    }
+
+    @Test
+    void subclassOfAPackageClassIsAccepted() {
+        byte[] filter = classFile("com/example/security/BaseFilter", writer -> { }, null);
+        List<byte[]> packagePrefixes = ConstantPoolFilter.packagePrefixes(List.of("com.example"));
+
+        assertFalse(ConstantPoolFilter.mayBeRelevant(filter));
+        assertTrue(ConstantPoolFilter.mayBeRelevant(filter, packagePrefixes));
+        assertFalse(ConstantPoolFilter.mayBeRelevant(filter, ConstantPoolFilter.packagePrefixes(List.of("com.other"))));
+        // The prefix must end at a package boundary
+        assertFalse(ConstantPoolFilter.mayBeRelevant(filter, ConstantPoolFilter.packagePrefixes(List.of("com.exam"))));
+    }
+
+    @Test
+    void subclassOfAJdkClassIsRejectedEvenForTheEmptyPackage() {
+        List<byte[]> everyPackage = ConstantPoolFilter.packagePrefixes(List.of(""));
+        assertFalse(ConstantPoolFilter.mayBeRelevant(classFile("java/lang/Object", writer -> { }, null), everyPackage));
+        assertFalse(ConstantPoolFilter.mayBeRelevant(classFile("java/util/AbstractList", writer -> { }, null), everyPackage));
+        assertTrue(ConstantPoolFilter.mayBeRelevant(classFile("com/example/Base", writer -> { }, null), everyPackage));
+    }
+
+    @Test
+    void classWithAComposedAnnotationOfAPackageIsAccepted() {
+        byte[] controller = annotatedClassFile("Lcom/example/web/ApiController;");
+        List<byte[]> packagePrefixes = ConstantPoolFilter.packagePrefixes(List.of("com.example"));
+
+        assertFalse(ConstantPoolFilter.mayBeRelevant(controller));
+        assertTrue(ConstantPoolFilter.mayBeRelevant(controller, packagePrefixes));
+        assertFalse(ConstantPoolFilter.mayBeRelevant(controller, ConstantPoolFilter.packagePrefixes(List.of("com.other"))));
+        // JDK and Spring annotations do not qualify, even when every package is scanned
+        List<byte[]> everyPackage = ConstantPoolFilter.packagePrefixes(List.of(""));
+        assertTrue(ConstantPoolFilter.mayBeRelevant(controller, everyPackage));
+        assertFalse(ConstantPoolFilter.mayBeRelevant(annotatedClassFile("Ljava/lang/Deprecated;"), everyPackage));
+        assertFalse(ConstantPoolFilter.mayBeRelevant(
+                annotatedClassFile("Lorg/springframework/stereotype/Service;"), everyPackage));
+    }
+
+    @Test
+    void unparsableClassFilesAreAccepted() {
+        byte[] classFile = classFile("java/lang/Object", writer -> { }, null);
+
+        assertTrue(ConstantPoolFilter.mayBeRelevant(new byte[] {1, 2, 3}));
+        assertTrue(ConstantPoolFilter.mayBeRelevant(Arrays.copyOf(classFile, 12)));
+
+        byte[] unknownTag = classFile.clone();
+        // The first constant directly follows the magic, version and pool count
+        unknownTag[10] = 99;
+        assertTrue(ConstantPoolFilter.mayBeRelevant(unknownTag));
+    }
+
+    @Test
+    void declaredTypesListSupertypesAndClassAndMethodAnnotations() {
+        // Field annotations do not take part in resolving endpoints or security expressions
+        assertEquals(List.of("java.lang.Object", "org.unrelated.Mapping",
+                        "org.springframework.context.annotation.Description", "com.example.web.ApiController"),
+                ConstantPoolFilter.declaredTypes(annotatedClassFile("Lcom/example/web/ApiController;")));
+
+        Consumer<ClassWriter> allConstants = writer -> CONSTANTS.values().forEach(constant -> constant.accept(writer));
+        assertEquals(List.of("com.example.Base"),
+                ConstantPoolFilter.declaredTypes(classFile("com/example/Base", allConstants, REST_CONTROLLER)));
+    }
+
+    @Test
+    void declaredTypesOfUnparsableClassFilesAreUnknown() {
+        byte[] classFile = classFile("java/lang/Object", writer -> { }, null);
+
+        assertNull(ConstantPoolFilter.declaredTypes(new byte[] {1, 2, 3}));
+        assertNull(ConstantPoolFilter.declaredTypes(Arrays.copyOf(classFile, 12)));
+    }
+
+    @Test
+    void packagePrefixesUseInternalNames() {
+        List<byte[]> prefixes = ConstantPoolFilter.packagePrefixes(List.of("com.example", ""));
+        assertEquals("com/example/", new String(prefixes.get(0)));
+        assertEquals("", new String(prefixes.get(1)));
+    }
+
+    /**
+     * Writes a class with annotated fields and methods, whose class-level annotations are a Spring
+     * one with every kind of element value, followed by the given annotation.
+     */
+    private static byte[] annotatedClassFile(String annotationDescriptor) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, "com/example/Sample", null, "java/lang/Object", null);
+
+        AnnotationVisitor spring = writer.visitAnnotation("Lorg/springframework/context/annotation/Description;", true);
+        spring.visit("count", 3);
+        spring.visit("name", "meta");
+        spring.visit("type", Type.getType("Ljava/lang/String;"));
+        spring.visitEnum("policy", "Ljava/lang/annotation/RetentionPolicy;", "RUNTIME");
+        spring.visitAnnotation("nested", "Lorg/springframework/context/annotation/Lazy;").visitEnd();
+        AnnotationVisitor values = spring.visitArray("values");
+        values.visit(null, "a");
+        values.visit(null, "b");
+        values.visitEnd();
+        spring.visitEnd();
+        writer.visitAnnotation(annotationDescriptor, true).visitEnd();
+
+        FieldVisitor field = writer.visitField(Opcodes.ACC_PRIVATE, "items", "Ljava/util/List;", null, null);
+        field.visitAnnotation("Lorg/unrelated/Inject;", true).visitEnd();
+        field.visitEnd();
+        MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "list", "()Ljava/lang/String;", null, null);
+        method.visitAnnotation("Lorg/unrelated/Mapping;", true).visitEnd();
+        method.visitCode();
+        method.visitLdcInsn("items");
+        method.visitInsn(Opcodes.ARETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static byte[] classFile(String superName, Consumer<ClassWriter> constants, String reference) {
+        ClassWriter writer = new ClassWriter(0);
+        writer.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, "com/example/Sample", null, superName, null);
+        constants.accept(writer);
+        if (reference != null) {
+            writer.newUTF8(reference);
+        }
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+}
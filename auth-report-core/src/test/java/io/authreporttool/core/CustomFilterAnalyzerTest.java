@@ -0,0 +1,214 @@
+package io.authreporttool.core;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CustomFilterAnalyzerTest {
+
+    static class HeaderAndPathFilter extends OncePerRequestFilter {
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            String path = request.getRequestURI();
+            String apiKey = request.getHeader("X-Api-Key");
+            if (path.startsWith("/api") && !"secret".equals(apiKey)) {
+                response.setStatus(401);
+                return;
+            }
+            if ("POST".equals(request.getMethod())) {
+                response.setStatus(405);
+                return;
+            }
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    static class HelperFilter extends OncePerRequestFilter {
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            String path = pathOf(request);
+            if (isAdmin(path) || isAdmin(path.toLowerCase())) {
+                response.setStatus(403);
+                return;
+            }
+            filterChain.doFilter(request, response);
+        }
+
+        private String pathOf(HttpServletRequest request) {
+            return request.getServletPath();
+        }
+
+        private boolean isAdmin(String path) {
+            return path.equals("/admin");
+        }
+
+        // Not the OncePerRequestFilter entry point, so its checks are never reached
+        protected void doFilterInternal(HttpServletRequest request) {
+            if (request.getRequestURI().equals("/decoy")) {
+                throw new IllegalStateException();
+            }
+        }
+    }
+
+    static class ExcludingFilter extends OncePerRequestFilter {
+        private static final Set<String> PUBLIC_PATHS = Set.of("/health", "/info");
+
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            return PUBLIC_PATHS.contains(request.getRequestURI());
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            if (request.getHeader("Authorization") == null) {
+                response.setStatus(401);
+                return;
+            }
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    abstract static class PrefixFilter extends OncePerRequestFilter {
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            if (isProtected(request.getRequestURI())) {
+                response.setStatus(401);
+                return;
+            }
+            filterChain.doFilter(request, response);
+        }
+
+        protected abstract boolean isProtected(String path);
+    }
+
+    static class ReportsFilter extends PrefixFilter {
+        @Override
+        protected boolean isProtected(String path) {
+            String[] segments = path.split("/");
+            return segments.length > 1 && segments[1].equals("reports");
+        }
+    }
+
+    static class NegatedFilter extends OncePerRequestFilter {
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            if (!request.getRequestURI().startsWith("/public")) {
+                response.setStatus(401);
+                return;
+            }
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    static class EitherPrefixFilter extends OncePerRequestFilter {
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            String path = request.getRequestURI();
+            if (path.startsWith("/admin") || path.startsWith("/ops")) {
+                response.setStatus(403);
+                return;
+            }
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    static class NegatedHelperFilter extends OncePerRequestFilter {
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            if (!isPublic(request.getRequestURI())) {
+                response.setStatus(401);
+                return;
+            }
+            filterChain.doFilter(request, response);
+        }
+
+        private boolean isPublic(String path) {
+            return path.startsWith("/public") || path.equals("/health");
+        }
+    }
+
+    @Test
+    void onlyPathComparisonsAreRecorded() throws IOException {
+        SecurityConfigAnalyzer.FilterAnalysis analysis = analyze(HeaderAndPathFilter.class);
+
+        assertEquals(Set.of("/api/**"), analysis.getApplicableEndpoints());
+        assertEquals(Set.of(), analysis.getExcludedEndpoints());
+    }
+
+    @Test
+    void pathFlowsThroughReturnValuesAndArguments() throws IOException {
+        SecurityConfigAnalyzer.FilterAnalysis analysis = analyze(HelperFilter.class);
+
+        assertEquals(Set.of("/admin"), analysis.getApplicableEndpoints());
+    }
+
+    @Test
+    void staticFieldConstantsAreExcluded() throws IOException {
+        SecurityConfigAnalyzer.FilterAnalysis analysis = analyze(ExcludingFilter.class);
+
+        assertEquals(Set.of("**"), analysis.getApplicableEndpoints());
+        assertEquals(Set.of("/health", "/info"), analysis.getExcludedEndpoints());
+    }
+
+    @Test
+    void overrideCalledFromBaseClassSeesThePath() throws IOException {
+        SecurityConfigAnalyzer.FilterAnalysis analysis = analyze(ReportsFilter.class);
+
+        // segments[1] is the first path segment, after the empty string before the leading slash
+        assertEquals(Set.of("/reports/**"), analysis.getApplicableEndpoints());
+    }
+
+    @Test
+    void negatedCheckAppliesEverywhereElse() throws IOException {
+        SecurityConfigAnalyzer.FilterAnalysis analysis = analyze(NegatedFilter.class);
+
+        assertEquals(Set.of("**"), analysis.getApplicableEndpoints());
+        assertEquals(Set.of("/public/**"), analysis.getExcludedEndpoints());
+    }
+
+    @Test
+    void shortCircuitOrRecordsEveryOperand() throws IOException {
+        SecurityConfigAnalyzer.FilterAnalysis analysis = analyze(EitherPrefixFilter.class);
+
+        assertEquals(Set.of("/admin/**", "/ops/**"), analysis.getApplicableEndpoints());
+        assertEquals(Set.of(), analysis.getExcludedEndpoints());
+    }
+
+    @Test
+    void negatedHelperCallNegatesItsChecks() throws IOException {
+        SecurityConfigAnalyzer.FilterAnalysis analysis = analyze(NegatedHelperFilter.class);
+
+        assertEquals(Set.of("**"), analysis.getApplicableEndpoints());
+        assertEquals(Set.of("/public/**", "/health"), analysis.getExcludedEndpoints());
+    }
+
+    private static SecurityConfigAnalyzer.FilterAnalysis analyze(Class<?> filterClass) throws IOException {
+        CustomFilterAnalyzer analyzer = new CustomFilterAnalyzer();
+        List<CustomFilterAnalyzer.ClassSummary> hierarchy = new ArrayList<>();
+        String className = filterClass.getName();
+        while (className != null) {
+            CustomFilterAnalyzer.ClassSummary summary =
+                    analyzer.summarize(ClassFileWalker.readClassFile(filterClass.getClassLoader(), className));
+            hierarchy.add(summary);
+            className = CustomFilterAnalyzer.applicationSuperclass(summary);
+        }
+        return analyzer.analyze(filterClass.getName(), hierarchy);
+    }
+}
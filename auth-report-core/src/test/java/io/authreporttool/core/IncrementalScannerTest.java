@@ -0,0 +1,93 @@
+package io.authreporttool.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalScannerTest {
+
+    @RestController
+    static class PingController {
+        @GetMapping("/ping")
+        String ping() {
+            return "pong";
+        }
+    }
+
+    static class BaseController {
+        @GetMapping("/health")
+        public String health() {
+            return "up";
+        }
+    }
+
+    @RestController
+    static class HealthController extends BaseController {
+    }
+
+    @TempDir
+    Path outputDirectory;
+
+    @Test
+    void removedPackageDropsItsEndpoints() throws IOException {
+        Path classFile = copyClassFile(PingController.class);
+        IncrementalScanner scanner = newScanner();
+
+        List<EndpointAuthInfo> endpoints = scanner.scan();
+        assertEquals(1, endpoints.size());
+        assertEquals("/ping", endpoints.get(0).getPath());
+
+        Files.delete(classFile);
+        assertTrue(scanner.removePackage("io.authreporttool").isEmpty());
+    }
+
+    @Test
+    void removedPackageKeepsOtherPackages() throws IOException {
+        copyClassFile(PingController.class);
+        IncrementalScanner scanner = newScanner();
+        scanner.scan();
+
+        assertEquals(1, scanner.removePackage("io.authreporttool.core.other").size());
+        assertEquals(1, scanner.removePackage("io.authreporttool.co").size());
+    }
+
+    @Test
+    void changedBaseClassReResolvesItsSubclasses() throws IOException {
+        Path baseClassFile = copyClassFile(BaseController.class);
+        copyClassFile(HealthController.class);
+        copyClassFile(PingController.class);
+        IncrementalScanner scanner = newScanner();
+        assertEquals(2, scanner.scan().size());
+
+        // The inherited handler goes with the base class; the unrelated controller is kept as it was
+        Files.delete(baseClassFile);
+        List<EndpointAuthInfo> endpoints = scanner.rescan(List.of(BaseController.class.getName()));
+        assertEquals(1, endpoints.size());
+        assertEquals("/ping", endpoints.get(0).getPath());
+    }
+
+    private IncrementalScanner newScanner() throws IOException {
+        ScanSession session = ScanSession.open("io.authreporttool.core", List.of(outputDirectory.toUri().toURL()));
+        return new IncrementalScanner(session, null, new SecurityConfigAnalyzer(null));
+    }
+
+    private Path copyClassFile(Class<?> type) throws IOException {
+        String resource = type.getName().replace('.', '/') + ".class";
+        Path target = outputDirectory.resolve(resource);
+        Files.createDirectories(target.getParent());
+        try (InputStream in = type.getClassLoader().getResourceAsStream(resource)) {
+            Files.copy(in, target);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,84 @@
+package io.authreporttool.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JarIndexTest {
+
+    @TempDir
+    Path workDirectory;
+
+    @Test
+    void unchangedJarIsRecognizedFromItsStat() throws IOException {
+        JarIndex jarIndex = new JarIndex(new ScanCache(workDirectory.resolve("cache")));
+        Path jar = Files.write(workDirectory.resolve("lib.jar"), jar("com/example/Api.class", "api"));
+        String fingerprint = jarIndex.fingerprint(jar.toFile());
+        assertEquals(JarIndex.centralDirectoryFingerprint(jar.toFile()), fingerprint);
+
+        // Same size and modification time: the recorded fingerprint is used and the content is not read
+        FileTime modified = Files.getLastModifiedTime(jar);
+        Files.write(jar, new byte[Math.toIntExact(Files.size(jar))]);
+        Files.setLastModifiedTime(jar, modified);
+
+        assertEquals(fingerprint, jarIndex.fingerprint(jar.toFile()));
+    }
+
+    @Test
+    void changedJarIsFingerprintedFromItsContent() throws IOException {
+        JarIndex jarIndex = new JarIndex(new ScanCache(workDirectory.resolve("cache")));
+        Path jar = Files.write(workDirectory.resolve("lib.jar"), jar("com/example/Api.class", "api"));
+        String fingerprint = jarIndex.fingerprint(jar.toFile());
+
+        Files.write(jar, jar("com/example/Api.class", "changed api"));
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 2000));
+
+        String changed = jarIndex.fingerprint(jar.toFile());
+        assertNotEquals(fingerprint, changed);
+        assertEquals(JarIndex.centralDirectoryFingerprint(jar.toFile()), changed);
+    }
+
+    @Test
+    void identicalJarElsewhereSharesTheFingerprint() throws IOException {
+        JarIndex jarIndex = new JarIndex(new ScanCache(workDirectory.resolve("cache")));
+        byte[] content = jar("com/example/Api.class", "api");
+        Path jar = Files.write(workDirectory.resolve("lib.jar"), content);
+        Path copy = Files.write(Files.createDirectories(workDirectory.resolve("downloads")).resolve("lib.jar"), content);
+
+        jarIndex.markIrrelevant(jarIndex.fingerprint(jar.toFile()), "com/example/", "lib.jar");
+
+        assertTrue(jarIndex.isIrrelevant(jarIndex.fingerprint(copy.toFile()), "com/example/"));
+    }
+
+    @Test
+    void unreadableJarHasNoFingerprint() throws IOException {
+        JarIndex jarIndex = new JarIndex(new ScanCache(workDirectory.resolve("cache")));
+        Path broken = Files.writeString(workDirectory.resolve("broken.jar"), "not a jar");
+
+        assertNull(jarIndex.fingerprint(broken.toFile()));
+        assertNull(jarIndex.fingerprint(broken.toFile()));
+    }
+
+    private static byte[] jar(String entryName, String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (JarOutputStream out = new JarOutputStream(bytes)) {
+            out.putNextEntry(new JarEntry(entryName));
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+        return bytes.toByteArray();
+    }
+}
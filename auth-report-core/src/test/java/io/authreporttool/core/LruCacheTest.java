@@ -0,0 +1,67 @@
+package io.authreporttool.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LruCacheTest {
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedWhenFull() {
+        LruCache<String, String> cache = new LruCache<>(2);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        // Reading "a" makes "b" the least recently used entry
+        assertEquals("1", cache.get("a"));
+        cache.put("c", "3");
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+        assertEquals("3", cache.get("c"));
+    }
+
+    @Test
+    void cachedValueIsComputedOnce() {
+        LruCache<String, Integer> cache = new LruCache<>(2);
+        AtomicInteger computations = new AtomicInteger();
+
+        cache.computeIfAbsent("a", key -> computations.incrementAndGet());
+        assertEquals(Integer.valueOf(1), cache.computeIfAbsent("a", key -> computations.incrementAndGet()));
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    void concurrentUseStaysWithinTheBound() throws Exception {
+        LruCache<Integer, Integer> cache = new LruCache<>(16);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                int offset = thread;
+                workers.add(pool.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        int key = (i * 8 + offset) % 64;
+                        assertEquals(Integer.valueOf(key * 2), cache.computeIfAbsent(key, k -> k * 2));
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertTrue(cache.size() <= 16, "size " + cache.size());
+    }
+}
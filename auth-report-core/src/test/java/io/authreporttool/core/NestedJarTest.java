@@ -0,0 +1,206 @@
+package io.authreporttool.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NestedJarTest {
+
+    private static final byte[] API_CLASS = "compressible class bytes ".repeat(40).getBytes(StandardCharsets.UTF_8);
+    private static final byte[] UTIL_CLASS = {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0, 0, 61};
+
+    @TempDir
+    Path workDirectory;
+
+    @Test
+    void storedEntriesAreCopied() throws IOException {
+        byte[] jar = jar(ZipEntry.STORED, null);
+
+        Map<String, byte[]> entries = readAll(jar);
+        assertEquals(2, entries.size());
+        assertArrayEquals(API_CLASS, entries.get("com/example/Api.class"));
+        assertArrayEquals(UTIL_CLASS, entries.get("com/example/Util.class"));
+    }
+
+    @Test
+    void deflatedEntriesWithDataDescriptorsAreInflated() throws IOException {
+        // ZipOutputStream writes deflated entries with a trailing data descriptor, leaving sizes out of the local header
+        byte[] jar = jar(ZipEntry.DEFLATED, null);
+        assertEquals(0x08, jar[6] & 0x08, "local header must flag a data descriptor");
+
+        Map<String, byte[]> entries = readAll(jar);
+        assertArrayEquals(API_CLASS, entries.get("com/example/Api.class"));
+        assertArrayEquals(UTIL_CLASS, entries.get("com/example/Util.class"));
+    }
+
+    @Test
+    void archiveCommentIsSkipped() throws IOException {
+        Map<String, byte[]> entries = readAll(jar(ZipEntry.DEFLATED, "built by the test"));
+        assertEquals(2, entries.size());
+    }
+
+    @Test
+    void rejectedEntriesAndDirectoriesAreNotVisited() throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (FileChannel channel = FileChannel.open(write(jar(ZipEntry.DEFLATED, null)))) {
+            NestedJar.open(channel).forEachEntry(name -> !name.endsWith("Util.class"), entries::put);
+        }
+        assertEquals(1, entries.size());
+        assertTrue(entries.containsKey("com/example/Api.class"));
+    }
+
+    @Test
+    void storedNestedJarIsReadInPlace() throws IOException {
+        byte[] outer = outerJar(jar(ZipEntry.DEFLATED, null), ZipEntry.STORED);
+
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (FileChannel channel = FileChannel.open(write(outer))) {
+            NestedJar nestedJar = NestedJar.open(channel).nestedJar("BOOT-INF/lib/api.jar");
+            nestedJar.forEachEntry(name -> true, entries::put);
+        }
+        assertEquals(2, entries.size());
+        assertArrayEquals(API_CLASS, entries.get("com/example/Api.class"));
+        assertArrayEquals(UTIL_CLASS, entries.get("com/example/Util.class"));
+    }
+
+    @Test
+    void compressedOrMissingNestedJarIsNotReadInPlace() throws IOException {
+        byte[] outer = outerJar(jar(ZipEntry.STORED, null), ZipEntry.DEFLATED);
+
+        try (FileChannel channel = FileChannel.open(write(outer))) {
+            NestedJar outerJar = NestedJar.open(channel);
+            assertNull(outerJar.nestedJar("BOOT-INF/lib/api.jar"));
+            assertNull(outerJar.nestedJar("BOOT-INF/lib/missing.jar"));
+        }
+    }
+
+    @Test
+    void zip64IsRejected() throws IOException {
+        byte[] jar = jar(ZipEntry.STORED, null);
+        int end = jar.length - 22;
+        // A ZIP64 archive stores 0xFFFF as the entry count of the classic end record
+        jar[end + 10] = (byte) 0xFF;
+        jar[end + 11] = (byte) 0xFF;
+
+        ZipException e = assertThrows(ZipException.class, () -> readAll(jar));
+        assertTrue(e.getMessage().contains("ZIP64"));
+    }
+
+    @Test
+    void zip64DirectoryOffsetIsRejected() throws IOException {
+        byte[] jar = jar(ZipEntry.STORED, null);
+        int end = jar.length - 22;
+        Arrays.fill(jar, end + 16, end + 20, (byte) 0xFF);
+
+        assertThrows(ZipException.class, () -> readAll(jar));
+    }
+
+    @Test
+    void missingEndOfCentralDirectoryIsRejected() {
+        assertThrows(ZipException.class, () -> readAll(new byte[64]));
+    }
+
+    @Test
+    void truncatedEntryIsRejected() throws IOException {
+        byte[] jar = jar(ZipEntry.STORED, null);
+        // Make the central directory record of Api.class claim more data than the archive holds
+        int record = lastIndexOf(jar, "com/example/Api.class".getBytes(StandardCharsets.UTF_8)) - 46;
+        jar[record + 20] = (byte) 0xFF;
+        jar[record + 21] = (byte) 0xFF;
+
+        assertThrows(ZipException.class, () -> readAll(jar));
+    }
+
+    @Test
+    void centralDirectoryOfAJarOnDiskIdentifiesIt() throws IOException {
+        byte[] jar = jar(ZipEntry.DEFLATED, "built by the test");
+        Path first = Files.write(workDirectory.resolve("first.jar"), jar);
+        Path copy = Files.write(workDirectory.resolve("copy.jar"), jar);
+
+        try (FileChannel channel = FileChannel.open(first)) {
+            byte[] directory = NestedJar.readCentralDirectory(channel);
+            assertEquals(0x02014b50, (directory[0] & 0xFF) | (directory[1] & 0xFF) << 8
+                    | (directory[2] & 0xFF) << 16 | (directory[3] & 0xFF) << 24);
+        }
+        assertEquals(JarIndex.centralDirectoryFingerprint(first.toFile()), JarIndex.centralDirectoryFingerprint(copy.toFile()));
+        assertNull(JarIndex.centralDirectoryFingerprint(Files.write(workDirectory.resolve("broken.jar"), API_CLASS).toFile()));
+    }
+
+    private static int lastIndexOf(byte[] bytes, byte[] pattern) {
+        for (int i = bytes.length - pattern.length; i >= 0; i--) {
+            if (Arrays.equals(bytes, i, i + pattern.length, pattern, 0, pattern.length)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Pattern not found");
+    }
+
+    private Map<String, byte[]> readAll(byte[] jar) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (FileChannel channel = FileChannel.open(write(jar))) {
+            NestedJar.open(channel).forEachEntry(name -> true, entries::put);
+        }
+        return entries;
+    }
+
+    private Path write(byte[] jar) throws IOException {
+        return Files.write(Files.createTempFile(workDirectory, "test", ".jar"), jar);
+    }
+
+    private static byte[] jar(int method, String comment) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            out.setMethod(method);
+            if (comment != null) {
+                out.setComment(comment);
+            }
+            writeEntry(out, "com/example/", new byte[0], method);
+            writeEntry(out, "com/example/Api.class", API_CLASS, method);
+            writeEntry(out, "com/example/Util.class", UTIL_CLASS, method);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] outerJar(byte[] nestedJar, int method) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            out.setMethod(method);
+            writeEntry(out, "BOOT-INF/classes/application.properties", new byte[] {'a'}, method);
+            writeEntry(out, "BOOT-INF/lib/api.jar", nestedJar, method);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeEntry(ZipOutputStream out, String name, byte[] content, int method) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        if (method == ZipEntry.STORED) {
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            entry.setSize(content.length);
+            entry.setCompressedSize(content.length);
+            entry.setCrc(crc.getValue());
+        }
+        out.putNextEntry(entry);
+        out.write(content);
+        out.closeEntry();
+    }
+}
@@ -0,0 +1,99 @@
+package io.authreporttool.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PathPatternIndexTest {
+
+    private static PathPatternIndex<String> index(String... patterns) {
+        PathPatternIndex<String> index = new PathPatternIndex<>();
+        for (String pattern : patterns) {
+            index.add(pattern, pattern);
+        }
+        return index;
+    }
+
+    @Test
+    void doubleWildcardMatchesZeroOrMoreSegments() {
+        PathPatternIndex<String> index = index("/api/**", "/**/admin", "/files/**/raw");
+
+        assertEquals(Set.of("/api/**"), index.match("/api"));
+        assertEquals(Set.of("/api/**"), index.match("/api/users/42"));
+        assertEquals(Set.of("/**/admin"), index.match("/admin"));
+        assertEquals(Set.of("/**/admin"), index.match("/internal/tools/admin"));
+        assertEquals(Set.of("/files/**/raw"), index.match("/files/raw"));
+        assertEquals(Set.of("/files/**/raw"), index.match("/files/a/b/raw"));
+        assertTrue(index.match("/files/a/b").isEmpty());
+        assertTrue(index.match("/apis").isEmpty());
+    }
+
+    @Test
+    void captureAllVariableMatchesZeroOrMoreSegments() {
+        PathPatternIndex<String> index = index("/docs/{*path}");
+
+        assertEquals(Set.of("/docs/{*path}"), index.match("/docs"));
+        assertEquals(Set.of("/docs/{*path}"), index.match("/docs/guide/intro.html"));
+        assertTrue(index.match("/doc/guide").isEmpty());
+    }
+
+    @Test
+    void singleSegmentWildcardsMatchExactlyOneSegment() {
+        PathPatternIndex<String> index = index("/users/*", "/orders/{id}");
+
+        assertEquals(Set.of("/users/*"), index.match("/users/42"));
+        assertTrue(index.match("/users").isEmpty());
+        assertTrue(index.match("/users/42/roles").isEmpty());
+        assertEquals(Set.of("/orders/{id}"), index.match("/orders/{orderId}"));
+        assertTrue(index.match("/orders/7/items").isEmpty());
+    }
+
+    @Test
+    void regexSegmentsMatchOneSegment() {
+        PathPatternIndex<String> index = index("/items/{id:\\d+}", "/reports/*.json", "/v?/status", "/bad/{x:[}");
+
+        assertEquals(Set.of("/items/{id:\\d+}"), index.match("/items/123"));
+        assertTrue(index.match("/items/abc").isEmpty());
+        assertEquals(Set.of("/reports/*.json"), index.match("/reports/daily.json"));
+        assertTrue(index.match("/reports/daily.xml").isEmpty());
+        assertEquals(Set.of("/v?/status"), index.match("/v2/status"));
+        assertTrue(index.match("/v10/status").isEmpty());
+        // A malformed regular expression only matches the segment as written
+        assertEquals(Set.of("/bad/{x:[}"), index.match("/bad/{x:[}"));
+        assertTrue(index.match("/bad/x").isEmpty());
+    }
+
+    @Test
+    void literalSegmentsMatchExactly() {
+        PathPatternIndex<String> index = index("/api/users", "/");
+
+        assertEquals(Set.of("/api/users"), index.match("/api/users/"));
+        assertEquals(Set.of("/"), index.match("/"));
+        assertTrue(index.match("/api/Users").isEmpty());
+    }
+
+    @Test
+    void everyMatchingPatternIsReturned() {
+        PathPatternIndex<String> index = index("/**", "/api/*", "/api/{id:\\d+}", "/api/42", "/api/43");
+
+        assertEquals(Set.of("/**", "/api/*", "/api/{id:\\d+}", "/api/42"), index.match("/api/42"));
+    }
+
+    @Test
+    void firstDeclaredRuleTakesPrecedence() {
+        AuthorizationRule adminPost = new AuthorizationRule(List.of("/admin/**"), "POST", "hasRole('ADMIN')");
+        AuthorizationRule broad = new AuthorizationRule(List.of("/**"), null, "authenticated");
+        AuthorizationRule specific = new AuthorizationRule(List.of("/admin/health"), null, "permitAll");
+        AuthorizationRuleTable table = new AuthorizationRuleTable(List.of(adminPost, broad, specific));
+
+        // Like Spring Security, a later more specific rule never overrides an earlier broad one
+        assertEquals(adminPost, table.match("/admin/health", "post"));
+        assertEquals(broad, table.match("/admin/health", "GET"));
+        assertNull(AuthorizationRuleTable.EMPTY.match("/admin/health", "GET"));
+    }
+}
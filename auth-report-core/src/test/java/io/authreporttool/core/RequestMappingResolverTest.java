@@ -0,0 +1,82 @@
+package io.authreporttool.core;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RequestMappingResolverTest {
+
+    interface ItemApi {
+        @RequestMapping(path = "/items", method = RequestMethod.GET)
+        String listItems();
+    }
+
+    @PreAuthorize("hasRole('USER')")
+    abstract static class BaseController {
+        @RequestMapping(path = "/health")
+        public String health() {
+            return "up";
+        }
+
+        @PreAuthorize("hasRole('ADMIN')")
+        @RequestMapping(path = "/purge", method = RequestMethod.DELETE)
+        public abstract String purge();
+    }
+
+    @RequestMapping(path = "/shop")
+    static class ShopController extends BaseController implements ItemApi {
+        @Override
+        public String listItems() {
+            return "";
+        }
+
+        @Override
+        public String purge() {
+            return "";
+        }
+
+        public String helper() {
+            return "";
+        }
+    }
+
+    private final RequestMappingResolver resolver = new RequestMappingResolver();
+
+    @Test
+    void mappingDeclaredOnAnInterfaceApplies() throws NoSuchMethodException {
+        MappingDescriptor descriptor = resolver.resolve(ShopController.class.getDeclaredMethod("listItems"));
+
+        assertEquals(List.of("/shop/items"), descriptor.getPaths());
+        assertEquals(List.of("GET"), descriptor.getHttpMethods());
+        assertEquals("hasRole('USER')", descriptor.getAuthExpression());
+    }
+
+    @Test
+    void mappingOfAnOverriddenAbstractMethodApplies() throws NoSuchMethodException {
+        MappingDescriptor descriptor = resolver.resolve(ShopController.class.getDeclaredMethod("purge"));
+
+        assertEquals(List.of("/shop/purge"), descriptor.getPaths());
+        assertEquals(List.of("DELETE"), descriptor.getHttpMethods());
+        assertEquals("hasRole('ADMIN')", descriptor.getAuthExpression());
+    }
+
+    @Test
+    void inheritedMethodUsesTheConcreteControllerPath() throws NoSuchMethodException {
+        MappingDescriptor descriptor = resolver.resolve(BaseController.class.getDeclaredMethod("health"), ShopController.class);
+
+        assertEquals(List.of("/shop/health"), descriptor.getPaths());
+        assertEquals(List.of("GET"), descriptor.getHttpMethods());
+        assertEquals("hasRole('USER')", descriptor.getAuthExpression());
+    }
+
+    @Test
+    void unmappedMethodHasNoDescriptor() throws NoSuchMethodException {
+        assertNull(resolver.resolve(ShopController.class.getDeclaredMethod("helper")));
+    }
+}
@@ -0,0 +1,107 @@
+package io.authreporttool.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ScanCacheTest {
+
+    private static final byte[] CLASS_BYTES = "class bytes".getBytes(StandardCharsets.UTF_8);
+
+    private static final List<EndpointAuthInfo> ENDPOINTS = List.of(
+            new EndpointAuthInfo("/items", "GET", "hasRole('USER')", "list", "com.example.ItemController"));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void storedEndpointsAreReturnedForTheSameBytes() throws IOException {
+        ScanCache cache = new ScanCache(directory);
+        cache.putControllerEndpoints(CLASS_BYTES, "com.example.ItemController", ENDPOINTS);
+
+        assertEquals(ENDPOINTS, cache.getControllerEndpoints(CLASS_BYTES));
+        // A new cache over the same directory reads the entry of an earlier run
+        assertEquals(ENDPOINTS, new ScanCache(directory).getControllerEndpoints(CLASS_BYTES));
+    }
+
+    @Test
+    void changedBytesMiss() throws IOException {
+        ScanCache cache = new ScanCache(directory);
+        cache.putControllerEndpoints(CLASS_BYTES, "com.example.ItemController", ENDPOINTS);
+
+        assertNull(cache.getControllerEndpoints("changed bytes".getBytes(StandardCharsets.UTF_8)));
+        assertNull(cache.getClassScan(CLASS_BYTES));
+    }
+
+    @Test
+    void corruptEntryIsAMiss() throws IOException {
+        ScanCache cache = new ScanCache(directory);
+        cache.putControllerEndpoints(CLASS_BYTES, "com.example.ItemController", ENDPOINTS);
+        Path entry = singleFile();
+        Files.write(entry, new byte[] {0, 7, 'c', 'o'});
+
+        assertNull(cache.getControllerEndpoints(CLASS_BYTES));
+
+        // The next store replaces the corrupt entry
+        cache.putControllerEndpoints(CLASS_BYTES, "com.example.ItemController", ENDPOINTS);
+        assertEquals(ENDPOINTS, cache.getControllerEndpoints(CLASS_BYTES));
+    }
+
+    @Test
+    void failedWriteLeavesNoTemporaryFile() throws IOException {
+        ScanCache cache = new ScanCache(directory);
+        cache.putControllerEndpoints(CLASS_BYTES, "com.example.ItemController", ENDPOINTS);
+        Path entry = singleFile();
+        Files.delete(entry);
+        // A non-empty directory in place of the entry makes the move fail
+        Files.createFile(Files.createDirectories(entry).resolve("blocker"));
+
+        cache.putControllerEndpoints(CLASS_BYTES, "com.example.ItemController", ENDPOINTS);
+
+        assertEquals(List.of(entry), files());
+    }
+
+    @Test
+    void pruneDeletesUnusedEntriesOnly() throws IOException {
+        ScanCache cache = new ScanCache(directory);
+        cache.putControllerEndpoints(CLASS_BYTES, "com.example.ItemController", ENDPOINTS);
+        Path entry = singleFile();
+        Path foreign = Files.writeString(directory.resolve("notes.txt"), "not an entry");
+        FileTime longAgo = FileTime.from(Instant.now().minus(Duration.ofDays(60)));
+        Files.setLastModifiedTime(entry, longAgo);
+        Files.setLastModifiedTime(foreign, longAgo);
+
+        // Reading the entry marks it as used
+        cache.getControllerEndpoints(CLASS_BYTES);
+        assertEquals(0, cache.prune(ScanCache.DEFAULT_MAX_AGE));
+
+        Files.setLastModifiedTime(entry, longAgo);
+        assertEquals(1, cache.prune(ScanCache.DEFAULT_MAX_AGE));
+        assertEquals(List.of(foreign), files());
+    }
+
+    private Path singleFile() throws IOException {
+        List<Path> files = files();
+        assertEquals(1, files.size(), files.toString());
+        return files.get(0);
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.authreporttool.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScanSessionTest {
+
+    @RestController
+    static class PingController {
+        @GetMapping("/ping")
+        String ping() {
+            return "pong";
+        }
+    }
+
+    static class ChainConfig {
+        @Bean
+        SecurityFilterChain chain(HttpSecurity http) throws Exception {
+            return http.build();
+        }
+    }
+
+    @TempDir
+    Path outputDirectory;
+
+    @Test
+    void controllersComeFromThePackagesAndChainMethodsFromTheWholeRoots() throws IOException {
+        copyClassFile(PingController.class);
+        copyClassFile(ChainConfig.class);
+
+        // Both fixtures sit beside the scanned package, like a config package next to an api package
+        ScanSession session = ScanSession.open("io.authreporttool.core.api", List.of(outputDirectory.toUri().toURL()));
+
+        assertEquals(Set.of(), session.getTypesAnnotatedWith(RestController.class));
+        assertEquals(Set.of(ChainConfig.class),
+                new ReflectionUtils().findClassesWithBeanMethods(session, SecurityFilterChain.class));
+    }
+
+    @Test
+    void controllersOfTheScannedPackageAreFound() throws IOException {
+        copyClassFile(PingController.class);
+
+        ScanSession session = ScanSession.open("io.authreporttool.core", List.of(outputDirectory.toUri().toURL()));
+
+        assertEquals(Set.of(PingController.class), session.getTypesAnnotatedWith(RestController.class));
+    }
+
+    private void copyClassFile(Class<?> type) throws IOException {
+        String resource = type.getName().replace('.', '/') + ".class";
+        Path target = outputDirectory.resolve(resource);
+        Files.createDirectories(target.getParent());
+        try (InputStream in = type.getClassLoader().getResourceAsStream(resource)) {
+            Files.copy(in, target);
+        }
+    }
+}
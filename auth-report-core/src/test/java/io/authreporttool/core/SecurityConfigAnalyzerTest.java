@@ -0,0 +1,198 @@
+package io.authreporttool.core;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AuthorizeHttpRequestsConfigurer;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.web.filter.CharacterEncodingFilter;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SecurityConfigAnalyzerTest {
+
+    static class ApiSecurityConfig {
+        // Declared before the bean method and not a chain; its rule must not leak in
+        void chain(AuthorizeHttpRequestsConfigurer<HttpSecurity>.AuthorizationManagerRequestMatcherRegistry authorize) {
+            authorize.requestMatchers("/decoy").permitAll();
+        }
+
+        @Bean
+        SecurityFilterChain chain(HttpSecurity http) throws Exception {
+            http.securityMatcher("/api/**", "/admin/**")
+                    .authorizeHttpRequests(authorize -> authorize
+                            .requestMatchers(HttpMethod.POST, "/admin/**").hasAnyRole("ADMIN", "OPS")
+                            .requestMatchers("/api/public/**", "/api/health").permitAll()
+                            .requestMatchers(HttpMethod.DELETE).hasAuthority("WRITE")
+                            .anyRequest().authenticated())
+                    .httpBasic(Customizer.withDefaults());
+            return http.build();
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    static class LegacySecurityConfig {
+        @Bean
+        SecurityFilterChain chain(HttpSecurity http) throws Exception {
+            http.authorizeRequests(authorize -> authorize
+                    .requestMatchers(HttpMethod.DELETE).not().hasAuthority("WRITE")
+                    .requestMatchers("/legacy/**").access("isFullyAuthenticated()")
+                    .anyRequest().authenticated());
+            return http.build();
+        }
+    }
+
+    static class OpsSecurityConfig {
+        @Bean
+        SecurityFilterChain chain(HttpSecurity http) throws Exception {
+            http.securityMatchers(matchers -> matchers.requestMatchers("/ops/**", "/actuator/**"))
+                    .authorizeHttpRequests(authorize -> authorize.anyRequest().hasRole("OPS"));
+            return http.build();
+        }
+    }
+
+    static class ApiKeyAuthFilter extends OncePerRequestFilter {
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            if (request.getRequestURI().startsWith("/api") && request.getHeader("X-Api-Key") == null) {
+                response.setStatus(401);
+                return;
+            }
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    static class ApiKeySecurityConfig {
+        @Bean
+        SecurityFilterChain chain(HttpSecurity http) throws Exception {
+            http.addFilterBefore(new ApiKeyAuthFilter(), UsernamePasswordAuthenticationFilter.class)
+                    .authorizeHttpRequests(authorize -> authorize.anyRequest().authenticated());
+            return http.build();
+        }
+    }
+
+    static class InjectedFilterSecurityConfig {
+        @Bean
+        SecurityFilterChain chain(HttpSecurity http, ApiKeyAuthFilter apiKeyAuthFilter) throws Exception {
+            Filter logging = new CharacterEncodingFilter("UTF-8");
+            http.addFilterAt(apiKeyAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                    .addFilterAfter(logging, ApiKeyAuthFilter.class);
+            return http.build();
+        }
+    }
+
+    @Test
+    void addedFilterIsAnalyzedByItsConcreteClass() {
+        SecurityChainAnalysis analysis = analyze(ApiKeySecurityConfig.class);
+
+        EndpointAuthInfo orders = new EndpointAuthInfo("/api/orders", "GET", "None", "orders", "com.example.OrderController");
+        assertTrue(analysis.applyTo(orders));
+        assertTrue(orders.isApiKeyRequired());
+        assertEquals("authenticated", orders.getUrlAuthorization());
+
+        EndpointAuthInfo home = new EndpointAuthInfo("/home", "GET", "None", "home", "com.example.HomeController");
+        assertTrue(analysis.applyTo(home));
+        assertFalse(home.isApiKeyRequired());
+    }
+
+    @Test
+    void injectedFilterIsAnalyzedAndFrameworkFiltersAreSkipped() {
+        SecurityChainAnalysis analysis = analyze(InjectedFilterSecurityConfig.class);
+
+        assertEquals(List.of("SecurityConfigAnalyzerTest$ApiKeyAuthFilter"),
+                analysis.getFilterAnalyses().stream()
+                        .map(SecurityConfigAnalyzer.FilterAnalysis::getFilterName)
+                        .collect(Collectors.toList()));
+        EndpointAuthInfo orders = new EndpointAuthInfo("/api/orders", "GET", "None", "orders", "com.example.OrderController");
+        analysis.applyTo(orders);
+        assertTrue(orders.isApiKeyRequired());
+    }
+
+    @Test
+    void chainRulesMapMatchersToAuthorities() {
+        SecurityChainAnalysis analysis = analyze(ApiSecurityConfig.class);
+
+        assertEquals(List.of(
+                        "POST /admin/** -> hasAnyRole('ADMIN', 'OPS')",
+                        "/api/public/**, /api/health -> permitAll",
+                        "DELETE /** -> hasAuthority('WRITE')",
+                        "/** -> authenticated"),
+                rules(analysis));
+        assertTrue(analysis.isBasicAuthEnabled());
+    }
+
+    @Test
+    void chainMethodIsChosenAmongOverloads() {
+        SecurityChainAnalysis analysis = analyze(ApiSecurityConfig.class);
+
+        assertTrue(analysis.getRuleTable().getRules().stream()
+                .noneMatch(rule -> rule.getPatterns().contains("/decoy")));
+        assertEquals(4, analysis.getRuleTable().getRules().size());
+    }
+
+    @Test
+    void expressionRulesKeepNegationAndAccessExpressions() {
+        SecurityChainAnalysis analysis = analyze(LegacySecurityConfig.class);
+
+        assertEquals(List.of(
+                        "DELETE /** -> !hasAuthority('WRITE')",
+                        "/legacy/** -> isFullyAuthenticated()",
+                        "/** -> authenticated"),
+                rules(analysis));
+        // Without a security matcher the chain handles every request
+        assertEquals(List.of(), analysis.getSecurityMatchers());
+        assertTrue(analysis.matches("/anything"));
+    }
+
+    @Test
+    void securityMatcherRestrictsTheEndpointsAChainSecures() {
+        SecurityChainAnalysis analysis = analyze(ApiSecurityConfig.class);
+        assertEquals(List.of("/api/**", "/admin/**"), analysis.getSecurityMatchers());
+
+        EndpointAuthInfo outside = new EndpointAuthInfo("/items", "GET", "None", "items", "com.example.ItemController");
+        assertFalse(analysis.applyTo(outside));
+        assertNull(outside.getUrlAuthorization());
+        assertFalse(outside.isBasicAuthRequired());
+
+        EndpointAuthInfo admin = new EndpointAuthInfo("/admin/users", "POST", "None", "users", "com.example.AdminController");
+        assertTrue(analysis.applyTo(admin));
+        assertEquals("hasAnyRole('ADMIN', 'OPS')", admin.getUrlAuthorization());
+        assertTrue(admin.isBasicAuthRequired());
+    }
+
+    @Test
+    void securityMatchersCustomizerRestrictsTheChain() {
+        SecurityChainAnalysis analysis = analyze(OpsSecurityConfig.class);
+
+        assertEquals(List.of("/ops/**", "/actuator/**"), analysis.getSecurityMatchers());
+        assertEquals(List.of("/** -> hasRole('OPS')"), rules(analysis));
+        assertTrue(analysis.matches("/actuator/health"));
+        assertFalse(analysis.matches("/api/orders"));
+    }
+
+    private static SecurityChainAnalysis analyze(Class<?> configClass) {
+        return new SecurityConfigAnalyzer(null, configClass.getClassLoader())
+                .analyzeSecurityFilterChain(configClass.getName(), "chain");
+    }
+
+    private static List<String> rules(SecurityChainAnalysis analysis) {
+        return analysis.getRuleTable().getRules().stream().map(AuthorizationRule::toString).collect(Collectors.toList());
+    }
+}
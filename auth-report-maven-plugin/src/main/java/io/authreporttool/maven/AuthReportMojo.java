@@ -0,0 +1,244 @@
+package io.authreporttool.maven;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.authreporttool.core.AuthorizationReport;
+import io.authreporttool.core.AuthorizationScanner;
+import io.authreporttool.core.ReflectionUtils;
+import io.authreporttool.core.ReportGenerator;
+import io.authreporttool.core.ScanCache;
+import io.authreporttool.core.ScanMode;
+import io.authreporttool.core.ScanSession;
+import io.authreporttool.core.SecurityConfigAnalyzer;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * AuthReportMojo generates the authorization report of a project from its compiled classes
+ * as part of the build.
+ *
+ * The class files in the project's output directory are scanned in bytecode-only mode, so none
+ * of the project's classes is loaded into the build JVM. A fingerprint of the class files, of the
+ * compile classpath, of the report settings and of the plugin version is stored next to the
+ * report; when it is unchanged the goal does nothing, which keeps incremental builds fast.
+ */
+@Mojo(name = "report", defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+        requiresDependencyResolution = ResolutionScope.COMPILE, threadSafe = true)
+public class AuthReportMojo extends AbstractMojo {
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    /**
+     * The base package to scan for controllers and security configurations.
+     */
+    @Parameter(property = "authReport.basePackage", required = true)
+    private String basePackage;
+
+    /**
+     * The output format of the report, "json" or "text".
+     */
+    @Parameter(property = "authReport.format", defaultValue = "json")
+    private String format;
+
+    /**
+     * The file the report is written to. Defaults to auth-report.json or auth-report.txt,
+     * depending on the format, in ${project.build.directory}/auth-report.
+     */
+    @Parameter(property = "authReport.outputFile")
+    private File outputFile;
+
+    /**
+     * The directory of the persistent scan cache, so only changed classes are re-scanned.
+     */
+    @Parameter(property = "authReport.cacheDirectory", defaultValue = "${project.build.directory}/auth-report/cache")
+    private File cacheDirectory;
+
+    /**
+     * Skips the report generation.
+     */
+    @Parameter(property = "authReport.skip", defaultValue = "false")
+    private boolean skip;
+
+    @Parameter(defaultValue = "${project.build.outputDirectory}", readonly = true, required = true)
+    private File classesDirectory;
+
+    @Parameter(defaultValue = "${project.build.directory}", readonly = true, required = true)
+    private File buildDirectory;
+
+    @Parameter(defaultValue = "${plugin}", readonly = true, required = true)
+    private PluginDescriptor plugin;
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (skip) {
+            getLog().info("Skipping authorization report");
+            return;
+        }
+        if (!classesDirectory.isDirectory()) {
+            getLog().info("No compiled classes in " + classesDirectory + ", skipping authorization report");
+            return;
+        }
+
+        if (outputFile == null) {
+            outputFile = defaultOutputFile(buildDirectory, format);
+        }
+
+        try {
+            List<String> classpathElements = project.getCompileClasspathElements();
+
+            File fingerprintFile = new File(outputFile.getParentFile(), outputFile.getName() + ".fingerprint");
+            String fingerprint = fingerprint(plugin.getVersion(), basePackage, format, classpathElements, classesDirectory.toPath());
+            if (outputFile.isFile() && fingerprintFile.isFile()
+                    && fingerprint.equals(Files.readString(fingerprintFile.toPath()).trim())) {
+                getLog().info("Authorization report is up to date: " + outputFile);
+                return;
+            }
+
+            AuthorizationReport report = generateReport(classpathElements);
+            writeReport(report);
+            Files.writeString(fingerprintFile.toPath(), fingerprint);
+            getLog().info("Authorization report written to: " + outputFile);
+        } catch (DependencyResolutionRequiredException e) {
+            throw new MojoExecutionException("Compile classpath of " + project.getId() + " is not resolved", e);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error generating authorization report", e);
+        }
+    }
+
+    private AuthorizationReport generateReport(List<String> classpathElements) throws IOException {
+        List<URL> classpath = new ArrayList<>();
+        for (String element : classpathElements) {
+            classpath.add(new File(element).toURI().toURL());
+        }
+
+        // The loader is only used to read configuration and filter class files as resources
+        try (URLClassLoader classLoader = new URLClassLoader(classpath.toArray(new URL[0]), null)) {
+            ScanCache scanCache = new ScanCache(cacheDirectory.toPath());
+            SecurityConfigAnalyzer analyzer = new SecurityConfigAnalyzer(scanCache, classLoader);
+            AuthorizationScanner scanner = new AuthorizationScanner(new ReflectionUtils(), analyzer,
+                    ScanMode.BYTECODE, ForkJoinPool.commonPool(), scanCache);
+            ReportGenerator generator = new ReportGenerator(scanner);
+
+            ScanSession session = ScanSession.open(basePackage, List.of(classesDirectory.toURI().toURL()));
+            return generator.generateReport(session);
+        }
+    }
+
+    private void writeReport(AuthorizationReport report) throws IOException {
+        Files.createDirectories(outputFile.toPath().toAbsolutePath().getParent());
+
+        if ("json".equalsIgnoreCase(format)) {
+            ObjectMapper mapper = new ObjectMapper();
+            mapper.registerModule(new JavaTimeModule());
+            mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+            mapper.writerWithDefaultPrettyPrinter().writeValue(outputFile, report);
+        } else {
+            String reportContent = new ReportGenerator(null).generateDetailedReportString(report);
+            Files.writeString(outputFile.toPath(), reportContent);
+        }
+    }
+
+    /**
+     * Returns the default report file, whose extension matches the format.
+     */
+    static File defaultOutputFile(File buildDirectory, String format) {
+        String extension = "json".equalsIgnoreCase(format) ? "json" : "txt";
+        return new File(new File(buildDirectory, "auth-report"), "auth-report." + extension);
+    }
+
+    /**
+     * Computes a SHA-256 fingerprint over the plugin version, the report settings, the compile
+     * classpath and the relative path and contents of every class file in the output directory.
+     *
+     * Security configurations and filters may come from dependencies, so each classpath element
+     * contributes its path, size and modification time; for a directory, such as the output of a
+     * sibling module, those of every file in it. The output directory itself, which the compile
+     * classpath includes, is skipped there so that recompiling unchanged classes keeps the fingerprint.
+     */
+    static String fingerprint(String pluginVersion, String basePackage, String format,
+                              List<String> classpathElements, Path classesDirectory) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        update(digest, pluginVersion);
+        update(digest, basePackage);
+        update(digest, format);
+        Path classes = classesDirectory.toAbsolutePath().normalize();
+        for (String element : classpathElements) {
+            Path path = Path.of(element);
+            // The output directory is hashed by content below, so its timestamps must not count
+            if (path.toAbsolutePath().normalize().equals(classes)) {
+                continue;
+            }
+            update(digest, element);
+            if (Files.isDirectory(path)) {
+                for (Path file : sortedFiles(path, file -> true)) {
+                    update(digest, path.relativize(file).toString().replace(File.separatorChar, '/'));
+                    updateAttributes(digest, file);
+                }
+            } else if (Files.isRegularFile(path)) {
+                updateAttributes(digest, path);
+            }
+        }
+
+        for (Path classFile : sortedFiles(classesDirectory, file -> file.getFileName().toString().endsWith(CLASS_SUFFIX))) {
+            update(digest, classesDirectory.relativize(classFile).toString().replace(File.separatorChar, '/'));
+            digest.update(Files.readAllBytes(classFile));
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static List<Path> sortedFiles(Path root, Predicate<Path> filter) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths
+                    .filter(Files::isRegularFile)
+                    .filter(filter)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static void updateAttributes(MessageDigest digest, Path file) throws IOException {
+        update(digest, Long.toString(Files.size(file)));
+        update(digest, Long.toString(Files.getLastModifiedTime(file).toMillis()));
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        // Terminate each value so adjacent values cannot run into each other
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+}
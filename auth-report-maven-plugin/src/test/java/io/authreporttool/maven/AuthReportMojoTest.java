@@ -0,0 +1,195 @@
+package io.authreporttool.maven;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthReportMojoTest {
+
+    @RestController
+    @RequestMapping("/items")
+    static class ItemController {
+        @PreAuthorize("hasRole('USER')")
+        @GetMapping("/list")
+        public String list() {
+            return "";
+        }
+    }
+
+    @RestController
+    @RequestMapping("/orders")
+    static class OrderController {
+        @GetMapping
+        public String orders() {
+            return "";
+        }
+    }
+
+    @TempDir
+    Path workDirectory;
+
+    private Path classesDirectory;
+    private Path dependencyJar;
+    private Path dependencyClasses;
+
+    @BeforeEach
+    void createClasspath() throws IOException {
+        classesDirectory = workDirectory.resolve("classes");
+        Files.createDirectories(classesDirectory.resolve("com/example"));
+        Files.write(classesDirectory.resolve("com/example/Api.class"), new byte[] {1, 2, 3});
+        dependencyJar = Files.write(workDirectory.resolve("security.jar"), new byte[] {4, 5, 6});
+        dependencyClasses = Files.createDirectories(workDirectory.resolve("module/classes"));
+        Files.write(dependencyClasses.resolve("Filter.class"), new byte[] {7, 8, 9});
+    }
+
+    @Test
+    void fingerprintIsStableForUnchangedInputs() throws IOException {
+        assertEquals(fingerprint("1.0"), fingerprint("1.0"));
+    }
+
+    @Test
+    void fingerprintChangesWithThePluginVersion() throws IOException {
+        assertNotEquals(fingerprint("1.0"), fingerprint("1.1"));
+    }
+
+    @Test
+    void fingerprintChangesWhenADependencyJarChanges() throws IOException {
+        String before = fingerprint("1.0");
+        Files.write(dependencyJar, new byte[] {4, 5, 6, 7});
+        assertNotEquals(before, fingerprint("1.0"));
+
+        before = fingerprint("1.0");
+        Files.setLastModifiedTime(dependencyJar, FileTime.fromMillis(Files.getLastModifiedTime(dependencyJar).toMillis() + 1000));
+        assertNotEquals(before, fingerprint("1.0"));
+    }
+
+    @Test
+    void fingerprintChangesWhenADependencyDirectoryChanges() throws IOException {
+        String before = fingerprint("1.0");
+        Files.write(dependencyClasses.resolve("OtherFilter.class"), new byte[] {1});
+        assertNotEquals(before, fingerprint("1.0"));
+    }
+
+    @Test
+    void fingerprintChangesWhenAClassFileChanges() throws IOException {
+        String before = fingerprint("1.0");
+        Files.write(classesDirectory.resolve("com/example/Api.class"), new byte[] {1, 2, 4});
+        assertNotEquals(before, fingerprint("1.0"));
+    }
+
+    @Test
+    void fingerprintIgnoresTheTimestampsOfRecompiledClasses() throws IOException {
+        List<String> classpath = List.of(classesDirectory.toString(), dependencyJar.toString());
+        String before = AuthReportMojo.fingerprint("1.0", "com.example", "json", classpath, classesDirectory);
+        Path classFile = classesDirectory.resolve("com/example/Api.class");
+        Files.setLastModifiedTime(classFile, FileTime.fromMillis(Files.getLastModifiedTime(classFile).toMillis() + 1000));
+        assertEquals(before, AuthReportMojo.fingerprint("1.0", "com.example", "json", classpath, classesDirectory));
+    }
+
+    @Test
+    void defaultOutputFileMatchesTheFormat() {
+        File buildDirectory = new File("target");
+        assertEquals(new File("target/auth-report/auth-report.json"), AuthReportMojo.defaultOutputFile(buildDirectory, "json"));
+        assertEquals(new File("target/auth-report/auth-report.txt"), AuthReportMojo.defaultOutputFile(buildDirectory, "text"));
+    }
+
+    @Test
+    void reportIsWrittenFromCompiledClasses() throws Exception {
+        Path targetClasses = compiledClasses(ItemController.class);
+        File outputFile = workDirectory.resolve("target/auth-report/auth-report.json").toFile();
+
+        mojo(targetClasses).execute();
+
+        String report = Files.readString(outputFile.toPath());
+        assertTrue(report.contains("/items/list"), report);
+        assertTrue(report.contains("hasRole('USER')"), report);
+        assertTrue(new File(outputFile.getParentFile(), "auth-report.json.fingerprint").isFile());
+    }
+
+    @Test
+    void reportIsOnlyRegeneratedWhenTheFingerprintChanges() throws Exception {
+        Path targetClasses = compiledClasses(ItemController.class);
+        Path outputFile = workDirectory.resolve("target/auth-report/auth-report.json");
+        mojo(targetClasses).execute();
+
+        // Unchanged classes match the stored fingerprint, so the report is left alone
+        Files.writeString(outputFile, "unchanged");
+        mojo(targetClasses).execute();
+        assertEquals("unchanged", Files.readString(outputFile));
+
+        copyClassFile(OrderController.class, targetClasses);
+        mojo(targetClasses).execute();
+        String report = Files.readString(outputFile);
+        assertTrue(report.contains("/orders"), report);
+    }
+
+    private AuthReportMojo mojo(Path targetClasses) throws ReflectiveOperationException {
+        PluginDescriptor plugin = new PluginDescriptor();
+        plugin.setVersion("1.0");
+        MavenProject project = new MavenProject() {
+            @Override
+            public List<String> getCompileClasspathElements() {
+                return List.of(targetClasses.toString());
+            }
+        };
+
+        AuthReportMojo mojo = new AuthReportMojo();
+        set(mojo, "basePackage", AuthReportMojoTest.class.getPackageName());
+        set(mojo, "format", "json");
+        set(mojo, "cacheDirectory", workDirectory.resolve("target/auth-report/cache").toFile());
+        set(mojo, "classesDirectory", targetClasses.toFile());
+        set(mojo, "buildDirectory", workDirectory.resolve("target").toFile());
+        set(mojo, "plugin", plugin);
+        set(mojo, "project", project);
+        return mojo;
+    }
+
+    private static void set(AuthReportMojo mojo, String fieldName, Object value) throws ReflectiveOperationException {
+        // Maven injects the parameters into the fields
+        Field field = AuthReportMojo.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(mojo, value);
+    }
+
+    private Path compiledClasses(Class<?>... controllers) throws IOException {
+        Path targetClasses = Files.createDirectories(workDirectory.resolve("target/classes"));
+        for (Class<?> controller : controllers) {
+            copyClassFile(controller, targetClasses);
+        }
+        return targetClasses;
+    }
+
+    private static void copyClassFile(Class<?> type, Path targetClasses) throws IOException {
+        String classFile = type.getName().replace('.', '/') + ".class";
+        Path target = targetClasses.resolve(classFile);
+        Files.createDirectories(target.getParent());
+        try (InputStream in = type.getClassLoader().getResourceAsStream(classFile)) {
+            Files.copy(in, target);
+        }
+    }
+
+    private String fingerprint(String pluginVersion) throws IOException {
+        return AuthReportMojo.fingerprint(pluginVersion, "com.example", "json",
+                List.of(dependencyJar.toString(), dependencyClasses.toString()), classesDirectory);
+    }
+}
@@ -0,0 +1,534 @@
+package io.authreporttool.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * EndpointManifestProcessor is a compile-time annotation processor that records every
+ * {@code @RestController} endpoint and every SecurityFilterChain bean method into a manifest resource
+ * while javac runs. At runtime the AuthorizationScanner can read this manifest instead of
+ * scanning the classpath.
+ *
+ * The processor only works on annotation mirrors and qualified names, so it needs neither
+ * Spring nor the auth-report-core module on the processor path. Its extraction rules mirror
+ * those of the reflective scanner: controllers may be annotated with a composed annotation
+ * meta-annotated with @RestController, handler methods and their mappings may be inherited from
+ * superclasses and interfaces, and @PreAuthorize follows the same precedence across the
+ * controller's superclasses and interfaces.
+ *
+ * An incremental build only hands the changed sources to javac, so the processor merges its
+ * records with the manifest of the previous build: records of classes compiled in this run are
+ * replaced, records of classes whose class file was removed are dropped, and all other records
+ * are kept.
+ *
+ * The manifest is a UTF-8 text file with one tab-separated record per line:
+ * <pre>
+ * endpoint  path  httpMethod  authExpression  methodName  className
+ * chain     className  methodName  order
+ * </pre>
+ * where order is the @Order value of the chain method, or Integer.MAX_VALUE without @Order.
+ * Backslashes, tabs and line breaks inside values are escaped as \\, \t, \n and \r.
+ */
+// Composed controller annotations may come from any library, so every annotated element is seen
+@SupportedAnnotationTypes("*")
+public class EndpointManifestProcessor extends AbstractProcessor {
+
+    /**
+     * The location of the manifest in the compiled output, which must match the location
+     * EndpointManifest of the auth-report-core module reads it from.
+     */
+    static final String MANIFEST_LOCATION = "META-INF/auth-report/endpoints.manifest";
+
+    static final String REST_CONTROLLER = "org.springframework.web.bind.annotation.RestController";
+    static final String BEAN = "org.springframework.context.annotation.Bean";
+
+    private static final String REQUEST_MAPPING = "org.springframework.web.bind.annotation.RequestMapping";
+    private static final String GET_MAPPING = "org.springframework.web.bind.annotation.GetMapping";
+    private static final String POST_MAPPING = "org.springframework.web.bind.annotation.PostMapping";
+    private static final String PUT_MAPPING = "org.springframework.web.bind.annotation.PutMapping";
+    private static final String DELETE_MAPPING = "org.springframework.web.bind.annotation.DeleteMapping";
+    private static final String PATCH_MAPPING = "org.springframework.web.bind.annotation.PatchMapping";
+    private static final String PRE_AUTHORIZE = "org.springframework.security.access.prepost.PreAuthorize";
+    private static final String SECURITY_FILTER_CHAIN = "org.springframework.security.web.SecurityFilterChain";
+    private static final String ORDER = "org.springframework.core.annotation.Order";
+    private static final String ALIAS_FOR = "org.springframework.core.annotation.AliasFor";
+
+    // Mapping annotations in the order the reflective scanner resolves the method path
+    private static final List<String> PATH_ORDER =
+            List.of(REQUEST_MAPPING, GET_MAPPING, POST_MAPPING, PUT_MAPPING, DELETE_MAPPING, PATCH_MAPPING);
+
+    // Records collected across rounds, sorted so the manifest is stable between builds
+    private final Set<String> records = new TreeSet<>();
+    // Binary names of the top-level classes compiled in this run
+    private final Set<String> compiledClasses = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeManifest();
+            return false;
+        }
+
+        for (Element rootElement : roundEnv.getRootElements()) {
+            if (rootElement instanceof TypeElement) {
+                compiledClasses.add(processingEnv.getElementUtils().getBinaryName((TypeElement) rootElement).toString());
+            }
+        }
+        // A class carrying several annotations is seen once per annotation, but recorded once
+        Set<TypeElement> controllers = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            boolean controllerAnnotation = isAnnotatedWith(annotation, REST_CONTROLLER, new HashSet<>());
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (controllerAnnotation && element.getKind() == ElementKind.CLASS) {
+                    controllers.add((TypeElement) element);
+                } else if (annotation.getQualifiedName().contentEquals(BEAN) && element.getKind() == ElementKind.METHOD) {
+                    recordSecurityConfig((ExecutableElement) element);
+                }
+            }
+        }
+        for (TypeElement controller : controllers) {
+            recordController(controller);
+        }
+
+        // Never claim the annotations, other processors may need them too
+        return false;
+    }
+
+    private void recordController(TypeElement controller) {
+        String className = processingEnv.getElementUtils().getBinaryName(controller).toString();
+        List<String> controllerPaths = controllerPaths(controller);
+
+        // All members, so handler methods inherited from superclasses and interfaces are recorded too
+        for (Element member : processingEnv.getElementUtils().getAllMembers(controller)) {
+            if (member.getKind() != ElementKind.METHOD) {
+                continue;
+            }
+
+            // The mapping may be declared on a method the member overrides or implements
+            ExecutableElement mappedMethod = findMappedMethod(controller, (ExecutableElement) member, controller);
+            if (mappedMethod == null) {
+                continue;
+            }
+            AnnotationMirror mapping = findMapping(mappedMethod);
+
+            List<String> httpMethods = determineHttpMethods(mappedMethod);
+            // A method-level @PreAuthorize, also on an overridden method, wins over one on the class hierarchy
+            AnnotationMirror preAuthorize = findMethodPreAuthorize(controller, (ExecutableElement) member, controller);
+            if (preAuthorize == null) {
+                preAuthorize = findClassPreAuthorize(controller);
+            }
+            String authExpression = (preAuthorize != null) ? firstValue(preAuthorize, "value") : "None";
+
+            // One record per combination of path and HTTP method, like the reflective scanner
+            for (String controllerPath : controllerPaths) {
+                for (String methodPath : paths(mapping)) {
+                    String path = (controllerPath + methodPath).replaceAll("//", "/");
+                    for (String httpMethod : httpMethods) {
+                        records.add(String.join("\t", "endpoint", escape(path), escape(httpMethod), escape(authExpression),
+                                escape(member.getSimpleName().toString()), escape(className)));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the paths of a controller's @RequestMapping, which may be declared through a composed
+     * annotation meta-annotated with @RequestMapping. Attributes of the composed annotation that
+     * are declared as @AliasFor the path or value of @RequestMapping override its paths.
+     */
+    private List<String> controllerPaths(TypeElement controller) {
+        AnnotationMirror mapping = findAnnotation(controller, REQUEST_MAPPING);
+        if (mapping != null) {
+            return paths(mapping);
+        }
+        for (AnnotationMirror composed : controller.getAnnotationMirrors()) {
+            AnnotationMirror metaMapping = findAnnotation(composed.getAnnotationType().asElement(), REQUEST_MAPPING);
+            if (metaMapping == null) {
+                continue;
+            }
+            List<String> aliasedPaths = new ArrayList<>();
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : composed.getElementValues().entrySet()) {
+                AnnotationMirror aliasFor = findAnnotation(entry.getKey(), ALIAS_FOR);
+                if (aliasFor == null || !firstValue(aliasFor, "annotation").equals(REQUEST_MAPPING)) {
+                    continue;
+                }
+                String attribute = firstValue(aliasFor, "attribute");
+                if (attribute.isEmpty()) {
+                    attribute = firstValue(aliasFor, "value");
+                }
+                if (attribute.isEmpty()) {
+                    attribute = entry.getKey().getSimpleName().toString();
+                }
+                if (attribute.equals("path") || attribute.equals("value")) {
+                    aliasedPaths.addAll(values(composed, entry.getKey().getSimpleName().toString()));
+                }
+            }
+            return aliasedPaths.isEmpty() ? paths(metaMapping) : aliasedPaths;
+        }
+        return List.of("");
+    }
+
+    /**
+     * Finds the method carrying the mapping of a handler method: the method itself or the nearest
+     * method it overrides or implements, searching the interfaces before the superclass like
+     * Spring's merged annotation lookup.
+     */
+    private ExecutableElement findMappedMethod(TypeElement type, ExecutableElement method, TypeElement controller) {
+        for (Element enclosed : type.getEnclosedElements()) {
+            if (enclosed.getKind() == ElementKind.METHOD
+                    && (enclosed.equals(method)
+                        || processingEnv.getElementUtils().overrides(method, (ExecutableElement) enclosed, controller))
+                    && findMapping(enclosed) != null) {
+                return (ExecutableElement) enclosed;
+            }
+        }
+        List<TypeElement> supertypes = supertypes(type);
+        // The superclass, if any, comes first; search it last
+        if (!supertypes.isEmpty() && !supertypes.get(0).getKind().isInterface()) {
+            supertypes.add(supertypes.remove(0));
+        }
+        for (TypeElement supertype : supertypes) {
+            ExecutableElement mappedMethod = findMappedMethod(supertype, method, controller);
+            if (mappedMethod != null) {
+                return mappedMethod;
+            }
+        }
+        return null;
+    }
+
+    private static AnnotationMirror findMapping(Element method) {
+        for (String annotation : PATH_ORDER) {
+            AnnotationMirror mapping = findAnnotation(method, annotation);
+            if (mapping != null) {
+                return mapping;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether an element is annotated with an annotation, directly or through composed
+     * annotations meta-annotated with it.
+     */
+    private static boolean isAnnotatedWith(Element element, String annotationName, Set<Element> visited) {
+        if (!visited.add(element)) {
+            return false;
+        }
+        if (element instanceof TypeElement && ((TypeElement) element).getQualifiedName().contentEquals(annotationName)) {
+            return true;
+        }
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (isAnnotatedWith(mirror.getAnnotationType().asElement(), annotationName, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the @PreAuthorize of a method or of the nearest method it overrides or implements,
+     * searching the superclass before the interfaces like the reflective scanner.
+     */
+    private AnnotationMirror findMethodPreAuthorize(TypeElement type, ExecutableElement method, TypeElement controller) {
+        for (Element enclosed : type.getEnclosedElements()) {
+            if (enclosed.getKind() == ElementKind.METHOD
+                    && (enclosed.equals(method)
+                        || processingEnv.getElementUtils().overrides(method, (ExecutableElement) enclosed, controller))) {
+                AnnotationMirror preAuthorize = findAnnotation(enclosed, PRE_AUTHORIZE);
+                if (preAuthorize != null) {
+                    return preAuthorize;
+                }
+            }
+        }
+        for (TypeElement supertype : supertypes(type)) {
+            AnnotationMirror preAuthorize = findMethodPreAuthorize(supertype, method, controller);
+            if (preAuthorize != null) {
+                return preAuthorize;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the @PreAuthorize of a class or of its nearest annotated supertype, searching the
+     * superclass before the interfaces like the reflective scanner.
+     */
+    private AnnotationMirror findClassPreAuthorize(TypeElement type) {
+        AnnotationMirror preAuthorize = findAnnotation(type, PRE_AUTHORIZE);
+        if (preAuthorize != null) {
+            return preAuthorize;
+        }
+        for (TypeElement supertype : supertypes(type)) {
+            preAuthorize = findClassPreAuthorize(supertype);
+            if (preAuthorize != null) {
+                return preAuthorize;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the superclass, unless it is Object, followed by the interfaces of a type.
+     */
+    private List<TypeElement> supertypes(TypeElement type) {
+        List<TypeElement> supertypes = new ArrayList<>();
+        if (type.getSuperclass().getKind() == TypeKind.DECLARED) {
+            TypeElement superclass = (TypeElement) processingEnv.getTypeUtils().asElement(type.getSuperclass());
+            if (!superclass.getQualifiedName().contentEquals("java.lang.Object")) {
+                supertypes.add(superclass);
+            }
+        }
+        for (TypeMirror anInterface : type.getInterfaces()) {
+            supertypes.add((TypeElement) processingEnv.getTypeUtils().asElement(anInterface));
+        }
+        return supertypes;
+    }
+
+    private void recordSecurityConfig(ExecutableElement beanMethod) {
+        if (!returnsSecurityFilterChain(beanMethod)) {
+            return;
+        }
+
+        // Like the reflective scanner, analyze every SecurityFilterChain method of the configuration class
+        TypeElement configClass = (TypeElement) beanMethod.getEnclosingElement();
+        String className = processingEnv.getElementUtils().getBinaryName(configClass).toString();
+        for (Element enclosed : configClass.getEnclosedElements()) {
+            if (enclosed.getKind() == ElementKind.METHOD && returnsSecurityFilterChain((ExecutableElement) enclosed)) {
+                // Record the @Order value, so the chains are applied in the order Spring Security consults them
+                String order = firstValue(findAnnotation(enclosed, ORDER), "value");
+                records.add(String.join("\t", "chain", escape(className), escape(enclosed.getSimpleName().toString()),
+                        order.isEmpty() ? String.valueOf(Integer.MAX_VALUE) : order));
+            }
+        }
+    }
+
+    private boolean returnsSecurityFilterChain(ExecutableElement method) {
+        return method.getReturnType().getKind() == TypeKind.DECLARED
+                && processingEnv.getTypeUtils().erasure(method.getReturnType()).toString().equals(SECURITY_FILTER_CHAIN);
+    }
+
+    private List<String> determineHttpMethods(Element method) {
+        if (findAnnotation(method, GET_MAPPING) != null) return List.of("GET");
+        if (findAnnotation(method, POST_MAPPING) != null) return List.of("POST");
+        if (findAnnotation(method, PUT_MAPPING) != null) return List.of("PUT");
+        if (findAnnotation(method, DELETE_MAPPING) != null) return List.of("DELETE");
+        if (findAnnotation(method, PATCH_MAPPING) != null) return List.of("PATCH");
+        List<String> requestMethods = values(findAnnotation(method, REQUEST_MAPPING), "method");
+        return requestMethods.isEmpty() ? List.of("GET") : requestMethods;
+    }
+
+    /**
+     * Returns the paths of a mapping annotation from its aliased value and path attributes,
+     * or a single empty path if neither is set.
+     */
+    private static List<String> paths(AnnotationMirror mapping) {
+        List<String> paths = new ArrayList<>(values(mapping, "value"));
+        paths.addAll(values(mapping, "path"));
+        return paths.isEmpty() ? List.of("") : paths;
+    }
+
+    private void writeManifest() {
+        boolean previousManifest = mergePreviousManifest();
+        if (records.isEmpty() && !previousManifest) {
+            return;
+        }
+
+        try {
+            FileObject manifest = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", MANIFEST_LOCATION);
+            try (Writer writer = manifest.openWriter()) {
+                for (String record : records) {
+                    writer.write(record);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Could not write endpoint manifest " + MANIFEST_LOCATION + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Adds the records of the previous build's manifest that still apply: those of classes not
+     * compiled in this run whose class file still exists.
+     *
+     * @return true if a previous manifest was found, false otherwise.
+     */
+    private boolean mergePreviousManifest() {
+        List<String> previousRecords = new ArrayList<>();
+        try {
+            FileObject manifest = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", MANIFEST_LOCATION);
+            try (BufferedReader reader = new BufferedReader(manifest.openReader(true))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    previousRecords.add(line);
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // No previous manifest, this is a full build
+            return false;
+        }
+
+        for (String record : previousRecords) {
+            String[] fields = record.split("\t", -1);
+            String className;
+            if (fields[0].equals("endpoint") && fields.length == 6) {
+                className = unescape(fields[5]);
+            } else if (fields[0].equals("chain") && fields.length == 4) {
+                className = unescape(fields[1]);
+            } else {
+                continue;
+            }
+            if (!compiledClasses.contains(topLevelClassName(className)) && classFileExists(className)) {
+                records.add(record);
+            }
+        }
+        return true;
+    }
+
+    private boolean classFileExists(String className) {
+        int lastDot = className.lastIndexOf('.');
+        String packageName = (lastDot < 0) ? "" : className.substring(0, lastDot);
+        try {
+            FileObject classFile = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT,
+                    packageName, className.substring(lastDot + 1) + ".class");
+            try (InputStream in = classFile.openInputStream()) {
+                return true;
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String topLevelClassName(String className) {
+        int nested = className.indexOf('$', className.lastIndexOf('.') + 1);
+        return (nested < 0) ? className : className.substring(0, nested);
+    }
+
+    private static AnnotationMirror findAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+            if (type.getQualifiedName().contentEquals(annotationName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the first explicitly declared value of an annotation attribute, like reading
+     * {@code attribute()[0]} reflectively, or an empty string if the attribute is not set.
+     */
+    private static String firstValue(AnnotationMirror mirror, String attribute) {
+        if (mirror == null) {
+            return "";
+        }
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(attribute)) {
+                Object value = entry.getValue().getValue();
+                if (value instanceof List) {
+                    List<?> values = (List<?>) value;
+                    if (values.isEmpty()) {
+                        return "";
+                    }
+                    value = ((AnnotationValue) values.get(0)).getValue();
+                }
+                if (value instanceof VariableElement) {
+                    return ((VariableElement) value).getSimpleName().toString();
+                }
+                return String.valueOf(value);
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Returns every explicitly declared value of an annotation attribute, or an empty list if the
+     * attribute is not set.
+     */
+    private static List<String> values(AnnotationMirror mirror, String attribute) {
+        List<String> result = new ArrayList<>();
+        if (mirror == null) {
+            return result;
+        }
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(attribute)) {
+                Object value = entry.getValue().getValue();
+                List<?> values = (value instanceof List) ? (List<?>) value : List.of(entry.getValue());
+                for (Object element : values) {
+                    Object item = ((AnnotationValue) element).getValue();
+                    result.add((item instanceof VariableElement)
+                            ? ((VariableElement) item).getSimpleName().toString() : String.valueOf(item));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                switch (next) {
+                    case 't': sb.append('\t'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    default: sb.append(next);
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String escape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '\\': sb.append("\\\\"); break;
+                case '\t': sb.append("\\t"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                default: sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
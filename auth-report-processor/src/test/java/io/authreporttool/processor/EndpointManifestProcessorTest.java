@@ -0,0 +1,180 @@
+package io.authreporttool.processor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EndpointManifestProcessorTest {
+
+    @TempDir
+    Path workDirectory;
+
+    private Path sourceDirectory;
+    private Path outputDirectory;
+
+    @BeforeEach
+    void writeSpringAnnotations() throws IOException {
+        sourceDirectory = workDirectory.resolve("src");
+        outputDirectory = workDirectory.resolve("classes");
+        Files.createDirectories(outputDirectory);
+
+        // The processor matches annotations by name, so minimal stand-ins for the Spring ones suffice
+        writeSource("org.springframework.web.bind.annotation.RestController",
+                "public @interface RestController {}");
+        writeSource("org.springframework.web.bind.annotation.RequestMapping",
+                "public @interface RequestMapping { String[] value() default {}; String[] path() default {}; }");
+        writeSource("org.springframework.web.bind.annotation.GetMapping",
+                "public @interface GetMapping { String[] value() default {}; String[] path() default {}; }");
+        writeSource("org.springframework.security.access.prepost.PreAuthorize",
+                "public @interface PreAuthorize { String value(); }");
+        compile(List.of("org.springframework.web.bind.annotation.RestController",
+                "org.springframework.web.bind.annotation.RequestMapping",
+                "org.springframework.web.bind.annotation.GetMapping",
+                "org.springframework.security.access.prepost.PreAuthorize"), false);
+    }
+
+    @Test
+    void preAuthorizeIsResolvedAcrossTheHierarchy() throws IOException {
+        writeSource("app.Api", "@org.springframework.security.access.prepost.PreAuthorize(\"hasRole('API')\")\n"
+                + "public interface Api {\n"
+                + "    @org.springframework.security.access.prepost.PreAuthorize(\"hasRole('READ')\") String read();\n"
+                + "}");
+        writeSource("app.BaseController", "public abstract class BaseController implements Api {\n"
+                + "    @org.springframework.security.access.prepost.PreAuthorize(\"hasRole('WRITE')\") public abstract String write();\n"
+                + "}");
+        writeSource("app.ItemController", "@org.springframework.web.bind.annotation.RestController\n"
+                + "@org.springframework.web.bind.annotation.RequestMapping(\"/items\")\n"
+                + "public class ItemController extends BaseController {\n"
+                + "    @org.springframework.web.bind.annotation.GetMapping(\"/read\") public String read() { return \"\"; }\n"
+                + "    @org.springframework.web.bind.annotation.GetMapping(\"/write\") public String write() { return \"\"; }\n"
+                + "    @org.springframework.web.bind.annotation.GetMapping(\"/list\") public String list() { return \"\"; }\n"
+                + "}");
+
+        compile(List.of("app.Api", "app.BaseController", "app.ItemController"), true);
+
+        assertEquals(List.of(
+                "endpoint\t/items/list\tGET\thasRole('API')\tlist\tapp.ItemController",
+                "endpoint\t/items/read\tGET\thasRole('READ')\tread\tapp.ItemController",
+                "endpoint\t/items/write\tGET\thasRole('WRITE')\twrite\tapp.ItemController"), readManifest());
+    }
+
+    @Test
+    void inheritedHandlersAndComposedControllersAreRecorded() throws IOException {
+        writeSource("org.springframework.core.annotation.AliasFor",
+                "public @interface AliasFor { Class<? extends java.lang.annotation.Annotation> annotation(); String attribute(); }");
+        compile(List.of("org.springframework.core.annotation.AliasFor"), false);
+        writeSource("app.ApiController", "@org.springframework.web.bind.annotation.RestController\n"
+                + "@org.springframework.web.bind.annotation.RequestMapping\n"
+                + "public @interface ApiController {\n"
+                + "    @org.springframework.core.annotation.AliasFor(annotation = org.springframework.web.bind.annotation.RequestMapping.class,"
+                + " attribute = \"path\") String[] value() default {};\n"
+                + "}");
+        writeSource("app.PingApi", "public interface PingApi {\n"
+                + "    @org.springframework.web.bind.annotation.GetMapping(\"/ping\") default String ping() { return \"\"; }\n"
+                + "}");
+        writeSource("app.BaseController", "public abstract class BaseController implements PingApi {\n"
+                + "    @org.springframework.web.bind.annotation.GetMapping(\"/health\") public String health() { return \"\"; }\n"
+                + "    @org.springframework.web.bind.annotation.GetMapping(\"/stats\") public abstract String stats();\n"
+                + "    @org.springframework.web.bind.annotation.GetMapping(\"/secret\") private String secret() { return \"\"; }\n"
+                + "}");
+        writeSource("app.ItemController", "@ApiController(\"/items\")\n"
+                + "public class ItemController extends BaseController {\n"
+                + "    @Override public String stats() { return \"\"; }\n"
+                + "}");
+
+        compile(List.of("app.ApiController", "app.PingApi", "app.BaseController", "app.ItemController"), true);
+
+        // The private base class method is not inherited, so it is no handler of the controller
+        assertEquals(List.of(
+                "endpoint\t/items/health\tGET\tNone\thealth\tapp.ItemController",
+                "endpoint\t/items/ping\tGET\tNone\tping\tapp.ItemController",
+                "endpoint\t/items/stats\tGET\tNone\tstats\tapp.ItemController"), readManifest());
+    }
+
+    @Test
+    void incrementalCompileMergesWithThePreviousManifest() throws IOException {
+        writeController("app.FirstController", "/first");
+        writeController("app.SecondController", "/second");
+        writeController("app.ThirdController", "/third");
+        compile(List.of("app.FirstController", "app.SecondController", "app.ThirdController"), true);
+
+        // Recompile only the changed controller, after another one was deleted
+        writeController("app.FirstController", "/renamed");
+        Files.delete(outputDirectory.resolve("app/ThirdController.class"));
+        compile(List.of("app.FirstController"), true);
+
+        assertEquals(List.of(
+                "endpoint\t/renamed\tGET\tNone\tget\tapp.FirstController",
+                "endpoint\t/second\tGET\tNone\tget\tapp.SecondController"), readManifest());
+    }
+
+    @Test
+    void chainRecordsCarryTheOrderOfTheirMethod() throws IOException {
+        writeSource("org.springframework.context.annotation.Bean", "public @interface Bean {}");
+        writeSource("org.springframework.core.annotation.Order", "public @interface Order { int value(); }");
+        writeSource("org.springframework.security.web.SecurityFilterChain", "public interface SecurityFilterChain {}");
+        compile(List.of("org.springframework.context.annotation.Bean", "org.springframework.core.annotation.Order",
+                "org.springframework.security.web.SecurityFilterChain"), false);
+        writeSource("app.SecurityConfig", "public class SecurityConfig {\n"
+                + "    @org.springframework.context.annotation.Bean @org.springframework.core.annotation.Order(1)\n"
+                + "    org.springframework.security.web.SecurityFilterChain apiChain() { return null; }\n"
+                + "    @org.springframework.context.annotation.Bean\n"
+                + "    org.springframework.security.web.SecurityFilterChain webChain() { return null; }\n"
+                + "}");
+
+        compile(List.of("app.SecurityConfig"), true);
+
+        assertEquals(List.of(
+                "chain\tapp.SecurityConfig\tapiChain\t1",
+                "chain\tapp.SecurityConfig\twebChain\t2147483647"), readManifest());
+    }
+
+    private void writeController(String className, String path) throws IOException {
+        writeSource(className, "@org.springframework.web.bind.annotation.RestController\n"
+                + "public class " + className.substring(className.lastIndexOf('.') + 1) + " {\n"
+                + "    @org.springframework.web.bind.annotation.GetMapping(\"" + path + "\") public String get() { return \"\"; }\n"
+                + "}");
+    }
+
+    private void writeSource(String className, String body) throws IOException {
+        int lastDot = className.lastIndexOf('.');
+        Path source = sourceDirectory.resolve(className.replace('.', '/') + ".java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, "package " + className.substring(0, lastDot) + ";\n" + body + "\n");
+    }
+
+    private void compile(List<String> classNames, boolean process) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            List<Path> sources = new ArrayList<>();
+            for (String className : classNames) {
+                sources.add(sourceDirectory.resolve(className.replace('.', '/') + ".java"));
+            }
+            List<String> options = List.of("-d", outputDirectory.toString(), "-cp", outputDirectory.toString(),
+                    process ? "-Xlint:none" : "-proc:none");
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null,
+                    fileManager.getJavaFileObjectsFromPaths(sources));
+            if (process) {
+                task.setProcessors(List.of(new EndpointManifestProcessor()));
+            }
+            assertTrue(task.call());
+        }
+    }
+
+    private List<String> readManifest() throws IOException {
+        return Files.readAllLines(outputDirectory.resolve(EndpointManifestProcessor.MANIFEST_LOCATION));
+    }
+}
@@ -1,14 +1,48 @@
 package io.authreporttool.spring;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.authreporttool.core.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * AuthReportConfig is a Spring Configuration class that defines beans for the
@@ -18,6 +52,58 @@ import org.springframework.web.bind.annotation.RequestParam;
 @Configuration
 public class AuthReportConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuthReportConfig.class);
+    // Pretty-printing JSON writer, shared since it is immutable and thread-safe; it writes the generation
+    // time as an ISO-8601 string and leaves closing the stream to the caller
+    private static final ObjectWriter REPORT_WRITER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .writerWithDefaultPrettyPrinter()
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    // Buffer size of the streamed response, bounding the memory a report request holds
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    // Most reports cached at once, one per cacheable package and mode
+    private static final int MAX_CACHED_REPORTS = 32;
+
+    // The running application, read directly in live mode
+    private final ApplicationContext applicationContext;
+    // How the scanner discovers controllers, from the auth-report.scan-mode property
+    private final ScanMode scanMode;
+    // Packages whose reports are cached: the auth-report.base-packages property and the main application package
+    private final Set<String> cacheablePackages = ConcurrentHashMap.newKeySet();
+    // The beans this configuration declares, looked up on first use since they cannot be injected into it
+    private final ObjectProvider<AuthorizationReportCache> reportCacheProvider;
+    private final ObjectProvider<ReportGenerator> reportGeneratorProvider;
+    private final ObjectProvider<LiveContextScanner> liveContextScannerProvider;
+
+    /**
+     * Constructs the configuration for the given application context.
+     *
+     * @param applicationContext The context of the running application.
+     * @param scanMode The configured scan mode, e.g. reflection or manifest.
+     * @param basePackages The comma-separated packages whose reports are cached, besides the main application package.
+     * @param reportCacheProvider The provider of the AuthorizationReportCache bean.
+     * @param reportGeneratorProvider The provider of the ReportGenerator bean.
+     * @param liveContextScannerProvider The provider of the LiveContextScanner bean.
+     */
+    public AuthReportConfig(ApplicationContext applicationContext,
+                            @Value("${auth-report.scan-mode:reflection}") String scanMode,
+                            @Value("${auth-report.base-packages:}") String basePackages,
+                            ObjectProvider<AuthorizationReportCache> reportCacheProvider,
+                            ObjectProvider<ReportGenerator> reportGeneratorProvider,
+                            ObjectProvider<LiveContextScanner> liveContextScannerProvider) {
+        this.applicationContext = applicationContext;
+        this.reportCacheProvider = reportCacheProvider;
+        this.reportGeneratorProvider = reportGeneratorProvider;
+        this.liveContextScannerProvider = liveContextScannerProvider;
+        this.scanMode = ScanMode.valueOf(scanMode.trim().toUpperCase(Locale.ROOT));
+        for (String basePackage : basePackages.split(",")) {
+            if (!basePackage.isBlank()) {
+                cacheablePackages.add(basePackage.trim());
+            }
+        }
+    }
+
     /**
      * Creates and configures a ReflectionUtils bean.
      * ReflectionUtils is used for reflection-based operations in the authorization scanning process.
@@ -30,17 +116,19 @@ public class AuthReportConfig {
     }
 
     /**
-     * Creates and configures a SecurityConfigAnalyzer.
+     * Creates and configures a SecurityConfigAnalyzer bean.
      * SecurityConfigAnalyzer is responsible for analyzing Spring Security configurations.
      *
-     * Note: This method is not annotated with @Bean, which means it won't be managed by Spring.
-     * Consider adding @Bean annotation if you want this to be a Spring-managed bean.
+     * The analyzer only memoizes its analyses by class-file hash, in caches of bounded size, so
+     * this singleton is shared by every scanner and by concurrent report requests. Class files are
+     * read through the application's class loader, which also covers classes nested in an
+     * executable jar.
      *
      * @return A new instance of SecurityConfigAnalyzer.
      */
     @Bean
     public SecurityConfigAnalyzer securityConfigAnalyzer() {
-        return new SecurityConfigAnalyzer();
+        return new SecurityConfigAnalyzer(null, applicationContext.getClassLoader());
     }
 
     /**
@@ -48,12 +136,32 @@ public class AuthReportConfig {
      * AuthorizationScanner is the core component responsible for scanning the application
      * for authorization configurations.
      *
+     * The scan mode is read from the {@code auth-report.scan-mode} property and defaults to a
+     * reflective scan. Setting it to {@code manifest} reads the endpoint manifest written by the
+     * auth-report-processor annotation processor instead; this is opt-in, since a manifest only
+     * lists the controllers compiled with the processor.
+     *
      * @param reflectionUtils The ReflectionUtils bean to be used by the scanner.
+     * @param securityConfigAnalyzer The shared SecurityConfigAnalyzer bean.
      * @return A new instance of AuthorizationScanner.
      */
     @Bean
-    public AuthorizationScanner authorizationScanner(ReflectionUtils reflectionUtils) {
-        return new AuthorizationScanner(reflectionUtils, securityConfigAnalyzer());
+    public AuthorizationScanner authorizationScanner(ReflectionUtils reflectionUtils,
+                                                     SecurityConfigAnalyzer securityConfigAnalyzer) {
+        return new AuthorizationScanner(reflectionUtils, securityConfigAnalyzer, scanMode);
+    }
+
+    /**
+     * Creates and configures a LiveContextScanner bean.
+     * LiveContextScanner reads the endpoints and security filter chains of the running
+     * application from its context, without scanning the classpath.
+     *
+     * @param securityConfigAnalyzer The shared SecurityConfigAnalyzer bean.
+     * @return A new instance of LiveContextScanner.
+     */
+    @Bean
+    public LiveContextScanner liveContextScanner(SecurityConfigAnalyzer securityConfigAnalyzer) {
+        return new LiveContextScanner(applicationContext, securityConfigAnalyzer);
     }
 
     /**
@@ -69,41 +177,287 @@ public class AuthReportConfig {
         return new ReportGenerator(authorizationScanner);
     }
 
+    /**
+     * Creates and configures an AuthorizationReportCache bean.
+     * The cache keeps the generated report per base package and discovery mode, so polling
+     * the report endpoint does not rescan the application.
+     *
+     * @return A new instance of AuthorizationReportCache.
+     */
+    @Bean
+    public AuthorizationReportCache authorizationReportCache() {
+        return new AuthorizationReportCache(MAX_CACHED_REPORTS);
+    }
+
+    /**
+     * Drops every cached report when this application context is refreshed, since the refreshed
+     * context may expose different controllers and security filter chains. Refreshes of child
+     * contexts, which publish their events to this context too, leave the reports in place.
+     *
+     * @param event The context refresh event.
+     */
+    @EventListener
+    public void onContextRefreshed(ContextRefreshedEvent event) {
+        if (event.getApplicationContext() != applicationContext) {
+            logger.debug("Ignoring refresh of another application context: {}", event.getApplicationContext().getId());
+            return;
+        }
+        reportCacheProvider.getObject().invalidateAll();
+    }
+
+    /**
+     * Starts generating the report of the application's main package once the application is ready,
+     * so the first report request after a deployment does not pay for the scan.
+     *
+     * The report is generated on a low-priority daemon thread, leaving startup and request handling
+     * unaffected. Report requests arriving before it finishes wait for this generation.
+     *
+     * @param event The application ready event.
+     */
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        Class<?> mainApplicationClass = event.getSpringApplication().getMainApplicationClass();
+        if (mainApplicationClass == null) {
+            logger.info("No main application class, skipping authorization report precomputation");
+            return;
+        }
+
+        String basePackage = mainApplicationClass.getPackageName();
+        cacheablePackages.add(basePackage);
+        logger.info("Precomputing authorization report for package: " + basePackage);
+        reportCacheProvider.getObject().prefetch(cacheKey(basePackage, false),
+                () -> generateReport(basePackage, false), AuthReportConfig::startPrecomputeThread);
+    }
+
     /**
      * Exposes an endpoint to retrieve the authorization report.
      *
+     * The report is generated once per base package and mode and served from the cache until the
+     * context is refreshed or the refresh endpoint is called. Concurrent requests for a report
+     * that is not cached yet share a single generation. Only the reports of the main application
+     * package and of the packages listed in {@code auth-report.base-packages} are cached, so
+     * requests cannot grow the cache; reports of other packages are generated for each request.
+     *
+     * In live mode the endpoints are read from the running application's handler mappings and
+     * filter chains instead of being discovered by scanning the classpath.
+     *
+     * Every response carries a weak ETag computed from the rendered report without its generation
+     * timestamp, so a regenerated report with the same endpoints and rules keeps its ETag; it is
+     * weak because the bodies it stands for differ in that timestamp. A request whose
+     * If-None-Match header matches it is answered with 304 Not Modified and no body; the ETag is
+     * computed once per cached report and format, so such requests neither scan nor serialize.
+     *
+     * The report is streamed into the response rather than rendered into a String first, so the
+     * memory a request needs does not grow with the size of the report. Clients accepting gzip
+     * receive a gzip-compressed body.
+     *
      * @param basePackage The base package to scan for authorization configurations.
      * @param format The desired output format (text or json).
+     * @param mode How endpoints are discovered (scan or live).
+     * @param ifNoneMatch The ETags the client already holds, or null.
+     * @param acceptEncoding The content codings the client accepts, or null.
      * @return The authorization report as a ResponseEntity.
      */
     @GetMapping("/api/auth-report")
-    public ResponseEntity<String> getAuthorizationReport(
+    public ResponseEntity<StreamingResponseBody> getAuthorizationReport(
             @RequestParam String basePackage,
-            @RequestParam(defaultValue = "json") String format) {
-
-        ReportGenerator generator = reportGenerator(authorizationScanner(reflectionUtils()));
-        AuthorizationReport report = generator.generateReport(basePackage);
-
-        String reportContent;
-        String contentType;
-
-        if ("json".equalsIgnoreCase(format)) {
-            // Use Jackson ObjectMapper for JSON serialization
-            ObjectMapper mapper = new ObjectMapper();
-            try {
-                reportContent = mapper.writerWithDefaultPrettyPrinter().writeValueAsString(report);
-                contentType = "application/json";
-            } catch (JsonProcessingException e) {
-                return ResponseEntity.internalServerError().body("Error generating JSON report");
-            }
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(defaultValue = "scan") String mode,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        AuthorizationReportCache reportCache = reportCacheProvider.getObject();
+        boolean live = "live".equalsIgnoreCase(mode);
+        AuthorizationReportCache.CachedReport cachedReport;
+        try {
+            Supplier<AuthorizationReport> generation = () -> generateReport(basePackage, live);
+            cachedReport = isCacheable(basePackage)
+                    ? reportCache.get(cacheKey(basePackage, live), generation)
+                    : reportCache.generateUncached(generation);
+        } catch (CompletionException e) {
+            logger.error("Error generating authorization report for package: " + basePackage, e.getCause());
+            return ResponseEntity.internalServerError().body(errorBody("Error generating report"));
+        }
+
+        boolean json = "json".equalsIgnoreCase(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String eTag;
+        try {
+            // Rendering the endpoints once for the hash surfaces their serialization errors before the response is committed
+            String contentHash = cachedReport.getContentHash(json ? "json" : "text",
+                    report -> contentHash(report, json, reportGeneratorProvider.getObject()));
+            // Each content coding is a different representation and needs its own ETag
+            eTag = "W/\"" + contentHash + (gzip ? "-gzip" : "") + "\"";
+        } catch (UncheckedIOException e) {
+            logger.error("Error rendering authorization report for package: " + basePackage, e.getCause());
+            return ResponseEntity.internalServerError().body(errorBody("Error generating JSON report"));
+        }
+
+        if (ifNoneMatch != null && eTagMatches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        AuthorizationReport report = cachedReport.getReport();
+        ReportGenerator generator = reportGeneratorProvider.getObject();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(json ? "application/json" : "text/plain;charset=UTF-8"))
+                .eTag(eTag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!gzip) {
+            return response.body(out -> writeReport(report, json, generator, out));
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(out -> {
+            GZIPOutputStream gzipOut = new GZIPOutputStream(out, STREAM_BUFFER_SIZE);
+            writeReport(report, json, generator, gzipOut);
+            gzipOut.finish();
+        });
+    }
+
+    /**
+     * Exposes an endpoint to drop cached reports, so the next report request rescans the application.
+     *
+     * @param basePackage The base package whose reports are dropped, or null to drop every report.
+     * @return An empty response once the reports are dropped.
+     */
+    @PostMapping("/api/auth-report/refresh")
+    public ResponseEntity<Void> refreshAuthorizationReport(@RequestParam(required = false) String basePackage) {
+        AuthorizationReportCache reportCache = reportCacheProvider.getObject();
+        if (basePackage == null) {
+            reportCache.invalidateAll();
         } else {
-            reportContent = generator.generateDetailedReportString(report);
-            contentType = "text/plain";
+            reportCache.invalidate(cacheKey(basePackage, false));
+            reportCache.invalidate(cacheKey(basePackage, true));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Checks whether the reports of a package are cached.
+     *
+     * @param basePackage The requested base package.
+     * @return true for the main application package and the configured packages.
+     */
+    boolean isCacheable(String basePackage) {
+        return cacheablePackages.contains(basePackage);
+    }
+
+    private AuthorizationReport generateReport(String basePackage, boolean live) {
+        ReportGenerator generator = reportGeneratorProvider.getObject();
+        if (live) {
+            return generator.generateReport(liveContextScannerProvider.getObject().scanApi(basePackage));
+        }
+        return generator.generateReport(basePackage);
+    }
+
+    private static void startPrecomputeThread(Runnable task) {
+        Thread thread = new Thread(task, "auth-report-precompute");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Writes the report in the requested format to a stream, without materializing the whole rendering.
+     */
+    static void writeReport(AuthorizationReport report, boolean json, ReportGenerator generator,
+                            OutputStream out) throws IOException {
+        if (json) {
+            REPORT_WRITER.writeValue(out, report);
+            return;
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), STREAM_BUFFER_SIZE);
+        generator.writeDetailedReport(report, writer);
+        writer.flush();
+    }
+
+    /**
+     * Computes the hex-encoded SHA-256 hash of the uncompressed report by streaming it into a digest.
+     * The generation timestamp is left out, so a report regenerated from unchanged endpoints and
+     * security rules keeps its weak ETag.
+     */
+    static String contentHash(AuthorizationReport report, boolean json, ReportGenerator generator) {
+        AuthorizationReport untimed = new AuthorizationReport(report.getGroupedEndpoints(), null);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            writeReport(untimed, json, generator, new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
+    }
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .body(reportContent);
+    private static StreamingResponseBody errorBody(String message) {
+        return out -> out.write(message.getBytes(StandardCharsets.UTF_8));
     }
 
-}
\ No newline at end of file
+    /**
+     * Checks whether an Accept-Encoding header allows gzip, honouring "q=0" exclusions. An explicitly
+     * listed gzip or x-gzip coding takes precedence over "*", as RFC 9110 prescribes.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+                gzipQuality = Math.max((gzipQuality != null) ? gzipQuality : 0, quality(parts));
+            } else if (name.equals("*")) {
+                anyQuality = quality(parts);
+            }
+        }
+        Double quality = (gzipQuality != null) ? gzipQuality : anyQuality;
+        return quality != null && quality > 0;
+    }
+
+    /**
+     * Reads the quality value of a content coding split at its semicolons, 1 if it has none and 0 if it is malformed.
+     */
+    private static double quality(String[] parts) {
+        double quality = 1;
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    quality = Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    quality = 0;
+                }
+            }
+        }
+        return quality;
+    }
+
+    /**
+     * Checks an If-None-Match header against an ETag, using the weak comparison RFC 9110 prescribes for it.
+     */
+    static boolean eTagMatches(String ifNoneMatch, String eTag) {
+        String opaqueTag = opaqueTag(eTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || opaqueTag(candidate).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Strips the weakness indicator from an entity tag, leaving its quoted opaque tag.
+     */
+    private static String opaqueTag(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    private static String cacheKey(String basePackage, boolean live) {
+        return (live ? "live:" : "scan:") + basePackage;
+    }
+}
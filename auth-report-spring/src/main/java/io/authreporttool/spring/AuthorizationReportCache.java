@@ -0,0 +1,173 @@
+package io.authreporttool.spring;
+
+import io.authreporttool.core.AuthorizationReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The AuthorizationReportCache class keeps the last generated authorization report per key, for
+ * example per base package, so polling the report endpoint does not rescan the application.
+ *
+ * Generation is single-flight: the first caller for a key computes the report, and concurrent
+ * callers for the same key wait for that computation instead of starting their own. A report can
+ * also be prefetched in the background, in which case early callers wait for the background
+ * generation. A failed computation is not cached, so the next caller tries again. Reports stay
+ * cached until the cache is invalidated, which AuthReportConfig does whenever the application
+ * context is refreshed.
+ *
+ * The cache holds a bounded number of keys. Once it is full, reports for new keys are generated
+ * for their caller without being cached.
+ *
+ * The cache is thread-safe.
+ */
+public class AuthorizationReportCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthorizationReportCache.class);
+
+    // Completed or in-flight reports per key
+    private final Map<String, CompletableFuture<CachedReport>> reports = new ConcurrentHashMap<>();
+    // Most keys cached at once; concurrent misses may briefly exceed it by the number of callers
+    private final int maxEntries;
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param maxEntries The maximum number of keys whose reports are cached.
+     */
+    public AuthorizationReportCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the cached report for a key, generating it if no report is cached or in flight. If
+     * the cache is full, the report is generated without being cached.
+     *
+     * @param key The cache key, e.g. the base package and discovery mode.
+     * @param generator Generates the report on a cache miss; runs on the calling thread.
+     * @return The cached or newly generated report, with its memoized content hashes.
+     * @throws CompletionException If the generation this caller waited for failed.
+     */
+    public CachedReport get(String key, Supplier<AuthorizationReport> generator) {
+        CompletableFuture<CachedReport> report = reports.get(key);
+        if (report == null && reports.size() >= maxEntries) {
+            logger.debug("Authorization report cache is full, not caching: {}", key);
+            return generateUncached(generator);
+        }
+        if (report == null) {
+            CompletableFuture<CachedReport> created = new CompletableFuture<>();
+            report = reports.putIfAbsent(key, created);
+            if (report == null) {
+                report = created;
+                generate(key, created, generator);
+            }
+        }
+        return report.join();
+    }
+
+    /**
+     * Starts generating the report for a key in the background, unless a report is already cached
+     * or in flight, or the cache is full. The pending report is registered before this method
+     * returns, so callers of {@link #get} arriving before the generation finishes wait for it
+     * instead of starting their own.
+     *
+     * @param key The cache key, e.g. the base package and discovery mode.
+     * @param generator Generates the report.
+     * @param executor The executor on which the report is generated.
+     */
+    public void prefetch(String key, Supplier<AuthorizationReport> generator, Executor executor) {
+        if (reports.size() >= maxEntries) {
+            return;
+        }
+        CompletableFuture<CachedReport> created = new CompletableFuture<>();
+        if (reports.putIfAbsent(key, created) == null) {
+            try {
+                executor.execute(() -> generate(key, created, generator));
+            } catch (RuntimeException e) {
+                // Never leave waiting callers behind a generation that will not run
+                reports.remove(key, created);
+                created.completeExceptionally(e);
+                logger.warn("Could not start background report generation: {}", key, e);
+            }
+        }
+    }
+
+    /**
+     * Generates a report for a single caller, without caching it.
+     *
+     * @param generator Generates the report; runs on the calling thread.
+     * @return The newly generated report, with its memoized content hashes.
+     * @throws CompletionException If the generation failed, as for {@link #get}.
+     */
+    public CachedReport generateUncached(Supplier<AuthorizationReport> generator) {
+        try {
+            return new CachedReport(generator.get());
+        } catch (RuntimeException | Error e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private void generate(String key, CompletableFuture<CachedReport> report, Supplier<AuthorizationReport> generator) {
+        logger.info("Generating cached authorization report: {}", key);
+        try {
+            report.complete(new CachedReport(generator.get()));
+        } catch (RuntimeException | Error e) {
+            // Let the next caller retry instead of caching the failure
+            reports.remove(key, report);
+            report.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Drops the cached report for a key. A generation already in flight still completes for the
+     * callers waiting on it, but later callers generate a fresh report.
+     *
+     * @param key The cache key.
+     */
+    public void invalidate(String key) {
+        reports.remove(key);
+    }
+
+    /**
+     * Drops every cached report.
+     */
+    public void invalidateAll() {
+        logger.info("Invalidating {} cached authorization reports", reports.size());
+        reports.clear();
+    }
+
+    /**
+     * A cached report together with the content hashes of its renderings, each computed once per format.
+     */
+    public static final class CachedReport {
+        private final AuthorizationReport report;
+        // Content hash per output format, from which the ETags are derived
+        private final Map<String, String> contentHashes = new ConcurrentHashMap<>();
+
+        CachedReport(AuthorizationReport report) {
+            this.report = report;
+        }
+
+        public AuthorizationReport getReport() {
+            return report;
+        }
+
+        /**
+         * Returns the content hash of the report rendered in a format, computing it on the first request.
+         *
+         * @param format The output format, e.g. "json" or "text".
+         * @param hashFunction Computes the hash of the report rendered in that format.
+         * @return The hash of the rendered report.
+         */
+        public String getContentHash(String format, Function<AuthorizationReport, String> hashFunction) {
+            return contentHashes.computeIfAbsent(format, key -> hashFunction.apply(report));
+        }
+    }
+}
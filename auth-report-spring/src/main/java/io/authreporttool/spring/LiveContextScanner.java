@@ -0,0 +1,281 @@
+package io.authreporttool.spring;
+
+import io.authreporttool.core.ClassBytesPool;
+import io.authreporttool.core.EndpointAuthInfo;
+import io.authreporttool.core.SecurityAnnotationResolver;
+import io.authreporttool.core.SecurityChainAnalysis;
+import io.authreporttool.core.SecurityConfigAnalyzer;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The LiveContextScanner class reads the endpoints and security filter chains of the running
+ * application straight from its ApplicationContext, instead of rediscovering them by classpath
+ * scanning.
+ *
+ * Endpoints are taken from the registrations of every RequestMappingHandlerMapping, so paths,
+ * path prefixes and HTTP methods are exactly those Spring MVC dispatches on. The security filter
+ * chains are those registered with the FilterChainProxy. Basic authentication, session management
+ * and the custom filters of a chain are read from the filters it holds; only its URL rules, which
+ * the built chain does not expose, are analyzed by the shared SecurityConfigAnalyzer from the
+ * @Bean method that built it.
+ *
+ * Like the FilterChainProxy, each endpoint is secured by the first chain, in the proxy's order,
+ * whose request matcher matches it. The live chain is asked directly, with a request for the
+ * endpoint's path and HTTP method, so chain order and security matchers are exactly those the
+ * running application dispatches on. A chain whose matcher cannot handle that synthetic request
+ * falls back to the security matcher read from its bean method.
+ *
+ * The scanner holds no state besides its @PreAuthorize resolver cache and is thread-safe.
+ */
+public class LiveContextScanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveContextScanner.class);
+
+    // HTTP method reported when a mapping does not restrict the method
+    private static final String DEFAULT_HTTP_METHOD = "GET";
+
+    private final ApplicationContext applicationContext;
+    private final SecurityConfigAnalyzer securityConfigAnalyzer;
+    private final SecurityAnnotationResolver securityResolver = new SecurityAnnotationResolver();
+
+    /**
+     * Constructs a LiveContextScanner over a running application context.
+     *
+     * @param applicationContext The context whose handler mappings and filter chains are read.
+     * @param securityConfigAnalyzer The analyzer of the SecurityFilterChain bean methods.
+     */
+    public LiveContextScanner(ApplicationContext applicationContext, SecurityConfigAnalyzer securityConfigAnalyzer) {
+        this.applicationContext = applicationContext;
+        this.securityConfigAnalyzer = securityConfigAnalyzer;
+    }
+
+    /**
+     * Collects the endpoints of the handlers declared in a base package, together with the
+     * authorization details of the registered security filter chains.
+     *
+     * @param basePackage The base package of the controllers to report on.
+     * @return A list of EndpointAuthInfo containing authentication details for each endpoint.
+     */
+    public List<EndpointAuthInfo> scanApi(String basePackage) {
+        List<EndpointAuthInfo> authInfoList = new ArrayList<>();
+
+        try {
+            for (RequestMappingHandlerMapping handlerMapping : applicationContext.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+                for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMapping.getHandlerMethods().entrySet()) {
+                    HandlerMethod handlerMethod = entry.getValue();
+                    if (isInPackage(handlerMethod.getBeanType(), basePackage)) {
+                        authInfoList.addAll(toEndpoints(entry.getKey(), handlerMethod));
+                    }
+                }
+            }
+            // Registration order depends on bean creation, so sort to keep reports stable
+            authInfoList.sort(Comparator.comparing(EndpointAuthInfo::getClassName)
+                    .thenComparing(EndpointAuthInfo::getMethodName)
+                    .thenComparing(EndpointAuthInfo::getPath)
+                    .thenComparing(EndpointAuthInfo::getHttpMethod));
+            logger.info("live endpoints: {}", authInfoList.size());
+
+            List<LiveChain> chains = analyzeFilterChains();
+            for (EndpointAuthInfo authInfo : authInfoList) {
+                HttpServletRequest request = endpointRequest(authInfo);
+                for (LiveChain chain : chains) {
+                    if (chain.matches(request, authInfo)) {
+                        chain.analysis.secure(authInfo);
+                        break;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error occurred while reading the application context", e);
+        }
+
+        return authInfoList;
+    }
+
+    private List<EndpointAuthInfo> toEndpoints(RequestMappingInfo mappingInfo, HandlerMethod handlerMethod) {
+        Method method = handlerMethod.getMethod();
+        String authExpression = securityResolver.resolve(method);
+        if (authExpression == null) {
+            authExpression = "None";
+        }
+
+        Set<String> httpMethods = new TreeSet<>();
+        for (RequestMethod requestMethod : mappingInfo.getMethodsCondition().getMethods()) {
+            httpMethods.add(requestMethod.name());
+        }
+        if (httpMethods.isEmpty()) {
+            httpMethods.add(DEFAULT_HTTP_METHOD);
+        }
+
+        List<EndpointAuthInfo> endpoints = new ArrayList<>();
+        for (String path : new TreeSet<>(mappingInfo.getPatternValues())) {
+            for (String httpMethod : httpMethods) {
+                endpoints.add(new EndpointAuthInfo(path, httpMethod, authExpression, method.getName(),
+                        handlerMethod.getBeanType().getName()));
+            }
+        }
+        return endpoints;
+    }
+
+    /**
+     * Analyzes the SecurityFilterChain beans registered with a FilterChainProxy, in the order the
+     * proxy tries them. Chain beans that no FilterChainProxy serves do not secure any request and
+     * are skipped, as are registered chains that are not beans.
+     *
+     * @return The registered chains with their analyses, in dispatch order.
+     */
+    private List<LiveChain> analyzeFilterChains() {
+        if (!(applicationContext instanceof ConfigurableApplicationContext)) {
+            logger.warn("Application context exposes no bean definitions, skipping security filter chains");
+            return Collections.emptyList();
+        }
+        ConfigurableListableBeanFactory beanFactory = ((ConfigurableApplicationContext) applicationContext).getBeanFactory();
+
+        Map<SecurityFilterChain, String> chainBeanNames = new IdentityHashMap<>();
+        for (Map.Entry<String, SecurityFilterChain> chainBean : applicationContext.getBeansOfType(SecurityFilterChain.class).entrySet()) {
+            chainBeanNames.put(chainBean.getValue(), chainBean.getKey());
+        }
+
+        // The chains share one pool, so each configuration and filter class file is read only once
+        ClassBytesPool classBytesPool = new ClassBytesPool();
+        List<LiveChain> chains = new ArrayList<>();
+        for (FilterChainProxy filterChainProxy : applicationContext.getBeansOfType(FilterChainProxy.class).values()) {
+            for (SecurityFilterChain chain : filterChainProxy.getFilterChains()) {
+                String beanName = chainBeanNames.get(chain);
+                if (beanName == null || !beanFactory.containsBeanDefinition(beanName)) {
+                    logger.debug("SecurityFilterChain {} is not a bean, skipping", chain);
+                    continue;
+                }
+                BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+                MethodMetadata factoryMethod = (definition instanceof AnnotatedBeanDefinition)
+                        ? ((AnnotatedBeanDefinition) definition).getFactoryMethodMetadata() : null;
+                if (factoryMethod == null) {
+                    logger.warn("SecurityFilterChain bean {} is not declared by a @Bean method, skipping", beanName);
+                    continue;
+                }
+
+                chains.add(new LiveChain(chain, securityConfigAnalyzer.analyzeSecurityFilterChain(
+                        factoryMethod.getDeclaringClassName(), factoryMethod.getMethodName(), chain.getFilters(),
+                        classBytesPool)));
+            }
+        }
+        return chains;
+    }
+
+    /**
+     * Builds a request for an endpoint, carrying its path and HTTP method, for request matchers to
+     * match against. The request has no context path, parameters or headers, and keeps the
+     * attributes matchers set on it.
+     */
+    static HttpServletRequest endpointRequest(EndpointAuthInfo authInfo) {
+        Map<Object, Object> attributes = new HashMap<>();
+        return (HttpServletRequest) Proxy.newProxyInstance(HttpServletRequest.class.getClassLoader(),
+                new Class<?>[] {HttpServletRequest.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getRequestURI":
+                        case "getServletPath":
+                            return authInfo.getPath();
+                        case "getRequestURL":
+                            return new StringBuffer(authInfo.getPath());
+                        case "getMethod":
+                            return authInfo.getHttpMethod();
+                        case "getContextPath":
+                            return "";
+                        case "getDispatcherType":
+                            return DispatcherType.REQUEST;
+                        case "getAttribute":
+                            return attributes.get(args[0]);
+                        case "setAttribute":
+                            attributes.put(args[0], args[1]);
+                            return null;
+                        case "removeAttribute":
+                            attributes.remove(args[0]);
+                            return null;
+                        case "getAttributeNames":
+                        case "getHeaderNames":
+                        case "getHeaders":
+                        case "getParameterNames":
+                            return Collections.emptyEnumeration();
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return authInfo.getHttpMethod() + " " + authInfo.getPath();
+                        default:
+                            return defaultValue(method.getReturnType());
+                    }
+                });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+
+    private static boolean isInPackage(Class<?> type, String basePackage) {
+        String packageName = type.getPackageName();
+        return packageName.equals(basePackage) || packageName.startsWith(basePackage + ".");
+    }
+
+    /**
+     * A security filter chain of the running application together with the analysis of its bean method.
+     */
+    private static final class LiveChain {
+        private final SecurityFilterChain chain;
+        private final SecurityChainAnalysis analysis;
+
+        LiveChain(SecurityFilterChain chain, SecurityChainAnalysis analysis) {
+            this.chain = chain;
+            this.analysis = analysis;
+        }
+
+        /**
+         * Asks the chain whether it handles the request of an endpoint. If the matcher cannot
+         * handle the synthetic request, e.g. an MvcRequestMatcher needing the servlet context,
+         * the security matcher analyzed from the chain's bean method decides instead.
+         */
+        boolean matches(HttpServletRequest request, EndpointAuthInfo authInfo) {
+            try {
+                return chain.matches(request);
+            } catch (RuntimeException e) {
+                logger.debug("Request matcher of chain {} failed on {}, using its analyzed security matcher",
+                        analysis.getChainName(), request, e);
+                return analysis.matches(authInfo.getPath());
+            }
+        }
+    }
+}
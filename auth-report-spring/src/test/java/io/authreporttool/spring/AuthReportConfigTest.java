@@ -0,0 +1,185 @@
+package io.authreporttool.spring;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.authreporttool.core.AuthorizationGroup;
+import io.authreporttool.core.AuthorizationReport;
+import io.authreporttool.core.EndpointAuthInfo;
+import io.authreporttool.core.ReportGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthReportConfigTest {
+
+    private final AtomicInteger generations = new AtomicInteger();
+
+    private final Supplier<AuthorizationReport> generator = () -> {
+        generations.incrementAndGet();
+        return new AuthorizationReport(List.of(), LocalDateTime.of(2024, 1, 1, 0, 0));
+    };
+
+    /**
+     * Returns the configuration with the given cache and a report generator without scanner, which
+     * renders reports but cannot generate them.
+     */
+    private static AuthReportConfig config(ApplicationContext context, String basePackages, AuthorizationReportCache cache) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of(
+                "authorizationReportCache", cache,
+                "reportGenerator", new ReportGenerator(null)));
+        return new AuthReportConfig(context, "reflection", basePackages,
+                beans.getBeanProvider(AuthorizationReportCache.class),
+                beans.getBeanProvider(ReportGenerator.class),
+                beans.getBeanProvider(LiveContextScanner.class));
+    }
+
+    @Test
+    void onlyConfiguredPackagesAreCacheable() {
+        AuthReportConfig config = config(new GenericApplicationContext(), " com.example , com.other,", new AuthorizationReportCache(4));
+
+        assertTrue(config.isCacheable("com.example"));
+        assertTrue(config.isCacheable("com.other"));
+        assertFalse(config.isCacheable("com.example.api"));
+        assertFalse(config.isCacheable(""));
+    }
+
+    @Test
+    void childContextRefreshKeepsReports() {
+        GenericApplicationContext context = new GenericApplicationContext();
+        AuthorizationReportCache cache = new AuthorizationReportCache(4);
+        AuthReportConfig config = config(context, "", cache);
+        cache.get("scan:com.example", generator);
+
+        config.onContextRefreshed(new ContextRefreshedEvent(new GenericApplicationContext()));
+        cache.get("scan:com.example", generator);
+        assertEquals(1, generations.get());
+
+        config.onContextRefreshed(new ContextRefreshedEvent(context));
+        cache.get("scan:com.example", generator);
+        assertEquals(2, generations.get());
+    }
+
+    @Test
+    void contentHashIgnoresGenerationTime() {
+        ReportGenerator generator = new ReportGenerator(null);
+        AuthorizationReport morning = report("/api/items", LocalDateTime.of(2024, 1, 1, 8, 0));
+        AuthorizationReport evening = report("/api/items", LocalDateTime.of(2024, 1, 1, 20, 0));
+
+        assertEquals(AuthReportConfig.contentHash(morning, false, generator), AuthReportConfig.contentHash(evening, false, generator));
+        assertEquals(AuthReportConfig.contentHash(morning, true, generator), AuthReportConfig.contentHash(evening, true, generator));
+        assertNotEquals(AuthReportConfig.contentHash(morning, false, generator), AuthReportConfig.contentHash(morning, true, generator));
+        assertNotEquals(AuthReportConfig.contentHash(morning, true, generator),
+                AuthReportConfig.contentHash(report("/api/orders", LocalDateTime.of(2024, 1, 1, 8, 0)), true, generator));
+    }
+
+    @Test
+    void jsonReportIsStreamedWithItsGenerationTime() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AuthReportConfig.writeReport(report("/api/items", LocalDateTime.of(2024, 1, 1, 8, 30, 15)), true,
+                new ReportGenerator(null), out);
+
+        JsonNode json = new ObjectMapper().readTree(out.toByteArray());
+        assertEquals("2024-01-01T08:30:15", json.get("generatedAt").asText());
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("/api/items"));
+    }
+
+    @Test
+    void reportEndpointRevalidatesWithAWeakETag() throws IOException {
+        AuthorizationReportCache cache = new AuthorizationReportCache(4);
+        AuthReportConfig config = config(new GenericApplicationContext(), "com.example", cache);
+        cache.get("scan:com.example", () -> report("/api/items", LocalDateTime.of(2024, 1, 1, 8, 0)));
+
+        ResponseEntity<StreamingResponseBody> response = config.getAuthorizationReport("com.example", "json", "scan", null, null);
+        String eTag = response.getHeaders().getETag();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(eTag.startsWith("W/\""), eTag);
+        assertEquals(List.of(HttpHeaders.ACCEPT_ENCODING), response.getHeaders().getVary());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("/api/items"));
+
+        ResponseEntity<StreamingResponseBody> notModified = config.getAuthorizationReport("com.example", "json", "scan", eTag, null);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertNull(notModified.getBody());
+        assertEquals(eTag, notModified.getHeaders().getETag());
+        assertEquals(List.of(HttpHeaders.ACCEPT_ENCODING), notModified.getHeaders().getVary());
+
+        // The gzip representation has its own ETag, so the identity one does not revalidate it
+        ResponseEntity<StreamingResponseBody> gzip = config.getAuthorizationReport("com.example", "json", "scan", eTag, "gzip");
+        assertEquals(HttpStatus.OK, gzip.getStatusCode());
+        assertEquals("gzip", gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertNotEquals(eTag, gzip.getHeaders().getETag());
+        out.reset();
+        gzip.getBody().writeTo(out);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertTrue(new String(in.readAllBytes(), StandardCharsets.UTF_8).contains("/api/items"));
+        }
+        assertEquals(HttpStatus.NOT_MODIFIED,
+                config.getAuthorizationReport("com.example", "json", "scan", gzip.getHeaders().getETag(), "gzip").getStatusCode());
+    }
+
+    @Test
+    void ifNoneMatchUsesWeakComparison() {
+        assertTrue(AuthReportConfig.eTagMatches("\"abc\"", "\"abc\""));
+        assertTrue(AuthReportConfig.eTagMatches("\"old\", \"abc\"", "\"abc\""));
+        assertTrue(AuthReportConfig.eTagMatches("W/\"abc\"", "\"abc\""));
+        assertTrue(AuthReportConfig.eTagMatches("*", "\"abc\""));
+        assertTrue(AuthReportConfig.eTagMatches("\"old\",W/\"abc-gzip\"", "\"abc-gzip\""));
+        assertFalse(AuthReportConfig.eTagMatches("\"old\", \"other\"", "\"abc\""));
+        // The gzip and identity representations have distinct ETags
+        assertFalse(AuthReportConfig.eTagMatches("\"abc\"", "\"abc-gzip\""));
+        assertFalse(AuthReportConfig.eTagMatches("\"abc-gzip\"", "\"abc\""));
+        assertFalse(AuthReportConfig.eTagMatches("abc", "\"abc\""));
+        // The report's own ETags are weak and compare equal to their strong form
+        assertTrue(AuthReportConfig.eTagMatches("W/\"abc\"", "W/\"abc\""));
+        assertTrue(AuthReportConfig.eTagMatches("\"abc\"", "W/\"abc\""));
+        assertFalse(AuthReportConfig.eTagMatches("W/\"abc\"", "W/\"abc-gzip\""));
+    }
+
+    @Test
+    void gzipIsNegotiatedFromAcceptEncoding() {
+        assertFalse(AuthReportConfig.acceptsGzip(null));
+        assertFalse(AuthReportConfig.acceptsGzip(""));
+        assertFalse(AuthReportConfig.acceptsGzip("br, deflate"));
+        assertTrue(AuthReportConfig.acceptsGzip("gzip"));
+        assertTrue(AuthReportConfig.acceptsGzip("deflate, GZIP;q=0.8"));
+        assertTrue(AuthReportConfig.acceptsGzip("x-gzip"));
+        assertTrue(AuthReportConfig.acceptsGzip("br;q=1.0, *;q=0.1"));
+        assertFalse(AuthReportConfig.acceptsGzip("gzip;q=0"));
+        assertFalse(AuthReportConfig.acceptsGzip("gzip; q=0.000, br"));
+        assertFalse(AuthReportConfig.acceptsGzip("gzip;q=high"));
+        // An explicitly excluded gzip is not accepted again through the wildcard
+        assertFalse(AuthReportConfig.acceptsGzip("gzip;q=0, *"));
+        assertFalse(AuthReportConfig.acceptsGzip("*, x-gzip;q=0"));
+        assertTrue(AuthReportConfig.acceptsGzip("gzip;q=0.5, *;q=0"));
+        assertFalse(AuthReportConfig.acceptsGzip("br, *;q=0"));
+    }
+
+    private static AuthorizationReport report(String path, LocalDateTime generatedAt) {
+        EndpointAuthInfo endpoint = new EndpointAuthInfo(path, "GET", "hasRole('USER')", "list", "com.example.ItemController");
+        return new AuthorizationReport(List.of(new AuthorizationGroup("hasRole('USER')", List.of(endpoint))), generatedAt);
+    }
+}
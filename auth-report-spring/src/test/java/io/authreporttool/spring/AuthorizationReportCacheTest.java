@@ -0,0 +1,161 @@
+package io.authreporttool.spring;
+
+import io.authreporttool.core.AuthorizationReport;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthorizationReportCacheTest {
+
+    private final AtomicInteger generations = new AtomicInteger();
+
+    private final Supplier<AuthorizationReport> generator = () -> {
+        generations.incrementAndGet();
+        return new AuthorizationReport(List.of(), LocalDateTime.of(2024, 1, 1, 0, 0));
+    };
+
+    @Test
+    void reportIsGeneratedOncePerKey() {
+        AuthorizationReportCache cache = new AuthorizationReportCache(4);
+
+        AuthorizationReportCache.CachedReport first = cache.get("scan:com.example", generator);
+        assertSame(first, cache.get("scan:com.example", generator));
+        assertEquals(1, generations.get());
+
+        cache.invalidate("scan:com.example");
+        cache.get("scan:com.example", generator);
+        assertEquals(2, generations.get());
+    }
+
+    @Test
+    void fullCacheGeneratesWithoutCaching() {
+        AuthorizationReportCache cache = new AuthorizationReportCache(1);
+        cache.get("scan:com.example", generator);
+
+        cache.get("scan:com.other", generator);
+        cache.get("scan:com.other", generator);
+        assertEquals(3, generations.get());
+
+        // Keys cached before the cache filled up are still served from it
+        cache.get("scan:com.example", generator);
+        assertEquals(3, generations.get());
+    }
+
+    @Test
+    void failedGenerationIsNotCached() {
+        AuthorizationReportCache cache = new AuthorizationReportCache(4);
+
+        assertThrows(CompletionException.class, () -> cache.get("scan:com.example", () -> {
+            throw new IllegalStateException("scan failed");
+        }));
+        assertThrows(CompletionException.class, () -> cache.generateUncached(() -> {
+            throw new IllegalStateException("scan failed");
+        }));
+        cache.get("scan:com.example", generator);
+        assertEquals(1, generations.get());
+    }
+
+    @Test
+    void concurrentCallersShareOneGeneration() throws Exception {
+        int callers = 8;
+        AuthorizationReportCache cache = new AuthorizationReportCache(4);
+        CountDownLatch calling = new CountDownLatch(callers);
+        CountDownLatch generating = new CountDownLatch(1);
+        Supplier<AuthorizationReport> blockingGenerator = () -> {
+            generating.countDown();
+            try {
+                // Hold the generation until every caller has asked for the report
+                assertTrue(calling.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return generator.get();
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<AuthorizationReportCache.CachedReport>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    calling.countDown();
+                    return cache.get("scan:com.example", blockingGenerator);
+                }));
+            }
+
+            assertTrue(generating.await(10, TimeUnit.SECONDS));
+            AuthorizationReportCache.CachedReport first = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<AuthorizationReportCache.CachedReport> result : results) {
+                assertSame(first, result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, generations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void callersWaitForAPrefetchInsteadOfGeneratingAgain() throws Exception {
+        AuthorizationReportCache cache = new AuthorizationReportCache(4);
+        List<Runnable> backgroundTasks = new ArrayList<>();
+        AtomicInteger callerGenerations = new AtomicInteger();
+
+        // The background task has not run yet when prefetch returns, but its report is already registered
+        cache.prefetch("scan:com.example", generator, backgroundTasks::add);
+        assertEquals(1, backgroundTasks.size());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<AuthorizationReportCache.CachedReport> waiting = executor.submit(() -> cache.get("scan:com.example", () -> {
+                callerGenerations.incrementAndGet();
+                return generator.get();
+            }));
+            Thread.sleep(100);
+            assertFalse(waiting.isDone());
+
+            backgroundTasks.get(0).run();
+            assertSame(cache.get("scan:com.example", generator), waiting.get(10, TimeUnit.SECONDS));
+            assertEquals(1, generations.get());
+            assertEquals(0, callerGenerations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // A report already cached or in flight is not prefetched again
+        cache.prefetch("scan:com.example", generator, backgroundTasks::add);
+        assertEquals(1, backgroundTasks.size());
+    }
+
+    @Test
+    void failedPrefetchLetsTheNextCallerRetry() {
+        AuthorizationReportCache cache = new AuthorizationReportCache(4);
+
+        cache.prefetch("scan:com.example", () -> {
+            throw new IllegalStateException("scan failed");
+        }, Runnable::run);
+        cache.get("scan:com.example", generator);
+        assertEquals(1, generations.get());
+
+        cache.prefetch("scan:com.other", generator, task -> {
+            throw new RejectedExecutionException("executor shut down");
+        });
+        cache.get("scan:com.other", generator);
+        assertEquals(2, generations.get());
+    }
+}
@@ -0,0 +1,225 @@
+package io.authreporttool.spring;
+
+import io.authreporttool.core.EndpointAuthInfo;
+import io.authreporttool.core.SecurityConfigAnalyzer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.web.DefaultSecurityFilterChain;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.servlet.util.matcher.MvcRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.AnyRequestMatcher;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.GenericWebApplicationContext;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.handler.HandlerMappingIntrospector;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LiveContextScannerTest {
+
+    @RestController
+    public static class ItemController {
+        @GetMapping("/admin/users")
+        public String users() {
+            return "users";
+        }
+
+        @GetMapping("/items")
+        public String items() {
+            return "items";
+        }
+    }
+
+    /**
+     * Stands in for the HttpSecurity DSL: the analyzer reads these calls by name from the bytecode
+     * of the chain methods, while each chain is built directly around its request matcher.
+     */
+    static final class Rules {
+        static void requestMatchers(String... patterns) {
+        }
+
+        static void hasRole(String role) {
+        }
+
+        static void authenticated() {
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class ChainConfig {
+        // Declared first, but ordered after the admin chain
+        @Bean
+        @Order(2)
+        SecurityFilterChain fallbackChain() {
+            Rules.requestMatchers("/**");
+            Rules.authenticated();
+            return new DefaultSecurityFilterChain(AnyRequestMatcher.INSTANCE);
+        }
+
+        @Bean
+        @Order(1)
+        SecurityFilterChain adminChain() {
+            Rules.requestMatchers("/**");
+            Rules.hasRole("ADMIN");
+            return new DefaultSecurityFilterChain(new AntPathRequestMatcher("/admin/**"));
+        }
+
+        @Bean
+        FilterChainProxy springSecurityFilterChain(List<SecurityFilterChain> chains) {
+            return new FilterChainProxy(chains);
+        }
+    }
+
+    /**
+     * An MVC security matcher that, like one resolving the servlet mapping, needs the servlet
+     * context, which the synthetic endpoint request lacks.
+     */
+    static final class ServletContextMvcMatcher extends MvcRequestMatcher {
+        ServletContextMvcMatcher(String pattern) {
+            super(new HandlerMappingIntrospector(), pattern);
+        }
+
+        @Override
+        public boolean matches(HttpServletRequest request) {
+            request.getServletContext().getServletRegistrations();
+            return super.matches(request);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class MvcChainConfig {
+        @Bean
+        @Order(1)
+        SecurityFilterChain adminChain() {
+            // Never applied; the analyzer reads the security matcher from the lambda's bytecode
+            Customizer<HttpSecurity> securityMatcher = http -> http.securityMatcher("/admin/**");
+            Rules.requestMatchers("/**");
+            Rules.hasRole("ADMIN");
+            return new DefaultSecurityFilterChain(new ServletContextMvcMatcher("/admin/**"));
+        }
+
+        @Bean
+        @Order(2)
+        SecurityFilterChain fallbackChain() {
+            Rules.requestMatchers("/**");
+            Rules.authenticated();
+            return new DefaultSecurityFilterChain(AnyRequestMatcher.INSTANCE);
+        }
+
+        @Bean
+        FilterChainProxy springSecurityFilterChain(List<SecurityFilterChain> chains) {
+            return new FilterChainProxy(chains);
+        }
+    }
+
+    static class ApiKeyAuthFilter extends OncePerRequestFilter {
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            if (request.getRequestURI().startsWith("/admin") && request.getHeader("X-Api-Key") == null) {
+                response.setStatus(401);
+                return;
+            }
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class FilterChainConfig {
+        // The bean method neither enables basic authentication nor adds a filter; only the built chain holds them
+        @Bean
+        SecurityFilterChain chain() {
+            Rules.requestMatchers("/**");
+            Rules.authenticated();
+            return new DefaultSecurityFilterChain(AnyRequestMatcher.INSTANCE,
+                    new BasicAuthenticationFilter(authentication -> authentication), new ApiKeyAuthFilter());
+        }
+
+        @Bean
+        FilterChainProxy springSecurityFilterChain(List<SecurityFilterChain> chains) {
+            return new FilterChainProxy(chains);
+        }
+    }
+
+    @Test
+    void firstMatchingChainInProxyOrderSecuresEachEndpoint() {
+        // The admin chain is tried first and claims /admin/**, the fallback chain secures the rest
+        assertEquals(Map.of("/admin/users", "hasRole('ADMIN')", "/items", "authenticated"),
+                urlAuthorizations(ChainConfig.class));
+    }
+
+    @Test
+    void chainWhoseMatcherFailsFallsBackToItsAnalyzedSecurityMatcher() {
+        // The failing MVC matcher must not claim /items for the admin chain
+        assertEquals(Map.of("/admin/users", "hasRole('ADMIN')", "/items", "authenticated"),
+                urlAuthorizations(MvcChainConfig.class));
+    }
+
+    @Test
+    void filtersAreReadFromTheBuiltChain() {
+        Map<String, EndpointAuthInfo> endpoints = scan(FilterChainConfig.class).stream()
+                .collect(Collectors.toMap(EndpointAuthInfo::getPath, Function.identity()));
+
+        assertTrue(endpoints.get("/admin/users").isBasicAuthRequired());
+        assertTrue(endpoints.get("/admin/users").isApiKeyRequired());
+        assertTrue(endpoints.get("/items").isBasicAuthRequired());
+        assertFalse(endpoints.get("/items").isApiKeyRequired());
+        assertEquals("authenticated", endpoints.get("/items").getUrlAuthorization());
+    }
+
+    private static Map<String, String> urlAuthorizations(Class<?> chainConfig) {
+        return scan(chainConfig).stream()
+                .collect(Collectors.toMap(EndpointAuthInfo::getPath, EndpointAuthInfo::getUrlAuthorization));
+    }
+
+    private static List<EndpointAuthInfo> scan(Class<?> chainConfig) {
+        GenericWebApplicationContext context = new GenericWebApplicationContext();
+        AnnotationConfigUtils.registerAnnotationConfigProcessors(context);
+        context.registerBean(chainConfig);
+        context.registerBean(ItemController.class);
+        context.registerBean(RequestMappingHandlerMapping.class);
+        context.refresh();
+        try {
+            LiveContextScanner scanner = new LiveContextScanner(context,
+                    new SecurityConfigAnalyzer(null, LiveContextScannerTest.class.getClassLoader()));
+
+            return scanner.scanApi("io.authreporttool.spring");
+        } finally {
+            context.close();
+        }
+    }
+
+    @Test
+    void endpointRequestCarriesPathAndMethod() {
+        HttpServletRequest request = LiveContextScanner.endpointRequest(
+                new EndpointAuthInfo("/admin/users", "POST", "None", "users", ItemController.class.getName()));
+
+        assertEquals("/admin/users", request.getRequestURI());
+        assertEquals("/admin/users", request.getServletPath());
+        assertEquals("POST", request.getMethod());
+        assertNull(request.getHeader("Authorization"));
+    }
+}